@@ -0,0 +1,644 @@
+/*
+ * Copyright 2024 Adaptive Financial Consulting Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.fields.ReadOnlyDecimalFloat;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.BEGIN_STRING;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.BODY_LENGTH;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.CHECKSUM;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.LAST_MSG_SEQ_NUM_PROCESSED;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.MSG_SEQ_NO;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.SENDING_TIME;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+import static uk.co.real_logic.artio.util.PowerOf10.HIGHEST_POWER_OF_TEN;
+import static uk.co.real_logic.artio.util.PowerOf10.pow10;
+
+/**
+ * A message that's encoded once and then sent many times, only changing the values of the fields that vary between
+ * sends. This suits high rate flows where most of a message's fields are the same every time, such as quotes.
+ *
+ * Each field that varies is given a fixed width slot so that changing its value never moves the rest of the message.
+ * Numeric values are padded with leading zeros to the width of their slot, which FIX permits, whilst other values
+ * must be exactly as wide as their slot. The BodyLength of the message is computed once and its CheckSum is updated
+ * from the bytes of each slot as they change, rather than by summing the whole message.
+ *
+ * Each slot starts off with the field's value from the message that the template is created from, padded in the
+ * same way, apart from character fields whose value isn't as wide as their slot, which are filled with zeros until a
+ * value is put into them.
+ *
+ * MsgSeqNum and SendingTime, and LastMsgSeqNumProcessed if the message has it, always have slots so that a session
+ * can send the template. MsgSeqNum's slot is {@link #MSG_SEQ_NUM_WIDTH} digits wide and SendingTime's slot is as wide
+ * as the SendingTime that the template was created from.
+ */
+public final class MessageTemplate
+{
+    public static final int MSG_SEQ_NUM_WIDTH = 10;
+
+    private static final byte INT = 0;
+    private static final byte FLOAT = 1;
+    private static final byte CHARS = 2;
+
+    private static final int UNKNOWN_WIDTH = -1;
+    private static final int CHECKSUM_WIDTH = 3;
+    private static final byte[] BEGIN_STRING_HEADER = "8=".getBytes(US_ASCII);
+    private static final byte[] BODY_LENGTH_HEADER = "9=".getBytes(US_ASCII);
+    private static final byte[] CHECKSUM_HEADER = "10=".getBytes(US_ASCII);
+
+    /**
+     * The definition of a fixed width slot for a field of the message.
+     */
+    public static final class Field
+    {
+        private final int tag;
+        private final int width;
+        private final byte type;
+        private final int scale;
+
+        private Field(final int tag, final int width, final byte type, final int scale)
+        {
+            this.tag = tag;
+            this.width = width;
+            this.type = type;
+            this.scale = scale;
+        }
+    }
+
+    /**
+     * Define a slot for a non-negative integer field.
+     *
+     * @param tag the tag of the field.
+     * @param width the number of digits in the slot.
+     * @return the definition of the slot.
+     */
+    public static Field intField(final int tag, final int width)
+    {
+        if (width < 1 || width > HIGHEST_POWER_OF_TEN)
+        {
+            throw new IllegalArgumentException(
+                "width must be between 1 and " + HIGHEST_POWER_OF_TEN + " for tag=" + tag + ", but was " + width);
+        }
+
+        return new Field(tag, width, INT, 0);
+    }
+
+    /**
+     * Define a slot for a float field, such as a price or a quantity.
+     *
+     * @param tag the tag of the field.
+     * @param width the number of characters in the slot, including the decimal point and any minus sign.
+     * @param scale the number of digits after the decimal point.
+     * @return the definition of the slot.
+     */
+    public static Field floatField(final int tag, final int width, final int scale)
+    {
+        final int fractionWidth = scale > 0 ? scale + 1 : 0;
+        if (scale < 0 || width <= fractionWidth || width - fractionWidth > HIGHEST_POWER_OF_TEN)
+        {
+            throw new IllegalArgumentException(
+                "width=" + width + " and scale=" + scale + " don't leave between 1 and " + HIGHEST_POWER_OF_TEN +
+                " integer digits for tag=" + tag);
+        }
+
+        return new Field(tag, width, FLOAT, scale);
+    }
+
+    /**
+     * Define a slot for a field whose values are all the same number of characters, such as a ClOrdID.
+     *
+     * @param tag the tag of the field.
+     * @param width the number of characters in the slot.
+     * @return the definition of the slot.
+     */
+    public static Field charsField(final int tag, final int width)
+    {
+        if (width < 1)
+        {
+            throw new IllegalArgumentException("width must be positive for tag=" + tag + ", but was " + width);
+        }
+
+        return new Field(tag, width, CHARS, 0);
+    }
+
+    private final MutableAsciiBuffer buffer;
+    private final int length;
+    private final long messageType;
+    private final int[] slotTags;
+    private final int[] slotOffsets;
+    private final int[] slotWidths;
+    private final int[] slotScales;
+    private final byte[] slotTypes;
+    private final int msgSeqNumSlot;
+    private final int sendingTimeSlot;
+    private final int lastMsgSeqNumProcessedSlot;
+    private final int checkSumOffset;
+
+    private int checkSumTotal;
+
+    /**
+     * Create a template from an encoder whose constant fields, and header, have been set.
+     *
+     * @param encoder the encoder of the message.
+     * @param scratchBuffer a buffer that's large enough to encode the message on.
+     * @param fields the slots of the fields that vary between sends, the index of each field is the slot's index.
+     * @throws IllegalArgumentException if a field isn't set on the encoder or its value doesn't fit its slot.
+     */
+    public MessageTemplate(final Encoder encoder, final MutableAsciiBuffer scratchBuffer, final Field... fields)
+    {
+        this(scratchBuffer, encoder.encode(scratchBuffer, 0), encoder.messageType(), fields);
+    }
+
+    private MessageTemplate(
+        final AsciiBuffer buffer, final long result, final long messageType, final Field[] fields)
+    {
+        this(buffer, Encoder.offset(result), Encoder.length(result), messageType, fields);
+    }
+
+    /**
+     * Create a template from an encoded FIX message.
+     *
+     * @param buffer the buffer that the message is encoded on.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param messageType the long encoded message type of the message.
+     * @param fields the slots of the fields that vary between sends, the index of each field is the slot's index.
+     * @throws IllegalArgumentException if a field isn't in the message, its value doesn't fit its slot or the message
+     *                                  is malformed.
+     */
+    public MessageTemplate(
+        final AsciiBuffer buffer, final int offset, final int length, final long messageType, final Field... fields)
+    {
+        this.messageType = messageType;
+
+        final int fieldCount = fields.length;
+        final int slotCount = fieldCount + 3;
+        slotTags = new int[slotCount];
+        slotWidths = new int[slotCount];
+        slotScales = new int[slotCount];
+        slotTypes = new byte[slotCount];
+        slotOffsets = new int[slotCount];
+        Arrays.fill(slotOffsets, UNKNOWN_INDEX);
+        final DecimalFloat[] initialValues = new DecimalFloat[slotCount];
+        int maxBodyLength = length;
+        for (int i = 0; i < fieldCount; i++)
+        {
+            final Field field = fields[i];
+            slotTags[i] = field.tag;
+            slotWidths[i] = field.width;
+            slotScales[i] = field.scale;
+            slotTypes[i] = field.type;
+            maxBodyLength += field.width;
+        }
+        msgSeqNumSlot = fieldCount;
+        sendingTimeSlot = fieldCount + 1;
+        lastMsgSeqNumProcessedSlot = fieldCount + 2;
+        defineHeaderSlot(msgSeqNumSlot, MSG_SEQ_NO, MSG_SEQ_NUM_WIDTH, INT);
+        defineHeaderSlot(sendingTimeSlot, SENDING_TIME, UNKNOWN_WIDTH, CHARS);
+        defineHeaderSlot(lastMsgSeqNumProcessedSlot, LAST_MSG_SEQ_NUM_PROCESSED, MSG_SEQ_NUM_WIDTH, INT);
+        maxBodyLength += 2 * MSG_SEQ_NUM_WIDTH;
+
+        // Lay the body out with its slots widened, then wrap it in a header and trailer
+        final MutableAsciiBuffer body = new MutableAsciiBuffer(new byte[maxBodyLength]);
+        int beginStringOffset = UNKNOWN_INDEX;
+        int beginStringLength = 0;
+        int bodyLength = 0;
+        final int end = offset + length;
+        int index = offset;
+        while (index < end)
+        {
+            final int equalsIndex = buffer.scan(index, end, '=');
+            final int separatorIndex = equalsIndex == UNKNOWN_INDEX ?
+                UNKNOWN_INDEX : buffer.scan(equalsIndex + 1, end, START_OF_HEADER);
+            if (separatorIndex == UNKNOWN_INDEX)
+            {
+                throw new IllegalArgumentException("Malformed field at offset " + (index - offset) + " of message");
+            }
+
+            final int tag = buffer.getNatural(index, equalsIndex);
+            final int valueOffset = equalsIndex + 1;
+            final int valueLength = separatorIndex - valueOffset;
+            if (tag == BEGIN_STRING)
+            {
+                beginStringOffset = valueOffset;
+                beginStringLength = valueLength;
+            }
+            else if (tag != BODY_LENGTH && tag != CHECKSUM)
+            {
+                body.putBytes(bodyLength, buffer, index, valueOffset - index);
+                bodyLength += valueOffset - index;
+
+                final int slot = unplacedSlot(tag);
+                if (slot == UNKNOWN_INDEX)
+                {
+                    body.putBytes(bodyLength, buffer, valueOffset, valueLength);
+                    bodyLength += valueLength;
+                }
+                else
+                {
+                    if (slotWidths[slot] == UNKNOWN_WIDTH)
+                    {
+                        slotWidths[slot] = valueLength;
+                    }
+                    slotOffsets[slot] = bodyLength;
+                    bodyLength += placeholder(body, slot, buffer, valueOffset, valueLength);
+                    initialValues[slot] = initialValue(slot, buffer, valueOffset, valueLength);
+                }
+
+                body.putSeparator(bodyLength);
+                bodyLength++;
+            }
+
+            index = separatorIndex + 1;
+        }
+
+        if (beginStringOffset == UNKNOWN_INDEX)
+        {
+            throw new IllegalArgumentException("Missing BeginString in message");
+        }
+        for (int slot = 0; slot < slotCount; slot++)
+        {
+            if (slotOffsets[slot] == UNKNOWN_INDEX && slot != lastMsgSeqNumProcessedSlot)
+            {
+                throw new IllegalArgumentException("Missing field tag=" + slotTags[slot] + " in message");
+            }
+        }
+
+        final int bodyLengthWidth = Integer.toString(bodyLength).length();
+        this.length = BEGIN_STRING_HEADER.length + beginStringLength + 1 +
+            BODY_LENGTH_HEADER.length + bodyLengthWidth + 1 +
+            bodyLength +
+            CHECKSUM_HEADER.length + CHECKSUM_WIDTH + 1;
+        final MutableAsciiBuffer templateBuffer = new MutableAsciiBuffer(new byte[this.length]);
+        int position = 0;
+        templateBuffer.putBytes(position, BEGIN_STRING_HEADER);
+        position += BEGIN_STRING_HEADER.length;
+        templateBuffer.putBytes(position, buffer, beginStringOffset, beginStringLength);
+        position += beginStringLength;
+        templateBuffer.putSeparator(position++);
+        templateBuffer.putBytes(position, BODY_LENGTH_HEADER);
+        position += BODY_LENGTH_HEADER.length;
+        position += templateBuffer.putNaturalIntAscii(position, bodyLength);
+        templateBuffer.putSeparator(position++);
+
+        final int bodyStart = position;
+        templateBuffer.putBytes(position, body, 0, bodyLength);
+        position += bodyLength;
+        for (int slot = 0; slot < slotCount; slot++)
+        {
+            if (slotOffsets[slot] != UNKNOWN_INDEX)
+            {
+                slotOffsets[slot] += bodyStart;
+            }
+        }
+
+        checkSumTotal = 0;
+        for (int i = 0; i < position; i++)
+        {
+            checkSumTotal += templateBuffer.getByte(i);
+        }
+        templateBuffer.putBytes(position, CHECKSUM_HEADER);
+        position += CHECKSUM_HEADER.length;
+        checkSumOffset = position;
+        templateBuffer.putSeparator(position + CHECKSUM_WIDTH);
+
+        this.buffer = templateBuffer;
+        updateCheckSum();
+        putInitialValues(initialValues);
+    }
+
+    private void defineHeaderSlot(final int slot, final int tag, final int width, final byte type)
+    {
+        slotTags[slot] = tag;
+        slotWidths[slot] = width;
+        slotTypes[slot] = type;
+    }
+
+    private int unplacedSlot(final int tag)
+    {
+        final int[] slotTags = this.slotTags;
+        for (int slot = 0; slot < slotTags.length; slot++)
+        {
+            // Only the first occurrence of a tag, eg: within a repeating group, gets a slot
+            if (slotTags[slot] == tag && slotOffsets[slot] == UNKNOWN_INDEX)
+            {
+                return slot;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    private int placeholder(
+        final MutableAsciiBuffer body,
+        final int slot,
+        final AsciiBuffer buffer,
+        final int valueOffset,
+        final int valueLength)
+    {
+        final int offset = slotOffsets[slot];
+        final int width = slotWidths[slot];
+        if (slotTypes[slot] == CHARS && valueLength == width)
+        {
+            body.putBytes(offset, buffer, valueOffset, valueLength);
+        }
+        else
+        {
+            body.setMemory(offset, width, (byte)'0');
+            final int scale = slotScales[slot];
+            if (scale > 0)
+            {
+                body.putByte(offset + width - scale - 1, (byte)'.');
+            }
+        }
+
+        return width;
+    }
+
+    private DecimalFloat initialValue(
+        final int slot, final AsciiBuffer buffer, final int valueOffset, final int valueLength)
+    {
+        switch (slotTypes[slot])
+        {
+            case INT:
+                return new DecimalFloat(buffer.getNaturalLong(valueOffset, valueOffset + valueLength), 0);
+
+            case FLOAT:
+                return buffer.getFloat(new DecimalFloat(), valueOffset, valueLength);
+
+            default:
+                return null;
+        }
+    }
+
+    private void putInitialValues(final DecimalFloat[] initialValues)
+    {
+        for (int slot = 0; slot < initialValues.length; slot++)
+        {
+            final DecimalFloat initialValue = initialValues[slot];
+            if (initialValue != null)
+            {
+                if (slotTypes[slot] == INT)
+                {
+                    putInt(slot, initialValue.value());
+                }
+                else
+                {
+                    putFloat(slot, initialValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put a value into the slot of an integer field.
+     *
+     * @param slot the index of the field's slot.
+     * @param value the value of the field.
+     * @return this
+     * @throws IllegalArgumentException if the value is negative or has more digits than the slot.
+     */
+    public MessageTemplate putInt(final int slot, final long value)
+    {
+        checkType(slot, INT);
+        final int width = slotWidths[slot];
+        if (value < 0 || value >= pow10(width))
+        {
+            throw new IllegalArgumentException(
+                "value=" + value + " doesn't fit into " + width + " digits for tag=" + slotTags[slot]);
+        }
+
+        putDigits(slotOffsets[slot] + width - 1, width, value);
+        updateCheckSum();
+        return this;
+    }
+
+    /**
+     * Put a value into the slot of a float field. The value is rescaled to the slot's scale.
+     *
+     * @param slot the index of the field's slot.
+     * @param value the value of the float, see {@link uk.co.real_logic.artio.fields.DecimalFloat}.
+     * @param scale the scale of the float, see {@link uk.co.real_logic.artio.fields.DecimalFloat}.
+     * @return this
+     * @throws IllegalArgumentException if the value can't be represented at the slot's scale or doesn't fit its width.
+     */
+    public MessageTemplate putFloat(final int slot, final long value, final int scale)
+    {
+        checkType(slot, FLOAT);
+        final int slotScale = slotScales[slot];
+        final long units;
+        if (scale == slotScale)
+        {
+            units = value;
+        }
+        else if (scale < slotScale)
+        {
+            units = Math.multiplyExact(value, pow10(slotScale - scale));
+        }
+        else
+        {
+            final long divisor = pow10(scale - slotScale);
+            if (value % divisor != 0)
+            {
+                throw new IllegalArgumentException(
+                    "value=" + value + ",scale=" + scale + " can't be represented with scale=" + slotScale +
+                    " for tag=" + slotTags[slot]);
+            }
+            units = value / divisor;
+        }
+
+        final boolean negative = units < 0;
+        final long magnitude = Math.abs(units);
+        final int width = slotWidths[slot];
+        final int fractionWidth = slotScale > 0 ? slotScale + 1 : 0;
+        final int integerWidth = width - fractionWidth - (negative ? 1 : 0);
+        if (magnitude < 0 || integerWidth <= 0 || magnitude / pow10(slotScale) >= pow10(integerWidth))
+        {
+            throw new IllegalArgumentException(
+                "value=" + value + ",scale=" + scale + " doesn't fit into " + width + " characters for tag=" +
+                slotTags[slot]);
+        }
+
+        final int offset = slotOffsets[slot];
+        final int end = offset + width - 1;
+        putDigits(end, slotScale, magnitude);
+        if (slotScale > 0)
+        {
+            putByte(end - slotScale, (byte)'.');
+        }
+        putDigits(end - fractionWidth, integerWidth, magnitude / pow10(slotScale));
+        if (negative)
+        {
+            putByte(offset, (byte)'-');
+        }
+
+        updateCheckSum();
+        return this;
+    }
+
+    /**
+     * Put a value into the slot of a float field. The value is rescaled to the slot's scale.
+     *
+     * @param slot the index of the field's slot.
+     * @param value the value of the float.
+     * @return this
+     * @throws IllegalArgumentException if the value can't be represented at the slot's scale or doesn't fit its width.
+     */
+    public MessageTemplate putFloat(final int slot, final ReadOnlyDecimalFloat value)
+    {
+        return putFloat(slot, value.value(), value.scale());
+    }
+
+    /**
+     * Put a value into the slot of a field whose values are all the same number of characters.
+     *
+     * @param slot the index of the field's slot.
+     * @param value the value of the field.
+     * @return this
+     * @throws IllegalArgumentException if the value isn't exactly as wide as the slot.
+     */
+    public MessageTemplate putChars(final int slot, final CharSequence value)
+    {
+        checkType(slot, CHARS);
+        final int width = slotWidths[slot];
+        if (value.length() != width)
+        {
+            throw new IllegalArgumentException(
+                "value=" + value + " isn't " + width + " characters for tag=" + slotTags[slot]);
+        }
+
+        final int offset = slotOffsets[slot];
+        for (int i = 0; i < width; i++)
+        {
+            putByte(offset + i, (byte)value.charAt(i));
+        }
+
+        updateCheckSum();
+        return this;
+    }
+
+    /**
+     * Put the MsgSeqNum of the message.
+     *
+     * @param msgSeqNum the sequence number of the message.
+     * @return this
+     */
+    public MessageTemplate msgSeqNum(final int msgSeqNum)
+    {
+        return putInt(msgSeqNumSlot, msgSeqNum);
+    }
+
+    /**
+     * Put the SendingTime of the message.
+     *
+     * @param value a buffer containing the encoded timestamp.
+     * @param length the length of the timestamp, which must be the same as the SendingTime the template was created
+     *               from.
+     * @return this
+     */
+    public MessageTemplate sendingTime(final byte[] value, final int length)
+    {
+        final int slot = sendingTimeSlot;
+        final int width = slotWidths[slot];
+        if (length != width)
+        {
+            throw new IllegalArgumentException(
+                "SendingTime of length " + length + " doesn't fit the template's " + width + " characters");
+        }
+
+        final int offset = slotOffsets[slot];
+        for (int i = 0; i < width; i++)
+        {
+            putByte(offset + i, value[i]);
+        }
+
+        updateCheckSum();
+        return this;
+    }
+
+    public boolean hasLastMsgSeqNumProcessed()
+    {
+        return slotOffsets[lastMsgSeqNumProcessedSlot] != UNKNOWN_INDEX;
+    }
+
+    /**
+     * Put the LastMsgSeqNumProcessed of the message, if the message has the field.
+     *
+     * @param lastMsgSeqNumProcessed the last sequence number processed.
+     * @return this
+     */
+    public MessageTemplate lastMsgSeqNumProcessed(final int lastMsgSeqNumProcessed)
+    {
+        if (hasLastMsgSeqNumProcessed())
+        {
+            putInt(lastMsgSeqNumProcessedSlot, lastMsgSeqNumProcessed);
+        }
+
+        return this;
+    }
+
+    public MutableAsciiBuffer buffer()
+    {
+        return buffer;
+    }
+
+    public int length()
+    {
+        return length;
+    }
+
+    public long messageType()
+    {
+        return messageType;
+    }
+
+    private void checkType(final int slot, final byte type)
+    {
+        if (slotTypes[slot] != type)
+        {
+            throw new IllegalArgumentException("Slot " + slot + " for tag=" + slotTags[slot] + " is the wrong type");
+        }
+    }
+
+    // Puts the lowest count digits of value, ending at end, and padded with leading zeros
+    private void putDigits(final int end, final int count, final long value)
+    {
+        long remainder = value;
+        for (int index = end, start = end - count; index > start; index--)
+        {
+            putByte(index, (byte)('0' + remainder % 10));
+            remainder /= 10;
+        }
+    }
+
+    private void putByte(final int index, final byte value)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        checkSumTotal += value - buffer.getByte(index);
+        buffer.putByte(index, value);
+    }
+
+    private void updateCheckSum()
+    {
+        buffer.putNaturalPaddedIntAscii(checkSumOffset, CHECKSUM_WIDTH, checkSumTotal & 0xFF);
+    }
+}
@@ -27,6 +27,7 @@ public final class SessionConstants
 
     // Message Types
     public static final int BEGIN_SEQ_NO = 7;
+    public static final int BEGIN_STRING = 8;
     public static final int END_SEQ_NO = 16;
     public static final int BODY_LENGTH = 9;
     public static final int CHECKSUM = 10;
@@ -42,6 +43,7 @@ public final class SessionConstants
     public static final int ORIG_SENDING_TIME = 122;
     public static final int SENDER_LOCATION_ID = 142;
     public static final int TARGET_LOCATION_ID = 143;
+    public static final int LAST_MSG_SEQ_NUM_PROCESSED = 369;
     public static final int PASSWORD = 554;
     public static final int NEW_PASSWORD = 925;
 
@@ -57,12 +57,40 @@ public final class CodecConfiguration
     public static final String REJECT_UNKNOWN_ENUM_VALUE_PROPERTY = "reject.unknown.enum.value";
     public static final String FIX_TAGS_IN_JAVADOC = "fix.codecs.tags_in_javadoc";
 
+    /**
+     * Boolean system property to generate decoders that track visited, required and duplicate fields using bitsets
+     * rather than hash sets when validation is enabled. Defaults to false.
+     */
+    public static final String BITSET_VALIDATION_PROPERTY = "fix.codecs.bitset_validation";
+
+    /**
+     * Boolean system property to generate flyweight decoders whose getters cache the parsed value of a field until
+     * the next decode. Only has an effect when flyweights are enabled. Defaults to false.
+     */
+    public static final String LAZY_DECODING_PROPERTY = "fix.codecs.lazy_decoding";
+
+    /**
+     * Boolean system property to generate decoders that dispatch on a perfect hash of each tag rather than on the tag
+     * number itself. Defaults to false.
+     */
+    public static final String PERFECT_HASH_DISPATCH_PROPERTY = "fix.codecs.perfect_hash_dispatch";
+
+    /**
+     * Boolean system property to generate non-flyweight decoders that expose string fields as views onto the decoded
+     * buffer rather than copying them when the message is decoded. Defaults to false.
+     */
+    public static final String STRING_VIEWS_PROPERTY = "fix.codecs.string_views";
+
     public static final String DEFAULT_PARENT_PACKAGE = "uk.co.real_logic.artio";
     public static final String DEFAULT_FIX_TAGS_IN_JAVADOC = "true";
 
     private String parentPackage = System.getProperty(PARENT_PACKAGE_PROPERTY, DEFAULT_PARENT_PACKAGE);
     private boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
     private boolean wrapEmptyBuffer = Boolean.getBoolean(WRAP_EMPTY_BUFFER);
+    private boolean bitsetValidation = Boolean.getBoolean(BITSET_VALIDATION_PROPERTY);
+    private boolean lazyDecoding = Boolean.getBoolean(LAZY_DECODING_PROPERTY);
+    private boolean perfectHashDispatch = Boolean.getBoolean(PERFECT_HASH_DISPATCH_PROPERTY);
+    private boolean stringViews = Boolean.getBoolean(STRING_VIEWS_PROPERTY);
     private boolean fixTagsInJavadoc = Boolean.parseBoolean(System.getProperty(
         FIX_TAGS_IN_JAVADOC, DEFAULT_FIX_TAGS_IN_JAVADOC));
     private SharedCodecConfiguration sharedCodecConfiguration;
@@ -129,6 +157,83 @@ public final class CodecConfiguration
         return this;
     }
 
+    /**
+     * Generates decoders whose validation bookkeeping uses <code>long[]</code> bitsets instead of
+     * <code>IntHashSet</code>s. Each tag that a message, component or group decodes is mapped to a dense ordinal
+     * at generation time, so that tracking seen, missing required and duplicate fields costs a couple of bit
+     * operations per field and decoding doesn't copy the set of required fields for each message.
+     *
+     * Defaults to the value of {@link #BITSET_VALIDATION_PROPERTY} system property.
+     *
+     * @param bitsetValidation true to generate bitset based validation, false to use hash sets (default)
+     * @return this
+     */
+    public CodecConfiguration bitsetValidation(final boolean bitsetValidation)
+    {
+        this.bitsetValidation = bitsetValidation;
+        return this;
+    }
+
+    /**
+     * Generates flyweight decoders that parse fields on demand and cache the result. Decoding a message only records
+     * the offset and length of each field, as with normal flyweight decoders, and the first call to a typed getter
+     * (eg: an int, price or timestamp getter) parses the value and caches it until the field is decoded again. This
+     * suits handlers that only read a handful of the fields of large messages, including fields within repeating
+     * groups, and read some of them more than once.
+     *
+     * Only affects the decoders generated when {@link #flyweightsEnabled(boolean)} is set.
+     *
+     * Defaults to the value of {@link #LAZY_DECODING_PROPERTY} system property.
+     *
+     * @param lazyDecoding true to cache values parsed by flyweight getters, false to parse on every access (default)
+     * @return this
+     */
+    public CodecConfiguration lazyDecoding(final boolean lazyDecoding)
+    {
+        this.lazyDecoding = lazyDecoding;
+        return this;
+    }
+
+    /**
+     * Generates decoders whose decode loop switches over a perfect hash of each tag rather than the tag number. FIX
+     * tag numbers are sparse, so the JIT compiles a switch over them into a binary search, whereas a perfect hash
+     * computed per message, component and group at generation time maps them onto a range dense enough to compile
+     * into a jump table. This is most beneficial for messages with many fields, such as large dictionaries with
+     * custom tags.
+     *
+     * Defaults to the value of {@link #PERFECT_HASH_DISPATCH_PROPERTY} system property.
+     *
+     * @param perfectHashDispatch true to dispatch on a perfect hash of the tag, false to switch on the tag (default)
+     * @return this
+     */
+    public CodecConfiguration perfectHashDispatch(final boolean perfectHashDispatch)
+    {
+        this.perfectHashDispatch = perfectHashDispatch;
+        return this;
+    }
+
+    /**
+     * Generates non-flyweight decoders that decode numeric, char, boolean and temporal fields eagerly, as normal, but
+     * don't copy string fields into their <code>char[]</code> members when a message is decoded. Instead each string
+     * field gets a getter, eg: <code>AsciiSequenceView testReqIDView()</code>, that returns a reusable
+     * <code>CharSequence</code> view onto the decoded buffer. A view is only valid until the buffer is reused, so
+     * the existing <code>char[]</code> and <code>AsString()</code> getters copy the value in order to retain it, the
+     * <code>char[]</code> getter copying on its first call after each decode.
+     *
+     * This suits string heavy messages whose handlers read few of their string fields or only compare them.
+     * Flyweight decoders already don't copy string fields, so this only affects the non-flyweight decoders.
+     *
+     * Defaults to the value of {@link #STRING_VIEWS_PROPERTY} system property.
+     *
+     * @param stringViews true to expose string fields as views, false to copy them when decoding (default)
+     * @return this
+     */
+    public CodecConfiguration stringViews(final boolean stringViews)
+    {
+        this.stringViews = stringViews;
+        return this;
+    }
+
     /**
      * Allow duplicate fields. Executable documentation can be found in the test "DuplicateFieldsTest".
      *
@@ -248,6 +353,26 @@ public final class CodecConfiguration
         return wrapEmptyBuffer;
     }
 
+    boolean bitsetValidation()
+    {
+        return bitsetValidation;
+    }
+
+    boolean lazyDecoding()
+    {
+        return lazyDecoding;
+    }
+
+    boolean perfectHashDispatch()
+    {
+        return perfectHashDispatch;
+    }
+
+    boolean stringViews()
+    {
+        return stringViews;
+    }
+
     String codecRejectUnknownEnumValueEnabled()
     {
         return codecRejectUnknownEnumValueEnabled;
@@ -181,7 +181,11 @@ public final class CodecGenerator
             false,
             configuration.wrapEmptyBuffer(),
             codecRejectUnknownEnumValueEnabled,
-            configuration.fixTagsInJavadoc()).generate();
+            configuration.fixTagsInJavadoc())
+            .bitsetValidation(configuration.bitsetValidation())
+            .perfectHashDispatch(configuration.perfectHashDispatch())
+            .stringViews(configuration.stringViews())
+            .generate();
 
         new PrinterGenerator(dictionary, decoderPackage, decoderOutput).generate();
         new AcceptorGenerator(dictionary, decoderPackage, decoderOutput).generate();
@@ -203,7 +207,11 @@ public final class CodecGenerator
                 true,
                 configuration.wrapEmptyBuffer(),
                 codecRejectUnknownEnumValueEnabled,
-                configuration.fixTagsInJavadoc()).generate();
+                configuration.fixTagsInJavadoc())
+                .bitsetValidation(configuration.bitsetValidation())
+                .lazyDecoding(configuration.lazyDecoding())
+                .perfectHashDispatch(configuration.perfectHashDispatch())
+                .generate();
         }
     }
 }
@@ -44,6 +44,11 @@ public final class CodecUtil
     public static final int ENUM_UNKNOWN_INT = Integer.MAX_VALUE;
     public static final String ENUM_UNKNOWN_STRING = Character.toString(ENUM_UNKNOWN_CHAR);
 
+    /**
+     * Returned by {@link #missingRequiredFieldTag(long[], long[], int[])} when no required field is missing.
+     */
+    public static final int NO_FIELD_TAG = 0;
+
     private static final char ZERO = '0';
     private static final char DOT = '.';
 
@@ -80,6 +85,29 @@ public final class CodecUtil
         return buffer;
     }
 
+    /**
+     * Used by decoders generated with bitset validation to find a required field that hasn't been visited.
+     *
+     * @param visitedFieldBits a bitset of the field ordinals that have been decoded.
+     * @param requiredFieldBits a bitset of the field ordinals that are required.
+     * @param ordinalTags the tag number of each field, indexed by field ordinal.
+     * @return the tag of the lowest ordinal required field that is missing, or {@link #NO_FIELD_TAG} if none are.
+     */
+    public static int missingRequiredFieldTag(
+        final long[] visitedFieldBits, final long[] requiredFieldBits, final int[] ordinalTags)
+    {
+        for (int i = 0, size = requiredFieldBits.length; i < size; i++)
+        {
+            final long missingFieldBits = requiredFieldBits[i] & ~visitedFieldBits[i];
+            if (missingFieldBits != 0)
+            {
+                return ordinalTags[(i << 6) + Long.numberOfTrailingZeros(missingFieldBits)];
+            }
+        }
+
+        return NO_FIELD_TAG;
+    }
+
     // NB: only valid for ASCII bytes.
     public static byte[] toBytes(final char[] value, final int length)
     {
@@ -28,6 +28,7 @@ import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.*;
 import uk.co.real_logic.artio.dictionary.ir.Field.Type;
 import uk.co.real_logic.artio.fields.*;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MessageTypeEncoding;
 
 import java.io.IOException;
@@ -70,6 +71,10 @@ class DecoderGenerator extends Generator
         "UserRequestDecoder"));
 
     public static final String REQUIRED_FIELDS = "REQUIRED_FIELDS";
+    private static final String REQUIRED_FIELD_BITS = "REQUIRED_FIELD_BITS";
+    private static final String FIELD_ORDINAL_TAGS = "FIELD_ORDINAL_TAGS";
+    private static final String TAG_DISPATCH_DISPLACEMENTS = "TAG_DISPATCH_DISPLACEMENTS";
+    private static final String TAG_DISPATCH_SLOT_TAGS = "TAG_DISPATCH_SLOT_TAGS";
     private static final String GROUP_FIELDS = "GROUP_FIELDS";
     private static final String ALL_GROUP_FIELDS = "ALL_GROUP_FIELDS";
 
@@ -77,6 +82,7 @@ class DecoderGenerator extends Generator
     private static final String MESSAGE_DECODER =
         importFor(Decoder.class) +
         importFor(Generated.class) +
+        importFor(AsciiBuffer.class) +
         "\n" +
         GENERATED_ANNOTATION +
         "public interface MessageDecoder extends Decoder\n" +
@@ -84,6 +90,19 @@ class DecoderGenerator extends Generator
         "    HeaderDecoder header();\n" +
         "\n" +
         "    TrailerDecoder trailer();\n" +
+        "\n" +
+        "    /**\n" +
+        "     * Decodes the body and trailer of a message whose header has already been decoded, for example by the\n" +
+        "     * session, without decoding the header again. The header of this decoder is reset rather than decoded\n" +
+        "     * and isn't validated.\n" +
+        "     *\n" +
+        "     * @param buffer the buffer containing the message.\n" +
+        "     * @param offset the offset of the start of the message within the buffer.\n" +
+        "     * @param length the length of the message.\n" +
+        "     * @param bodyOffset the offset of the first field after the header within the buffer.\n" +
+        "     * @return the number of bytes decoded from the start of the message.\n" +
+        "     */\n" +
+        "    int decodeBodyFrom(AsciiBuffer buffer, int offset, int length, int bodyOffset);\n" +
         "}";
 
     public static final int INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP =
@@ -119,6 +138,28 @@ class DecoderGenerator extends Generator
      * Wrap empty buffer instead of throwing an exception if an optional string is unset.
      */
     private final boolean wrapEmptyBuffer;
+    private final Map<Aggregate, Map<Integer, Integer>> aggregateFieldOrdinals = new HashMap<>();
+    private final Map<Aggregate, TagDispatchHash> aggregateTagDispatchHashes = new HashMap<>();
+    /**
+     * Constant tables of the current class and its inner group classes, which are declared on the enclosing class.
+     */
+    private final StringBuilder enclosedConstantTables = new StringBuilder();
+    /**
+     * Track visited and missing required fields using bitsets indexed by ordinals assigned at generation time.
+     */
+    private boolean bitsetValidation = false;
+    /**
+     * Cache values parsed by flyweight getters until the field is next decoded.
+     */
+    private boolean lazyDecoding = false;
+    /**
+     * Switch over a perfect hash of the tag in decode methods rather than the tag itself.
+     */
+    private boolean perfectHashDispatch = false;
+    /**
+     * Expose string fields of non-flyweight decoders as views onto the buffer rather than copying them when decoding.
+     */
+    private boolean stringViews = false;
 
     DecoderGenerator(
         final Dictionary dictionary,
@@ -142,6 +183,65 @@ class DecoderGenerator extends Generator
         this.wrapEmptyBuffer = wrapEmptyBuffer;
     }
 
+    /**
+     * Generate decoders that track visited, missing required and duplicate fields using <code>long[]</code> bitsets
+     * rather than <code>IntHashSet</code> instances. Each tag that an aggregate decodes is mapped to a dense ordinal
+     * at generation time, so validation costs a couple of bit operations per field and no per-decode copying.
+     *
+     * @param bitsetValidation true to generate bitset based validation.
+     * @return this
+     */
+    DecoderGenerator bitsetValidation(final boolean bitsetValidation)
+    {
+        this.bitsetValidation = bitsetValidation;
+        return this;
+    }
+
+    /**
+     * Generate flyweight decoders whose typed getters parse a field on first access and then return the cached value
+     * until the field is next decoded. <code>decode()</code> itself only records the offset and length of each field,
+     * as normal flyweight decoders do, so fields that are never read are never parsed. This has no effect unless
+     * flyweights are enabled.
+     *
+     * @param lazyDecoding true to cache the values parsed by flyweight getters.
+     * @return this
+     */
+    DecoderGenerator lazyDecoding(final boolean lazyDecoding)
+    {
+        this.lazyDecoding = lazyDecoding;
+        return this;
+    }
+
+    /**
+     * Generate decode methods that <code>switch</code> over a perfect hash of the tag, computed per aggregate at
+     * generation time, rather than over the tag number. Tag numbers are sparse, so a switch over them compiles to a
+     * binary search, whereas the hashed slots are dense enough to compile to a jump table. Aggregates that no perfect
+     * hash can be found for fall back to switching over the tag.
+     *
+     * @param perfectHashDispatch true to dispatch on a perfect hash of the tag.
+     * @return this
+     */
+    DecoderGenerator perfectHashDispatch(final boolean perfectHashDispatch)
+    {
+        this.perfectHashDispatch = perfectHashDispatch;
+        return this;
+    }
+
+    /**
+     * Generate non-flyweight decoders whose <code>decode()</code> only records the offset and length of string fields,
+     * as flyweight decoders do, rather than copying them into their <code>char[]</code> members. Each string field
+     * gets a getter returning a reusable <code>AsciiSequenceView</code> onto the buffer, whilst the <code>char[]</code>
+     * getter copies the value on its first call after each decode. This has no effect when flyweights are enabled.
+     *
+     * @param stringViews true to expose string fields as views.
+     * @return this
+     */
+    DecoderGenerator stringViews(final boolean stringViews)
+    {
+        this.stringViews = stringViews;
+        return this;
+    }
+
     public void generate()
     {
         generateMessageDecoderInterface();
@@ -482,6 +582,20 @@ class DecoderGenerator extends Generator
 
     private String additionalReset(final boolean isGroup)
     {
+        if (bitsetValidation)
+        {
+            return
+                "        buffer = null;\n" +
+                "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+                "        {\n" +
+                "            invalidTagId = Decoder.NO_ERROR;\n" +
+                "            rejectReason = Decoder.NO_ERROR;\n" +
+                "            Arrays.fill(visitedFieldBits, 0L);\n" +
+                (isGroup ? "" :
+                "            unknownFieldTag = NO_FIELD_TAG;\n") +
+                "        }\n";
+        }
+
         return
             "        buffer = null;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
@@ -532,15 +646,19 @@ class DecoderGenerator extends Generator
 
         final boolean isMessage = type == MESSAGE;
         final boolean isGroup = type == GROUP;
+        final String hasUnknownField = bitsetValidation ?
+            "unknownFieldTag != NO_FIELD_TAG" : "unknownFieldsIterator.hasNext()";
+        final String unknownField = bitsetValidation ?
+            "unknownFieldTag" : "unknownFieldsIterator.nextValue()";
         final String messageValidation = isMessage ?
-            "        if (" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + " && unknownFieldsIterator.hasNext())\n" +
+            "        if (" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + " && " + hasUnknownField + ")\n" +
             "        {\n" +
-            "            invalidTagId = unknownFieldsIterator.nextValue();\n" +
+            "            invalidTagId = " + unknownField + ";\n" +
             "            rejectReason = Constants.ALL_FIELDS.contains(invalidTagId) ? " +
             TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE + " : " + INVALID_TAG_NUMBER + ";\n" +
             "            return false;\n" +
             "        }\n" +
-            "        if (!header.validate())\n" +
+            "        if (!headerSkipped && !header.validate())\n" +
             "        {\n" +
             "            invalidTagId = header.invalidTagId();\n" +
             "            rejectReason = header.rejectReason();\n" +
@@ -554,6 +672,13 @@ class DecoderGenerator extends Generator
             "        }\n" :
             "";
 
+        if (bitsetValidation)
+        {
+            generateBitsetValidation(
+                out, aggregate, requiredFields, isGroup, messageValidation, enumValidation, groupValidation);
+            return;
+        }
+
         out.append(String.format(
             (isGroup ? generateAllGroupFields(aggregate) :
             "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
@@ -586,6 +711,112 @@ class DecoderGenerator extends Generator
             2 * aggregate.allFieldsIncludingComponents().count()));
     }
 
+    private void generateBitsetValidation(
+        final Writer out,
+        final Aggregate aggregate,
+        final List<Field> requiredFields,
+        final boolean isGroup,
+        final String messageValidation,
+        final String enumValidation,
+        final String groupValidation) throws IOException
+    {
+        final Map<Integer, Integer> fieldOrdinals = fieldOrdinals(aggregate);
+        final int words = bitsetWords(fieldOrdinals.size());
+
+        final long[] requiredFieldBits = new long[words];
+        for (final Field field : requiredFields)
+        {
+            final Integer ordinal = fieldOrdinals.get(field.number());
+            if (ordinal != null)
+            {
+                requiredFieldBits[ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+
+        final String requiredFieldBitsValues = Arrays.stream(requiredFieldBits)
+            .mapToObj(word -> "0x" + Long.toHexString(word) + "L")
+            .collect(joining(", "));
+        final String fieldOrdinalTags = fieldOrdinals.keySet().stream()
+            .map(String::valueOf)
+            .collect(joining(", "));
+
+        // Declared as constants alongside any dispatch tables, once the decode method is generated
+        final String prefix = constantTablePrefix();
+        final String requiredFieldBitsName = prefix + REQUIRED_FIELD_BITS;
+        final String fieldOrdinalTagsName = prefix + FIELD_ORDINAL_TAGS;
+        enclosedConstantTables.append(String.format(
+            "    private static final long[] %1$s = { %2$s };\n\n" +
+            "    private static final int[] %3$s = { %4$s };\n\n",
+            requiredFieldBitsName,
+            requiredFieldBitsValues,
+            fieldOrdinalTagsName,
+            fieldOrdinalTags));
+
+        out.append(String.format(
+            (isGroup ? generateAllGroupFields(aggregate) :
+            "    private int unknownFieldTag = NO_FIELD_TAG;\n\n") +
+            "    private final long[] visitedFieldBits = new long[%3$d];\n\n" +
+            "    public boolean validate()\n" +
+            "    {\n" +
+            // validation for some tags performed in the decode method
+            "        if (rejectReason != Decoder.NO_ERROR)\n" +
+            "        {\n" +
+            "            return false;\n" +
+            "        }\n" +
+            "%4$s" +
+            "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            "        {\n" +
+            "            final int missingFieldTag = missingRequiredFieldTag(visitedFieldBits, %1$s, %2$s);\n" +
+            "            if (missingFieldTag != NO_FIELD_TAG)\n" +
+            "            {\n" +
+            "                invalidTagId = missingFieldTag;\n" +
+            "                rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
+            "                return false;\n" +
+            "            }\n" +
+            "        }\n" +
+            "%5$s" +
+            "%6$s" +
+            "        return true;\n" +
+            "    }\n\n",
+            requiredFieldBitsName,
+            fieldOrdinalTagsName,
+            words,
+            messageValidation,
+            enumValidation,
+            groupValidation));
+    }
+
+    private static int bitsetWords(final int fieldCount)
+    {
+        return Math.max(1, (fieldCount + 63) >>> 6);
+    }
+
+    /**
+     * Assigns a dense ordinal to each tag that appears within an aggregate's decode switch statement, in the order
+     * that they're declared. Fields of nested groups are assigned ordinals within their group's own aggregate.
+     */
+    private Map<Integer, Integer> fieldOrdinals(final Aggregate aggregate)
+    {
+        return aggregateFieldOrdinals.computeIfAbsent(aggregate, (key) ->
+        {
+            final Map<Integer, Integer> fieldOrdinals = new LinkedHashMap<>();
+            addFieldOrdinals(key.entries(), fieldOrdinals);
+            return fieldOrdinals;
+        });
+    }
+
+    private void addFieldOrdinals(final List<Entry> entries, final Map<Integer, Integer> fieldOrdinals)
+    {
+        for (final Entry entry : entries)
+        {
+            entry.forEach(
+                (field) -> fieldOrdinals.putIfAbsent(field.number(), fieldOrdinals.size()),
+                (group) -> fieldOrdinals.putIfAbsent(group.numberField().number(), fieldOrdinals.size()),
+                (component) -> addFieldOrdinals(component.entries(), fieldOrdinals),
+                (anyFields) -> {});
+        }
+    }
+
     private String generateAllGroupFields(final Aggregate groupAggregate)
     {
         final List<Field> allGroupFields = groupAggregate
@@ -1316,9 +1547,17 @@ class DecoderGenerator extends Generator
         final String fieldName = formatPropertyName(name);
         final Type type = field.type();
         final String optionalCheck = optionalCheck(entry);
-        final String asStringBody = generateAsStringBody(entry, name, fieldName);
+        final String asStringBody = generateAsStringBody(entry, name, fieldName, type);
         final String javadoc = generateAccessorJavadoc(field);
 
+        final String stringView = decodesStringView(type) ? String.format(
+            "    %2$s final AsciiSequenceView %1$sView = new AsciiSequenceView();\n\n" +
+            "    %3$spublic AsciiSequenceView %1$sView()\n" +
+            "    {\n" +
+            "        return %1$s(%1$sView);\n" +
+            "    }\n\n",
+            fieldName, scope, javadoc) : "";
+
         final String extraStringDecode = type.isStringBased() ? String.format(
             "    %4$spublic String %1$sAsString()\n" +
             "    {\n" +
@@ -1328,8 +1567,10 @@ class DecoderGenerator extends Generator
             "    {\n" +
             "%2$s" +
             "        return view.wrap(buffer, %1$sOffset, %1$sLength);\n" +
-            "    }\n\n",
-            fieldName, wrapEmptyBuffer ? wrapEmptyBuffer(entry) : optionalCheck, asStringBody, javadoc) : "";
+            "    }\n\n" +
+            "%5$s",
+            fieldName, wrapEmptyBuffer ? wrapEmptyBuffer(entry) : optionalCheck, asStringBody, javadoc,
+            stringView) : "";
 
         // Need to keep offset and length split due to the abject fail that is the DATA type.
         final String lengthBasedFields = type.hasLengthField(flyweightsEnabled) ? String.format(
@@ -1342,8 +1583,12 @@ class DecoderGenerator extends Generator
             "%3$s",
             fieldName, optionalCheck, extraStringDecode, scope, javadoc) : "";
 
+        final String decodedField = cachesDecodedValue(type) ?
+            String.format("    %2$s boolean %1$sDecoded;\n\n", fieldName, scope) : "";
+
         final String offsetField = type.hasOffsetField(flyweightsEnabled) ?
-            String.format("    %3$s int %1$sOffset;\n\n%2$s", fieldName, lengthBasedFields, scope) : "";
+            String.format("    %3$s int %1$sOffset;\n\n%4$s%2$s", fieldName, lengthBasedFields, scope, decodedField) :
+            "";
 
         final String enumValueDecoder = String.format(
             type.isStringBased() ?
@@ -1368,7 +1613,7 @@ class DecoderGenerator extends Generator
             name, fieldName, enumValueDecoder, enumStringBasedWrapperField, NULL_VAL_NAME, enumName(name),
             javadoc) : (field.type().isMultiValue() || field.type() == Type.STRING) ? enumStringBasedWrapperField : "";
 
-        final String lazyInitialisation = fieldLazyInstantialisation(field, fieldName);
+        final String lazyInitialisation = fieldLazyInstantialisation(field, fieldName, cachesDecodedValue(type));
 
         return String.format(
             "    %10$s %1$s %2$s%3$s;\n\n" +
@@ -1390,7 +1635,7 @@ class DecoderGenerator extends Generator
             optionalGetter(entry),
             offsetField,
             enumDecoder,
-            flyweightsEnabled ? lazyInitialisation : "",
+            flyweightsEnabled || decodesStringView(type) ? lazyInitialisation : "",
             scope,
             javadoc);
     }
@@ -1405,11 +1650,12 @@ class DecoderGenerator extends Generator
           entry.name());
     }
 
-    private String generateAsStringBody(final Entry entry, final String name, final String fieldName)
+    private String generateAsStringBody(
+        final Entry entry, final String name, final String fieldName, final Type type)
     {
         final String asStringBody;
 
-        if (flyweightsEnabled)
+        if (flyweightsEnabled || decodesStringView(type))
         {
             asStringBody = String.format(entry.required() ?
                 "buffer != null ? buffer.getStringWithoutLengthAscii(%1$sOffset, %1$sLength) : \"\"" :
@@ -1428,7 +1674,83 @@ class DecoderGenerator extends Generator
         return asStringBody;
     }
 
-    private static String fieldLazyInstantialisation(final Field field, final String fieldName)
+    private boolean decodesStringView(final Type type)
+    {
+        if (!stringViews || flyweightsEnabled)
+        {
+            return false;
+        }
+
+        switch (type)
+        {
+            case STRING:
+            case MULTIPLEVALUESTRING:
+            case MULTIPLESTRINGVALUE:
+            case MULTIPLECHARVALUE:
+            case CURRENCY:
+            case EXCHANGE:
+            case COUNTRY:
+            case LANGUAGE:
+                return true;
+
+            // Temporal fields are short and stay copied so that they can be parsed from the decoder.
+            default:
+                return false;
+        }
+    }
+
+    private boolean cachesDecodedValue(final Type type)
+    {
+        // The char[] getter of a string view field copies the value once per decode
+        if (decodesStringView(type))
+        {
+            return true;
+        }
+
+        if (!lazyDecoding || !flyweightsEnabled)
+        {
+            return false;
+        }
+
+        switch (type)
+        {
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case DAYOFMONTH:
+            case LONG:
+            case FLOAT:
+            case PRICE:
+            case PRICEOFFSET:
+            case QTY:
+            case QUANTITY:
+            case PERCENTAGE:
+            case AMT:
+            case STRING:
+            case MULTIPLEVALUESTRING:
+            case MULTIPLESTRINGVALUE:
+            case MULTIPLECHARVALUE:
+            case CURRENCY:
+            case EXCHANGE:
+            case COUNTRY:
+            case LANGUAGE:
+            case UTCTIMESTAMP:
+            case LOCALMKTDATE:
+            case UTCTIMEONLY:
+            case UTCDATEONLY:
+            case TZTIMEONLY:
+            case TZTIMESTAMP:
+            case MONTHYEAR:
+                return true;
+
+            // NUMINGROUP caches itself through groupNoField() and the remaining types aren't lazily parsed.
+            default:
+                return false;
+        }
+    }
+
+    private static String fieldLazyInstantialisation(
+        final Field field, final String fieldName, final boolean cacheDecodedValue)
     {
         final int tag = field.number();
         switch (field.type())
@@ -1447,11 +1769,11 @@ class DecoderGenerator extends Generator
             case SEQNUM:
             case DAYOFMONTH:
                 return lengthBasedFieldLazyInitialization(fieldName, "getIntFlyweight(buffer",
-                    ", " + tag + ", " + CODEC_VALIDATION_ENABLED);
+                    ", " + tag + ", " + CODEC_VALIDATION_ENABLED, cacheDecodedValue);
 
             case LONG:
                 return lengthBasedFieldLazyInitialization(fieldName, "getLongFlyweight(buffer",
-                    ", " + tag + ", " + CODEC_VALIDATION_ENABLED);
+                    ", " + tag + ", " + CODEC_VALIDATION_ENABLED, cacheDecodedValue);
 
             case FLOAT:
             case PRICE:
@@ -1461,7 +1783,7 @@ class DecoderGenerator extends Generator
             case PERCENTAGE:
             case AMT:
                 return lengthBasedFieldLazyInitialization(fieldName, "getFloatFlyweight(buffer, " +
-                    fieldName, ", " + tag + ", " + CODEC_VALIDATION_ENABLED);
+                    fieldName, ", " + tag + ", " + CODEC_VALIDATION_ENABLED, cacheDecodedValue);
 
             case STRING:
             case MULTIPLEVALUESTRING:
@@ -1471,7 +1793,8 @@ class DecoderGenerator extends Generator
             case EXCHANGE:
             case COUNTRY:
             case LANGUAGE:
-                return lengthBasedFieldLazyInitialization(fieldName, "buffer.getChars(" + fieldName, "");
+                return lengthBasedFieldLazyInitialization(
+                    fieldName, "buffer.getChars(" + fieldName, "", cacheDecodedValue);
 
             case DATA:
             case XMLDATA:
@@ -1497,7 +1820,8 @@ class DecoderGenerator extends Generator
             case TZTIMEONLY:
             case TZTIMESTAMP:
             case MONTHYEAR:
-                return lengthBasedFieldLazyInitialization(fieldName, "buffer.getBytes(" + fieldName, "");
+                return lengthBasedFieldLazyInitialization(
+                    fieldName, "buffer.getBytes(" + fieldName, "", cacheDecodedValue);
 
             case BOOLEAN:
             case CHAR:
@@ -1507,8 +1831,21 @@ class DecoderGenerator extends Generator
     }
 
     private static String lengthBasedFieldLazyInitialization(
-        final String fieldName, final String decodeMethod, final String endArgs)
+        final String fieldName, final String decodeMethod, final String endArgs, final boolean cacheDecodedValue)
     {
+        if (cacheDecodedValue)
+        {
+            return String.format(
+                "        if (!%1$sDecoded && buffer != null && %1$sLength > 0)\n" +
+                "        {\n" +
+                "            %1$s = %2$s, %1$sOffset, %1$sLength%3$s);\n" +
+                "            %1$sDecoded = true;\n" +
+                "        }\n",
+                fieldName,
+                decodeMethod,
+                endArgs);
+        }
+
         return String.format(
             "        if (buffer != null && %1$sLength > 0)\n" +
             "        {\n" +
@@ -1674,7 +2011,8 @@ class DecoderGenerator extends Generator
         final boolean isGroup = type == GROUP;
         final boolean isHeader = type == HEADER;
         final String endGroupCheck = endGroupCheck(aggregate, isGroup);
-        final String prefix = generateDecodePrefix(aggregate, hasCommonCompounds, isGroup, isHeader, endGroupCheck);
+        final String prefix = generateConstantTables(aggregate) +
+            generateDecodePrefix(aggregate, hasCommonCompounds, isGroup, isHeader, endGroupCheck);
         final String body = entries.stream()
             .map(this::decodeEntry)
             .collect(joining("\n", "", "\n"));
@@ -1685,6 +2023,7 @@ class DecoderGenerator extends Generator
             "                {\n" +
             (isGroup ?
             "                    seenFields.remove(tag);\n" :
+            bitsetValidation ? "" :
             "                    alreadyVisitedFields.remove(tag);\n") +
             "                }\n" +
             (isGroup ? "" :
@@ -1692,7 +2031,9 @@ class DecoderGenerator extends Generator
             "                {\n" +
             "                    if (!" + unknownFieldPredicate(type) + ")\n" +
             "                    {\n" +
-            "                        unknownFields.add(tag);\n" +
+            (bitsetValidation ?
+            "                        unknownFieldTag = tag;\n" :
+            "                        unknownFields.add(tag);\n") +
             "                    }\n" +
             "                }\n") +
 
@@ -1721,19 +2062,21 @@ class DecoderGenerator extends Generator
         final boolean isHeader,
         final String endGroupCheck)
     {
-        return "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+        return (hasCommonCompounds ? decodeBodyFromMethods() :
+            "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n") +
             "    {\n" +
             "        // Decode " + aggregate.name() + "\n" +
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
+            (bitsetValidation ?
+            "            Arrays.fill(visitedFieldBits, 0L);\n" :
             "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            (isGroup ? "" : "            alreadyVisitedFields.clear();\n")) +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
-            "        int position = offset;\n" +
-            (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
+            (hasCommonCompounds ? "        int position = bodyOffset;\n" : "        int position = offset;\n") +
             (isGroup ? "        seenFields.clear();\n" : "") +
             "        int tag;\n\n" +
             "        while (position < end)\n" +
@@ -1766,19 +2109,144 @@ class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
-            (isGroup ? "" :
+            // Bitset validation tracks visited fields within the switch's case statements, see visitFieldBit()
+            (isGroup || bitsetValidation ? "" :
             "                if (!alreadyVisitedFields.add(tag))\n" +
             "                {\n" +
             "                    invalidTagId = tag;\n" +
             "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
             "                }\n") +
-            "                missingRequiredFields.remove(tag);\n" +
+            (bitsetValidation ? "" :
+            "                missingRequiredFields.remove(tag);\n") +
             "                seenFieldCount++;\n" +
             "            }\n\n" +
-            "            switch (tag)\n" +
+            tagSwitch(aggregate) +
             "            {\n";
     }
 
+    // Messages decode their body separately from their header so that a header decoded elsewhere can be skipped
+    private String decodeBodyFromMethods()
+    {
+        return
+            "    private boolean headerSkipped;\n\n" +
+            "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            "    {\n" +
+            "        headerSkipped = false;\n" +
+            "        return decodeBody(buffer, offset, length, offset + header.decode(buffer, offset, length));\n" +
+            "    }\n\n" +
+            "    public int decodeBodyFrom(\n" +
+            "        final AsciiBuffer buffer, final int offset, final int length, final int bodyOffset)\n" +
+            "    {\n" +
+            "        header.reset();\n" +
+            "        headerSkipped = true;\n" +
+            "        return decodeBody(buffer, offset, length, bodyOffset);\n" +
+            "    }\n\n" +
+            "    private int decodeBody(\n" +
+            "        final AsciiBuffer buffer, final int offset, final int length, final int bodyOffset)\n";
+    }
+
+    private TagDispatchHash tagDispatchHash(final Aggregate aggregate)
+    {
+        if (!perfectHashDispatch)
+        {
+            return null;
+        }
+
+        if (!aggregateTagDispatchHashes.containsKey(aggregate))
+        {
+            final int[] tags = fieldOrdinals(aggregate).keySet().stream().mapToInt(Integer::intValue).toArray();
+            aggregateTagDispatchHashes.put(aggregate, TagDispatchHash.build(tags));
+        }
+
+        return aggregateTagDispatchHashes.get(aggregate);
+    }
+
+    private String generateConstantTables(final Aggregate aggregate)
+    {
+        final TagDispatchHash dispatchHash = tagDispatchHash(aggregate);
+        final String prefix = constantTablePrefix();
+        if (dispatchHash != null)
+        {
+            enclosedConstantTables.append(String.format(
+                "    private static final int[] %1$s = { %2$s };\n\n" +
+                "    private static final int[] %3$s = { %4$s };\n\n",
+                prefix + TAG_DISPATCH_DISPLACEMENTS,
+                Arrays.stream(dispatchHash.displacements()).mapToObj(String::valueOf).collect(joining(", ")),
+                prefix + TAG_DISPATCH_SLOT_TAGS,
+                Arrays.stream(dispatchHash.slotTags()).mapToObj(String::valueOf).collect(joining(", "))));
+        }
+
+        if (!prefix.isEmpty())
+        {
+            return "";
+        }
+
+        // Nested groups have already been generated, so their tables are declared here alongside our own.
+        final String tables = enclosedConstantTables.toString();
+        enclosedConstantTables.setLength(0);
+        return tables;
+    }
+
+    /**
+     * Groups that are declared within a class are inner classes, which can't declare static arrays before Java 16,
+     * so their constant tables are declared on the nearest enclosing class that can, prefixed by the group names.
+     * Groups declared within a component interface are implicitly static and declare their own tables.
+     */
+    private String constantTablePrefix()
+    {
+        final StringBuilder prefix = new StringBuilder();
+        final Iterator<Aggregate> aggregates = aggregateStack.descendingIterator();
+        Aggregate aggregate = aggregates.next();
+        while (aggregate instanceof Group && aggregates.hasNext())
+        {
+            final Aggregate parent = aggregates.next();
+            if (parent instanceof Component)
+            {
+                break;
+            }
+
+            prefix.insert(0, constantName(aggregate.name()) + "_");
+            aggregate = parent;
+        }
+
+        return prefix.toString();
+    }
+
+    private String tagSwitch(final Aggregate aggregate)
+    {
+        final TagDispatchHash dispatchHash = tagDispatchHash(aggregate);
+        if (dispatchHash == null)
+        {
+            return "            switch (tag)\n";
+        }
+
+        // Must match TagDispatchHash.slot(), tags that aren't in the slot table are dispatched to the default case.
+        return String.format(
+            "            final int tagSlot = ((tag ^ %1$s[(tag * 0x%2$x) >>> %3$d]) * 0x%4$x) >>> %5$d;\n" +
+            "            switch (%6$s[tagSlot] == tag ? tagSlot : %7$d)\n",
+            constantTablePrefix() + TAG_DISPATCH_DISPLACEMENTS,
+            TagDispatchHash.BUCKET_MULTIPLIER,
+            dispatchHash.bucketShift(),
+            TagDispatchHash.SLOT_MULTIPLIER,
+            dispatchHash.slotShift(),
+            constantTablePrefix() + TAG_DISPATCH_SLOT_TAGS,
+            TagDispatchHash.NO_SLOT);
+    }
+
+    private String caseLabel(final Field field, final String name)
+    {
+        final TagDispatchHash dispatchHash = tagDispatchHash(currentAggregate());
+        if (dispatchHash == null)
+        {
+            return String.format("            case Constants.%s:\n", constantName(name));
+        }
+
+        return String.format(
+            "            case %d: // Constants.%s\n",
+            dispatchHash.slot(field.number()),
+            constantName(name));
+    }
+
     private String decodeTrailerOrReturn(final boolean hasCommonCompounds, final int indent)
     {
         return (hasCommonCompounds ?
@@ -1953,14 +2421,16 @@ class DecoderGenerator extends Generator
         final String fieldName = formatPropertyName(name);
 
         return String.format(
-            "            case Constants.%s:\n" +
+            "%s" +
+            "%s" +
             "%s" +
             "%s" +
             "%s" +
             "%s" +
             "%s" +
             "                break;\n",
-            constantName(name),
+            caseLabel(field, name),
+            visitFieldBit(field),
             optionalAssign(entry),
             fieldDecodeMethod(field, fieldName),
             storeOffsetForVariableLengthFields(field.type(), fieldName),
@@ -1968,6 +2438,40 @@ class DecoderGenerator extends Generator
             suffix);
     }
 
+    private String visitFieldBit(final Field field)
+    {
+        if (!bitsetValidation)
+        {
+            return "";
+        }
+
+        final Aggregate aggregate = currentAggregate();
+        final int ordinal = fieldOrdinals(aggregate).get(field.number());
+        final int word = ordinal >>> 6;
+        final String mask = "0x" + Long.toHexString(1L << ordinal) + "L";
+
+        // Groups detect repeated tags as the start of their next element using seenFields
+        final String duplicateCheck = aggregate instanceof Group ? "" : String.format(
+            "                    if ((visitedFieldBits[%1$d] & %2$s) != 0)\n" +
+            "                    {\n" +
+            "                        invalidTagId = tag;\n" +
+            "                        rejectReason = %3$d;\n" +
+            "                    }\n",
+            word,
+            mask,
+            TAG_APPEARS_MORE_THAN_ONCE);
+
+        return String.format(
+            "                if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            "                {\n" +
+            "%3$s" +
+            "                    visitedFieldBits[%1$d] |= %2$s;\n" +
+            "                }\n",
+            word,
+            mask,
+            duplicateCheck);
+    }
+
     private String storeLengthForVariableLengthFields(final Type type, final String fieldName)
     {
         return type.hasLengthField(flyweightsEnabled) ?
@@ -1977,6 +2481,14 @@ class DecoderGenerator extends Generator
 
     private String storeOffsetForVariableLengthFields(final Type type, final String fieldName)
     {
+        if (cachesDecodedValue(type))
+        {
+            return String.format(
+                "                %1$sOffset = valueOffset;\n" +
+                "                %1$sDecoded = false;\n",
+                fieldName);
+        }
+
         return type.hasOffsetField(flyweightsEnabled) ?
             String.format("                %sOffset = valueOffset;\n", fieldName) :
             "";
@@ -2039,7 +2551,7 @@ class DecoderGenerator extends Generator
             case EXCHANGE:
             case COUNTRY:
             case LANGUAGE:
-                if (flyweightsEnabled)
+                if (flyweightsEnabled || decodesStringView(field.type()))
                 {
                     return "";
                 }
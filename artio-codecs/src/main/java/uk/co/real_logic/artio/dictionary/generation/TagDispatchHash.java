@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A perfect hash of a set of FIX tags onto a small, dense range of slots, computed at code generation time using the
+ * hash and displace approach. Each tag is first hashed onto a bucket, then every bucket is assigned a displacement
+ * that, when mixed into the tag, maps all the tags within the bucket onto slots that are not used by any other tag.
+ *
+ * Generated code evaluates {@link #slot(int)} with two multiplies, two shifts and a single array lookup and then
+ * confirms the tag via {@link #slotTags()}, which lets a decoder <code>switch</code> over a dense slot index, which
+ * the JIT compiles into a jump table, rather than over the sparse tag numbers, which it compiles into a binary search.
+ */
+final class TagDispatchHash
+{
+    static final int BUCKET_MULTIPLIER = 0x9E3779B1;
+    static final int SLOT_MULTIPLIER = 0x85EBCA6B;
+    static final int EMPTY_SLOT = 0;
+    static final int NO_SLOT = -1;
+
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    private static final int MAX_SLOT_BITS = 16;
+    private static final int EXTRA_SLOT_BITS_ATTEMPTS = 3;
+
+    private final int bucketShift;
+    private final int slotShift;
+    private final int[] displacements;
+    private final int[] slotTags;
+
+    private TagDispatchHash(
+        final int bucketShift, final int slotShift, final int[] displacements, final int[] slotTags)
+    {
+        this.bucketShift = bucketShift;
+        this.slotShift = slotShift;
+        this.displacements = displacements;
+        this.slotTags = slotTags;
+    }
+
+    /**
+     * Find a perfect hash for a set of tags.
+     *
+     * @param tags the distinct, positive tags to hash.
+     * @return the hash or null if one couldn't be found within the maximum table size.
+     */
+    static TagDispatchHash build(final int[] tags)
+    {
+        for (final int tag : tags)
+        {
+            if (tag <= EMPTY_SLOT)
+            {
+                throw new IllegalArgumentException("Tags must be positive, but found: " + tag);
+            }
+        }
+
+        final int tagCount = tags.length;
+        final int bucketBits = Math.max(1, ceilLog2(tagCount) - 1);
+        final int minSlotBits = Math.max(1, ceilLog2(tagCount * 2));
+        final int maxSlotBits = Math.min(MAX_SLOT_BITS, minSlotBits + EXTRA_SLOT_BITS_ATTEMPTS);
+        for (int slotBits = minSlotBits; slotBits <= maxSlotBits; slotBits++)
+        {
+            final TagDispatchHash hash = build(tags, bucketBits, slotBits);
+            if (hash != null)
+            {
+                return hash;
+            }
+        }
+
+        return null;
+    }
+
+    private static TagDispatchHash build(final int[] tags, final int bucketBits, final int slotBits)
+    {
+        final int bucketShift = Integer.SIZE - bucketBits;
+        final int slotShift = Integer.SIZE - slotBits;
+        final int bucketCount = 1 << bucketBits;
+
+        final List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++)
+        {
+            buckets.add(new ArrayList<>());
+        }
+        for (final int tag : tags)
+        {
+            buckets.get(bucket(tag, bucketShift)).add(tag);
+        }
+
+        // Place the largest buckets first, whilst the slots are still sparsely occupied.
+        final Integer[] bucketOrder = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++)
+        {
+            bucketOrder[i] = i;
+        }
+        Arrays.sort(bucketOrder, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        final int[] displacements = new int[bucketCount];
+        final int[] slotTags = new int[1 << slotBits];
+        final int[] candidateSlots = new int[tags.length];
+        for (final int bucketIndex : bucketOrder)
+        {
+            final List<Integer> bucket = buckets.get(bucketIndex);
+            if (bucket.isEmpty())
+            {
+                break;
+            }
+
+            final int displacement = findDisplacement(bucket, slotShift, slotTags, candidateSlots);
+            if (displacement == NO_SLOT)
+            {
+                return null;
+            }
+
+            displacements[bucketIndex] = displacement;
+            for (int i = 0; i < bucket.size(); i++)
+            {
+                slotTags[candidateSlots[i]] = bucket.get(i);
+            }
+        }
+
+        return new TagDispatchHash(bucketShift, slotShift, displacements, slotTags);
+    }
+
+    private static int findDisplacement(
+        final List<Integer> bucket, final int slotShift, final int[] slotTags, final int[] candidateSlots)
+    {
+        nextDisplacement:
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++)
+        {
+            for (int i = 0; i < bucket.size(); i++)
+            {
+                final int slot = slot(bucket.get(i), displacement, slotShift);
+                if (slotTags[slot] != EMPTY_SLOT)
+                {
+                    continue nextDisplacement;
+                }
+
+                for (int j = 0; j < i; j++)
+                {
+                    if (candidateSlots[j] == slot)
+                    {
+                        continue nextDisplacement;
+                    }
+                }
+
+                candidateSlots[i] = slot;
+            }
+
+            return displacement;
+        }
+
+        return NO_SLOT;
+    }
+
+    private static int ceilLog2(final int value)
+    {
+        return value <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    private static int bucket(final int tag, final int bucketShift)
+    {
+        return (tag * BUCKET_MULTIPLIER) >>> bucketShift;
+    }
+
+    private static int slot(final int tag, final int displacement, final int slotShift)
+    {
+        return ((tag ^ displacement) * SLOT_MULTIPLIER) >>> slotShift;
+    }
+
+    /**
+     * Get the slot that a tag hashes to. Tags that weren't used to build the hash also map onto a slot, so callers
+     * must check that {@link #slotTags()} holds the tag at the returned index.
+     *
+     * @param tag the tag to hash.
+     * @return the slot that a tag hashes to.
+     */
+    int slot(final int tag)
+    {
+        return slot(tag, displacements[bucket(tag, bucketShift)], slotShift);
+    }
+
+    int bucketShift()
+    {
+        return bucketShift;
+    }
+
+    int slotShift()
+    {
+        return slotShift;
+    }
+
+    int[] displacements()
+    {
+        return displacements;
+    }
+
+    /**
+     * Get the tag that hashes to each slot, or {@link #EMPTY_SLOT} for unused slots.
+     *
+     * @return the tag that hashes to each slot.
+     */
+    int[] slotTags()
+    {
+        return slotTags;
+    }
+}
@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.util.float_parsing.AsciiBufferCharReader;
 import uk.co.real_logic.artio.util.float_parsing.DecimalFloatParser;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
@@ -36,6 +37,13 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    private static final long SWAR_ONES = 0x0101010101010101L;
+    private static final long SWAR_HIGH_BITS = 0x8080808080808080L;
+    private static final long SWAR_LOW_BYTES = 0x00FF00FF00FF00FFL;
+    private static final int SWAR_LANE_MASK = 0xFFFF;
+    // Each 16 bit lane sums two bytes of every word, so 128 words can be summed before a lane could overflow
+    private static final int CHECKSUM_WORDS_PER_BLOCK = 128;
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -216,31 +224,95 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         return scan(startInclusive, endExclusive, (byte)terminatingCharacter);
     }
 
+    /**
+     * Scan forwards for a terminator. This reads 8 bytes at a time as a little endian long and uses SWAR bit tricks to
+     * find whether, and where, any of them match the terminator, only falling back to single bytes for the tail of
+     * the range.
+     *
+     * @param startInclusive the index to start scanning from.
+     * @param endExclusive the index to stop scanning at.
+     * @param terminator the byte to scan for.
+     * @return the index of the first terminator in the range or {@link #UNKNOWN_INDEX} if there isn't one.
+     */
     public int scan(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i < endExclusive; i++)
+        final long pattern = SWAR_ONES * (terminator & 0xFF);
+        // Never read a word past the end of the buffer, ranges beyond it fail in the byte loop as they always have.
+        final int lastWordStart = Math.min(endExclusive, capacity()) - Long.BYTES;
+
+        int i = startInclusive;
+        for (; i <= lastWordStart; i += Long.BYTES)
         {
-            final byte value = getByte(i);
-            if (value == terminator)
+            final long matchBits = swarMatchBits(getLong(i, ByteOrder.LITTLE_ENDIAN) ^ pattern);
+            if (matchBits != 0)
+            {
+                return i + (Long.numberOfTrailingZeros(matchBits) >>> 3);
+            }
+        }
+
+        for (; i < endExclusive; i++)
+        {
+            if (getByte(i) == terminator)
             {
-                indexValue = i;
-                break;
+                return i;
             }
         }
 
-        return indexValue;
+        return UNKNOWN_INDEX;
+    }
+
+    /**
+     * Sets the high bit of the zero bytes within a word. Bytes above the first zero byte may also be flagged due to
+     * borrows propagating upwards, but the lowest flagged byte is always exact, which is all that a forward scan of a
+     * little endian read needs.
+     *
+     * @param word the word to check.
+     * @return the high bits of the zero bytes within a word, zero if there are none.
+     */
+    static long swarMatchBits(final long word)
+    {
+        return (word - SWAR_ONES) & ~word & SWAR_HIGH_BITS;
     }
 
+    /**
+     * Compute the FIX CheckSum of a range, the sum of its bytes modulo 256. This reads 8 bytes at a time as a long and
+     * sums pairs of bytes into 16 bit lanes, only folding the lanes together once per block of words, falling back to
+     * single bytes for the tail of the range.
+     *
+     * @param startInclusive the index to start summing from.
+     * @param endExclusive the index to stop summing at.
+     * @return the checksum of the range, between 0 and 255.
+     */
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
+        // Never read a word past the end of the buffer, ranges beyond it fail in the byte loop as they always have.
+        final int lastWordStart = Math.min(endExclusive, capacity()) - Long.BYTES;
+
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+        while (index <= lastWordStart)
+        {
+            final int lastBlockWordStart = Math.min(
+                lastWordStart, index + (CHECKSUM_WORDS_PER_BLOCK - 1) * Long.BYTES);
+            long lanes = 0;
+            for (; index <= lastBlockWordStart; index += Long.BYTES)
+            {
+                final long word = getLong(index, ByteOrder.LITTLE_ENDIAN);
+                lanes += (word & SWAR_LOW_BYTES) + ((word >>> 8) & SWAR_LOW_BYTES);
+            }
+
+            total += (int)(lanes & SWAR_LANE_MASK) +
+                (int)((lanes >>> 16) & SWAR_LANE_MASK) +
+                (int)((lanes >>> 32) & SWAR_LANE_MASK) +
+                (int)(lanes >>> 48);
+        }
+
+        for (; index < endExclusive; index++)
         {
-            total += getByte(index);
+            total += getByte(index) & 0xFF;
         }
 
-        return total % 256;
+        return total & 0xFF;
     }
 
     public int putAscii(final int index, final String string)
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Adaptive Financial Consulting Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import org.junit.jupiter.api.Test;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.co.real_logic.artio.builder.MessageTemplate.*;
+
+class MessageTemplateTest
+{
+    private static final int CL_ORD_ID = 0;
+    private static final int PRICE = 1;
+    private static final int ORDER_QTY = 2;
+
+    private static final long MESSAGE_TYPE = 'D';
+    private static final String HEADER = "35=D|34=0000000005|49=SENDER|56=TARGET|52=20240101-00:00:00.000|";
+    private static final String MESSAGE =
+        "8=FIX.4.4|9=5|35=D|34=5|49=SENDER|56=TARGET|52=20240101-00:00:00.000|" +
+        "11=ORDER0001|44=10.5|38=100|55=ABC|10=123|";
+
+    private final MessageTemplate template = newTemplate(MESSAGE);
+
+    @Test
+    void shouldWidenSlotsOfMessage()
+    {
+        assertMessage(HEADER + "11=ORDER0001|44=00010.50|38=000100|55=ABC|");
+        assertEquals(MESSAGE_TYPE, template.messageType());
+        assertFalse(template.hasLastMsgSeqNumProcessed());
+    }
+
+    @Test
+    void shouldPatchFieldsAndUpdateCheckSum()
+    {
+        template
+            .putChars(CL_ORD_ID, "ORDER0002")
+            .putFloat(PRICE, 1025, 2)
+            .putInt(ORDER_QTY, 250);
+
+        assertMessage(HEADER + "11=ORDER0002|44=00010.25|38=000250|55=ABC|");
+
+        template
+            .putFloat(PRICE, -15, 1)
+            .putInt(ORDER_QTY, 999_999);
+
+        assertMessage(HEADER + "11=ORDER0002|44=-0001.50|38=999999|55=ABC|");
+    }
+
+    @Test
+    void shouldPatchHeaderFields()
+    {
+        final byte[] sendingTime = "20240101-12:34:56.789".getBytes(US_ASCII);
+        template
+            .msgSeqNum(7)
+            .sendingTime(sendingTime, sendingTime.length);
+
+        assertMessage(
+            "35=D|34=0000000007|49=SENDER|56=TARGET|52=20240101-12:34:56.789|" +
+            "11=ORDER0001|44=00010.50|38=000100|55=ABC|");
+    }
+
+    @Test
+    void shouldPatchLastMsgSeqNumProcessedWhenPresent()
+    {
+        final MessageTemplate template = newTemplate(
+            "8=FIX.4.4|9=5|35=D|34=5|49=SENDER|56=TARGET|52=20240101-00:00:00.000|369=4|" +
+            "11=ORDER0001|44=10.5|38=100|10=123|");
+
+        assertTrue(template.hasLastMsgSeqNumProcessed());
+        template.lastMsgSeqNumProcessed(42);
+
+        assertMessage(template,
+            HEADER + "369=0000000042|11=ORDER0001|44=00010.50|38=000100|");
+    }
+
+    @Test
+    void shouldRejectValuesThatDoNotFitTheirSlot()
+    {
+        assertThrows(IllegalArgumentException.class, () -> template.putInt(ORDER_QTY, 1_000_000));
+        assertThrows(IllegalArgumentException.class, () -> template.putInt(ORDER_QTY, -1));
+        assertThrows(IllegalArgumentException.class, () -> template.putFloat(PRICE, 100_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> template.putFloat(PRICE, 1_001, 3));
+        assertThrows(IllegalArgumentException.class, () -> template.putChars(CL_ORD_ID, "ORDER"));
+        assertThrows(IllegalArgumentException.class, () -> template.putChars(PRICE, "00001.00"));
+
+        assertMessage(HEADER + "11=ORDER0001|44=00010.50|38=000100|55=ABC|");
+    }
+
+    @Test
+    void shouldRejectMessagesWhoseValuesDoNotFitTheirSlots()
+    {
+        assertThrows(IllegalArgumentException.class, () -> newTemplate(
+            "8=FIX.4.4|9=5|35=D|34=5|49=SENDER|56=TARGET|52=20240101-00:00:00.000|" +
+            "11=ORDER0001|44=10.5|38=1000000|10=123|"));
+        assertThrows(IllegalArgumentException.class, () -> newTemplate(
+            "8=FIX.4.4|9=5|35=D|34=5|49=SENDER|56=TARGET|52=20240101-00:00:00.000|" +
+            "11=ORDER0001|44=10.125|38=100|10=123|"));
+    }
+
+    @Test
+    void shouldRejectMessagesWithoutTheFieldsOfItsSlots()
+    {
+        assertThrows(IllegalArgumentException.class, () -> newTemplate(
+            "8=FIX.4.4|9=5|35=D|34=5|49=SENDER|56=TARGET|52=20240101-00:00:00.000|11=ORDER0001|44=10.5|10=123|"));
+        assertThrows(IllegalArgumentException.class, () -> newTemplate(
+            "8=FIX.4.4|9=5|35=D|49=SENDER|56=TARGET|52=20240101-00:00:00.000|11=ORDER0001|44=10.5|38=1|10=123|"));
+    }
+
+    private static MessageTemplate newTemplate(final String message)
+    {
+        final byte[] bytes = message.replace('|', '\001').getBytes(US_ASCII);
+        return new MessageTemplate(
+            new MutableAsciiBuffer(bytes),
+            0,
+            bytes.length,
+            MESSAGE_TYPE,
+            charsField(11, 9),
+            floatField(44, 8, 2),
+            intField(38, 6));
+    }
+
+    private void assertMessage(final String body)
+    {
+        assertMessage(template, body);
+    }
+
+    private static void assertMessage(final MessageTemplate template, final String body)
+    {
+        final String header = "8=FIX.4.4|9=" + body.length() + "|";
+        final String prefix = (header + body).replace('|', '\001');
+        int checkSum = 0;
+        for (int i = 0; i < prefix.length(); i++)
+        {
+            checkSum += prefix.charAt(i);
+        }
+        final String expected = prefix + String.format("10=%03d\001", checkSum % 256);
+
+        assertEquals(expected.length(), template.length());
+        assertEquals(expected, template.buffer().getAscii(0, template.length()));
+    }
+}
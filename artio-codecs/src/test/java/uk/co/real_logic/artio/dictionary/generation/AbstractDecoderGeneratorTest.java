@@ -26,6 +26,7 @@ import uk.co.real_logic.artio.dictionary.ExampleDictionary;
 import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 import uk.co.real_logic.artio.util.Reflection;
 
@@ -71,7 +72,7 @@ public abstract class AbstractDecoderGeneratorTest
     private static Class<?> heartbeatWithoutValidation;
     private static Class<?> heartbeatWithoutEnumValueValidation;
     private static Class<?> heartbeatWithRejectingUnknownFields;
-    private static Class<?> heartbeat;
+    static Class<?> heartbeat;
     private static Class<?> component;
     private static Class<?> otherMessage;
     private static Class<?> fieldsMessage;
@@ -82,15 +83,52 @@ public abstract class AbstractDecoderGeneratorTest
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[CAPACITY]);
 
     static void generate(final boolean flyweightStringsEnabled) throws Exception
+    {
+        generate(flyweightStringsEnabled, false);
+    }
+
+    static void generate(final boolean flyweightStringsEnabled, final boolean bitsetValidation) throws Exception
+    {
+        generate(flyweightStringsEnabled, bitsetValidation, false);
+    }
+
+    static void generate(
+        final boolean flyweightStringsEnabled, final boolean bitsetValidation, final boolean lazyDecoding)
+        throws Exception
+    {
+        generate(flyweightStringsEnabled, bitsetValidation, lazyDecoding, false);
+    }
+
+    static void generate(
+        final boolean flyweightStringsEnabled,
+        final boolean bitsetValidation,
+        final boolean lazyDecoding,
+        final boolean perfectHashDispatch)
+        throws Exception
+    {
+        generate(flyweightStringsEnabled, bitsetValidation, lazyDecoding, perfectHashDispatch, false);
+    }
+
+    static void generate(
+        final boolean flyweightStringsEnabled,
+        final boolean bitsetValidation,
+        final boolean lazyDecoding,
+        final boolean perfectHashDispatch,
+        final boolean stringViews)
+        throws Exception
     {
         sourcesWithValidation = generateSources(
-            true, false, true, flyweightStringsEnabled, false);
+            true, false, true, flyweightStringsEnabled, false, bitsetValidation, lazyDecoding, perfectHashDispatch,
+            stringViews);
         final Map<String, CharSequence> sourcesWithNoEnumValueValidation = generateSources(
-            true, false, false, flyweightStringsEnabled, false);
+            true, false, false, flyweightStringsEnabled, false, bitsetValidation, lazyDecoding, perfectHashDispatch,
+            stringViews);
         final Map<String, CharSequence> sourcesWithoutValidation = generateSources(
-            false, false, true, flyweightStringsEnabled, true);
+            false, false, true, flyweightStringsEnabled, true, bitsetValidation, lazyDecoding, perfectHashDispatch,
+            stringViews);
         final Map<String, CharSequence> sourcesRejectingUnknownFields = generateSources(
-            true, true, true, flyweightStringsEnabled, false);
+            true, true, true, flyweightStringsEnabled, false, bitsetValidation, lazyDecoding, perfectHashDispatch,
+            stringViews);
         heartbeat = compileInMemory(HEARTBEAT_DECODER, sourcesWithValidation);
         if (heartbeat == null || CODEC_LOGGING)
         {
@@ -117,7 +155,8 @@ public abstract class AbstractDecoderGeneratorTest
 
     private static Map<String, CharSequence> generateSources(
         final boolean validation, final boolean rejectingUnknownFields, final boolean rejectingUnknownEnumValue,
-        final boolean flyweightStringsEnabled, final boolean wrapEmptyBuffer)
+        final boolean flyweightStringsEnabled, final boolean wrapEmptyBuffer, final boolean bitsetValidation,
+        final boolean lazyDecoding, final boolean perfectHashDispatch, final boolean stringViews)
     {
         final Class<?> validationClass = validation ? ValidationOn.class : ValidationOff.class;
         final Class<?> rejectUnknownField = rejectingUnknownFields ?
@@ -132,7 +171,11 @@ public abstract class AbstractDecoderGeneratorTest
             MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
             outputManager, validationClass, rejectUnknownField,
             rejectUnknownEnumValue, flyweightStringsEnabled, wrapEmptyBuffer,
-            String.valueOf(rejectingUnknownEnumValue), true);
+            String.valueOf(rejectingUnknownEnumValue), true)
+            .bitsetValidation(bitsetValidation)
+            .lazyDecoding(lazyDecoding)
+            .perfectHashDispatch(perfectHashDispatch)
+            .stringViews(stringViews);
         final EncoderGenerator encoderGenerator = new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
             TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
             RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true);
@@ -335,6 +378,25 @@ public abstract class AbstractDecoderGeneratorTest
         assertValid(decoder);
     }
 
+    @Test
+    public void shouldDecodeBodyFromAfterSeparatelyDecodedHeader() throws Exception
+    {
+        final int length = DERIVED_FIELDS_MESSAGE.length();
+        buffer.putAscii(1, DERIVED_FIELDS_MESSAGE);
+        final SessionHeaderDecoder header = getHeader(newHeartbeat());
+        final int headerLength = header.decode(buffer, 1, length);
+
+        final Decoder decoder = newHeartbeat();
+        final Object decodedLength = decoder.getClass()
+            .getMethod("decodeBodyFrom", AsciiBuffer.class, int.class, int.class, int.class)
+            .invoke(decoder, buffer, 1, length, 1 + headerLength);
+
+        assertEquals(newHeartbeat().decode(buffer, 1, length), decodedLength);
+        assertEquals(2, getIntField(decoder));
+        assertEquals(new DecimalFloat(11, 1), getFloatField(decoder));
+        assertValid(decoder);
+    }
+
     @Test
     public void shouldSupportLongFields() throws Exception
     {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static java.lang.reflect.Modifier.isStatic;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DecoderGeneratorBitsetValidationTest extends AbstractDecoderGeneratorTest
+{
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        generate(false, true);
+    }
+
+    @Test
+    public void shouldReturnLowestOrdinalMissingRequiredField()
+    {
+        final int[] ordinalTags = new int[70];
+        ordinalTags[3] = 35;
+        ordinalTags[66] = 5001;
+
+        final long[] requiredFieldBits = { 1L << 3, 1L << 2 };
+
+        assertEquals(35, CodecUtil.missingRequiredFieldTag(new long[2], requiredFieldBits, ordinalTags));
+        assertEquals(5001, CodecUtil.missingRequiredFieldTag(
+            new long[]{ 1L << 3, 0L }, requiredFieldBits, ordinalTags));
+        assertEquals(CodecUtil.NO_FIELD_TAG, CodecUtil.missingRequiredFieldTag(
+            new long[]{ -1L, 1L << 2 }, requiredFieldBits, ordinalTags));
+    }
+
+    @Test
+    public void shouldShareValidationTablesBetweenDecoders() throws Exception
+    {
+        assertStaticField("REQUIRED_FIELD_BITS");
+        assertStaticField("FIELD_ORDINAL_TAGS");
+    }
+
+    @Test
+    public void shouldDeclareValidationTablesOfGroupsOnEnclosingDecoder() throws Exception
+    {
+        assertStaticField("NO_EG_GROUP_REQUIRED_FIELD_BITS");
+        assertStaticField("NO_EG_GROUP_FIELD_ORDINAL_TAGS");
+        assertStaticField("NO_EG_GROUP_NO_NESTED_GROUP_REQUIRED_FIELD_BITS");
+        assertStaticField("NO_EG_GROUP_NO_NESTED_GROUP_FIELD_ORDINAL_TAGS");
+    }
+
+    private static void assertStaticField(final String name) throws NoSuchFieldException
+    {
+        assertTrue(name, isStatic(heartbeat.getDeclaredField(name).getModifiers()));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.util.CustomMatchers.assertTargetThrows;
+
+public class DecoderGeneratorLazyDecodingTest extends AbstractDecoderGeneratorTest
+{
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        generate(true, false, true);
+    }
+
+    @Test
+    public void shouldReturnCachedValueOnRepeatedAccess() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+
+        assertEquals(2, getIntField(decoder));
+        assertEquals(2, getIntField(decoder));
+        assertEquals(new DecimalFloat(11, 1), getFloatField(decoder));
+        assertEquals(new DecimalFloat(11, 1), getFloatField(decoder));
+    }
+
+    @Test
+    public void shouldReparseFieldsAfterDecodingAnotherMessage() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+        assertEquals(2, getIntField(decoder));
+
+        decoder.reset();
+        decode(INVALID_INT_VALUE_MESSAGE, decoder);
+
+        assertTargetThrows(() -> getIntField(decoder), NumberFormatException.class,
+            "error parsing int: A tag=116");
+    }
+}
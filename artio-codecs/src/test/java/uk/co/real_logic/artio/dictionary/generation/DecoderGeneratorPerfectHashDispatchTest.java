@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static java.lang.reflect.Modifier.isStatic;
+import static org.junit.Assert.assertTrue;
+
+public class DecoderGeneratorPerfectHashDispatchTest extends AbstractDecoderGeneratorTest
+{
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        generate(false, false, false, true);
+    }
+
+    @Test
+    public void shouldShareDispatchTablesBetweenDecoders() throws Exception
+    {
+        assertStaticField("TAG_DISPATCH_DISPLACEMENTS");
+        assertStaticField("TAG_DISPATCH_SLOT_TAGS");
+    }
+
+    @Test
+    public void shouldDeclareDispatchTablesOfGroupsOnEnclosingDecoder() throws Exception
+    {
+        assertStaticField("NO_EG_GROUP_TAG_DISPATCH_DISPLACEMENTS");
+        assertStaticField("NO_EG_GROUP_TAG_DISPATCH_SLOT_TAGS");
+        assertStaticField("NO_EG_GROUP_NO_NESTED_GROUP_TAG_DISPATCH_DISPLACEMENTS");
+        assertStaticField("NO_EG_GROUP_NO_NESTED_GROUP_TAG_DISPATCH_SLOT_TAGS");
+    }
+
+    private static void assertStaticField(final String name) throws NoSuchFieldException
+    {
+        assertTrue(name, isStatic(heartbeat.getDeclaredField(name).getModifiers()));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.AsciiSequenceView;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.util.Reflection.get;
+
+public class DecoderGeneratorStringViewsTest extends AbstractDecoderGeneratorTest
+{
+    private static final int TEST_REQ_ID_OFFSET = ENCODED_MESSAGE.indexOf("\001112=") + 5;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[ENCODED_MESSAGE.length()]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        generate(false, false, false, false, true);
+    }
+
+    @Test
+    public void shouldExposeStringFieldsAsViewsOntoTheDecodedBuffer() throws Exception
+    {
+        final Decoder decoder = decodeIntoBuffer(ENCODED_MESSAGE);
+
+        final AsciiSequenceView view = (AsciiSequenceView)get(decoder, "testReqIDView");
+        assertEquals(ABC, view.toString());
+        assertSame(view, get(decoder, "testReqIDView"));
+
+        buffer.putByte(TEST_REQ_ID_OFFSET, (byte)'x');
+
+        assertEquals("xbc", view.toString());
+    }
+
+    @Test
+    public void shouldRetainCopyOfStringFieldUntilNextDecode() throws Exception
+    {
+        final Decoder decoder = decodeIntoBuffer(ENCODED_MESSAGE);
+
+        assertEquals(ABC, testReqID(decoder));
+
+        buffer.putByte(TEST_REQ_ID_OFFSET, (byte)'x');
+        assertEquals(ABC, testReqID(decoder));
+
+        decoder.reset();
+        decoder.decode(buffer, 0, ENCODED_MESSAGE.length());
+        assertEquals("xbc", testReqID(decoder));
+    }
+
+    private Decoder decodeIntoBuffer(final String example) throws Exception
+    {
+        final Decoder decoder = newHeartbeat();
+        buffer.putAscii(0, example);
+        decoder.decode(buffer, 0, example.length());
+        return decoder;
+    }
+
+    private static String testReqID(final Decoder decoder) throws Exception
+    {
+        return new String((char[])get(decoder, TEST_REQ_ID), 0, ABC.length());
+    }
+}
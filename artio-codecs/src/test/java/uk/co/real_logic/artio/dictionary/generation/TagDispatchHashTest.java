@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.collections.IntHashSet;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TagDispatchHashTest
+{
+    @Test
+    public void shouldMapEveryTagToADistinctSlot()
+    {
+        final int[] tags = randomTags(400);
+
+        final TagDispatchHash hash = TagDispatchHash.build(tags);
+
+        assertNotNull(hash);
+        final IntHashSet slots = new IntHashSet();
+        for (final int tag : tags)
+        {
+            final int slot = hash.slot(tag);
+            assertEquals(tag, hash.slotTags()[slot]);
+            assertTrue(slots.add(slot));
+        }
+        assertTrue(hash.slotTags().length <= 4 * tags.length);
+    }
+
+    @Test
+    public void shouldNotMatchTagsOutsideOfTheSet()
+    {
+        final int[] tags = randomTags(100);
+        final IntHashSet tagSet = new IntHashSet();
+        for (final int tag : tags)
+        {
+            tagSet.add(tag);
+        }
+
+        final TagDispatchHash hash = TagDispatchHash.build(tags);
+
+        for (int tag = 1; tag < 30_000; tag++)
+        {
+            if (!tagSet.contains(tag))
+            {
+                assertNotEquals(tag, hash.slotTags()[hash.slot(tag)]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldHashSingleTag()
+    {
+        final TagDispatchHash hash = TagDispatchHash.build(new int[]{ 35 });
+
+        assertEquals(35, hash.slotTags()[hash.slot(35)]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveTags()
+    {
+        TagDispatchHash.build(new int[]{ 35, 0 });
+    }
+
+    private static int[] randomTags(final int count)
+    {
+        // Mix of standard and custom tags
+        final Random random = new Random(42);
+        final IntHashSet tags = new IntHashSet();
+        while (tags.size() < count)
+        {
+            tags.add(random.nextBoolean() ? 1 + random.nextInt(2000) : 5000 + random.nextInt(20_000));
+        }
+
+        final int[] result = new int[count];
+        int i = 0;
+        for (final int tag : tags)
+        {
+            result[i++] = tag;
+        }
+        return result;
+    }
+}
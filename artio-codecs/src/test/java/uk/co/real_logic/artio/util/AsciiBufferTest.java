@@ -68,6 +68,83 @@ public class AsciiBufferTest
         assertEquals(UNKNOWN_INDEX, value);
     }
 
+    @Test
+    public void shouldFindCharactersWhenScanningForwards()
+    {
+        value = buffer.scan(OFFSET, OFFSET + BYTES.length, '=');
+
+        assertEquals(OFFSET + 1, value);
+    }
+
+    @Test
+    public void shouldFindFirstCharacterAtEveryPositionWhenScanningForwards()
+    {
+        final int end = 40;
+        for (int start = 0; start < end; start++)
+        {
+            for (int position = start; position < end; position++)
+            {
+                buffer.setMemory(0, end, (byte)'A');
+                buffer.putByte(position, (byte)'\001');
+                buffer.putByte(end - 1, (byte)'\001');
+
+                assertEquals("start=" + start, position, buffer.scan(start, end, (byte)'\001'));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotFindCharactersOutsideOfRangeWhenScanningForwards()
+    {
+        buffer.setMemory(0, 64, (byte)'A');
+        buffer.putByte(20, (byte)'=');
+
+        assertEquals(UNKNOWN_INDEX, buffer.scan(0, 20, '='));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(21, 64, '='));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(10, 5, '='));
+    }
+
+    @Test
+    public void shouldFindHighBitCharactersWhenScanningForwards()
+    {
+        buffer.setMemory(0, 32, (byte)0x80);
+        buffer.putByte(13, (byte)0xFF);
+
+        assertEquals(13, buffer.scan(0, 32, (byte)0xFF));
+    }
+
+    @Test
+    public void shouldComputeChecksumOfEveryRange()
+    {
+        final int end = 40;
+        for (int i = 0; i < end; i++)
+        {
+            buffer.putByte(i, (byte)('0' + i));
+        }
+
+        for (int start = 0; start < end; start++)
+        {
+            int total = 0;
+            for (int position = start; position <= end; position++)
+            {
+                assertEquals("start=" + start, total % 256, buffer.computeChecksum(start, position));
+                if (position < end)
+                {
+                    total += '0' + position;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldComputeChecksumOfLongRangesOfHighBitCharacters()
+    {
+        final int length = buffer.capacity() - 1;
+        buffer.setMemory(0, buffer.capacity(), (byte)0xFF);
+
+        assertEquals((length * 0xFF) % 256, buffer.computeChecksum(1, buffer.capacity()));
+    }
+
     @Test
     public void shouldGetIntegerValuesAtSpecifiedOffset()
     {
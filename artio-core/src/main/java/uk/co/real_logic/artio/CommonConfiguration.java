@@ -106,6 +106,12 @@ public class CommonConfiguration
      * Property name for the flag to enable or disable message timing
      */
     public static final String TIME_MESSAGES_PROPERTY = "fix.core.timing";
+    /**
+     * Property name for the comma separated names of the message timers to disable when message timing is enabled,
+     * eg: <code>Frame,InboundPublish</code>. The names are listed in {@link uk.co.real_logic.artio.timing.EngineTimers}
+     * and {@link uk.co.real_logic.artio.timing.LibraryTimers}.
+     */
+    public static final String DISABLED_TIMERS_PROPERTY = "fix.core.timing.disabled_timers";
     /**
      * Property name for the file to log debug messages to, default is standard output
      */
@@ -228,6 +234,20 @@ public class CommonConfiguration
         }
     }
 
+    private static Set<String> disabledTimersProperty()
+    {
+        final String disabledTimers = getProperty(DISABLED_TIMERS_PROPERTY);
+        if (disabledTimers == null)
+        {
+            return Collections.emptySet();
+        }
+
+        return Stream
+            .of(disabledTimers.split(","))
+            .map(String::trim)
+            .collect(Collectors.toSet());
+    }
+
     public static final String DEBUG_FILE = System.getProperty(DEBUG_FILE_PROPERTY);
     public static final boolean TIME_MESSAGES = Boolean.getBoolean(TIME_MESSAGES_PROPERTY);
     public static final boolean FORCE_WRITES = Boolean.getBoolean(FORCE_WRITES_MESSAGES_PROPERTY);
@@ -295,6 +315,7 @@ public class CommonConfiguration
         Long.getLong(HISTOGRAM_POLL_PERIOD_IN_MS_PROPERTY, DEFAULT_HISTOGRAM_POLL_PERIOD_IN_MS);
     private String histogramLoggingFile = null;
     private HistogramHandler histogramHandler;
+    private Set<String> disabledTimers = disabledTimersProperty();
     private String agentNamePrefix = DEFAULT_NAME_PREFIX;
     private int inboundLibraryStream = DEFAULT_INBOUND_LIBRARY_STREAM;
     private int outboundLibraryStream = DEFAULT_OUTBOUND_LIBRARY_STREAM;
@@ -631,6 +652,21 @@ public class CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets the names of the message timers that are disabled when message timing is enabled. Disabled timers don't
+     * record anything and aren't logged, so the cost of timing a message is only paid for the stages of its
+     * processing that are of interest.
+     *
+     * @param disabledTimers the names of the timers to disable.
+     * @return this
+     * @see CommonConfiguration#DISABLED_TIMERS_PROPERTY
+     */
+    public CommonConfiguration disabledTimers(final Set<String> disabledTimers)
+    {
+        this.disabledTimers = disabledTimers;
+        return this;
+    }
+
     /**
      * Sets the prefix to be used on agent names. This can be used to distinguish two different Artio instances
      * running in the same process, for example in tests.
@@ -976,6 +1012,11 @@ public class CommonConfiguration
         return histogramHandler;
     }
 
+    public Set<String> disabledTimers()
+    {
+        return disabledTimers;
+    }
+
     public String agentNamePrefix()
     {
         return agentNamePrefix;
@@ -47,7 +47,15 @@ public class FixCounters implements AutoCloseable
         CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
         NEGATIVE_TIMESTAMP_TYPE_ID(10_009),
         FAILED_ADMIN_TYPE_ID(10_010),
-        FAILED_ADMIN_REPLY_TYPE_ID(10_011);
+        FAILED_ADMIN_REPLY_TYPE_ID(10_011),
+        STARTUP_PHASE_TIME_TYPE_ID(10_012),
+        AUTHENTICATION_QUEUE_DEPTH_TYPE_ID(10_013),
+        AUTHENTICATION_LATENCY_TYPE_ID(10_014),
+        AUTHENTICATION_TIMEOUTS_TYPE_ID(10_015),
+        AUTHENTICATION_QUEUE_FULL_TYPE_ID(10_016),
+        PENDING_LOGONS_TYPE_ID(10_017),
+        DEFERRED_CONNECTION_POLLS_TYPE_ID(10_018),
+        PENDING_LOGONS_PER_ADDRESS_REJECTS_TYPE_ID(10_019);
 
         final int id;
 
@@ -179,6 +187,50 @@ public class FixCounters implements AutoCloseable
             FixCountersId.RECV_MSG_SEQ_NO_TYPE_ID.id(), msgSeqNoLabel("Received", connectionId, sessionId));
     }
 
+    public AtomicCounter startupPhaseTimeInNs(final String phase)
+    {
+        return newCounter(
+            FixCountersId.STARTUP_PHASE_TIME_TYPE_ID.id(), "Startup phase time in ns: " + phase);
+    }
+
+    public AtomicCounter authenticationQueueDepth()
+    {
+        return newCounter(FixCountersId.AUTHENTICATION_QUEUE_DEPTH_TYPE_ID.id(), "Authentication queue depth");
+    }
+
+    public AtomicCounter authenticationLatencyInNs()
+    {
+        return newCounter(FixCountersId.AUTHENTICATION_LATENCY_TYPE_ID.id(), "Last authentication latency in ns");
+    }
+
+    public AtomicCounter authenticationTimeouts()
+    {
+        return newCounter(FixCountersId.AUTHENTICATION_TIMEOUTS_TYPE_ID.id(), "Authentication strategy timeouts");
+    }
+
+    public AtomicCounter authenticationQueueFull()
+    {
+        return newCounter(FixCountersId.AUTHENTICATION_QUEUE_FULL_TYPE_ID.id(),
+            "Logons rejected due to a full authentication queue");
+    }
+
+    public AtomicCounter pendingLogons()
+    {
+        return newCounter(FixCountersId.PENDING_LOGONS_TYPE_ID.id(), "Connections pending logon");
+    }
+
+    public AtomicCounter deferredConnectionPolls()
+    {
+        return newCounter(FixCountersId.DEFERRED_CONNECTION_POLLS_TYPE_ID.id(),
+            "Polls that left new connections in the backlog due to pending logons");
+    }
+
+    public AtomicCounter pendingLogonsPerAddressRejects()
+    {
+        return newCounter(FixCountersId.PENDING_LOGONS_PER_ADDRESS_REJECTS_TYPE_ID.id(),
+            "Connections disconnected due to pending logons from their address");
+    }
+
     private String msgSeqNoLabel(final String type, final long connectionId, final long sessionId)
     {
         final StringBuilder sb = new StringBuilder();
@@ -21,6 +21,9 @@ import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ThreadFactory;
 
 import static org.agrona.concurrent.AgentRunner.startOnThread;
@@ -32,6 +35,8 @@ public class DefaultEngineScheduler implements EngineScheduler
 {
     private AgentRunner framerRunner;
     private AgentRunner archivingRunner;
+    private AgentRunner inboundIndexingRunner;
+    private final List<AgentRunner> replayerWorkerRunners = new ArrayList<>();
     private AgentRunner monitoringRunner;
     private RecordingCoordinator recordingCoordinator;
 
@@ -43,6 +48,50 @@ public class DefaultEngineScheduler implements EngineScheduler
         final Agent monitoringAgent,
         final Agent conductorAgent,
         final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            null,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent inboundIndexingAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            inboundIndexingAgent,
+            Collections.emptyList(),
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent inboundIndexingAgent,
+        final List<Agent> replayerWorkerAgents,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
     {
         this.recordingCoordinator = recordingCoordinator;
         if (framerRunner != null)
@@ -59,6 +108,21 @@ public class DefaultEngineScheduler implements EngineScheduler
         startOnThread(framerRunner, threadFactory);
         startOnThread(archivingRunner, threadFactory);
 
+        if (inboundIndexingAgent != null)
+        {
+            inboundIndexingRunner = new AgentRunner(
+                configuration.inboundIndexingIdleStrategy(), errorHandler, null, inboundIndexingAgent);
+            startOnThread(inboundIndexingRunner, threadFactory);
+        }
+
+        for (final Agent replayerWorkerAgent : replayerWorkerAgents)
+        {
+            final AgentRunner replayerWorkerRunner = new AgentRunner(
+                configuration.replayerWorkerIdleStrategySupplier().get(), errorHandler, null, replayerWorkerAgent);
+            replayerWorkerRunners.add(replayerWorkerRunner);
+            startOnThread(replayerWorkerRunner, threadFactory);
+        }
+
         if (monitoringAgent != null)
         {
             monitoringRunner = new AgentRunner(
@@ -74,9 +138,18 @@ public class DefaultEngineScheduler implements EngineScheduler
     {
         EngineScheduler.awaitRunnerStart(framerRunner);
         EngineScheduler.awaitRunnerStart(archivingRunner);
+        EngineScheduler.awaitRunnerStart(inboundIndexingRunner);
+        replayerWorkerRunners.forEach(EngineScheduler::awaitRunnerStart);
         EngineScheduler.awaitRunnerStart(monitoringRunner);
 
-        Exceptions.closeAll(framerRunner, archivingRunner, recordingCoordinator, monitoringRunner);
+        final List<AutoCloseable> closeables = new ArrayList<>();
+        closeables.add(framerRunner);
+        closeables.add(archivingRunner);
+        closeables.add(inboundIndexingRunner);
+        closeables.addAll(replayerWorkerRunners);
+        closeables.add(recordingCoordinator);
+        closeables.add(monitoringRunner);
+        Exceptions.closeAll(closeables);
     }
 
     public int pollFramer()
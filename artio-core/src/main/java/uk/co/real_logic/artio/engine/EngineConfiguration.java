@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine;
 
 import io.aeron.Aeron;
 import io.aeron.archive.client.AeronArchive;
+import org.agrona.BitUtil;
 import org.agrona.CloseHelper;
 import org.agrona.IoUtil;
 import org.agrona.Verify;
@@ -58,6 +59,7 @@ import java.util.*;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
@@ -165,6 +167,83 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for whether outbound FIX messages are coalesced into gathering writes per connection.
+     */
+    public static final String GATHERING_WRITES_PROP = "fix.core.gathering_writes";
+    /**
+     * Property name for whether the inbound indexer runs on its own thread, separate from the outbound indexer.
+     */
+    public static final String SEPARATE_INBOUND_INDEXING_THREAD_PROP = "fix.core.separate_inbound_indexing_thread";
+    /**
+     * Property name for whether updates to the sequence number indices are group committed to a journal.
+     */
+    public static final String SEQUENCE_NUMBER_INDEX_JOURNAL_PROP = "fix.core.sequence_number_index_journal";
+    /**
+     * Property name for the maximum time in microseconds that a sequence number index update waits before its
+     * journal group is committed.
+     */
+    public static final String SEQUENCE_NUMBER_INDEX_JOURNAL_COMMIT_INTERVAL_PROP =
+        "fix.core.sequence_number_index_journal_commit_interval_micros";
+    /**
+     * Property name for the maximum number of sequence number index updates that are committed to the journal together.
+     */
+    public static final String SEQUENCE_NUMBER_INDEX_JOURNAL_BATCH_SIZE_PROP =
+        "fix.core.sequence_number_index_journal_batch_size";
+    /**
+     * Property name for the total capacity in bytes of the cache of recently sent messages that resend requests are
+     * served from, 0 disables the cache.
+     */
+    public static final String HOT_REPLAY_CACHE_CAPACITY_PROP = "fix.core.hot_replay_cache_capacity";
+    /**
+     * Property name for the capacity in bytes of each session's ring within the cache of recently sent messages.
+     */
+    public static final String HOT_REPLAY_CACHE_SESSION_CAPACITY_PROP = "fix.core.hot_replay_cache_session_capacity";
+    /**
+     * Property name for the number of replayer workers that resend requests are spread across.
+     */
+    public static final String REPLAYER_WORKER_COUNT_PROP = "fix.core.replayer_worker_count";
+    /**
+     * Property name for the number of sequence numbers between entries in the sparse index of each session's replay
+     * index, 0 disables the sparse index.
+     */
+    public static final String REPLAY_INDEX_SPARSE_INTERVAL_PROP = "fix.core.replay_index_sparse_interval";
+    /**
+     * Property name for whether to index the archive positions of each session's messages for the
+     * {@link FixArchiveScanner}.
+     */
+    public static final String SESSION_ARCHIVE_INDEX_ENABLED_PROP = "fix.core.session_archive_index_enabled";
+    /**
+     * Property name for whether to run the independent phases of startup recovery in parallel.
+     */
+    public static final String PARALLEL_STARTUP_RECOVERY_PROP = "fix.core.parallel_startup_recovery";
+    /**
+     * Property name for the number of worker threads that FIX logons are authenticated on, 0 authenticates them on
+     * the Framer thread.
+     */
+    public static final String AUTHENTICATION_WORKER_COUNT_PROP = "fix.core.authentication_worker_count";
+    /**
+     * Property name for the capacity of the queue of FIX logons waiting for an authentication worker.
+     */
+    public static final String AUTHENTICATION_QUEUE_CAPACITY_PROP = "fix.core.authentication_queue_capacity";
+    /**
+     * Property name for the time in milliseconds that an authentication worker's strategy has to authenticate a
+     * FIX logon before it gets rejected.
+     */
+    public static final String AUTHENTICATION_STRATEGY_TIMEOUT_PROP = "fix.core.authentication_strategy_timeout_in_ms";
+    /**
+     * Property name for the maximum number of new connections that are accepted per duty cycle of the Framer.
+     */
+    public static final String MAX_NEW_CONNECTIONS_PER_POLL_PROP = "fix.core.max_new_connections_per_poll";
+    /**
+     * Property name for the maximum number of accepted connections that can be waiting to complete their logon.
+     */
+    public static final String MAX_PENDING_LOGONS_PROP = "fix.core.max_pending_logons";
+    /**
+     * Property name for the maximum number of accepted connections from a single IP address that can be waiting to
+     * complete their logon.
+     */
+    public static final String MAX_PENDING_LOGONS_PER_ADDRESS_PROP = "fix.core.max_pending_logons_per_address";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -187,6 +266,23 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_REPLAY_POSITION_BUFFER_SIZE = 4 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS = (int)SECONDS.toMillis(5);
+    public static final boolean DEFAULT_GATHERING_WRITES = false;
+    public static final boolean DEFAULT_SEPARATE_INBOUND_INDEXING_THREAD = false;
+    public static final boolean DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL = false;
+    public static final long DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL_COMMIT_INTERVAL_IN_MICROS = 1_000;
+    public static final int DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL_BATCH_SIZE = 256;
+    public static final int DEFAULT_HOT_REPLAY_CACHE_CAPACITY = 0;
+    public static final int DEFAULT_HOT_REPLAY_CACHE_SESSION_CAPACITY = 64 * 1024;
+    public static final int DEFAULT_REPLAYER_WORKER_COUNT = 1;
+    public static final int DEFAULT_REPLAY_INDEX_SPARSE_INTERVAL = 1024;
+    public static final boolean DEFAULT_SESSION_ARCHIVE_INDEX_ENABLED = false;
+    public static final boolean DEFAULT_PARALLEL_STARTUP_RECOVERY = false;
+    public static final int DEFAULT_AUTHENTICATION_WORKER_COUNT = 0;
+    public static final int DEFAULT_AUTHENTICATION_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_AUTHENTICATION_STRATEGY_TIMEOUT_IN_MS = 10_000;
+    public static final int DEFAULT_MAX_NEW_CONNECTIONS_PER_POLL = 1;
+    public static final int DEFAULT_MAX_PENDING_LOGONS = Integer.MAX_VALUE;
+    public static final int DEFAULT_MAX_PENDING_LOGONS_PER_ADDRESS = Integer.MAX_VALUE;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_FIXP_ID_FILE = "fixp_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
@@ -249,6 +345,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private boolean printStartupWarnings = true;
     private IdleStrategy framerIdleStrategy = backoffIdleStrategy();
     private IdleStrategy archiverIdleStrategy = backoffIdleStrategy();
+    private IdleStrategy inboundIndexingIdleStrategy = backoffIdleStrategy();
+    private Supplier<IdleStrategy> replayerWorkerIdleStrategySupplier = CommonConfiguration::backoffIdleStrategy;
     private AtomicBuffer sentSequenceNumberBuffer;
     private AtomicBuffer receivedSequenceNumberBuffer;
     private MappedFile sentSequenceNumberIndex;
@@ -282,6 +380,37 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS);
     private boolean indexChecksumEnabled = getBoolean(INDEX_CHECKSUM_ENABLED_PROP, DEFAULT_INDEX_CHECKSUM_ENABLED);
+    private boolean gatheringWrites = getBoolean(GATHERING_WRITES_PROP, DEFAULT_GATHERING_WRITES);
+    private boolean separateInboundIndexingThread =
+        getBoolean(SEPARATE_INBOUND_INDEXING_THREAD_PROP, DEFAULT_SEPARATE_INBOUND_INDEXING_THREAD);
+    private boolean sequenceNumberIndexJournal =
+        getBoolean(SEQUENCE_NUMBER_INDEX_JOURNAL_PROP, DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL);
+    private long sequenceNumberIndexJournalCommitIntervalInMicros = Long.getLong(
+        SEQUENCE_NUMBER_INDEX_JOURNAL_COMMIT_INTERVAL_PROP,
+        DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL_COMMIT_INTERVAL_IN_MICROS);
+    private int sequenceNumberIndexJournalBatchSize =
+        getInteger(SEQUENCE_NUMBER_INDEX_JOURNAL_BATCH_SIZE_PROP, DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL_BATCH_SIZE);
+    private int hotReplayCacheCapacity = getInteger(HOT_REPLAY_CACHE_CAPACITY_PROP, DEFAULT_HOT_REPLAY_CACHE_CAPACITY);
+    private int hotReplayCacheSessionCapacity =
+        getInteger(HOT_REPLAY_CACHE_SESSION_CAPACITY_PROP, DEFAULT_HOT_REPLAY_CACHE_SESSION_CAPACITY);
+    private int replayerWorkerCount = getInteger(REPLAYER_WORKER_COUNT_PROP, DEFAULT_REPLAYER_WORKER_COUNT);
+    private int replayIndexSparseInterval =
+        getInteger(REPLAY_INDEX_SPARSE_INTERVAL_PROP, DEFAULT_REPLAY_INDEX_SPARSE_INTERVAL);
+    private boolean sessionArchiveIndexEnabled =
+        getBoolean(SESSION_ARCHIVE_INDEX_ENABLED_PROP, DEFAULT_SESSION_ARCHIVE_INDEX_ENABLED);
+    private boolean parallelStartupRecovery =
+        getBoolean(PARALLEL_STARTUP_RECOVERY_PROP, DEFAULT_PARALLEL_STARTUP_RECOVERY);
+    private int authenticationWorkerCount =
+        getInteger(AUTHENTICATION_WORKER_COUNT_PROP, DEFAULT_AUTHENTICATION_WORKER_COUNT);
+    private int authenticationQueueCapacity =
+        getInteger(AUTHENTICATION_QUEUE_CAPACITY_PROP, DEFAULT_AUTHENTICATION_QUEUE_CAPACITY);
+    private long authenticationStrategyTimeoutInMs =
+        Long.getLong(AUTHENTICATION_STRATEGY_TIMEOUT_PROP, DEFAULT_AUTHENTICATION_STRATEGY_TIMEOUT_IN_MS);
+    private int maxNewConnectionsPerPoll =
+        getInteger(MAX_NEW_CONNECTIONS_PER_POLL_PROP, DEFAULT_MAX_NEW_CONNECTIONS_PER_POLL);
+    private int maxPendingLogons = getInteger(MAX_PENDING_LOGONS_PROP, DEFAULT_MAX_PENDING_LOGONS);
+    private int maxPendingLogonsPerAddress =
+        getInteger(MAX_PENDING_LOGONS_PER_ADDRESS_PROP, DEFAULT_MAX_PENDING_LOGONS_PER_ADDRESS);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -488,6 +617,25 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of sequence numbers between the entries of the sparse index that is kept alongside each
+     * session's replay index. Queries use the sparse index to start scanning the replay index from just before
+     * the requested range, rather than from the oldest record, so replaying recent messages of a long running
+     * session doesn't need to scan the whole replay index.
+     *
+     * Smaller intervals shorten the scan after the sparse index lookup at the cost of a larger sparse index file.
+     *
+     * @param replayIndexSparseInterval the number of sequence numbers between sparse index entries, or 0 to disable
+     *                                  the sparse index.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SPARSE_INTERVAL_PROP
+     */
+    public EngineConfiguration replayIndexSparseInterval(final int replayIndexSparseInterval)
+    {
+        this.replayIndexSparseInterval = replayIndexSparseInterval;
+        return this;
+    }
+
     /**
      * Convert the number of records in a replay index file to a file size. Note: because replay index file sizes must
      * be a power of two this method can return a file size greater than the requested number of records but never less.
@@ -602,6 +750,162 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether the inbound indexer, which maintains the inbound replay index and received sequence number
+     * index, runs on its own thread. By default both inbound and outbound indexing share the Logger thread with the
+     * replayer, so a burst of inbound messages, eg: during a logon storm, delays the outbound indexing that
+     * sequence number lookups for new sessions wait upon, and vice versa.
+     *
+     * This is honoured by the {@link DefaultEngineScheduler}, other schedulers may run the inbound indexer on the
+     * same thread as the other indexing agents.
+     *
+     * @param separateInboundIndexingThread true to run inbound indexing on its own thread, false otherwise.
+     * @return this
+     * @see EngineConfiguration#SEPARATE_INBOUND_INDEXING_THREAD_PROP
+     * @see EngineConfiguration#inboundIndexingIdleStrategy(IdleStrategy)
+     */
+    public EngineConfiguration separateInboundIndexingThread(final boolean separateInboundIndexingThread)
+    {
+        this.separateInboundIndexingThread = separateInboundIndexingThread;
+        return this;
+    }
+
+    /**
+     * Sets whether updates to the sent and received sequence number indices are written to a journal alongside
+     * each index file. Without the journal an update only becomes durable when the whole index file is next saved,
+     * see {@link #indexFileStateFlushTimeoutInMs(long)}, so a crash loses up to that timeout's worth of updates,
+     * which then have to be recovered by re-indexing the archive. With the journal enabled each update is appended
+     * to the journal and updates are group committed together, so the cost of durability is proportional to the
+     * number of updates rather than the size of the index file. When <code>fix.core.flush</code> is set each group
+     * commit is fsynced. The index file is then only saved, and the journal truncated, once the journal has grown to
+     * the size of the index file rather than every {@link #indexFileStateFlushTimeoutInMs(long)}.
+     *
+     * @param sequenceNumberIndexJournal true to enable the journal, false otherwise.
+     * @return this
+     * @see EngineConfiguration#SEQUENCE_NUMBER_INDEX_JOURNAL_PROP
+     * @see EngineConfiguration#sequenceNumberIndexJournalCommitIntervalInMicros(long)
+     * @see EngineConfiguration#sequenceNumberIndexJournalBatchSize(int)
+     */
+    public EngineConfiguration sequenceNumberIndexJournal(final boolean sequenceNumberIndexJournal)
+    {
+        this.sequenceNumberIndexJournal = sequenceNumberIndexJournal;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time that an update to a sequence number index waits before being committed to the journal.
+     * Only used when {@link #sequenceNumberIndexJournal(boolean)} is enabled.
+     *
+     * @param sequenceNumberIndexJournalCommitIntervalInMicros the maximum commit delay in microseconds.
+     * @return this
+     * @see EngineConfiguration#SEQUENCE_NUMBER_INDEX_JOURNAL_COMMIT_INTERVAL_PROP
+     */
+    public EngineConfiguration sequenceNumberIndexJournalCommitIntervalInMicros(
+        final long sequenceNumberIndexJournalCommitIntervalInMicros)
+    {
+        this.sequenceNumberIndexJournalCommitIntervalInMicros = sequenceNumberIndexJournalCommitIntervalInMicros;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of sequence number index updates that are committed to the journal together, a full
+     * batch is committed without waiting for the commit interval. Only used when
+     * {@link #sequenceNumberIndexJournal(boolean)} is enabled.
+     *
+     * @param sequenceNumberIndexJournalBatchSize the maximum number of updates per commit.
+     * @return this
+     * @see EngineConfiguration#SEQUENCE_NUMBER_INDEX_JOURNAL_BATCH_SIZE_PROP
+     */
+    public EngineConfiguration sequenceNumberIndexJournalBatchSize(final int sequenceNumberIndexJournalBatchSize)
+    {
+        this.sequenceNumberIndexJournalBatchSize = sequenceNumberIndexJournalBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the total capacity of the off-heap cache of recently sent messages. Resend requests for messages that are
+     * still within the cache are replayed from it, rather than by starting a replay from the Aeron Archive, which
+     * reduces the latency of small resends, eg: after a short network outage. Requests that the cache can't fully
+     * serve are replayed from the archive as normal. The cache is only used when outbound messages are logged.
+     *
+     * The cache is split into a ring of {@link #hotReplayCacheSessionCapacity(int)} bytes per session, so this
+     * capacity bounds the number of sessions that are cached at once, the least recently used session is evicted
+     * when a ring is needed for another session.
+     *
+     * @param hotReplayCacheCapacity the capacity in bytes, or 0 to disable the cache.
+     * @return this
+     * @see EngineConfiguration#HOT_REPLAY_CACHE_CAPACITY_PROP
+     */
+    public EngineConfiguration hotReplayCacheCapacity(final int hotReplayCacheCapacity)
+    {
+        this.hotReplayCacheCapacity = hotReplayCacheCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of each session's ring within the cache of recently sent messages, which bounds how far back
+     * resend requests can be served from the cache. Must be a power of two.
+     *
+     * @param hotReplayCacheSessionCapacity the capacity in bytes.
+     * @return this
+     * @see EngineConfiguration#HOT_REPLAY_CACHE_SESSION_CAPACITY_PROP
+     * @see EngineConfiguration#hotReplayCacheCapacity(int)
+     */
+    public EngineConfiguration hotReplayCacheSessionCapacity(final int hotReplayCacheSessionCapacity)
+    {
+        this.hotReplayCacheSessionCapacity = hotReplayCacheSessionCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the number of workers that resend requests are replayed by. Each worker is a separate Replayer agent with
+     * its own archive replay subscriptions, replay publication and message encoders, so that replays for different
+     * sessions can run in parallel. Connections are assigned to workers by their connection id, so all the replays
+     * of a session are still processed in order by the same worker.
+     *
+     * The first worker runs on the Logger thread as normal. The {@link DefaultEngineScheduler} runs each additional
+     * worker on its own thread, other schedulers may run them on the Logger thread. The cache of recently sent
+     * messages, see {@link #hotReplayCacheCapacity(int)}, is only used by the first worker. Only used when outbound
+     * messages are logged.
+     *
+     * @param replayerWorkerCount the number of replayer workers, must be at least 1.
+     * @return this
+     * @see EngineConfiguration#REPLAYER_WORKER_COUNT_PROP
+     * @see EngineConfiguration#replayerWorkerIdleStrategySupplier(Supplier)
+     */
+    public EngineConfiguration replayerWorkerCount(final int replayerWorkerCount)
+    {
+        this.replayerWorkerCount = replayerWorkerCount;
+        return this;
+    }
+
+    /**
+     * Sets the supplier of idle strategies for the additional replayer worker threads, one idle strategy is supplied
+     * for each worker. Only used when {@link #replayerWorkerCount(int)} is greater than 1.
+     *
+     * @param replayerWorkerIdleStrategySupplier the supplier of idle strategies for replayer worker threads.
+     * @return this
+     */
+    public EngineConfiguration replayerWorkerIdleStrategySupplier(
+        final Supplier<IdleStrategy> replayerWorkerIdleStrategySupplier)
+    {
+        this.replayerWorkerIdleStrategySupplier = replayerWorkerIdleStrategySupplier;
+        return this;
+    }
+
+    /**
+     * Sets the idle strategy for the inbound indexing thread, only used when
+     * {@link #separateInboundIndexingThread(boolean)} is enabled.
+     *
+     * @param inboundIndexingIdleStrategy the idle strategy for the inbound indexing thread.
+     * @return this
+     */
+    public EngineConfiguration inboundIndexingIdleStrategy(final IdleStrategy inboundIndexingIdleStrategy)
+    {
+        this.inboundIndexingIdleStrategy = inboundIndexingIdleStrategy;
+        return this;
+    }
+
     /**
      * Sets the fragment limit for the subscription to outbound messages from libraries.
      *
@@ -647,6 +951,26 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether outbound FIX messages are coalesced into gathering writes. When enabled the messages that the
+     * Framer polls for a connection within a single duty cycle are staged and then written to the socket with a
+     * single <code>write(ByteBuffer[])</code> call, rather than one system call per message. This reduces
+     * system call overhead when messages are sent in bursts at the cost of copying each message into the
+     * staging buffer. Replayed messages are always written individually.
+     *
+     * If the gathering write is only partially accepted by the socket then the unwritten messages are handed
+     * over to the normal slow consumer retry mechanism, see {@link #senderMaxBytesInBuffer(int)}.
+     *
+     * @param gatheringWrites true to coalesce outbound messages into gathering writes, false otherwise.
+     * @return this
+     * @see EngineConfiguration#GATHERING_WRITES_PROP
+     */
+    public EngineConfiguration gatheringWrites(final boolean gatheringWrites)
+    {
+        this.gatheringWrites = gatheringWrites;
+        return this;
+    }
+
     /**
      * Set the timeout in milliseconds for TCP connections which don't send a logon message.
      *
@@ -905,6 +1229,109 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of worker threads that the {@link #authenticationStrategy(AuthenticationStrategy)} is invoked
+     * on for FIX logons. By default, with 0 workers, the strategy is invoked on the Framer thread, so a strategy that
+     * blocks, for example on a network call to an LDAP server, stalls every other session while it does so.
+     *
+     * With 1 or more workers logons are queued for the workers to authenticate and the strategy's call to
+     * {@link AuthenticationProxy} is handed back to the Framer. The strategy must then be safe to invoke from multiple
+     * threads. Logons are rejected if the queue is full, see {@link #authenticationQueueCapacity(int)}, or if the
+     * strategy doesn't authenticate them in time, see {@link #authenticationStrategyTimeoutInMs(long)}. Has no
+     * effect on FIXP sessions.
+     *
+     * @param authenticationWorkerCount the number of authentication workers, 0 to authenticate on the Framer thread.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_WORKER_COUNT_PROP
+     */
+    public EngineConfiguration authenticationWorkerCount(final int authenticationWorkerCount)
+    {
+        this.authenticationWorkerCount = authenticationWorkerCount;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of the queue of FIX logons waiting for an authentication worker. Logons that arrive when the
+     * queue is full are rejected rather than delaying every other logon further. Only used when
+     * {@link #authenticationWorkerCount(int)} is greater than 0.
+     *
+     * @param authenticationQueueCapacity the capacity of the queue, rounded up to a power of two.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_QUEUE_CAPACITY_PROP
+     */
+    public EngineConfiguration authenticationQueueCapacity(final int authenticationQueueCapacity)
+    {
+        this.authenticationQueueCapacity = authenticationQueueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the time that the authentication strategy has to accept or reject a FIX logon once it's been queued for an
+     * authentication worker. Logons that it hasn't authenticated in time are rejected and any later calls it makes to
+     * their {@link AuthenticationProxy} throw an {@link IllegalStateException}. Only used when
+     * {@link #authenticationWorkerCount(int)} is greater than 0. This should be shorter than the
+     * {@link #authenticationTimeoutInMs(long)}, after which the connection is disconnected without a reply.
+     *
+     * @param authenticationStrategyTimeoutInMs the timeout for the strategy.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_STRATEGY_TIMEOUT_PROP
+     */
+    public EngineConfiguration authenticationStrategyTimeoutInMs(final long authenticationStrategyTimeoutInMs)
+    {
+        this.authenticationStrategyTimeoutInMs = authenticationStrategyTimeoutInMs;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of new connections that the engine accepts per duty cycle of the Framer. Connections
+     * beyond this limit stay in the listening socket's backlog until a later duty cycle, so that a large number of
+     * clients reconnecting at once doesn't starve sessions that are already established.
+     *
+     * Only applies to channel suppliers that support limiting the channels that they accept, such as the
+     * {@link DefaultTcpChannelSupplier}.
+     *
+     * @param maxNewConnectionsPerPoll the maximum number of new connections per duty cycle.
+     * @return this
+     * @see EngineConfiguration#MAX_NEW_CONNECTIONS_PER_POLL_PROP
+     */
+    public EngineConfiguration maxNewConnectionsPerPoll(final int maxNewConnectionsPerPoll)
+    {
+        this.maxNewConnectionsPerPoll = maxNewConnectionsPerPoll;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of accepted connections that can be waiting to complete their logon. A connection
+     * is waiting to complete its logon from being accepted until it has been authenticated or disconnected. Whilst
+     * this limit is reached new connections stay in the listening socket's backlog. Defaults to no limit.
+     *
+     * @param maxPendingLogons the maximum number of connections waiting to complete their logon.
+     * @return this
+     * @see EngineConfiguration#MAX_PENDING_LOGONS_PROP
+     */
+    public EngineConfiguration maxPendingLogons(final int maxPendingLogons)
+    {
+        this.maxPendingLogons = maxPendingLogons;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of accepted connections from a single IP address that can be waiting to complete their
+     * logon, so that one misbehaving client can't use up the {@link #maxPendingLogons(int)} of every other client.
+     * A connection's address is only known once it has been accepted, so new connections beyond this limit are
+     * disconnected rather than left in the backlog. Defaults to no limit.
+     *
+     * @param maxPendingLogonsPerAddress the maximum number of connections waiting to complete their logon per IP
+     *                                   address.
+     * @return this
+     * @see EngineConfiguration#MAX_PENDING_LOGONS_PER_ADDRESS_PROP
+     */
+    public EngineConfiguration maxPendingLogonsPerAddress(final int maxPendingLogonsPerAddress)
+    {
+        this.maxPendingLogonsPerAddress = maxPendingLogonsPerAddress;
+        return this;
+    }
+
     public EngineConfiguration indexFileStateFlushTimeoutInMs(final long indexFileStateFlushTimeoutInMs)
     {
         this.indexFileStateFlushTimeoutInMs = indexFileStateFlushTimeoutInMs;
@@ -1180,6 +1607,48 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables or disables the session archive index, used for optimizing the {@link FixArchiveScanner}.
+     *
+     * When enabled the replay index also writes, for each recording, the ranges of positions that each session's
+     * messages were archived at. This allows archive scans that filter by
+     * {@link uk.co.real_logic.artio.engine.logger.FixMessagePredicates#sessionOf(long)} to only replay those ranges
+     * rather than the whole recording. Entries are flushed at the same interval as the time index.
+     *
+     * Disabled by default.
+     *
+     * @param sessionArchiveIndexEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#SESSION_ARCHIVE_INDEX_ENABLED_PROP
+     */
+    public EngineConfiguration sessionArchiveIndexEnabled(final boolean sessionArchiveIndexEnabled)
+    {
+        this.sessionArchiveIndexEnabled = sessionArchiveIndexEnabled;
+        return this;
+    }
+
+    /**
+     * Enables or disables parallel startup recovery.
+     *
+     * On startup the engine catches its inbound and outbound indexes up with any messages that were archived but not
+     * indexed before it last stopped, and loads its session contexts. By default these phases run one after another.
+     * When enabled the inbound and outbound index catchups each run on their own thread while the session contexts
+     * are loaded, so that a restart takes as long as the slowest phase rather than all of them. The engine still
+     * waits for every phase to complete before accepting connections. This has no effect if the Aeron client uses a
+     * conductor agent invoker, as that can only be invoked from one thread.
+     *
+     * The time taken by each phase is reported in a counter, whether or not this is enabled.
+     *
+     * @param parallelStartupRecovery true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#PARALLEL_STARTUP_RECOVERY_PROP
+     */
+    public EngineConfiguration parallelStartupRecovery(final boolean parallelStartupRecovery)
+    {
+        this.parallelStartupRecovery = parallelStartupRecovery;
+        return this;
+    }
+
     /**
      * Allows disabling of the checksum calculation and validation of index files. Note: this does not affect the
      * checksum calculation for AeronArchiver - only artio itself.
@@ -1719,6 +2188,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexSegmentRecordCapacity;
     }
 
+    public int replayIndexSparseInterval()
+    {
+        return replayIndexSparseInterval;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -1784,6 +2258,51 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return archiverIdleStrategy;
     }
 
+    public boolean separateInboundIndexingThread()
+    {
+        return separateInboundIndexingThread;
+    }
+
+    public IdleStrategy inboundIndexingIdleStrategy()
+    {
+        return inboundIndexingIdleStrategy;
+    }
+
+    public boolean sequenceNumberIndexJournal()
+    {
+        return sequenceNumberIndexJournal;
+    }
+
+    public long sequenceNumberIndexJournalCommitIntervalInMicros()
+    {
+        return sequenceNumberIndexJournalCommitIntervalInMicros;
+    }
+
+    public int sequenceNumberIndexJournalBatchSize()
+    {
+        return sequenceNumberIndexJournalBatchSize;
+    }
+
+    public int hotReplayCacheCapacity()
+    {
+        return hotReplayCacheCapacity;
+    }
+
+    public int hotReplayCacheSessionCapacity()
+    {
+        return hotReplayCacheSessionCapacity;
+    }
+
+    public int replayerWorkerCount()
+    {
+        return replayerWorkerCount;
+    }
+
+    public Supplier<IdleStrategy> replayerWorkerIdleStrategySupplier()
+    {
+        return replayerWorkerIdleStrategySupplier;
+    }
+
     public int outboundLibraryFragmentLimit()
     {
         return outboundLibraryFragmentLimit;
@@ -1853,6 +2372,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return noLogonDisconnectTimeoutInMs;
     }
 
+    public boolean gatheringWrites()
+    {
+        return gatheringWrites;
+    }
+
     public SessionPersistenceStrategy sessionPersistenceStrategy()
     {
         return sessionPersistenceStrategy;
@@ -2043,6 +2567,46 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexChecksumEnabled;
     }
 
+    public boolean sessionArchiveIndexEnabled()
+    {
+        return sessionArchiveIndexEnabled;
+    }
+
+    public boolean parallelStartupRecovery()
+    {
+        return parallelStartupRecovery;
+    }
+
+    public int authenticationWorkerCount()
+    {
+        return authenticationWorkerCount;
+    }
+
+    public int authenticationQueueCapacity()
+    {
+        return authenticationQueueCapacity;
+    }
+
+    public long authenticationStrategyTimeoutInMs()
+    {
+        return authenticationStrategyTimeoutInMs;
+    }
+
+    public int maxNewConnectionsPerPoll()
+    {
+        return maxNewConnectionsPerPoll;
+    }
+
+    public int maxPendingLogons()
+    {
+        return maxPendingLogons;
+    }
+
+    public int maxPendingLogonsPerAddress()
+    {
+        return maxPendingLogonsPerAddress;
+    }
+
     public EngineReproductionConfiguration reproductionConfiguration()
     {
         return reproductionConfiguration;
@@ -2112,6 +2676,78 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
             throw new IllegalArgumentException("FIXP acceptor is not supported without logging messages");
         }
 
+        if (sequenceNumberIndexJournalBatchSize() < 1)
+        {
+            throw new IllegalArgumentException(
+                "sequenceNumberIndexJournalBatchSize must be >= 1 but is " + sequenceNumberIndexJournalBatchSize());
+        }
+
+        if (replayIndexSparseInterval() < 0)
+        {
+            throw new IllegalArgumentException(
+                "replayIndexSparseInterval must be >= 0 but is " + replayIndexSparseInterval());
+        }
+
+        if (replayerWorkerCount() < 1)
+        {
+            throw new IllegalArgumentException(
+                "replayerWorkerCount must be >= 1 but is " + replayerWorkerCount());
+        }
+
+        if (authenticationWorkerCount() < 0)
+        {
+            throw new IllegalArgumentException(
+                "authenticationWorkerCount must be >= 0 but is " + authenticationWorkerCount());
+        }
+
+        if (maxNewConnectionsPerPoll() < 1)
+        {
+            throw new IllegalArgumentException(
+                "maxNewConnectionsPerPoll must be >= 1 but is " + maxNewConnectionsPerPoll());
+        }
+
+        if (maxPendingLogons() < 1)
+        {
+            throw new IllegalArgumentException("maxPendingLogons must be >= 1 but is " + maxPendingLogons());
+        }
+
+        if (maxPendingLogonsPerAddress() < 1)
+        {
+            throw new IllegalArgumentException(
+                "maxPendingLogonsPerAddress must be >= 1 but is " + maxPendingLogonsPerAddress());
+        }
+
+        if (authenticationWorkerCount() > 0)
+        {
+            if (authenticationQueueCapacity() < 2)
+            {
+                throw new IllegalArgumentException(
+                    "authenticationQueueCapacity must be >= 2 but is " + authenticationQueueCapacity());
+            }
+
+            if (authenticationStrategyTimeoutInMs() <= 0)
+            {
+                throw new IllegalArgumentException(
+                    "authenticationStrategyTimeoutInMs must be > 0 but is " + authenticationStrategyTimeoutInMs());
+            }
+        }
+
+        if (hotReplayCacheCapacity() > 0)
+        {
+            if (!BitUtil.isPowerOfTwo(hotReplayCacheSessionCapacity()))
+            {
+                throw new IllegalArgumentException(
+                    "hotReplayCacheSessionCapacity must be a power of two but is " + hotReplayCacheSessionCapacity());
+            }
+
+            if (hotReplayCacheCapacity() < hotReplayCacheSessionCapacity())
+            {
+                throw new IllegalArgumentException(
+                    "hotReplayCacheCapacity must be >= hotReplayCacheSessionCapacity but is " +
+                    hotReplayCacheCapacity());
+            }
+        }
+
         if (deleteLogFileDirOnStart())
         {
             final File logFileDir = new File(logFileDir());
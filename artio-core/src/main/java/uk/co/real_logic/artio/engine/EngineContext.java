@@ -35,10 +35,12 @@ import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.messages.FixPProtocolType;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.Streams;
+import uk.co.real_logic.artio.timing.EngineTimers;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
 
@@ -56,11 +58,15 @@ public class EngineContext implements AutoCloseable
     private final ErrorHandler errorHandler;
     private final FixCounters fixCounters;
     private final Aeron aeron;
+    // The first replayer worker's queue, which also executes prune operations
     private final ReplayerCommandQueue replayerCommandQueue;
+    private final ReplayerCommandQueue[] replayerCommandQueues;
     private final SenderSequenceNumbers senderSequenceNumbers;
+    private final SenderSequenceNumbers[] workerSenderSequenceNumbers;
     private final AeronArchive aeronArchive;
     private final RecordingCoordinator recordingCoordinator;
-    private final ExclusivePublication replayPublication;
+    private final EngineTimers timers;
+    private final ExclusivePublication[] replayPublications;
     private final SequenceNumberIndexWriter sentSequenceNumberIndex;
     private final SequenceNumberIndexWriter receivedSequenceNumberIndex;
 
@@ -70,12 +76,15 @@ public class EngineContext implements AutoCloseable
     private Streams inboundLibraryStreams;
     private Streams outboundLibraryStreams;
 
-    // Indexers are owned by the indexingAgent
+    // Indexers are owned by the indexingAgent, or by the inboundIndexingAgent when running on a separate thread
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
     private Agent indexingAgent;
+    private Agent inboundIndexingAgent;
+    private final List<Agent> replayerWorkerAgents = new ArrayList<>();
     private ReplayQuery pruneInboundReplayQuery;
     private ReplayQuery outboundReplayQuery;
+    private HotReplayCache hotReplayCache;
     private FramerContext framerContext;
     private long inboundIndexRegistrationId;
     private long outboundIndexRegistrationId;
@@ -83,32 +92,43 @@ public class EngineContext implements AutoCloseable
     EngineContext(
         final EngineConfiguration configuration,
         final ErrorHandler errorHandler,
-        final ExclusivePublication replayPublication,
+        final ExclusivePublication[] replayPublications,
         final FixCounters fixCounters,
         final Aeron aeron,
         final AeronArchive aeronArchive,
-        final RecordingCoordinator recordingCoordinator)
+        final RecordingCoordinator recordingCoordinator,
+        final EngineTimers timers)
     {
         this.configuration = configuration;
         this.errorHandler = errorHandler;
         this.fixCounters = fixCounters;
         this.aeron = aeron;
         this.clock = configuration.epochNanoClock();
-        this.replayPublication = replayPublication;
+        this.replayPublications = replayPublications;
         this.aeronArchive = aeronArchive;
         this.recordingCoordinator = recordingCoordinator;
+        this.timers = timers;
 
         inboundEvictionHandler = new ReplayEvictionHandler(errorHandler);
         outboundEvictionHandler = new ReplayEvictionHandler(errorHandler);
-        replayerCommandQueue = new ReplayerCommandQueue(configuration.framerIdleStrategy());
-        senderSequenceNumbers = new SenderSequenceNumbers(replayerCommandQueue);
+        final int replayerWorkerCount = replayPublications.length;
+        replayerCommandQueues = new ReplayerCommandQueue[replayerWorkerCount];
+        workerSenderSequenceNumbers = new SenderSequenceNumbers[replayerWorkerCount];
+        for (int i = 0; i < replayerWorkerCount; i++)
+        {
+            replayerCommandQueues[i] = new ReplayerCommandQueue(configuration.framerIdleStrategy());
+            workerSenderSequenceNumbers[i] = new SenderSequenceNumbers(replayerCommandQueues[i]);
+        }
+        replayerCommandQueue = replayerCommandQueues[0];
+        senderSequenceNumbers = replayerWorkerCount == 1 ?
+            workerSenderSequenceNumbers[0] : new SenderSequenceNumbers(workerSenderSequenceNumbers);
 
         try
         {
             final EpochClock epochClock = new SystemEpochClock();
-            final Long2LongHashMap connectionIdToFixPSessionId = new Long2LongHashMap(UNK_SESSION);
             final FixPProtocolType fixPProtocolType = configuration.supportedFixPProtocolType();
             final boolean indexChecksumEnabled = configuration.indexChecksumEnabled();
+            // Each direction has its own connection id maps so that the indexers can run on separate threads
             sentSequenceNumberIndex = new SequenceNumberIndexWriter(
                 sentSequenceNumberExtractor,
                 configuration.sentSequenceNumberBuffer(),
@@ -119,10 +139,11 @@ public class EngineContext implements AutoCloseable
                 configuration.indexFileStateFlushTimeoutInMs(),
                 epochClock,
                 configuration.logFileDir(),
-                connectionIdToFixPSessionId,
+                new Long2LongHashMap(UNK_SESSION),
                 fixPProtocolType,
                 indexChecksumEnabled,
-                configuration.logOutboundMessages());
+                configuration.logOutboundMessages(),
+                newSequenceNumberIndexJournal(configuration.sentSequenceNumberIndex()));
             receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
                 recvSequenceNumberExtractor,
                 configuration.receivedSequenceNumberBuffer(),
@@ -133,10 +154,11 @@ public class EngineContext implements AutoCloseable
                 configuration.indexFileStateFlushTimeoutInMs(),
                 epochClock,
                 null,
-                connectionIdToFixPSessionId,
+                new Long2LongHashMap(UNK_SESSION),
                 fixPProtocolType,
                 indexChecksumEnabled,
-                configuration.logInboundMessages());
+                configuration.logInboundMessages(),
+                newSequenceNumberIndexJournal(configuration.receivedSequenceNumberIndex()));
 
             newStreams();
             newArchivingAgent();
@@ -176,6 +198,22 @@ public class EngineContext implements AutoCloseable
             recordingCoordinator);
     }
 
+    private SequenceNumberIndexJournal newSequenceNumberIndexJournal(final MappedFile indexFile)
+    {
+        if (!configuration.sequenceNumberIndexJournal())
+        {
+            return null;
+        }
+
+        return new SequenceNumberIndexJournal(
+            SequenceNumberIndexDescriptor.journalFile(indexFile.file().getPath()),
+            errorHandler,
+            clock,
+            MICROSECONDS.toNanos(configuration.sequenceNumberIndexJournalCommitIntervalInMicros()),
+            configuration.sequenceNumberIndexJournalBatchSize(),
+            indexFile.buffer().capacity());
+    }
+
     private ReplayIndex newReplayIndex(
         final String logFileDir,
         final int streamId,
@@ -184,7 +222,8 @@ public class EngineContext implements AutoCloseable
         final SequenceNumberIndexReader reader,
         final SequenceNumberExtractor sequenceNumberExtractor,
         final boolean indexChecksumEnabled,
-        final ReplayEvictionHandler evictionHandler)
+        final ReplayEvictionHandler evictionHandler,
+        final HotReplayCache hotReplayCache)
     {
         return new ReplayIndex(
             sequenceNumberExtractor,
@@ -192,6 +231,7 @@ public class EngineContext implements AutoCloseable
             streamId,
             configuration.replayIndexFileRecordCapacity(),
             configuration.replayIndexSegmentRecordCapacity(),
+            configuration.replayIndexSparseInterval(),
             LoggerUtil::map,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId, configuration.replayPositionBufferSize()),
             errorHandler,
@@ -200,8 +240,10 @@ public class EngineContext implements AutoCloseable
             configuration.supportedFixPProtocolType(),
             reader,
             configuration.timeIndexReplayFlushIntervalInNs(),
+            configuration.sessionArchiveIndexEnabled(),
             indexChecksumEnabled,
-            evictionHandler);
+            evictionHandler,
+            hotReplayCache);
     }
 
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
@@ -227,14 +269,14 @@ public class EngineContext implements AutoCloseable
     }
 
     private Replayer newReplayer(
-        final ExclusivePublication replayPublication, final ReplayQuery replayQuery)
+        final ReplayQuery replayQuery, final IdleStrategy idleStrategy, final int workerIndex)
     {
         final EpochFractionFormat epochFractionFormat = configuration.sessionEpochFractionFormat();
         return new Replayer(
             replayQuery,
-            replayPublication,
+            replayPublications[workerIndex],
             new BufferClaim(),
-            configuration.archiverIdleStrategy(),
+            idleStrategy,
             errorHandler,
             configuration.outboundMaxClaimAttempts(),
             inboundLibraryStreams.subscription("replayer"),
@@ -243,15 +285,20 @@ public class EngineContext implements AutoCloseable
             configuration.gapfillOnRetransmitILinkTemplateIds(),
             configuration.replayHandler(),
             configuration.fixPRetransmitHandler(),
-            senderSequenceNumbers,
+            workerSenderSequenceNumbers[workerIndex],
             new FixSessionCodecsFactory(clock, epochFractionFormat),
             configuration.senderMaxBytesInBuffer(),
-            replayerCommandQueue,
+            replayerCommandQueues[workerIndex],
             epochFractionFormat,
             fixCounters.currentReplayCount(),
             configuration.maxConcurrentSessionReplays(),
             clock,
             configuration.supportedFixPProtocolType(),
+            workerIndex,
+            replayPublications.length,
+            // The cache is written on the Logger thread, so can only be read by the first worker
+            workerIndex == 0 ? hotReplayCache : null,
+            timers.replayTimer(workerIndex),
             configuration);
     }
 
@@ -265,7 +312,6 @@ public class EngineContext implements AutoCloseable
             final String logFileDir = configuration.logFileDir();
             final boolean indexChecksumEnabled = configuration.indexChecksumEnabled();
 
-            final Long2LongHashMap connectionIdToILinkUuid = new Long2LongHashMap(UNK_SESSION);
             final List<Index> inboundIndices = new ArrayList<>();
             if (configuration.logInboundMessages())
             {
@@ -273,11 +319,12 @@ public class EngineContext implements AutoCloseable
                     logFileDir,
                     configuration.inboundLibraryStream(),
                     recordingCoordinator.indexerInboundRecordingIdLookup(),
-                    connectionIdToILinkUuid,
+                    new Long2LongHashMap(UNK_SESSION),
                     receivedSequenceNumberIndex.reader(),
                     recvSequenceNumberExtractor,
                     indexChecksumEnabled,
-                    inboundEvictionHandler);
+                    inboundEvictionHandler,
+                    null);
                 inboundIndices.add(inboundReplayIndex);
             }
             inboundIndices.add(receivedSequenceNumberIndex);
@@ -290,20 +337,28 @@ public class EngineContext implements AutoCloseable
                 inboundIndexSubscription,
                 configuration.agentNamePrefix(),
                 inboundCompletionPosition,
-                configuration.archiveReplayStream());
+                configuration.archiveReplayStream(),
+                timers.inboundIndexLagTimer());
 
             final List<Index> outboundIndices = new ArrayList<>();
             if (configuration.logOutboundMessages())
             {
+                if (configuration.hotReplayCacheCapacity() > 0)
+                {
+                    hotReplayCache = new HotReplayCache(
+                        configuration.hotReplayCacheCapacity(), configuration.hotReplayCacheSessionCapacity());
+                }
+
                 outboundReplayIndex = newReplayIndex(
                     logFileDir,
                     configuration.outboundLibraryStream(),
                     recordingCoordinator.indexerOutboundRecordingIdLookup(),
-                    connectionIdToILinkUuid,
+                    new Long2LongHashMap(UNK_SESSION),
                     sentSequenceNumberIndex.reader(),
                     sentSequenceNumberExtractor,
                     indexChecksumEnabled,
-                    outboundEvictionHandler);
+                    outboundEvictionHandler,
+                    hotReplayCache);
                 outboundIndices.add(outboundReplayIndex);
             }
             outboundIndices.add(sentSequenceNumberIndex);
@@ -316,7 +371,8 @@ public class EngineContext implements AutoCloseable
                 outboundIndexSubscription,
                 configuration.agentNamePrefix(),
                 outboundLibraryCompletionPosition,
-                configuration.archiveReplayStream());
+                configuration.archiveReplayStream(),
+                timers.outboundIndexLagTimer());
         }
         catch (final Exception e)
         {
@@ -348,18 +404,23 @@ public class EngineContext implements AutoCloseable
             outboundEvictionHandler.replayQuery(outboundReplayQuery);
             try
             {
-                replayer = newReplayer(replayPublication, outboundReplayQuery);
+                replayer = newReplayer(outboundReplayQuery, configuration.archiverIdleStrategy(), 0);
             }
             catch (final Throwable e)
             {
                 outboundReplayQuery.close();
                 throw e;
             }
+
+            for (int workerIndex = 1; workerIndex < replayPublications.length; workerIndex++)
+            {
+                newReplayerWorker(workerIndex);
+            }
         }
         else
         {
             final GatewayPublication replayGatewayPublication = new GatewayPublication(
-                replayPublication,
+                replayPublications[0],
                 fixCounters.failedReplayPublications(),
                 configuration.archiverIdleStrategy(),
                 clock,
@@ -376,25 +437,52 @@ public class EngineContext implements AutoCloseable
         }
 
         final List<Agent> agents = new ArrayList<>();
-        agents.add(inboundIndexer);
+        if (configuration.separateInboundIndexingThread())
+        {
+            inboundIndexingAgent = inboundIndexer;
+        }
+        else
+        {
+            agents.add(inboundIndexer);
+        }
         agents.add(outboundIndexer);
         agents.add(replayer);
 
         indexingAgent = new CompositeAgent(agents);
     }
 
-    public void catchupIndices()
+    private void newReplayerWorker(final int workerIndex)
+    {
+        final IdleStrategy idleStrategy = configuration.replayerWorkerIdleStrategySupplier().get();
+        final ReplayQuery replayQuery = newReplayQuery(idleStrategy, configuration.outboundLibraryStream());
+        try
+        {
+            replayerWorkerAgents.add(newReplayer(replayQuery, idleStrategy, workerIndex));
+        }
+        catch (final Throwable e)
+        {
+            replayQuery.close();
+            throw e;
+        }
+
+        outboundEvictionHandler.workerReplayQuery(replayQuery, replayerCommandQueues[workerIndex]);
+    }
+
+    // Each direction has its own indices, so the indexers can catch up independently of each other
+    void catchupIndices(final StartupPhases startupPhases)
     {
         // when inbound logging disabled
         if (configuration.logInboundMessages())
         {
-            inboundIndexer.catchIndexUp(aeronArchive, errorHandler);
+            startupPhases.start(
+                StartupPhases.INBOUND_INDEX_CATCHUP, () -> inboundIndexer.catchIndexUp(aeronArchive, errorHandler));
         }
 
         // when outbound logging disabled
         if (configuration.logOutboundMessages())
         {
-            outboundIndexer.catchIndexUp(aeronArchive, errorHandler);
+            startupPhases.start(
+                StartupPhases.OUTBOUND_INDEX_CATCHUP, () -> outboundIndexer.catchIndexUp(aeronArchive, errorHandler));
         }
     }
 
@@ -463,6 +551,16 @@ public class EngineContext implements AutoCloseable
         return indexingAgent;
     }
 
+    Agent inboundIndexingAgent()
+    {
+        return inboundIndexingAgent;
+    }
+
+    List<Agent> replayerWorkerAgents()
+    {
+        return replayerWorkerAgents;
+    }
+
     public SenderSequenceNumbers senderSequenceNumbers()
     {
         return senderSequenceNumbers;
@@ -19,6 +19,10 @@ import io.aeron.Aeron;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for determining how an Engine's Agents are allocated to threads.
@@ -45,6 +49,93 @@ public interface EngineScheduler extends AutoCloseable
         Agent conductorAgent,
         RecordingCoordinator recordingCoordinator);
 
+    /**
+     * Invoked by the FIX Engine to start the threads when the inbound indexer should be scheduled separately from
+     * the other indexing agents, see {@link EngineConfiguration#separateInboundIndexingThread(boolean)}.
+     * Should only return once they are started.
+     *
+     * The default implementation schedules the inbound indexer alongside the indexing agent.
+     *
+     * @param configuration the engine's configuration object.
+     * @param errorHandler the ErrorHandler used by the engine.
+     * @param framer the framer agent to schedule.
+     * @param indexingAgent the archiver agent to schedule.
+     * @param inboundIndexingAgent the inbound indexer to schedule, or null if it's part of the indexingAgent.
+     * @param monitoringAgent the monitoring agent to schedule.
+     * @param conductorAgent if aeron has useConductorInvoker enable it
+     * @param recordingCoordinator must be shut down after the Framer but before the conductorAgent.
+     */
+    default void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent inboundIndexingAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            inboundIndexingAgent == null ? indexingAgent : new CompositeAgent(inboundIndexingAgent, indexingAgent),
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    /**
+     * Invoked by the FIX Engine to start the threads when there are additional replayer workers, see
+     * {@link EngineConfiguration#replayerWorkerCount(int)}. Should only return once they are started.
+     *
+     * The default implementation schedules the additional replayer workers alongside the indexing agent.
+     *
+     * @param configuration the engine's configuration object.
+     * @param errorHandler the ErrorHandler used by the engine.
+     * @param framer the framer agent to schedule.
+     * @param indexingAgent the archiver agent to schedule.
+     * @param inboundIndexingAgent the inbound indexer to schedule, or null if it's part of the indexingAgent.
+     * @param replayerWorkerAgents the additional replayer workers to schedule, empty if there are none.
+     * @param monitoringAgent the monitoring agent to schedule.
+     * @param conductorAgent if aeron has useConductorInvoker enable it
+     * @param recordingCoordinator must be shut down after the Framer but before the conductorAgent.
+     */
+    default void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent inboundIndexingAgent,
+        final List<Agent> replayerWorkerAgents,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        final Agent composedIndexingAgent;
+        if (replayerWorkerAgents.isEmpty())
+        {
+            composedIndexingAgent = indexingAgent;
+        }
+        else
+        {
+            final List<Agent> agents = new ArrayList<>();
+            agents.add(indexingAgent);
+            agents.addAll(replayerWorkerAgents);
+            composedIndexingAgent = new CompositeAgent(agents);
+        }
+
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            composedIndexingAgent,
+            inboundIndexingAgent,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
     /**
      * Invoked by the FIX Engine to stop the threads. Should only return once they are completed stopped.
      */
@@ -24,12 +24,14 @@ import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.status.ReadablePosition;
 import uk.co.real_logic.artio.*;
 import uk.co.real_logic.artio.engine.framer.EngineStreamInfo;
+import uk.co.real_logic.artio.engine.framer.FixContexts;
 import uk.co.real_logic.artio.engine.framer.FramerContext;
 import uk.co.real_logic.artio.engine.framer.LibraryInfo;
 import uk.co.real_logic.artio.timing.EngineTimers;
 
 import java.io.File;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.closeAll;
@@ -282,6 +284,8 @@ public final class FixEngine extends GatewayProcess
     private FixEngine(final EngineConfiguration configuration)
     {
         {
+            StartupPhases startupPhases = null;
+            Supplier<FixContexts> fixContexts = null;
             try
             {
                 configuration.conclude();
@@ -295,7 +299,6 @@ public final class FixEngine extends GatewayProcess
                 scheduler = configuration.scheduler();
                 scheduler.configure(configuration.aeronContext());
                 init(configuration, ENGINE_LIBRARY_ID);
-                timers = new EngineTimers(configuration.epochNanoClock(), fixCounters.negativeTimestamps());
                 final AeronArchive.Context archiveContext = configuration.aeronArchiveContext();
                 final AeronArchive aeronArchive =
                     configuration.logAnyMessages() ? AeronArchive.connect(archiveContext.aeron(aeron)) : null;
@@ -306,17 +309,41 @@ public final class FixEngine extends GatewayProcess
                     configuration.archiverIdleStrategy(),
                     errorHandler);
 
-                final ExclusivePublication replayPublication = replayPublication();
-                engineContext = new EngineContext(
-                    configuration,
-                    errorHandler,
-                    replayPublication,
-                    fixCounters,
-                    aeron,
-                    aeronArchive,
-                    recordingCoordinator);
-                engineContext.catchupIndices();
-                initFramer(configuration, fixCounters, replayPublication.sessionId());
+                final ExclusivePublication[] replayPublications = replayPublications();
+                timers = new EngineTimers(
+                    configuration.epochNanoClock(),
+                    fixCounters.negativeTimestamps(),
+                    configuration.disabledTimers(),
+                    replayPublications.length);
+                // A conductor agent invoker can only be invoked from one thread
+                startupPhases = new StartupPhases(
+                    configuration.parallelStartupRecovery() && aeron.conductorAgentInvoker() == null,
+                    configuration.agentNamePrefix(),
+                    configuration.threadFactory());
+                engineContext = startupPhases.run(
+                    StartupPhases.SEQUENCE_NUMBER_INDEX_LOAD,
+                    () -> new EngineContext(
+                        configuration,
+                        errorHandler,
+                        replayPublications,
+                        fixCounters,
+                        aeron,
+                        aeronArchive,
+                        recordingCoordinator,
+                        timers));
+                engineContext.catchupIndices(startupPhases);
+                fixContexts = startupPhases.start(
+                    StartupPhases.SESSION_CONTEXTS_LOAD,
+                    () -> new FixContexts(
+                        configuration.sessionIdBuffer(),
+                        configuration.sessionIdStrategy(),
+                        configuration.initialSequenceIndex(),
+                        errorHandler,
+                        configuration.isReproductionEnabled()));
+                startupPhases.awaitCompletion();
+                startupPhases.recordTimes(fixCounters);
+
+                initFramer(configuration, fixCounters, replayPublications, fixContexts.get());
                 initMonitoringAgent(timers.all(), configuration, aeronArchive, duplicateEngineChecker);
 
                 recordingCoordinator.monitoringAgent(monitoringAgent);
@@ -325,6 +352,17 @@ public final class FixEngine extends GatewayProcess
             }
             catch (final Exception e)
             {
+                if (startupPhases != null)
+                {
+                    startupPhases.awaitCompletion(e);
+                }
+
+                // Session contexts that loaded before a later phase failed haven't been handed to the framer yet
+                if (framerContext == null && fixContexts != null)
+                {
+                    suppressingClose(fixContexts.get(), e);
+                }
+
                 if (engineContext != null)
                 {
                     engineContext.completeDuringStartup();
@@ -337,37 +375,58 @@ public final class FixEngine extends GatewayProcess
         }
     }
 
-    private ExclusivePublication replayPublication()
+    // One publication per replayer worker, the gap filler used when outbound messages aren't logged only needs one.
+    private ExclusivePublication[] replayPublications()
     {
-        final ExclusivePublication publication = aeron.addExclusivePublication(
-            IPC_CHANNEL, configuration.outboundReplayStream());
-        StreamInformation.print("replayPublication", publication, configuration);
-        return publication;
+        final int replayerWorkerCount = configuration.logOutboundMessages() ? configuration.replayerWorkerCount() : 1;
+        final ExclusivePublication[] publications = new ExclusivePublication[replayerWorkerCount];
+        for (int i = 0; i < replayerWorkerCount; i++)
+        {
+            final ExclusivePublication publication = aeron.addExclusivePublication(
+                IPC_CHANNEL, configuration.outboundReplayStream());
+            StreamInformation.print("replayPublication", publication, configuration);
+            publications[i] = publication;
+        }
+        return publications;
     }
 
     private void initFramer(
-        final EngineConfiguration configuration, final FixCounters fixCounters, final int replaySessionId)
+        final EngineConfiguration configuration,
+        final FixCounters fixCounters,
+        final ExclusivePublication[] replayPublications,
+        final FixContexts fixContexts)
     {
         framerContext = new FramerContext(
             configuration,
             fixCounters,
             engineContext,
             errorHandler,
-            replayImage("replay", replaySessionId),
+            replayImages("replay", replayPublications),
             timers,
             aeron.conductorAgentInvoker(),
             recordingCoordinator,
-            aeron);
+            aeron,
+            fixContexts);
 
         engineContext.framerContext(framerContext);
     }
 
-    private Image replayImage(final String name, final int replaySessionId)
+    private Image[] replayImages(final String name, final ExclusivePublication[] replayPublications)
     {
         final Subscription subscription = aeron.addSubscription(
             IPC_CHANNEL, configuration.outboundReplayStream());
         StreamInformation.print(name, subscription, configuration);
 
+        final Image[] images = new Image[replayPublications.length];
+        for (int i = 0; i < replayPublications.length; i++)
+        {
+            images[i] = replayImage(subscription, replayPublications[i].sessionId());
+        }
+        return images;
+    }
+
+    private Image replayImage(final Subscription subscription, final int replaySessionId)
+    {
         // Await replay publication
         while (true)
         {
@@ -400,6 +459,8 @@ public final class FixEngine extends GatewayProcess
             errorHandler,
             framerContext.framer(),
             engineContext.indexingAgent(),
+            engineContext.inboundIndexingAgent(),
+            engineContext.replayerWorkerAgents(),
             monitoringCompositeAgent,
             conductorAgent(),
             recordingCoordinator);
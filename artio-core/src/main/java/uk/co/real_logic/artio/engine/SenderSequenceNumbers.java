@@ -21,6 +21,9 @@ import org.agrona.concurrent.status.AtomicCounter;
 
 /**
  * For publishing the last sent sequence number to the replay system.
+ *
+ * When there are multiple replayer workers each has its own instance, and the Framer publishes through an instance
+ * that forwards each sender to the worker that owns its connection.
  */
 public class SenderSequenceNumbers
 {
@@ -28,6 +31,7 @@ public class SenderSequenceNumbers
 
     // Written on Framer, Read on Indexer
     private final ReplayerCommandQueue queue;
+    private final SenderSequenceNumbers[] workers;
 
     // Indexer State
     private final Long2ObjectHashMap<SenderSequenceNumber> connectionIdToSequencePosition
@@ -37,11 +41,29 @@ public class SenderSequenceNumbers
     public SenderSequenceNumbers(final ReplayerCommandQueue queue)
     {
         this.queue = queue;
+        this.workers = null;
+    }
+
+    public SenderSequenceNumbers(final SenderSequenceNumbers[] workers)
+    {
+        this.queue = null;
+        this.workers = workers;
+    }
+
+    public static int workerIndex(final long connectionId, final int workerCount)
+    {
+        return (int)Long.remainderUnsigned(connectionId, workerCount);
     }
 
     // Called on Framer Thread
     public SenderSequenceNumber onNewSender(final long connectionId, final AtomicCounter bytesInBuffer)
     {
+        final SenderSequenceNumbers[] workers = this.workers;
+        if (workers != null)
+        {
+            return workers[workerIndex(connectionId, workers.length)].onNewSender(connectionId, bytesInBuffer);
+        }
+
         final SenderSequenceNumber position = new SenderSequenceNumber(
             connectionId, bytesInBuffer, this);
         enqueue(position);
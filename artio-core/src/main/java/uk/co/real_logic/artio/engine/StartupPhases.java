@@ -0,0 +1,249 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.LangUtil;
+import uk.co.real_logic.artio.FixCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Runs and times the phases of the engine's startup recovery.
+ *
+ * When running in parallel each phase that's started runs on its own thread until {@link #awaitCompletion()},
+ * otherwise started phases run on the calling thread one after another. The time taken by each phase is reported
+ * in a counter by {@link #recordTimes(FixCounters)}.
+ */
+final class StartupPhases
+{
+    static final String SEQUENCE_NUMBER_INDEX_LOAD = "sequenceNumberIndexLoad";
+    static final String INBOUND_INDEX_CATCHUP = "inboundIndexCatchup";
+    static final String OUTBOUND_INDEX_CATCHUP = "outboundIndexCatchup";
+    static final String SESSION_CONTEXTS_LOAD = "sessionContextsLoad";
+    static final String TOTAL = "total";
+
+    private final List<Phase<?>> phases = new ArrayList<>();
+    private final boolean parallel;
+    private final String threadNamePrefix;
+    private final ThreadFactory threadFactory;
+    private final long startTimeInNs = System.nanoTime();
+
+    private long completionTimeInNs;
+
+    StartupPhases(final boolean parallel, final String agentNamePrefix, final ThreadFactory threadFactory)
+    {
+        this.parallel = parallel;
+        this.threadNamePrefix = agentNamePrefix + "startup-";
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Run a phase that later phases depend upon on the calling thread.
+     *
+     * @param name the name of the phase.
+     * @param task the task that the phase runs.
+     * @param <T> the type of the result of the phase.
+     * @return the result of the phase.
+     */
+    <T> T run(final String name, final Supplier<T> task)
+    {
+        final Phase<T> phase = add(name, task);
+        phase.run();
+        phase.rethrowError();
+        return phase.result;
+    }
+
+    void start(final String name, final Runnable task)
+    {
+        start(name, () ->
+        {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Start a phase that doesn't depend upon any other phase that's been started.
+     *
+     * @param name the name of the phase.
+     * @param task the task that the phase runs.
+     * @param <T> the type of the result of the phase.
+     * @return a supplier of the result of the phase, only valid after {@link #awaitCompletion()}.
+     */
+    <T> Supplier<T> start(final String name, final Supplier<T> task)
+    {
+        final Phase<T> phase = add(name, task);
+        if (parallel)
+        {
+            final Thread thread = threadFactory.newThread(phase);
+            thread.setName(threadNamePrefix + name);
+            phase.thread = thread;
+            thread.start();
+        }
+        else
+        {
+            phase.run();
+            phase.rethrowError();
+        }
+
+        return phase;
+    }
+
+    /**
+     * Wait for every phase that's been started to complete, rethrowing the first error that any of them failed with.
+     */
+    void awaitCompletion()
+    {
+        final Throwable error = join();
+        completionTimeInNs = System.nanoTime();
+        if (error != null)
+        {
+            LangUtil.rethrowUnchecked(error);
+        }
+    }
+
+    /**
+     * Wait for every phase that's been started to complete after startup has failed, so that the resources that
+     * they use can be safely closed.
+     *
+     * @param failure the reason startup failed, any errors of the phases are added to it as suppressed exceptions.
+     */
+    void awaitCompletion(final Throwable failure)
+    {
+        final Throwable error = join();
+        if (error != null && error != failure)
+        {
+            failure.addSuppressed(error);
+        }
+    }
+
+    void recordTimes(final FixCounters fixCounters)
+    {
+        for (final Phase<?> phase : phases)
+        {
+            fixCounters.startupPhaseTimeInNs(phase.name).set(phase.durationInNs);
+        }
+
+        fixCounters.startupPhaseTimeInNs(TOTAL).set(completionTimeInNs - startTimeInNs);
+    }
+
+    private <T> Phase<T> add(final String name, final Supplier<T> task)
+    {
+        final Phase<T> phase = new Phase<>(name, task);
+        phases.add(phase);
+        return phase;
+    }
+
+    private Throwable join()
+    {
+        boolean interrupted = false;
+        Throwable error = null;
+        for (final Phase<?> phase : phases)
+        {
+            final Thread thread = phase.thread;
+            if (thread != null)
+            {
+                // Keep waiting if interrupted, the phase may still be using resources that are about to be closed
+                while (true)
+                {
+                    try
+                    {
+                        thread.join();
+                        break;
+                    }
+                    catch (final InterruptedException e)
+                    {
+                        interrupted = true;
+                    }
+                }
+                phase.thread = null;
+            }
+
+            final Throwable phaseError = phase.error;
+            if (phaseError != null)
+            {
+                phase.error = null;
+                if (error == null)
+                {
+                    error = phaseError;
+                }
+                else
+                {
+                    error.addSuppressed(phaseError);
+                }
+            }
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return error;
+    }
+
+    private static final class Phase<T> implements Runnable, Supplier<T>
+    {
+        private final String name;
+        private final Supplier<T> task;
+
+        private Thread thread;
+        private T result;
+        private Throwable error;
+        private long durationInNs;
+
+        Phase(final String name, final Supplier<T> task)
+        {
+            this.name = name;
+            this.task = task;
+        }
+
+        public void run()
+        {
+            final long startTimeInNs = System.nanoTime();
+            try
+            {
+                result = task.get();
+            }
+            catch (final Throwable t)
+            {
+                error = t;
+            }
+            finally
+            {
+                durationInNs = System.nanoTime() - startTimeInNs;
+            }
+        }
+
+        void rethrowError()
+        {
+            final Throwable error = this.error;
+            if (error != null)
+            {
+                this.error = null;
+                LangUtil.rethrowUnchecked(error);
+            }
+        }
+
+        public T get()
+        {
+            return result;
+        }
+    }
+}
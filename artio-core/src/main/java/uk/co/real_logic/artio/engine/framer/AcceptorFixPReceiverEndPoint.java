@@ -97,6 +97,7 @@ class AcceptorFixPReceiverEndPoint extends FixPReceiverEndPoint
     void authenticated()
     {
         requiresAuthentication = false;
+        framer.onLogonComplete(connectionId);
         framer.receiverEndPointPollingOptional(connectionId);
     }
 
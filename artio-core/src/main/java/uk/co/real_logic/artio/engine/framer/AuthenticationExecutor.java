@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.CloseHelper;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.decoder.AbstractLogonDecoder;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.validation.AuthenticationProxy;
+import uk.co.real_logic.artio.validation.AuthenticationStrategy;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+
+/**
+ * Invokes the {@link AuthenticationStrategy} for FIX logons on a pool of worker threads so that a strategy that
+ * blocks doesn't stall the Framer.
+ *
+ * The workers' calls to the {@link AuthenticationProxy} are handed back to the Framer by the pending logon's volatile
+ * authentication state, as they are for any strategy that authenticates asynchronously. Logons that can't be queued,
+ * or that the strategy hasn't accepted or rejected by their deadline, are rejected on the Framer thread.
+ */
+final class AuthenticationExecutor implements AutoCloseable
+{
+    /**
+     * A logon waiting to be authenticated by a worker.
+     */
+    interface PendingAuthentication extends AuthenticationProxy
+    {
+        /**
+         * Called on a worker thread when the strategy throws before accepting or rejecting the logon.
+         *
+         * @param throwable the error thrown by the strategy.
+         */
+        void onAuthenticationError(Throwable throwable);
+
+        /**
+         * Called on the Framer thread when the strategy hasn't accepted or rejected the logon by its deadline.
+         */
+        void onAuthenticationTimeout();
+    }
+
+    private final ArrayDeque<AuthenticationTask> inFlightTasks = new ArrayDeque<>();
+    private final ManyToManyConcurrentArrayQueue<AuthenticationTask> queue;
+    private final AgentRunner[] runners;
+    private final AuthenticationStrategy authenticationStrategy;
+    private final long strategyTimeoutInMs;
+    private final EpochNanoClock clock;
+    private final ThreadFactory threadFactory;
+    private final ErrorHandler errorHandler;
+    private final AtomicCounter queueDepth;
+    private final AtomicCounter latencyInNs;
+    private final AtomicCounter timeouts;
+    private final AtomicCounter queueFullRejects;
+
+    private boolean started;
+
+    AuthenticationExecutor(
+        final AuthenticationStrategy authenticationStrategy,
+        final int workerCount,
+        final int queueCapacity,
+        final long strategyTimeoutInMs,
+        final EpochNanoClock clock,
+        final ThreadFactory threadFactory,
+        final String agentNamePrefix,
+        final ErrorHandler errorHandler,
+        final AtomicCounter queueDepth,
+        final AtomicCounter latencyInNs,
+        final AtomicCounter timeouts,
+        final AtomicCounter queueFullRejects)
+    {
+        this.authenticationStrategy = authenticationStrategy;
+        this.strategyTimeoutInMs = strategyTimeoutInMs;
+        this.clock = clock;
+        this.threadFactory = threadFactory;
+        this.errorHandler = errorHandler;
+        this.queueDepth = queueDepth;
+        this.latencyInNs = latencyInNs;
+        this.timeouts = timeouts;
+        this.queueFullRejects = queueFullRejects;
+
+        queue = new ManyToManyConcurrentArrayQueue<>(queueCapacity);
+        runners = new AgentRunner[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            runners[i] = new AgentRunner(
+                CommonConfiguration.backoffIdleStrategy(),
+                errorHandler,
+                null,
+                new Worker(agentNamePrefix + "authentication-worker-" + i));
+        }
+    }
+
+    /**
+     * Queue a logon to be authenticated by a worker, called on the Framer thread.
+     *
+     * @param logon the logon message to authenticate.
+     * @param pendingAuthentication the logon's proxy that the strategy's result is handed to.
+     * @param timeInMs the current time.
+     * @return true if the logon was queued, false if the queue was full, in which case the logon should be rejected.
+     */
+    boolean submit(
+        final AbstractLogonDecoder logon, final PendingAuthentication pendingAuthentication, final long timeInMs)
+    {
+        if (!started)
+        {
+            started = true;
+            for (final AgentRunner runner : runners)
+            {
+                startOnThread(runner, threadFactory);
+            }
+        }
+
+        final AuthenticationTask task = new AuthenticationTask(
+            logon, pendingAuthentication, timeInMs + strategyTimeoutInMs, clock.nanoTime());
+        if (!queue.offer(task))
+        {
+            queueFullRejects.increment();
+            return false;
+        }
+
+        inFlightTasks.addLast(task);
+        queueDepth.setOrdered(inFlightTasks.size());
+        return true;
+    }
+
+    /**
+     * Reject the logons that the strategy hasn't authenticated in time, called on the Framer thread.
+     *
+     * @param timeInMs the current time.
+     * @return the number of logons that have completed or timed out.
+     */
+    int poll(final long timeInMs)
+    {
+        final ArrayDeque<AuthenticationTask> inFlightTasks = this.inFlightTasks;
+
+        // Every logon gets the same timeout so the tasks' deadlines are in submission order.
+        int work = 0;
+        AuthenticationTask task;
+        while ((task = inFlightTasks.peekFirst()) != null)
+        {
+            if (!task.isComplete())
+            {
+                if (task.deadlineInMs > timeInMs)
+                {
+                    break;
+                }
+
+                if (task.timeout())
+                {
+                    timeouts.increment();
+                    task.pendingAuthentication.onAuthenticationTimeout();
+                }
+            }
+
+            inFlightTasks.pollFirst();
+            work++;
+        }
+
+        if (work > 0)
+        {
+            queueDepth.setOrdered(inFlightTasks.size());
+        }
+
+        return work;
+    }
+
+    public void close()
+    {
+        CloseHelper.closeAll(runners);
+    }
+
+    final class Worker implements Agent
+    {
+        private final String roleName;
+
+        Worker(final String roleName)
+        {
+            this.roleName = roleName;
+        }
+
+        public int doWork()
+        {
+            final AuthenticationTask task = queue.poll();
+            if (task == null)
+            {
+                return 0;
+            }
+
+            // Don't waste the strategy's time on a logon that's already been rejected
+            if (task.isComplete())
+            {
+                return 1;
+            }
+
+            try
+            {
+                authenticationStrategy.authenticateAsync(task.logon, task);
+            }
+            catch (final Throwable throwable)
+            {
+                if (task.complete())
+                {
+                    task.pendingAuthentication.onAuthenticationError(throwable);
+                }
+                else if (!task.isTimedOut())
+                {
+                    errorHandler.onError(throwable);
+                }
+            }
+
+            return 1;
+        }
+
+        public String roleName()
+        {
+            return roleName;
+        }
+    }
+
+    /**
+     * Ensures that only one of the strategy's result, an error or a timeout completes a logon.
+     */
+    final class AuthenticationTask implements AuthenticationProxy
+    {
+        private static final int PENDING = 0;
+        private static final int COMPLETED = 1;
+        private static final int TIMED_OUT = 2;
+
+        private final AbstractLogonDecoder logon;
+        private final PendingAuthentication pendingAuthentication;
+        private final long deadlineInMs;
+        private final long submitTimeInNs;
+
+        volatile int state = PENDING;
+
+        AuthenticationTask(
+            final AbstractLogonDecoder logon,
+            final PendingAuthentication pendingAuthentication,
+            final long deadlineInMs,
+            final long submitTimeInNs)
+        {
+            this.logon = logon;
+            this.pendingAuthentication = pendingAuthentication;
+            this.deadlineInMs = deadlineInMs;
+            this.submitTimeInNs = submitTimeInNs;
+        }
+
+        public void accept()
+        {
+            onResult();
+            pendingAuthentication.accept();
+        }
+
+        public void accept(final Class<? extends FixDictionary> fixDictionaryClass)
+        {
+            onResult();
+            pendingAuthentication.accept(fixDictionaryClass);
+        }
+
+        public void reject()
+        {
+            onResult();
+            pendingAuthentication.reject();
+        }
+
+        public void reject(final Encoder encoder, final long lingerTimeoutInMs)
+        {
+            onResult();
+            pendingAuthentication.reject(encoder, lingerTimeoutInMs);
+        }
+
+        public String remoteAddress()
+        {
+            return pendingAuthentication.remoteAddress();
+        }
+
+        public long connectionId()
+        {
+            return pendingAuthentication.connectionId();
+        }
+
+        boolean isComplete()
+        {
+            return state != PENDING;
+        }
+
+        boolean isTimedOut()
+        {
+            return state == TIMED_OUT;
+        }
+
+        boolean complete()
+        {
+            return STATE.compareAndSet(this, PENDING, COMPLETED);
+        }
+
+        boolean timeout()
+        {
+            return STATE.compareAndSet(this, PENDING, TIMED_OUT);
+        }
+
+        private void onResult()
+        {
+            if (!complete())
+            {
+                throw new IllegalStateException(isTimedOut() ?
+                    "Logon for connectionId=" + connectionId() + " was rejected as it wasn't authenticated in time" :
+                    "accept() or reject() has already been called for connectionId=" + connectionId());
+            }
+
+            latencyInNs.setOrdered(clock.nanoTime() - submitTimeInNs);
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<AuthenticationTask> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(AuthenticationTask.class, "state");
+}
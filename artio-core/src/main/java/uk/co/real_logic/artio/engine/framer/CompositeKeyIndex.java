@@ -0,0 +1,241 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.collections.Hashing;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Open addressing hash index from the encoded form of a session's composite key, as saved by the
+ * {@link uk.co.real_logic.artio.session.SessionIdStrategy}, to its session id.
+ * <p>
+ * Both the table and the copies of the key bytes are held off heap, so a lookup doesn't allocate and indexing a large
+ * number of sessions doesn't add objects for the GC to trace. Entries are never removed individually, only cleared.
+ */
+final class CompositeKeyIndex
+{
+    static final long MISSING_SESSION_ID = 0;
+
+    private static final int MIN_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    // Entry layout, padded so that the session ids stay 8 byte aligned.
+    private static final int SESSION_ID_OFFSET = 0;
+    private static final int HASH_OFFSET = 8;
+    private static final int KEY_OFFSET_OFFSET = 12;
+    private static final int KEY_LENGTH_OFFSET = 16;
+    private static final int ENTRY_LENGTH = 24;
+
+    private final UnsafeBuffer table = new UnsafeBuffer(0, 0);
+    private final ExpandableDirectByteBuffer keys;
+
+    private ByteBuffer tableByteBuffer;
+    private int capacity;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+    private int keysLength;
+
+    CompositeKeyIndex()
+    {
+        this(MIN_CAPACITY);
+    }
+
+    CompositeKeyIndex(final int initialCapacity)
+    {
+        keys = new ExpandableDirectByteBuffer(initialCapacity * 32);
+        allocateTable(BitUtil.findNextPositivePowerOfTwo(Math.max(MIN_CAPACITY, initialCapacity)));
+    }
+
+    /**
+     * Lookup the session id of an encoded composite key.
+     *
+     * @param buffer the buffer containing the encoded key.
+     * @param offset the offset of the key within the buffer.
+     * @param length the length of the encoded key.
+     * @return the session id or {@link #MISSING_SESSION_ID} if the key isn't indexed.
+     */
+    long get(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final UnsafeBuffer table = this.table;
+        final int hash = hash(buffer, offset, length);
+        int index = hash & mask;
+        while (true)
+        {
+            final int entryOffset = index * ENTRY_LENGTH;
+            final long sessionId = table.getLong(entryOffset + SESSION_ID_OFFSET);
+            if (sessionId == MISSING_SESSION_ID)
+            {
+                return MISSING_SESSION_ID;
+            }
+
+            if (matches(entryOffset, hash, buffer, offset, length))
+            {
+                return sessionId;
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Index a session id by its encoded composite key, replacing any existing session id for the key.
+     *
+     * @param buffer the buffer containing the encoded key.
+     * @param offset the offset of the key within the buffer.
+     * @param length the length of the encoded key.
+     * @param sessionId the session id to index, must not be {@link #MISSING_SESSION_ID}.
+     */
+    void put(final DirectBuffer buffer, final int offset, final int length, final long sessionId)
+    {
+        if (sessionId == MISSING_SESSION_ID)
+        {
+            throw new IllegalArgumentException("Cannot index the missing session id: " + sessionId);
+        }
+
+        final UnsafeBuffer table = this.table;
+        final int hash = hash(buffer, offset, length);
+        int index = hash & mask;
+        while (true)
+        {
+            final int entryOffset = index * ENTRY_LENGTH;
+            if (table.getLong(entryOffset + SESSION_ID_OFFSET) == MISSING_SESSION_ID)
+            {
+                break;
+            }
+
+            if (matches(entryOffset, hash, buffer, offset, length))
+            {
+                table.putLong(entryOffset + SESSION_ID_OFFSET, sessionId);
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        final int keyOffset = keysLength;
+        keys.putBytes(keyOffset, buffer, offset, length);
+        keysLength += length;
+
+        final int entryOffset = index * ENTRY_LENGTH;
+        table.putInt(entryOffset + HASH_OFFSET, hash);
+        table.putInt(entryOffset + KEY_OFFSET_OFFSET, keyOffset);
+        table.putInt(entryOffset + KEY_LENGTH_OFFSET, length);
+        table.putLong(entryOffset + SESSION_ID_OFFSET, sessionId);
+
+        if (++size > resizeThreshold)
+        {
+            resize();
+        }
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    void clear()
+    {
+        table.setMemory(0, table.capacity(), (byte)0);
+        size = 0;
+        keysLength = 0;
+    }
+
+    private boolean matches(
+        final int entryOffset, final int hash, final DirectBuffer buffer, final int offset, final int length)
+    {
+        final UnsafeBuffer table = this.table;
+        if (table.getInt(entryOffset + HASH_OFFSET) != hash || table.getInt(entryOffset + KEY_LENGTH_OFFSET) != length)
+        {
+            return false;
+        }
+
+        final ExpandableDirectByteBuffer keys = this.keys;
+        final int keyOffset = table.getInt(entryOffset + KEY_OFFSET_OFFSET);
+        int i = 0;
+        for (final int longsLength = length & ~(SIZE_OF_LONG - 1); i < longsLength; i += SIZE_OF_LONG)
+        {
+            if (keys.getLong(keyOffset + i) != buffer.getLong(offset + i))
+            {
+                return false;
+            }
+        }
+
+        for (; i < length; i++)
+        {
+            if (keys.getByte(keyOffset + i) != buffer.getByte(offset + i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(final DirectBuffer buffer, final int offset, final int length)
+    {
+        int hash = length;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + buffer.getByte(offset + i);
+        }
+
+        return Hashing.hash(hash);
+    }
+
+    private void resize()
+    {
+        // Resizing is rare enough to leave the old table's memory to be reclaimed along with its ByteBuffer
+        final UnsafeBuffer oldTable = new UnsafeBuffer(tableByteBuffer);
+        final int oldCapacity = capacity;
+
+        allocateTable(oldCapacity << 1);
+
+        final UnsafeBuffer table = this.table;
+        for (int i = 0; i < oldCapacity; i++)
+        {
+            final int oldEntryOffset = i * ENTRY_LENGTH;
+            if (oldTable.getLong(oldEntryOffset + SESSION_ID_OFFSET) != MISSING_SESSION_ID)
+            {
+                int index = oldTable.getInt(oldEntryOffset + HASH_OFFSET) & mask;
+                while (table.getLong(index * ENTRY_LENGTH + SESSION_ID_OFFSET) != MISSING_SESSION_ID)
+                {
+                    index = (index + 1) & mask;
+                }
+
+                table.putBytes(index * ENTRY_LENGTH, oldTable, oldEntryOffset, ENTRY_LENGTH);
+            }
+        }
+    }
+
+    private void allocateTable(final int capacity)
+    {
+        tableByteBuffer = BufferUtil.allocateDirectAligned(capacity * ENTRY_LENGTH, CACHE_LINE_LENGTH);
+        table.wrap(tableByteBuffer);
+        this.capacity = capacity;
+        mask = capacity - 1;
+        resizeThreshold = (int)(capacity * LOAD_FACTOR);
+    }
+}
@@ -62,9 +62,16 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
 
                     if (selectionKey.isAcceptable())
                     {
-                        final SocketChannel channel = listeningChannel.accept();
-                        if (channel != null)
+                        // Channels beyond the limit stay in the backlog, the key is selected again on the next poll
+                        final int newChannelLimit = handler.newChannelLimit();
+                        for (int i = 0; i < newChannelLimit; i++)
                         {
+                            final SocketChannel channel = listeningChannel.accept();
+                            if (channel == null)
+                            {
+                                break;
+                            }
+
                             configure(channel);
                             channel.configureBlocking(false);
 
@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -38,7 +39,6 @@ import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.CRC32;
 
@@ -53,8 +53,11 @@ import static uk.co.real_logic.artio.storage.messages.SessionIdEncoder.BLOCK_LEN
  * The session ids table is saved into a file. Records are written out using the {@link SessionIdEncoder}
  * and aren't allowed to span sectors. Each sector has a CRC32 checksum and each checksum is updated after writing
  * each session id record.
+ * <p>
+ * Sessions are looked up by the encoded bytes of their composite key in an off heap {@link CompositeKeyIndex}
+ * rather than by {@link CompositeKey} object, so a logon of a known session doesn't allocate.
  */
-public class FixContexts implements SessionContexts
+public class FixContexts implements SessionContexts, AutoCloseable
 {
 
     static final SessionContext DUPLICATE_SESSION = new SessionContext(
@@ -94,7 +97,10 @@ public class FixContexts implements SessionContexts
 
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
     private final CopyOnWriteArrayList<SessionInfo> allSessions = new CopyOnWriteArrayList<>();
-    private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    private final Long2ObjectHashMap<SessionContext> sessionIdToContext = new Long2ObjectHashMap<>();
+    private final CompositeKeyIndex compositeKeyIndex = new CompositeKeyIndex();
+    // Keys that are too large to be encoded can't be indexed or saved, but still need to be looked up.
+    private final Map<CompositeKey, SessionContext> unencodableKeyToContext = new HashMap<>();
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -126,7 +132,7 @@ public class FixContexts implements SessionContexts
         this.initialSequenceIndex = initialSequenceIndex;
         this.errorHandler = errorHandler;
         loadBuffer();
-        allSessions.addAll(compositeToContext.values());
+        allSessions.addAll(sessionIdToContext.values());
     }
 
     private void loadBuffer()
@@ -142,7 +148,7 @@ public class FixContexts implements SessionContexts
         if (needsUpgrading || requiresCompaction)
         {
             resetBuffer();
-            compositeToContext.values().forEach(this::allocateNewSlot);
+            sessionIdToContext.values().forEach(this::allocateNewSlot);
         }
     }
 
@@ -212,7 +218,7 @@ public class FixContexts implements SessionContexts
                         sessionId, sequenceIndex, lastLogonTime, lastSequenceResetTime, this,
                         sessionIdDecoder.offset(),
                         initialSequenceIndex, thisDictionary, reproductionEnabled);
-                    compositeToContext.put(compositeKey, sessionContext);
+                    index(sessionContext);
                 }
                 catch (final Exception e)
                 {
@@ -295,10 +301,12 @@ public class FixContexts implements SessionContexts
 
     SessionContext newSessionContext(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
-        final SessionContext context = compositeToContext.computeIfAbsent(
-            compositeKey,
-            key -> onNewLogon(key, fixDictionary));
-        if (context.lastFixDictionary() != fixDictionary)
+        SessionContext context = lookupByKey(compositeKey);
+        if (context == null)
+        {
+            context = onNewLogon(compositeKey, fixDictionary);
+        }
+        else if (context.lastFixDictionary() != fixDictionary)
         {
             context.ensureFixDictionary(fixDictionary);
         }
@@ -313,10 +321,40 @@ public class FixContexts implements SessionContexts
             sessionId,
             SessionInfo.UNKNOWN_SEQUENCE_INDEX,
             fixDictionary);
+        index(sessionContext);
         allSessions.add(sessionContext);
         return sessionContext;
     }
 
+    private void index(final SessionContext context)
+    {
+        // Re-encode rather than indexing the bytes in the file so that lookups always compare keys saved the same way
+        final CompositeKey compositeKey = context.sessionKey();
+        final long sessionId = context.sessionId();
+        final int compositeKeyLength = idStrategy.save(compositeKey, compositeKeyBuffer, 0);
+        if (compositeKeyLength == INSUFFICIENT_SPACE)
+        {
+            unencodableKeyToContext.put(compositeKey, context);
+        }
+        else
+        {
+            compositeKeyIndex.put(compositeKeyBuffer, 0, compositeKeyLength, sessionId);
+        }
+        sessionIdToContext.put(sessionId, context);
+    }
+
+    private SessionContext lookupByKey(final CompositeKey compositeKey)
+    {
+        final int compositeKeyLength = idStrategy.save(compositeKey, compositeKeyBuffer, 0);
+        if (compositeKeyLength == INSUFFICIENT_SPACE)
+        {
+            return unencodableKeyToContext.get(compositeKey);
+        }
+
+        final long sessionId = compositeKeyIndex.get(compositeKeyBuffer, 0, compositeKeyLength);
+        return sessionId == CompositeKeyIndex.MISSING_SESSION_ID ? null : sessionIdToContext.get(sessionId);
+    }
+
     private SessionContext assignSessionId(
         final CompositeKey compositeKey,
         final long sessionId,
@@ -401,35 +439,25 @@ public class FixContexts implements SessionContexts
 
     public void sequenceReset(final long sessionId, final long resetTimeInNs)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceReset(resetTimeInNs);
         }
     }
 
     public void onSequenceIndex(final long sessionId, final long resetTimeInNs, final int sequenceIndex)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceIndex(resetTimeInNs, sequenceIndex);
         }
     }
 
-    Entry<CompositeKey, SessionContext> lookupById(final long sessionId)
+    SessionContext lookupById(final long sessionId)
     {
-        for (final Entry<CompositeKey, SessionContext> entry : compositeToContext.entrySet())
-        {
-            if (entry.getValue().sessionId() == sessionId)
-            {
-                return entry;
-            }
-        }
-
-        return null;
+        return sessionIdToContext.get(sessionId);
     }
 
     // TODO: optimisation, more efficient checksumming, only checksum new data
@@ -459,7 +487,9 @@ public class FixContexts implements SessionContexts
         }
 
         counter = LOWEST_VALID_SESSION_ID;
-        compositeToContext.clear();
+        sessionIdToContext.clear();
+        compositeKeyIndex.clear();
+        unencodableKeyToContext.clear();
         allSessions.clear();
 
         if (backupLocation != null)
@@ -518,7 +548,7 @@ public class FixContexts implements SessionContexts
 
     long lookupSessionId(final CompositeKey compositeKey)
     {
-        final SessionContext sessionContext = compositeToContext.get(compositeKey);
+        final SessionContext sessionContext = lookupByKey(compositeKey);
         if (sessionContext == null)
         {
             return Session.UNKNOWN;
@@ -533,7 +563,7 @@ public class FixContexts implements SessionContexts
 
     public boolean isKnownSessionId(final long sessionId)
     {
-        return lookupById(sessionId) != null;
+        return sessionIdToContext.containsKey(sessionId);
     }
 
     public List<SessionInfo> allSessions()
@@ -545,4 +575,16 @@ public class FixContexts implements SessionContexts
     {
         return filePosition;
     }
+
+    /**
+     * Close the file that the session contexts are stored in. Only needed if the engine fails to start after they
+     * have been loaded, otherwise the file is closed along with the engine's configuration.
+     */
+    public void close()
+    {
+        if (mappedFile.isOpen())
+        {
+            mappedFile.close();
+        }
+    }
 }
@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MessageTimingHandler;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 
 class FixEndPointFactory
 {
@@ -38,6 +39,8 @@ class FixEndPointFactory
     private final FixGatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final MessageTimingHandler messageTimingHandler;
+    private final Timer frameTimer;
+    private final Timer inboundPublishTimer;
 
     FixEndPointFactory(
         final EngineConfiguration configuration,
@@ -48,7 +51,9 @@ class FixEndPointFactory
         final ErrorHandler errorHandler,
         final FixGatewaySessions gatewaySessions,
         final SenderSequenceNumbers senderSequenceNumbers,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final Timer frameTimer,
+        final Timer inboundPublishTimer)
     {
         this.configuration = configuration;
         this.fixContexts = fixContexts;
@@ -59,6 +64,8 @@ class FixEndPointFactory
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.messageTimingHandler = messageTimingHandler;
+        this.frameTimer = frameTimer;
+        this.inboundPublishTimer = inboundPublishTimer;
     }
 
     FixReceiverEndPoint receiverEndPoint(
@@ -87,7 +94,9 @@ class FixEndPointFactory
             receiverFormatters,
             configuration.throttleWindowInMs(),
             configuration.throttleLimitOfMessages(),
-            configuration.isReproductionEnabled());
+            configuration.isReproductionEnabled(),
+            frameTimer,
+            inboundPublishTimer);
     }
 
     FixSenderEndPoint senderEndPoint(
@@ -115,6 +124,7 @@ class FixEndPointFactory
             senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer),
             messageTimingHandler,
             receiverEndPoint,
-            senderFormatters);
+            senderFormatters,
+            configuration.gatheringWrites());
     }
 }
@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.EpochClock;
@@ -91,6 +92,7 @@ public class FixGatewaySessions extends GatewaySessions
     private final boolean isReproductionEnabled;
     private final CancelOnDisconnectOption cancelOnDisconnectOption;
     private final int cancelOnDisconnectTimeoutWindowInMs;
+    private final AuthenticationExecutor authenticationExecutor;
 
     // Initialised after logon processed.
     private SessionContext sessionContext;
@@ -143,6 +145,33 @@ public class FixGatewaySessions extends GatewaySessions
         this.cancelOnDisconnectTimeoutWindowInMs = configuration.cancelOnDisconnectTimeoutWindowInMs();
 
         sendingTimeEncoder = new UtcTimestampEncoder(epochFractionPrecision);
+
+        final int authenticationWorkerCount = configuration.authenticationWorkerCount();
+        authenticationExecutor = authenticationWorkerCount == 0 ? null : new AuthenticationExecutor(
+            authenticationStrategy,
+            authenticationWorkerCount,
+            configuration.authenticationQueueCapacity(),
+            configuration.authenticationStrategyTimeoutInMs(),
+            clock,
+            configuration.threadFactory(),
+            configuration.agentNamePrefix(),
+            errorHandler,
+            fixCounters.authenticationQueueDepth(),
+            fixCounters.authenticationLatencyInNs(),
+            fixCounters.authenticationTimeouts(),
+            fixCounters.authenticationQueueFull());
+    }
+
+    int pollSessions(final long timeInMs, final long timeInNs)
+    {
+        final AuthenticationExecutor authenticationExecutor = this.authenticationExecutor;
+        final int work = authenticationExecutor == null ? 0 : authenticationExecutor.poll(timeInMs);
+        return work + super.pollSessions(timeInMs, timeInNs);
+    }
+
+    void close()
+    {
+        CloseHelper.close(authenticationExecutor);
     }
 
     void acquire(
@@ -282,7 +311,8 @@ public class FixGatewaySessions extends GatewaySessions
         ((FixGatewaySession)session).lastSequenceResetTime(sessionContext.lastSequenceResetTime());
     }
 
-    final class FixPendingAcceptorLogon extends GatewaySessions.PendingAcceptorLogon implements AuthenticationProxy
+    final class FixPendingAcceptorLogon extends GatewaySessions.PendingAcceptorLogon
+        implements AuthenticationExecutor.PendingAuthentication
     {
         private static final int ENCODE_BUFFER_SIZE = 1024;
 
@@ -360,18 +390,41 @@ public class FixGatewaySessions extends GatewaySessions
 
         private void authenticate(final AbstractLogonDecoder logon, final long connectionId)
         {
+            if (authenticationExecutor != null)
+            {
+                if (!authenticationExecutor.submit(logon, this, epochClock.time()))
+                {
+                    reject();
+                }
+                return;
+            }
+
             try
             {
                 authenticationStrategy.authenticateAsync(logon, this);
             }
             catch (final Throwable throwable)
             {
-                onStrategyError("authentication", throwable, connectionId, "false", logon.toString());
+                onAuthenticationError(throwable);
+            }
+        }
 
-                if (state != AuthenticationState.REJECTED)
-                {
-                    reject();
-                }
+        public void onAuthenticationError(final Throwable throwable)
+        {
+            onStrategyError("authentication", throwable, connectionId, "false", logon.toString());
+
+            if (state != AuthenticationState.REJECTED)
+            {
+                reject();
+            }
+        }
+
+        public void onAuthenticationTimeout()
+        {
+            // The connection may have already been disconnected by the authentication timeout
+            if (state == AuthenticationState.PENDING)
+            {
+                reject();
             }
         }
 
@@ -59,9 +59,14 @@ class FixSenderEndPoint extends SenderEndPoint
     static final int ENQ_REPLAY_COMPLETE_LEN = SIZE_OF_INT + SIZE_OF_LONG;
     static final int ENQ_START_REPLAY_LEN = ENQ_REPLAY_COMPLETE_LEN;
     static final int ENQ_MESSAGE_BLOCK_LEN = SIZE_OF_INT + SIZE_OF_INT + SIZE_OF_INT + SIZE_OF_INT;
+    private static final int ENQ_BODY_LENGTH_OFFSET = SIZE_OF_INT + SIZE_OF_INT;
+    private static final int ENQ_BODY_OFFSET = ENQ_BODY_LENGTH_OFFSET + SIZE_OF_INT;
 
     protected static final int NO_REATTEMPT = 0;
 
+    // Bounds the number of buffers passed to a single gathering write, in line with a typical IOV_MAX
+    static final int MAX_GATHERED_MESSAGES = 64;
+
     static class Formatters
     {
         final CharFormatter replayComplete = new CharFormatter(
@@ -95,6 +100,7 @@ class FixSenderEndPoint extends SenderEndPoint
     private final MessageTimingHandler messageTimingHandler;
     private final FixReceiverEndPoint receiverEndPoint;
     private final Formatters formatters;
+    private final boolean gatheringWrites;
 
     private long sessionId;
     private long sendingTimeoutTimeInMs;
@@ -106,6 +112,16 @@ class FixSenderEndPoint extends SenderEndPoint
 
     private final ReattemptState normalBuffer = new ReattemptState();
     private final ReattemptState replayBuffer = new ReattemptState();
+    // Messages waiting for the next gathering write, uses the same entry format as the reattempt buffers
+    private final ReattemptState stagedWrites = new ReattemptState();
+
+    private int stagedMessageCount;
+    private long stagedTimeInMs;
+    private ByteBuffer[] stagedViews;
+    private int[] stagedSeqNums;
+    private ByteBuffer stagedViewsSource;
+    // Whether FixSenderEndPoints holds this end point in its list to flush at the end of the duty cycle
+    private boolean queuedForFlush;
 
     private boolean replaying;
     private long replayCorrelationId;
@@ -128,7 +144,8 @@ class FixSenderEndPoint extends SenderEndPoint
         final SenderSequenceNumber senderSequenceNumber,
         final MessageTimingHandler messageTimingHandler,
         final FixReceiverEndPoint receiverEndPoint,
-        final Formatters formatters)
+        final Formatters formatters,
+        final boolean gatheringWrites)
     {
         super(connectionId, inboundPublication, reproductionPublication, libraryId, channel, bytesInBuffer,
             maxBytesInBuffer, errorHandler,
@@ -142,6 +159,7 @@ class FixSenderEndPoint extends SenderEndPoint
         this.messageTimingHandler = messageTimingHandler;
         this.receiverEndPoint = receiverEndPoint;
         this.formatters = formatters;
+        this.gatheringWrites = gatheringWrites;
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
     }
 
@@ -252,6 +270,15 @@ class FixSenderEndPoint extends SenderEndPoint
         {
             final int metaDataOffset = offset - FixMessageDecoder.bodyHeaderLength() - metaDataLength;
 
+            if (gatheringWrites && !replay && !replaying && !requiresRetry)
+            {
+                stageMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, timeInMs);
+                return;
+            }
+
+            // Messages that can't be staged mustn't overtake those that already have been
+            flushStagedWrites();
+
             if ((replaying && !replay) || (!replaying && replay) || requiresRetry)
             {
                 enqueueMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, replay);
@@ -357,6 +384,33 @@ class FixSenderEndPoint extends SenderEndPoint
         final int totalLength = ENQ_MESSAGE_BLOCK_LEN + bodyLength + metaDataLength;
         final ReattemptState reattemptState = enqueue(totalLength, replay);
 
+        putMessage(
+            reattemptState, totalLength, srcBuffer, srcOffset, bodyLength, metaDataOffset, metaDataLength,
+            sequenceNumber);
+    }
+
+    private void stageMessage(
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber, final long timeInMs)
+    {
+        // Copy the message since the fragment is only valid for the duration of the poll callback
+        final int totalLength = ENQ_MESSAGE_BLOCK_LEN + bodyLength + metaDataLength;
+        final ReattemptState stagedWrites = this.stagedWrites;
+        stagedWrites.usage += totalLength;
+
+        putMessage(
+            stagedWrites, totalLength, srcBuffer, srcOffset, bodyLength, metaDataOffset, metaDataLength,
+            sequenceNumber);
+
+        stagedMessageCount++;
+        stagedTimeInMs = timeInMs;
+    }
+
+    private static void putMessage(
+        final ReattemptState reattemptState, final int totalLength,
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber)
+    {
         int reattemptOffset = reattemptState.usage - totalLength;
         final ExpandableDirectByteBuffer buffer = reattemptState.buffer();
 
@@ -378,6 +432,128 @@ class FixSenderEndPoint extends SenderEndPoint
         buffer.putBytes(reattemptOffset, srcBuffer, metaDataOffset, metaDataLength);
     }
 
+    int stagedMessageCount()
+    {
+        return stagedMessageCount;
+    }
+
+    boolean queuedForFlush()
+    {
+        return queuedForFlush;
+    }
+
+    void queuedForFlush(final boolean queuedForFlush)
+    {
+        this.queuedForFlush = queuedForFlush;
+    }
+
+    /**
+     * Write all the staged messages using gathering writes. Any messages that the channel doesn't accept are moved
+     * onto the normal reattempt buffer, so they get retried in the same way as a back-pressured individual write.
+     */
+    void flushStagedWrites()
+    {
+        int messageCount = stagedMessageCount;
+        if (messageCount == 0)
+        {
+            return;
+        }
+
+        final ReattemptState stagedWrites = this.stagedWrites;
+        final ExpandableDirectByteBuffer buffer = stagedWrites.buffer;
+        final ByteBuffer[] views = stagedViews(buffer);
+        final int[] seqNums = stagedSeqNums;
+        final int wrapAdjustment = buffer.wrapAdjustment();
+        final int usage = stagedWrites.usage;
+
+        int offset = 0;
+        int partialWritten = NO_REATTEMPT;
+        long totalWritten = 0;
+        try
+        {
+            gatheringWrite:
+            while (messageCount > 0)
+            {
+                final int batchSize = Math.min(messageCount, MAX_GATHERED_MESSAGES);
+                int entryOffset = offset;
+                for (int i = 0; i < batchSize; i++)
+                {
+                    final int bodyLength = buffer.getInt(entryOffset + ENQ_BODY_LENGTH_OFFSET);
+                    final int bodyOffset = entryOffset + ENQ_BODY_OFFSET;
+                    final ByteBuffer view = views[i];
+                    seqNums[i] = buffer.getInt(entryOffset + SIZE_OF_INT);
+                    ByteBufferUtil.limit(view, wrapAdjustment + bodyOffset + bodyLength);
+                    ByteBufferUtil.position(view, wrapAdjustment + bodyOffset);
+                    entryOffset = bodyOffset + bodyLength + SIZE_OF_INT + buffer.getInt(bodyOffset + bodyLength);
+                }
+
+                long written = channel.write(views, seqNums, 0, batchSize);
+                totalWritten += written;
+                for (int i = 0; i < batchSize; i++)
+                {
+                    final int sequenceNumber = buffer.getInt(offset + SIZE_OF_INT);
+                    final int bodyLength = buffer.getInt(offset + ENQ_BODY_LENGTH_OFFSET);
+                    final int bodyOffset = offset + ENQ_BODY_OFFSET;
+                    if (written < bodyLength)
+                    {
+                        partialWritten = (int)written;
+                        if (partialWritten > 0)
+                        {
+                            DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, bodyOffset, partialWritten);
+                        }
+                        tryLogBackPressure(sequenceNumber, false, partialWritten);
+                        break gatheringWrite;
+                    }
+
+                    DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, bodyOffset, bodyLength);
+                    written -= bodyLength;
+                    offset = onProcessMsgComplete(
+                        false, buffer, offset, sequenceNumber, bodyLength, bodyOffset, bodyLength);
+                    messageCount--;
+                }
+            }
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        if (messageCount > 0)
+        {
+            final int remainingLength = usage - offset;
+            final ReattemptState normalBuffer = enqueue(remainingLength, false);
+            normalBuffer.buffer().putBytes(normalBuffer.usage - remainingLength, buffer, offset, remainingLength);
+            reattemptBytesWritten = partialWritten;
+        }
+
+        stagedWrites.usage = 0;
+        stagedMessageCount = 0;
+        updateSendingTimeoutTimeInMs(stagedTimeInMs, totalWritten);
+    }
+
+    private ByteBuffer[] stagedViews(final ExpandableDirectByteBuffer buffer)
+    {
+        ByteBuffer[] stagedViews = this.stagedViews;
+        if (stagedViews == null)
+        {
+            stagedViews = this.stagedViews = new ByteBuffer[MAX_GATHERED_MESSAGES];
+            stagedSeqNums = new int[MAX_GATHERED_MESSAGES];
+        }
+
+        // The staging buffer's underlying ByteBuffer gets replaced when it expands
+        final ByteBuffer source = buffer.byteBuffer();
+        if (source != stagedViewsSource)
+        {
+            for (int i = 0; i < MAX_GATHERED_MESSAGES; i++)
+            {
+                stagedViews[i] = source.duplicate();
+            }
+            stagedViewsSource = source;
+        }
+
+        return stagedViews;
+    }
+
     private void enqueueReplayComplete(final long correlationId)
     {
         enqueueCorrelation(correlationId, ENQ_REPLAY_COMPLETE);
@@ -605,7 +781,7 @@ class FixSenderEndPoint extends SenderEndPoint
         return CONTINUE;
     }
 
-    private void updateSendingTimeoutTimeInMs(final long timeInMs, final int written)
+    private void updateSendingTimeoutTimeInMs(final long timeInMs, final long written)
     {
         if (written > 0)
         {
@@ -660,6 +836,7 @@ class FixSenderEndPoint extends SenderEndPoint
 
     boolean poll(final long timeInMs)
     {
+        flushStagedWrites();
         reattempt();
 
         if (isSlowConsumer() && timeInMs > sendingTimeoutTimeInMs)
@@ -740,6 +917,9 @@ class FixSenderEndPoint extends SenderEndPoint
                 .with(connectionId).with(correlationId));
         }
 
+        // Staged messages were sent before the replay started so mustn't get queued behind it.
+        flushStagedWrites();
+
         // We start the replay with this message, rather than VRR because it doesn't race with replay complete.
         if (replaying || requiresRetry)
         {
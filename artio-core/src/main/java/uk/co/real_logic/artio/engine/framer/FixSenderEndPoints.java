@@ -19,11 +19,14 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -35,7 +38,11 @@ class FixSenderEndPoints implements AutoCloseable
         "SEPs.missReplayComplete, connId=%s, corrId=%s, slow=%s");
 
     private final Long2ObjectHashMap<FixSenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
+    private final ArrayList<FixSenderEndPoint> endPointsWithStagedWrites = new ArrayList<>();
+    // Times at which staged messages were polled, so the send timer can be recorded once they're written
+    private final LongArrayList stagedMessageTimes = new LongArrayList();
     private final ErrorHandler errorHandler;
+    private final Timer sendTimer;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
 
     private int libraryLookup(final long sessionId)
@@ -53,9 +60,10 @@ class FixSenderEndPoints implements AutoCloseable
 
     private long timeInMs;
 
-    FixSenderEndPoints(final ErrorHandler errorHandler)
+    FixSenderEndPoints(final ErrorHandler errorHandler, final Timer sendTimer)
     {
         this.errorHandler = errorHandler;
+        this.sendTimer = sendTimer;
     }
 
     public void add(final FixSenderEndPoint senderEndPoint)
@@ -68,6 +76,12 @@ class FixSenderEndPoints implements AutoCloseable
         final FixSenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.remove(connectionId);
         if (senderEndPoint != null)
         {
+            // Messages staged earlier in this duty cycle, eg: a logout, must reach the socket before it's closed
+            senderEndPoint.flushStagedWrites();
+            if (senderEndPoint.queuedForFlush())
+            {
+                endPointsWithStagedWrites.remove(senderEndPoint);
+            }
             senderEndPoint.close();
         }
     }
@@ -81,11 +95,13 @@ class FixSenderEndPoints implements AutoCloseable
         final int sequenceNumber,
         final int sequenceIndex,
         final long messageType,
-        final int metaDataLength)
+        final int metaDataLength,
+        final long polledTimestamp)
     {
         final FixSenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
+            final int previousStagedMessageCount = endPoint.stagedMessageCount();
             endPoint.onOutboundMessage(
                 libraryId,
                 buffer,
@@ -96,6 +112,19 @@ class FixSenderEndPoints implements AutoCloseable
                 messageType,
                 timeInMs,
                 metaDataLength);
+            checkStagedWrites(endPoint);
+
+            if (endPoint.stagedMessageCount() > previousStagedMessageCount)
+            {
+                if (sendTimer.isEnabled())
+                {
+                    stagedMessageTimes.addLong(polledTimestamp);
+                }
+            }
+            else
+            {
+                sendTimer.recordSince(polledTimestamp);
+            }
             return true;
         }
 
@@ -120,11 +149,53 @@ class FixSenderEndPoints implements AutoCloseable
                 libraryId, refMsgType, refSeqNum, sequenceNumber, sequenceIndex,
                 businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength,
                 timeInMs);
+            checkStagedWrites(endPoint);
         }
 
         return null;
     }
 
+    private void checkStagedWrites(final FixSenderEndPoint endPoint)
+    {
+        // An end point that flushes early due to ordering may stage again within the same duty cycle, so it's only
+        // queued once.
+        if (endPoint.stagedMessageCount() > 0 && !endPoint.queuedForFlush())
+        {
+            endPoint.queuedForFlush(true);
+            endPointsWithStagedWrites.add(endPoint);
+        }
+    }
+
+    /**
+     * Flush the messages that have been staged for gathering writes during the current duty cycle.
+     */
+    void flushStagedWrites()
+    {
+        final ArrayList<FixSenderEndPoint> endPointsWithStagedWrites = this.endPointsWithStagedWrites;
+        final int size = endPointsWithStagedWrites.size();
+        if (size > 0)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final FixSenderEndPoint endPoint = endPointsWithStagedWrites.get(i);
+                endPoint.queuedForFlush(false);
+                endPoint.flushStagedWrites();
+            }
+            endPointsWithStagedWrites.clear();
+        }
+
+        final LongArrayList stagedMessageTimes = this.stagedMessageTimes;
+        final int timeCount = stagedMessageTimes.size();
+        if (timeCount > 0)
+        {
+            for (int i = 0; i < timeCount; i++)
+            {
+                sendTimer.recordSince(stagedMessageTimes.getLong(i));
+            }
+            stagedMessageTimes.clear();
+        }
+    }
+
     Action onReplayMessage(
         final long connectionId, final DirectBuffer buffer, final int offset, final int length,
         final int sequenceNumber)
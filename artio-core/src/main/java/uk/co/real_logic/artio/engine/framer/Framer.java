@@ -123,7 +123,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final Int2ObjectHashMap<LiveLibraryInfo> idToLibrary = new Int2ObjectHashMap<>();
     private final List<LiveLibraryInfo> librariesBeingAcquired = new ArrayList<>();
     private final Consumer<AdminCommand> onAdminCommand = command -> command.execute(this);
-    private final NewChannelHandler onNewConnectionFunc = this::onNewConnection;
+    private final NewChannelHandler onNewConnectionFunc = new NewChannelHandler()
+    {
+        public void onNewChannel(final long timeInMs, final TcpChannel channel)
+        {
+            onNewConnection(timeInMs, channel);
+        }
+
+        public int newChannelLimit()
+        {
+            return logonAdmissionController.newConnectionLimit();
+        }
+    };
     private final Predicate<LiveLibraryInfo> retryAcquireLibrarySessionsFunc = this::retryAcquireLibrarySessions;
     private final Consumer<FixGatewaySession> onSessionLogon = this::onSessionLogon;
     private final CatchupReplayer.Formatters catchupReplayFormatters = new CatchupReplayer.Formatters();
@@ -133,6 +144,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
 
     private final ReproductionPoller reproductionPoller;
+    private final LogonAdmissionController logonAdmissionController;
     private final TcpChannelSupplier channelSupplier;
     private final EpochClock epochClock;
     private final EpochNanoClock clock;
@@ -140,7 +152,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final Timer sendTimer;
 
     private final ControlledFragmentHandler librarySubscriber;
-    private final ControlledFragmentHandler replaySubscriber;
+    private final ControlledFragmentHandler[] replaySubscribers;
     private final AdminEngineProtocolSubscription adminEngineProtocolSubscription;
     private final Subscription adminEngineSubscription;
     private final ReceiverEndPoints receiverEndPoints;
@@ -157,7 +169,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final AdminReplyPublication adminReplyPublication;
     private final FixEndPointFactory endPointFactory;
     private final Subscription librarySubscription;
-    private final Image replayImage;
+    private final Image[] replayImages;
     private final GatewayPublication inboundPublication;
     private final String agentNamePrefix;
     private final CompletionPosition inboundCompletionPosition;
@@ -215,7 +227,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final AdminReplyPublication adminReplyPublication,
         final FixEndPointFactory endPointFactory,
         final Subscription librarySubscription,
-        final Image replayImage,
+        final Image[] replayImages,
         final ReplayQuery inboundMessages,
         final GatewayPublication outboundPublication,
         final GatewayPublication inboundPublication,
@@ -249,7 +261,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.adminReplyPublication = adminReplyPublication;
         this.endPointFactory = endPointFactory;
         this.librarySubscription = librarySubscription;
-        this.replayImage = replayImage;
+        this.replayImages = replayImages;
         this.gatewaySessions = gatewaySessions;
         this.inboundMessages = inboundMessages;
         this.errorHandler = errorHandler;
@@ -258,7 +270,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.agentNamePrefix = agentNamePrefix;
         this.inboundCompletionPosition = inboundCompletionPosition;
         this.outboundLibraryCompletionPosition = outboundLibraryCompletionPosition;
-        this.fixSenderEndPoints = new FixSenderEndPoints(errorHandler);
+        this.fixSenderEndPoints = new FixSenderEndPoints(errorHandler, sendTimer);
         this.countersReader = countersReader;
         this.inboundIndexRegistrationId = inboundIndexRegistrationId;
         this.outboundIndexRegistrationId = outboundIndexRegistrationId;
@@ -299,7 +311,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
         // We lookup replayed message by session id, since the connection id may have changed
         // if it's a persistent session.
-        replaySubscriber = new ImageControlledFragmentAssembler(ProtocolSubscription.of(
+        final ControlledFragmentHandler replayHandler = ProtocolSubscription.of(
             new ProtocolHandler()
             {
                 public Action onMessage(
@@ -331,9 +343,14 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                     return fixPSenderEndPoints.onMessage(connectionId, buffer, offset, true);
                 }
             },
-            new ReplayProtocolSubscription(new FramerReplayProtocolHandler(false))),
-            0,
-            true);
+            new ReplayProtocolSubscription(new FramerReplayProtocolHandler(false)));
+
+        // Each replayer worker has its own image, so needs its own assembler
+        replaySubscribers = new ControlledFragmentHandler[replayImages.length];
+        for (int i = 0; i < replayImages.length; i++)
+        {
+            replaySubscribers[i] = new ImageControlledFragmentAssembler(replayHandler, 0, true);
+        }
 
         adminEngineProtocolSubscription = new AdminEngineProtocolSubscription(this);
 
@@ -360,6 +377,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             shouldBind = configuration.bindAtStartup();
         }
 
+        // Reproduction has to accept every connection that was originally accepted
+        logonAdmissionController = new LogonAdmissionController(
+            configuration.maxNewConnectionsPerPoll(),
+            isReproducing ? Integer.MAX_VALUE : configuration.maxPendingLogons(),
+            isReproducing ? Integer.MAX_VALUE : configuration.maxPendingLogonsPerAddress(),
+            fixCounters.pendingLogons(),
+            fixCounters.deferredConnectionPolls(),
+            fixCounters.pendingLogonsPerAddressRejects());
+
         Image image = null;
         while (image == null)
         {
@@ -445,14 +471,25 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     private int sendReplayMessages()
     {
-        return replayImage.controlledPoll(replaySubscriber, replayFragmentLimit);
+        final Image[] replayImages = this.replayImages;
+        final ControlledFragmentHandler[] replaySubscribers = this.replaySubscribers;
+        int messagesRead = 0;
+        for (int i = 0; i < replayImages.length; i++)
+        {
+            messagesRead += replayImages[i].controlledPoll(replaySubscribers[i], replayFragmentLimit);
+        }
+        return messagesRead;
     }
 
     private int sendOutboundMessages()
     {
-        return fixPSenderEndPoints.reattempt() +
+        final int messagesSent = fixPSenderEndPoints.reattempt() +
             librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
             adminEngineSubscription.poll(adminEngineProtocolSubscription, outboundLibraryFragmentLimit);
+
+        fixSenderEndPoints.flushStagedWrites();
+
+        return messagesSent;
     }
 
     private int pollLibraries(final long timeInMs)
@@ -638,22 +675,27 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             return;
         }
 
+        final long connectionId = newConnectionId();
+        if (!logonAdmissionController.admit(connectionId, channel.remoteAddr()))
+        {
+            channel.close();
+            return;
+        }
+
         if (acceptsFixP)
         {
-            onNewFixPConnection(timeInMs, channel);
+            onNewFixPConnection(timeInMs, channel, connectionId);
         }
         else
         {
-            onNewFixConnection(timeInMs, channel);
+            onNewFixConnection(timeInMs, channel, connectionId);
         }
     }
 
-    private void onNewFixPConnection(final long timeInMs, final TcpChannel channel)
+    private void onNewFixPConnection(final long timeInMs, final TcpChannel channel, final long connectionId)
     {
         final FixPProtocolType protocolType = initFixPProtocol();
 
-        final long connectionId = newConnectionId();
-
         final AtomicCounter bytesInBuffer = fixCounters.bytesInBuffer(connectionId, channel.remoteAddr());
         senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer);
 
@@ -717,9 +759,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         return protocolType;
     }
 
-    private void onNewFixConnection(final long timeInMs, final TcpChannel channel)
+    private void onNewFixConnection(final long timeInMs, final TcpChannel channel, final long connectionId)
     {
-        final long connectionId = newConnectionId();
         final FixGatewaySession gatewaySession = setupFixConnection(
             channel,
             connectionId,
@@ -911,14 +952,14 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final CancelOnDisconnectTimeoutHandler handler = configuration.cancelOnDisconnectTimeoutHandler();
         if (handler != null)
         {
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry == null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context == null)
             {
                 cancelOnDisconnectError(sessionId);
                 return;
             }
 
-            final CompositeKey sessionKey = entry.getKey();
+            final CompositeKey sessionKey = context.sessionKey();
             schedule(new CancelOnDisconnectTimeoutOperation(sessionId, timeInNs, clock, errorHandler)
             {
                 protected void onCancelOnDisconnectTimeout()
@@ -1692,15 +1733,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             sequenceNumber,
             sequenceIndex,
             messageType,
-            metaDataLength);
+            metaDataLength,
+            now);
 
         if (!online)
         {
             checkOfflineSequenceReset(sessionId, messageType, sequenceIndex);
+            sendTimer.recordSince(now);
         }
 
-        sendTimer.recordSince(now);
-
         return CONTINUE;
     }
 
@@ -1719,20 +1760,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         if (messageType == LOGON_MESSAGE_TYPE)
         {
             // Always a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceReset(clock.nanoTime());
             }
         }
         else if (messageType == SEQUENCE_RESET_MESSAGE_TYPE)
         {
             // If it's not a gap-fill it's a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceIndex(clock.nanoTime(), sequenceIndex);
             }
         }
@@ -1797,6 +1836,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        logonAdmissionController.onLogonComplete(connectionId);
         receiverEndPoints.removeConnection(connectionId, reason);
         fixSenderEndPoints.removeConnection(connectionId);
         fixPSenderEndPoints.removeConnection(connectionId);
@@ -2433,8 +2473,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int replayFromSequenceIndex,
         final int replayFromSequenceNumber)
     {
-        final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-        if (entry == null)
+        final SessionContext context = fixContexts.lookupById(sessionId);
+        if (context == null)
         {
             return false;
         }
@@ -2451,8 +2491,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 correlationId,
                 replayFromSequenceIndex,
                 replayFromSequenceNumber,
-                entry.getKey(),
-                entry.getValue()));
+                context.sessionKey(),
+                context));
         }
 
         return true;
@@ -3304,6 +3344,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         closeAll(
             this::quiesce,
+            gatewaySessions::close,
             retryManager,
             inboundMessages,
             receiverEndPoints,
@@ -3374,6 +3415,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         }
     }
 
+    void onLogonComplete(final long connectionId)
+    {
+        logonAdmissionController.onLogonComplete(connectionId);
+    }
+
     void receiverEndPointPollingOptional(final long connectionId)
     {
         receiverEndPoints.receiverEndPointPollingOptional(connectionId, true);
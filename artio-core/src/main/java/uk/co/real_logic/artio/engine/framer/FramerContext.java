@@ -66,11 +66,12 @@ public class FramerContext
         final FixCounters fixCounters,
         final EngineContext engineContext,
         final ErrorHandler errorHandler,
-        final Image replayImage,
+        final Image[] replayImages,
         final EngineTimers timers,
         final AgentInvoker conductorAgentInvoker,
         final RecordingCoordinator recordingCoordinator,
-        final Aeron aeron)
+        final Aeron aeron,
+        final FixContexts fixContexts)
     {
         this.configuration = configuration;
 
@@ -79,9 +80,7 @@ public class FramerContext
         final IdleStrategy idleStrategy = configuration.framerIdleStrategy();
         final Streams outboundLibraryStreams = engineContext.outboundLibraryStreams();
 
-        this.fixContexts = new FixContexts(
-            configuration.sessionIdBuffer(), sessionIdStrategy, configuration.initialSequenceIndex(), errorHandler,
-            configuration.isReproductionEnabled());
+        this.fixContexts = fixContexts;
         this.fixPContexts = new FixPContexts(
             configuration.fixPIdBuffer(),
             errorHandler,
@@ -144,7 +143,9 @@ public class FramerContext
                 errorHandler,
                 (FixGatewaySessions)gatewaySessions,
                 engineContext.senderSequenceNumbers(),
-                configuration.messageTimingHandler());
+                configuration.messageTimingHandler(),
+                timers.frameTimer(),
+                timers.inboundPublishTimer());
         }
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
@@ -159,7 +160,7 @@ public class FramerContext
             endPointFactory,
             engineContext.outboundLibrarySubscription(
                 "outboundLibrarySubscription", finalImagePositions),
-            replayImage,
+            replayImages,
             engineContext.inboundReplayQuery(false),
             outboundPublication,
             inboundPublication,
@@ -166,6 +166,10 @@ abstract class GatewaySessions
         return sessions;
     }
 
+    void close()
+    {
+    }
+
     private boolean lookupSequenceNumbers(final GatewaySession gatewaySession, final long requiredPosition)
     {
         final int aeronSessionId = outboundPublication.sessionId();
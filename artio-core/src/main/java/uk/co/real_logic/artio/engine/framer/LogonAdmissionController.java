@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.Object2IntHashMap;
+import org.agrona.concurrent.status.AtomicCounter;
+
+/**
+ * Limits the rate at which the Framer accepts new connections and the number of accepted connections that can be
+ * waiting to complete their logon, so that a reconnect storm doesn't starve sessions that are already established.
+ *
+ * Connections are pending from when they're accepted until their logon is authenticated or they disconnect. Whilst
+ * too many connections are pending new connections are left in the listening socket's backlog, rather than being
+ * accepted and then competing for the Framer's time with every other pending logon.
+ */
+class LogonAdmissionController
+{
+    private static final int MISSING_COUNT = 0;
+
+    private final Long2ObjectHashMap<String> connectionIdToAddress = new Long2ObjectHashMap<>();
+    private final Object2IntHashMap<String> addressToPendingLogons = new Object2IntHashMap<>(MISSING_COUNT);
+    private final int maxNewConnectionsPerPoll;
+    private final int maxPendingLogons;
+    private final int maxPendingLogonsPerAddress;
+    private final AtomicCounter pendingLogons;
+    private final AtomicCounter deferredPolls;
+    private final AtomicCounter addressRejects;
+
+    LogonAdmissionController(
+        final int maxNewConnectionsPerPoll,
+        final int maxPendingLogons,
+        final int maxPendingLogonsPerAddress,
+        final AtomicCounter pendingLogons,
+        final AtomicCounter deferredPolls,
+        final AtomicCounter addressRejects)
+    {
+        this.maxNewConnectionsPerPoll = maxNewConnectionsPerPoll;
+        this.maxPendingLogons = maxPendingLogons;
+        this.maxPendingLogonsPerAddress = maxPendingLogonsPerAddress;
+        this.pendingLogons = pendingLogons;
+        this.deferredPolls = deferredPolls;
+        this.addressRejects = addressRejects;
+    }
+
+    /**
+     * Gets the number of new connections that can be accepted by the current poll, called when there are
+     * connections waiting to be accepted.
+     *
+     * @return the number of new connections that can be accepted.
+     */
+    int newConnectionLimit()
+    {
+        final int remainingPendingLogons = maxPendingLogons - connectionIdToAddress.size();
+        if (remainingPendingLogons <= 0)
+        {
+            deferredPolls.increment();
+            return 0;
+        }
+
+        return Math.min(maxNewConnectionsPerPoll, remainingPendingLogons);
+    }
+
+    /**
+     * Admit a newly accepted connection as waiting to complete its logon.
+     *
+     * @param connectionId the id of the connection.
+     * @param remoteAddress the remote address of the connection, in the form <code>"/ip_address:port"</code>.
+     * @return true if the connection is admitted, false if it should be disconnected because too many connections
+     *         from its address are already waiting to complete their logon.
+     */
+    boolean admit(final long connectionId, final String remoteAddress)
+    {
+        final String address = host(remoteAddress);
+        final int addressPendingLogons = addressToPendingLogons.getValue(address);
+        if (addressPendingLogons >= maxPendingLogonsPerAddress)
+        {
+            addressRejects.increment();
+            return false;
+        }
+
+        addressToPendingLogons.put(address, addressPendingLogons + 1);
+        connectionIdToAddress.put(connectionId, address);
+        pendingLogons.setOrdered(connectionIdToAddress.size());
+        return true;
+    }
+
+    /**
+     * Notify the controller that a connection has completed its logon or disconnected, it's safe to call this more
+     * than once or for connections that were never admitted.
+     *
+     * @param connectionId the id of the connection.
+     */
+    void onLogonComplete(final long connectionId)
+    {
+        final String address = connectionIdToAddress.remove(connectionId);
+        if (address != null)
+        {
+            final int addressPendingLogons = addressToPendingLogons.getValue(address) - 1;
+            if (addressPendingLogons == MISSING_COUNT)
+            {
+                addressToPendingLogons.removeKey(address);
+            }
+            else
+            {
+                addressToPendingLogons.put(address, addressPendingLogons);
+            }
+
+            pendingLogons.setOrdered(connectionIdToAddress.size());
+        }
+    }
+
+    int pendingLogonCount()
+    {
+        return connectionIdToAddress.size();
+    }
+
+    private static String host(final String remoteAddress)
+    {
+        final int portSeparator = remoteAddress.lastIndexOf(':');
+        return portSeparator == -1 ? remoteAddress : remoteAddress.substring(0, portSeparator);
+    }
+}
@@ -43,6 +43,41 @@ public abstract class TcpChannel implements AutoCloseable
     // Any subclass should maintain the API that negative numbers of bytes are never returned
     public abstract int write(ByteBuffer src, int seqNum, boolean replay) throws IOException;
 
+    /**
+     * Write a sequence of buffers to the channel, stopping at the first buffer that can't be completely written.
+     * Implementations backed by a socket should override this in order to issue a single gathering write.
+     *
+     * @param srcs the buffers to write.
+     * @param seqNums the sequence number of the message in each buffer, at the same index as its buffer.
+     * @param offset the index within srcs of the first buffer to write.
+     * @param length the number of buffers to write.
+     * @return the total number of bytes written, never negative.
+     * @throws IOException if the underlying write fails.
+     */
+    public long write(final ByteBuffer[] srcs, final int[] seqNums, final int offset, final int length)
+        throws IOException
+    {
+        return writeSequentially(srcs, seqNums, offset, length);
+    }
+
+    protected final long writeSequentially(
+        final ByteBuffer[] srcs, final int[] seqNums, final int offset, final int length) throws IOException
+    {
+        long written = 0;
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            final ByteBuffer src = srcs[i];
+            final int remaining = src.remaining();
+            final int bufferWritten = write(src, seqNums[i], false);
+            written += bufferWritten;
+            if (bufferWritten < remaining)
+            {
+                break;
+            }
+        }
+        return written;
+    }
+
     public abstract int read(ByteBuffer dst) throws IOException;
 
     public abstract void close();
@@ -43,5 +43,16 @@ public abstract class TcpChannelSupplier implements AutoCloseable
     public interface NewChannelHandler
     {
         void onNewChannel(long timeInMs, TcpChannel socketChannel) throws IOException;
+
+        /**
+         * Gets the maximum number of new channels that can be handed to this handler by the current poll, any further
+         * channels should be left in the listening socket's backlog until a later poll.
+         *
+         * @return the maximum number of new channels, 0 if no new channels should be accepted.
+         */
+        default int newChannelLimit()
+        {
+            return 1;
+        }
     }
 }
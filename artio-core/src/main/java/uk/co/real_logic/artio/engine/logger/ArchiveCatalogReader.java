@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.RecordingDescriptorConsumer;
+import io.aeron.archive.codecs.CatalogHeaderDecoder;
+import io.aeron.archive.codecs.RecordingDescriptorDecoder;
+import io.aeron.archive.codecs.RecordingDescriptorHeaderDecoder;
+import io.aeron.archive.codecs.RecordingState;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static org.agrona.BitUtil.align;
+
+/**
+ * Reads the recording descriptors from the catalog file of an Aeron Archive directory without needing a running
+ * archive, so that a copy of an archive directory can be scanned offline.
+ */
+final class ArchiveCatalogReader
+{
+    private static final int DESCRIPTOR_HEADER_LENGTH = RecordingDescriptorHeaderDecoder.BLOCK_LENGTH;
+
+    private ArchiveCatalogReader()
+    {
+    }
+
+    /**
+     * List the valid recordings in the catalog in the same way as
+     * {@link io.aeron.archive.client.AeronArchive#listRecordings(long, int, RecordingDescriptorConsumer)}.
+     *
+     * @param archiveDir the Aeron Archive directory.
+     * @param consumer the consumer to invoke for each valid recording.
+     * @return the number of recordings listed.
+     */
+    static int listRecordings(final File archiveDir, final RecordingDescriptorConsumer consumer)
+    {
+        final File catalogFile = new File(archiveDir, Archive.Configuration.CATALOG_FILE_NAME);
+        if (!catalogFile.exists())
+        {
+            throw new IllegalArgumentException("No archive catalog found at: " + catalogFile.getAbsolutePath());
+        }
+
+        final MappedByteBuffer mappedByteBuffer = IoUtil.mapExistingFile(
+            catalogFile, FileChannel.MapMode.READ_ONLY, catalogFile.getName());
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final CatalogHeaderDecoder catalogHeader = new CatalogHeaderDecoder()
+                .wrap(buffer, 0, CatalogHeaderDecoder.BLOCK_LENGTH, CatalogHeaderDecoder.SCHEMA_VERSION);
+            final RecordingDescriptorHeaderDecoder descriptorHeader = new RecordingDescriptorHeaderDecoder();
+            final RecordingDescriptorDecoder descriptor = new RecordingDescriptorDecoder();
+            final int alignment = Math.max(catalogHeader.alignment(), 1);
+            final int capacity = buffer.capacity();
+
+            int count = 0;
+            int offset = catalogHeader.length();
+            while (offset + DESCRIPTOR_HEADER_LENGTH <= capacity)
+            {
+                descriptorHeader.wrap(
+                    buffer, offset, DESCRIPTOR_HEADER_LENGTH, RecordingDescriptorHeaderDecoder.SCHEMA_VERSION);
+                final int length = descriptorHeader.length();
+                if (length <= 0)
+                {
+                    break;
+                }
+
+                if (descriptorHeader.state() == RecordingState.VALID)
+                {
+                    descriptor.wrap(
+                        buffer,
+                        offset + DESCRIPTOR_HEADER_LENGTH,
+                        RecordingDescriptorDecoder.BLOCK_LENGTH,
+                        RecordingDescriptorDecoder.SCHEMA_VERSION);
+
+                    consumer.onRecordingDescriptor(
+                        descriptor.controlSessionId(),
+                        descriptor.correlationId(),
+                        descriptor.recordingId(),
+                        descriptor.startTimestamp(),
+                        descriptor.stopTimestamp(),
+                        descriptor.startPosition(),
+                        descriptor.stopPosition(),
+                        descriptor.initialTermId(),
+                        descriptor.segmentFileLength(),
+                        descriptor.termBufferLength(),
+                        descriptor.mtuLength(),
+                        descriptor.sessionId(),
+                        descriptor.streamId(),
+                        descriptor.strippedChannel(),
+                        descriptor.originalChannel(),
+                        descriptor.sourceIdentity());
+                    count++;
+                }
+
+                offset += align(DESCRIPTOR_HEADER_LENGTH + length, alignment);
+            }
+
+            return count;
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+    }
+}
@@ -17,6 +17,8 @@ package uk.co.real_logic.artio.engine.logger;
 
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.FilterBy;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.From;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.SequenceNumberBetween;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.SessionOf;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.To;
 
 final class ArchiveScanPlanner
@@ -42,10 +44,12 @@ final class ArchiveScanPlanner
 
     private static void extractIndexQuery(final FixMessagePredicate predicate, final IndexQuery indexQuery)
     {
-        // NB: range returned by the index plan still needs filtering afterwards to ensure correctness
-        if (predicate instanceof CompositeFixMessagePredicate)
+        // NB: range returned by the index plan still needs filtering afterwards to ensure correctness.
+        // Only conjunctions can narrow the scan, messages matching either side of an or need to be scanned, so an or
+        // doesn't contribute anything to the query.
+        if (predicate instanceof FixMessageAnd)
         {
-            final CompositeFixMessagePredicate and = (CompositeFixMessagePredicate)predicate;
+            final FixMessageAnd and = (FixMessageAnd)predicate;
             extractIndexQuery(and.left(), indexQuery);
             extractIndexQuery(and.right(), indexQuery);
         }
@@ -59,5 +63,16 @@ final class ArchiveScanPlanner
             final To to = (To)predicate;
             indexQuery.to(to.endTimestampExclusive());
         }
+        else if (predicate instanceof SessionOf)
+        {
+            final SessionOf sessionOf = (SessionOf)predicate;
+            indexQuery.sessionId(sessionOf.sessionId());
+        }
+        else if (predicate instanceof SequenceNumberBetween)
+        {
+            final SequenceNumberBetween between = (SequenceNumberBetween)predicate;
+            indexQuery.sequenceNumbers(
+                between.beginSequenceNumberInclusive(), between.endSequenceNumberInclusive());
+        }
     }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.ControlledFragmentAssembler;
+import io.aeron.FragmentAssembler;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.ReplayerTimestampDecoder;
+import uk.co.real_logic.artio.messages.ReplayerTimestampEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataSinceVersion;
+import static uk.co.real_logic.artio.messages.MessageHeaderDecoder.ENCODED_LENGTH;
+
+/**
+ * Replays, decodes and filters a subset of the recordings of a parallel archive scan on its own thread.
+ *
+ * Each recording's matching messages are copied in recording order into a ring buffer that the
+ * {@link StreamTimestampZipper} on the scanning thread polls in order to merge the recordings into timestamp order.
+ * Messages that don't match the predicate are replaced by a timestamp so that the zipper doesn't have to wait for
+ * the next matching message in order to hand off messages from other recordings. Messages that are too large for
+ * the ring buffer are handed off one at a time through a separate buffer that grows to fit them.
+ */
+class ArchiveScanWorker implements Agent, ControlledFragmentHandler
+{
+    static final int SCAN_BUFFER_CAPACITY = 1024 * 1024;
+
+    private static final int MESSAGE_TYPE_ID = 1;
+    private static final int LARGE_MESSAGE_TYPE_ID = 2;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final UnsafeBuffer timestampBuffer = new UnsafeBuffer(new byte[
+        ENCODED_LENGTH + ReplayerTimestampDecoder.BLOCK_LENGTH]);
+    private final ReplayerTimestampEncoder replayerTimestampEncoder = new ReplayerTimestampEncoder();
+    private final ControlledFragmentAssembler fragmentAssembler = new ControlledFragmentAssembler(this);
+    private final IdleStrategy lookupIdleStrategy = CommonConfiguration.backoffIdleStrategy();
+    private final List<ScanPoller> pollers = new ArrayList<>();
+    private final FixMessagePredicate predicate;
+    private final int workerId;
+
+    private ScanPoller currentPoller;
+    private volatile Throwable error;
+
+    ArchiveScanWorker(final int workerId, final FixMessagePredicate predicate)
+    {
+        this.workerId = workerId;
+        this.predicate = predicate;
+
+        replayerTimestampEncoder.wrapAndApplyHeader(timestampBuffer, 0, new MessageHeaderEncoder());
+    }
+
+    StreamTimestampZipper.Poller addPoller(final FixArchiveScanningAgent.ArchivePoller recordingPoller)
+    {
+        final ScanPoller poller = new ScanPoller(recordingPoller);
+        pollers.add(poller);
+        return poller;
+    }
+
+    public void onStart()
+    {
+        predicate.reset();
+    }
+
+    public int doWork()
+    {
+        int work = 0;
+        final List<ScanPoller> pollers = this.pollers;
+        for (int i = 0, size = pollers.size(); i < size; i++)
+        {
+            work += pollers.get(i).scan();
+        }
+        return work;
+    }
+
+    public String roleName()
+    {
+        return "ArchiveScanWorker-" + workerId;
+    }
+
+    void onError(final Throwable error)
+    {
+        if (this.error == null)
+        {
+            this.error = error;
+        }
+    }
+
+    Throwable error()
+    {
+        return error;
+    }
+
+    public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        final ScanPoller poller = currentPoller;
+        final long position = header.position();
+
+        // A message that was aborted due to a full ring buffer has already been tested, predicates can be stateful
+        if (poller.acceptedPosition != position)
+        {
+            if (!accept(buffer, offset))
+            {
+                poller.skippedTimestamp = fixMessage.timestamp();
+                return CONTINUE;
+            }
+
+            poller.acceptedPosition = position;
+        }
+
+        final OneToOneRingBuffer ringBuffer = poller.ringBuffer;
+        final boolean written = length > ringBuffer.maxMsgLength() ?
+            poller.writeLargeMessage(buffer, offset, length) :
+            ringBuffer.write(MESSAGE_TYPE_ID, buffer, offset, length);
+        if (!written)
+        {
+            return ABORT;
+        }
+
+        poller.skippedTimestamp = NO_TIMESTAMP;
+        return CONTINUE;
+    }
+
+    private boolean accept(final DirectBuffer buffer, final int offset)
+    {
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        if (messageHeader.templateId() != FixMessageDecoder.TEMPLATE_ID)
+        {
+            return true;
+        }
+
+        final int version = messageHeader.version();
+        final FixMessageDecoder fixMessage = this.fixMessage;
+        fixMessage.wrap(buffer, offset + ENCODED_LENGTH, messageHeader.blockLength(), version);
+        if (version >= metaDataSinceVersion())
+        {
+            fixMessage.skipMetaData();
+        }
+
+        return predicate.test(fixMessage);
+    }
+
+    class ScanPoller implements StreamTimestampZipper.Poller, MessageHandler
+    {
+        private final FixArchiveScanningAgent.ArchivePoller recordingPoller;
+        private final ByteBuffer ringByteBuffer =
+            BufferUtil.allocateDirectAligned(SCAN_BUFFER_CAPACITY + TRAILER_LENGTH, CACHE_LINE_LENGTH);
+        private final OneToOneRingBuffer ringBuffer = new OneToOneRingBuffer(new UnsafeBuffer(ringByteBuffer));
+        // Written by the worker thread before the ring buffer record that refers to it, read by the scanning thread
+        private final ExpandableArrayBuffer largeMessageBuffer = new ExpandableArrayBuffer(0);
+        private final UnsafeBuffer largeMessageLengthBuffer = new UnsafeBuffer(new byte[SIZE_OF_INT]);
+
+        // Worker thread state
+        private long acceptedPosition = NULL_POSITION;
+        private long skippedTimestamp = NO_TIMESTAMP;
+
+        // Scanning thread state
+        private FragmentHandler handler;
+
+        private volatile boolean recordingComplete;
+        private volatile boolean largeMessagePending;
+
+        ScanPoller(final FixArchiveScanningAgent.ArchivePoller recordingPoller)
+        {
+            this.recordingPoller = recordingPoller;
+        }
+
+        // Called on the worker thread
+        int scan()
+        {
+            if (recordingComplete)
+            {
+                return 0;
+            }
+
+            currentPoller = this;
+            final int work = recordingPoller.controlledPoll(fragmentAssembler, lookupIdleStrategy);
+
+            if (skippedTimestamp != NO_TIMESTAMP)
+            {
+                writeSkippedTimestamp();
+            }
+
+            if (skippedTimestamp == NO_TIMESTAMP && recordingPoller.isComplete())
+            {
+                recordingComplete = true;
+            }
+
+            return work;
+        }
+
+        // Only one large message can be in flight at a time as they share a buffer
+        private boolean writeLargeMessage(final DirectBuffer buffer, final int offset, final int length)
+        {
+            if (largeMessagePending)
+            {
+                return false;
+            }
+
+            largeMessageBuffer.putBytes(0, buffer, offset, length);
+            largeMessageLengthBuffer.putInt(0, length);
+            largeMessagePending = true;
+            if (!ringBuffer.write(LARGE_MESSAGE_TYPE_ID, largeMessageLengthBuffer, 0, SIZE_OF_INT))
+            {
+                largeMessagePending = false;
+                return false;
+            }
+
+            return true;
+        }
+
+        private void writeSkippedTimestamp()
+        {
+            replayerTimestampEncoder.timestamp(skippedTimestamp);
+            final MutableDirectBuffer timestampBuffer = ArchiveScanWorker.this.timestampBuffer;
+            if (ringBuffer.write(MESSAGE_TYPE_ID, timestampBuffer, 0, timestampBuffer.capacity()))
+            {
+                skippedTimestamp = NO_TIMESTAMP;
+            }
+        }
+
+        // Called on the scanning thread
+        public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
+        {
+            handler = fragmentAssembler.delegate();
+            return ringBuffer.read(this, fragmentLimit);
+        }
+
+        public void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+        {
+            // Already reassembled by the worker, the zipper doesn't use the header.
+            if (msgTypeId == LARGE_MESSAGE_TYPE_ID)
+            {
+                handler.onFragment(largeMessageBuffer, 0, buffer.getInt(index), null);
+                largeMessagePending = false;
+            }
+            else
+            {
+                handler.onFragment(buffer, index, length, null);
+            }
+        }
+
+        public int streamId()
+        {
+            return recordingPoller.streamId();
+        }
+
+        public boolean isComplete()
+        {
+            return recordingComplete && ringBuffer.size() == 0;
+        }
+
+        // Called once the workers have stopped
+        public void close()
+        {
+            try
+            {
+                recordingPoller.close();
+            }
+            finally
+            {
+                BufferUtil.free(ringByteBuffer);
+            }
+        }
+
+        public String toString()
+        {
+            return "ScanPoller{" +
+                "recordingPoller=" + recordingPoller +
+                ", recordingComplete=" + recordingComplete +
+                '}';
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.ControlledFragmentAssembler;
+import io.aeron.FragmentAssembler;
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import io.aeron.logbuffer.LogBufferDescriptor;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanningAgent.ArchiveLocation;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.BREAK;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static io.aeron.protocol.HeaderFlyweight.FRAME_LENGTH_FIELD_OFFSET;
+import static io.aeron.protocol.HeaderFlyweight.HDR_TYPE_DATA;
+import static io.aeron.protocol.HeaderFlyweight.TYPE_FIELD_OFFSET;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.align;
+
+/**
+ * Reads a recording's messages by memory mapping the segment files of an Aeron Archive directory, rather than
+ * replaying them through a running archive. The fragments are handed to the assembler in place, so messages that
+ * fit in a single frame aren't copied at all.
+ */
+class ArchiveSegmentPoller implements FixArchiveScanningAgent.ArchivePoller
+{
+    private final UnsafeBuffer segmentBuffer = new UnsafeBuffer(0, 0);
+    private final File archiveDir;
+    private final int originalStreamId;
+    private final List<ArchiveLocation> archiveLocations;
+    private final int fragmentLimit;
+    private final long recordingId;
+    private final long recordingStartPosition;
+    private final int termBufferLength;
+    private final int segmentFileLength;
+    private final Header header;
+
+    private int archiveLocationIndex;
+    private boolean reading;
+    private long position;
+    private long stopPosition;
+
+    private MappedByteBuffer mappedSegment;
+    private long segmentBasePosition = NULL_POSITION;
+    private long segmentEndPosition = NULL_POSITION;
+
+    private FragmentAssembler fragmentAssembler;
+    private ControlledFragmentAssembler controlledFragmentAssembler;
+
+    ArchiveSegmentPoller(
+        final File archiveDir,
+        final int originalStreamId,
+        final List<ArchiveLocation> archiveLocations,
+        final int fragmentLimit)
+    {
+        this.archiveDir = archiveDir;
+        this.originalStreamId = originalStreamId;
+        this.archiveLocations = archiveLocations;
+        this.fragmentLimit = fragmentLimit;
+
+        // All the locations are ranges of the same recording
+        final ArchiveLocation recording = archiveLocations.get(0);
+        recordingId = recording.recordingId;
+        recordingStartPosition = recording.recordingStartPosition;
+        termBufferLength = recording.termBufferLength;
+        segmentFileLength = recording.segmentFileLength;
+        header = new Header(recording.initialTermId, LogBufferDescriptor.positionBitsToShift(termBufferLength));
+    }
+
+    public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
+    {
+        this.fragmentAssembler = fragmentAssembler;
+        this.controlledFragmentAssembler = null;
+        return read();
+    }
+
+    public int controlledPoll(final ControlledFragmentAssembler fragmentAssembler, final IdleStrategy idleStrategy)
+    {
+        this.fragmentAssembler = null;
+        this.controlledFragmentAssembler = fragmentAssembler;
+        return read();
+    }
+
+    private int read()
+    {
+        if (!reading)
+        {
+            return nextLocation();
+        }
+
+        if (position < segmentBasePosition || position >= segmentEndPosition)
+        {
+            mapSegment();
+            return 1;
+        }
+
+        final UnsafeBuffer buffer = segmentBuffer;
+        int fragments = 0;
+        while (fragments < fragmentLimit)
+        {
+            if (stopPosition != NULL_POSITION && position >= stopPosition)
+            {
+                reading = false;
+                break;
+            }
+
+            if (position >= segmentEndPosition)
+            {
+                break;
+            }
+
+            final int offset = (int)(position - segmentBasePosition);
+            final int frameLength = buffer.getInt(offset + FRAME_LENGTH_FIELD_OFFSET, LITTLE_ENDIAN);
+            if (frameLength <= 0)
+            {
+                // The end of a recording that wasn't stopped cleanly
+                reading = false;
+                break;
+            }
+
+            Action action = CONTINUE;
+            if (buffer.getShort(offset + TYPE_FIELD_OFFSET, LITTLE_ENDIAN) == HDR_TYPE_DATA)
+            {
+                header.offset(offset);
+                action = onFragment(buffer, offset + HEADER_LENGTH, frameLength - HEADER_LENGTH);
+                if (action == ABORT)
+                {
+                    break;
+                }
+            }
+
+            position += align(frameLength, FRAME_ALIGNMENT);
+            fragments++;
+
+            if (action == BREAK)
+            {
+                break;
+            }
+        }
+
+        return fragments;
+    }
+
+    private Action onFragment(final UnsafeBuffer buffer, final int offset, final int length)
+    {
+        final ControlledFragmentAssembler controlledFragmentAssembler = this.controlledFragmentAssembler;
+        if (controlledFragmentAssembler != null)
+        {
+            return controlledFragmentAssembler.onFragment(buffer, offset, length, header);
+        }
+
+        fragmentAssembler.onFragment(buffer, offset, length, header);
+        return CONTINUE;
+    }
+
+    private int nextLocation()
+    {
+        if (archiveLocationIndex == archiveLocations.size())
+        {
+            return 0;
+        }
+
+        // Locations are read one at a time, in position order
+        final ArchiveLocation archiveLocation = archiveLocations.get(archiveLocationIndex++);
+        position = archiveLocation.startPosition;
+        stopPosition = archiveLocation.stopPosition;
+        reading = true;
+
+        return 1;
+    }
+
+    private void mapSegment()
+    {
+        unmapSegment();
+
+        final long segmentBasePosition = AeronArchive.segmentFileBasePosition(
+            recordingStartPosition, position, termBufferLength, segmentFileLength);
+        final File segmentFile = new File(archiveDir, Archive.segmentFileName(recordingId, segmentBasePosition));
+        if (!segmentFile.exists())
+        {
+            if (stopPosition == NULL_POSITION)
+            {
+                // The recording wasn't stopped cleanly and never got as far as this segment
+                reading = false;
+                return;
+            }
+
+            throw new IllegalStateException("Missing segment file: " + segmentFile.getAbsolutePath() +
+                " for position " + position + " of recording " + recordingId);
+        }
+
+        mappedSegment = IoUtil.mapExistingFile(segmentFile, FileChannel.MapMode.READ_ONLY, segmentFile.getName());
+        segmentBuffer.wrap(mappedSegment);
+        header.buffer(segmentBuffer);
+        this.segmentBasePosition = segmentBasePosition;
+        // Stop at the end of a truncated copy of a segment rather than reading past the end of the mapping
+        segmentEndPosition = segmentBasePosition + Math.min(segmentFileLength, segmentBuffer.capacity());
+        if (position >= segmentEndPosition)
+        {
+            reading = false;
+        }
+    }
+
+    private void unmapSegment()
+    {
+        if (mappedSegment != null)
+        {
+            segmentBuffer.wrap(0, 0);
+            IoUtil.unmap(mappedSegment);
+            mappedSegment = null;
+            segmentBasePosition = NULL_POSITION;
+            segmentEndPosition = NULL_POSITION;
+        }
+    }
+
+    public long replayLength()
+    {
+        long replayLength = 0;
+        for (final ArchiveLocation archiveLocation : archiveLocations)
+        {
+            if (archiveLocation.stopPosition != NULL_POSITION)
+            {
+                replayLength += archiveLocation.length();
+            }
+        }
+        return replayLength;
+    }
+
+    public int streamId()
+    {
+        return originalStreamId;
+    }
+
+    public boolean isComplete()
+    {
+        return !reading && archiveLocationIndex == archiveLocations.size();
+    }
+
+    public void close()
+    {
+        unmapSegment();
+    }
+
+    public String toString()
+    {
+        return "ArchiveSegmentPoller{" +
+            "archiveLocations=" + archiveLocations +
+            ", archiveLocationIndex=" + archiveLocationIndex +
+            ", originalStreamId=" + originalStreamId +
+            ", position=" + position +
+            ", stopPosition=" + stopPosition +
+            '}';
+    }
+}
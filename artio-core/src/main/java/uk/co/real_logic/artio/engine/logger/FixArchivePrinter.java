@@ -15,11 +15,6 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
-import io.aeron.archive.Archive;
-import io.aeron.archive.ArchivingMediaDriver;
-import io.aeron.archive.client.AeronArchive;
-import io.aeron.driver.MediaDriver;
-import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.IntHashSet;
 import uk.co.real_logic.artio.ArtioLogHeader;
@@ -32,11 +27,13 @@ import uk.co.real_logic.artio.messages.MessageStatus;
 
 import java.io.PrintStream;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static java.lang.Long.parseLong;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_INBOUND_LIBRARY_STREAM;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_SCANNER_STREAM;
+import static uk.co.real_logic.artio.engine.logger.FixArchiveScanner.DEFAULT_SCAN_THREAD_COUNT;
 import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
 
 /**
@@ -62,6 +59,7 @@ public final class FixArchivePrinter
     private String aeronChannel = null;
     private String offlineArchiveDirectoryName = null;
     private int archiveScannerStreamId = DEFAULT_ARCHIVE_SCANNER_STREAM;
+    private int scanThreadCount = DEFAULT_SCAN_THREAD_COUNT;
     private FixMessagePredicate predicate = FixMessagePredicates.alwaysTrue();
     private boolean follow = false;
     private boolean fixp = false;
@@ -82,41 +80,9 @@ public final class FixArchivePrinter
         parseArgs(args);
         validateArgs();
 
-        final ArchivingMediaDriver archivingMediaDriver = startArchiverIfNeeded();
-        try
-        {
-            scanArchive(aeronDirectoryName, aeronChannel, queryStreamIds, predicate, follow, headerPredicate,
-                archiveScannerStreamId, fixDictionaryType, fixPProtocolType, logFileDir);
-        }
-        finally
-        {
-            CloseHelper.close(archivingMediaDriver);
-        }
-    }
-
-    private ArchivingMediaDriver startArchiverIfNeeded()
-    {
-        if (offlineArchiveDirectoryName == null)
-        {
-            return null;
-        }
-
-        final Archive.Context archiveCtx = new Archive.Context().archiveDirectoryName(offlineArchiveDirectoryName);
-        if (archiveCtx.controlChannel() == null)
-        {
-            final AeronArchive.Context archiveClientCtx = new AeronArchive.Context()
-                .controlResponseChannel("aeron:udp?endpoint=localhost:0");
-            archiveCtx.controlChannelEnabled(false)
-                .archiveClientContext(archiveClientCtx);
-        }
-        if (archiveCtx.replicationChannel() == null)
-        {
-            archiveCtx.replicationChannel("aeron:udp?endpoint=localhost:0");
-        }
-
-        return ArchivingMediaDriver.launch(
-            new MediaDriver.Context().aeronDirectoryName(aeronDirectoryName),
-            archiveCtx);
+        scanArchive(aeronDirectoryName, aeronChannel, queryStreamIds, predicate, follow, headerPredicate,
+            archiveScannerStreamId, fixDictionaryType, fixPProtocolType, logFileDir, scanThreadCount,
+            offlineArchiveDirectoryName);
     }
 
     private void parseArgs(final String[] args)
@@ -185,6 +151,9 @@ public final class FixArchivePrinter
                 case "archive-scanner-stream-id":
                     archiveScannerStreamId = Integer.parseInt(optionValue);
                     break;
+                case "scan-threads":
+                    scanThreadCount = Integer.parseInt(optionValue);
+                    break;
                 case "aeron-dir-name":
                     aeronDirectoryName = optionValue;
                     break;
@@ -222,7 +191,16 @@ public final class FixArchivePrinter
             queryStreamIds.add(DEFAULT_OUTBOUND_LIBRARY_STREAM);
         }
 
-        requiredArgument(aeronDirectoryName, "aeron-dir-name");
+        if (offlineArchiveDirectoryName == null)
+        {
+            requiredArgument(aeronDirectoryName, "aeron-dir-name");
+        }
+        else if (follow)
+        {
+            err.println("--follow can't be used with --offline-archive-dir");
+            printHelp();
+            System.exit(-1);
+        }
         requiredArgument(aeronChannel, "aeron-channel");
     }
 
@@ -246,18 +224,21 @@ public final class FixArchivePrinter
         final int archiveScannerStreamId,
         final Class<? extends FixDictionary> fixDictionaryType,
         final FixPProtocolType fixPProtocolType,
-        final String logFileDir)
+        final String logFileDir,
+        final int scanThreadCount,
+        final String offlineArchiveDirectoryName)
     {
         final FixDictionary fixDictionary = fixDictionaryType == null ? null : FixDictionary.of(fixDictionaryType);
-        FixMessagePredicate predicate = otherPredicate;
-        if (headerPredicate != null)
-        {
-            predicate = whereHeader(fixDictionary, headerPredicate).and(predicate);
-        }
+
+        // Header predicates decode the header so each scan thread needs its own
+        final Supplier<FixMessagePredicate> predicateFactory = () -> headerPredicate == null ?
+            otherPredicate : whereHeader(fixDictionary, headerPredicate).and(otherPredicate);
 
         final FixArchiveScanner.Configuration configuration = new FixArchiveScanner.Configuration()
             .aeronDirectoryName(aeronDirectoryName)
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .scanThreadCount(scanThreadCount)
+            .offlineArchiveDirectoryName(offlineArchiveDirectoryName);
 
         if (logFileDir != null)
         {
@@ -267,13 +248,28 @@ public final class FixArchivePrinter
         try (FixArchiveScanner scanner = new FixArchiveScanner(configuration))
         {
             out.println("Starting Scan ... ");
-            scanner.scan(
-                aeronChannel,
-                queryStreamIds,
-                filterBy(this::print, predicate),
-                new LazyFixPMessagePrinter(DEFAULT_INBOUND_LIBRARY_STREAM, fixPProtocolType),
-                follow,
-                archiveScannerStreamId);
+            final LazyFixPMessagePrinter fixPHandler =
+                new LazyFixPMessagePrinter(DEFAULT_INBOUND_LIBRARY_STREAM, fixPProtocolType);
+            if (follow)
+            {
+                scanner.scan(
+                    aeronChannel,
+                    queryStreamIds,
+                    filterBy(this::print, predicateFactory.get()),
+                    fixPHandler,
+                    true,
+                    archiveScannerStreamId);
+            }
+            else
+            {
+                scanner.scan(
+                    aeronChannel,
+                    queryStreamIds,
+                    predicateFactory,
+                    this::print,
+                    fixPHandler,
+                    archiveScannerStreamId);
+            }
         }
     }
 
@@ -294,7 +290,8 @@ public final class FixArchivePrinter
 
         printOption(
             "aeron-dir-name",
-            "Specifies the media driver directory, should be the same as your aeronContext.aeronDirectoryName()",
+            "Specifies the media driver directory, should be the same as your aeronContext.aeronDirectoryName()." +
+            " Not needed with --offline-archive-dir",
             true);
         printOption(
             "aeron-channel",
@@ -304,8 +301,8 @@ public final class FixArchivePrinter
         printOption(
             "offline-archive-dir",
             "Enable offline mode using the given aeron archive directory. This is a good way to inspect the" +
-            " directory of a shutdown Artio instance. It starts a media driver and proceeds to inspect the provided " +
-            "aeron archive directory",
+            " directory of a shutdown Artio instance, or a copy of it. It reads the archive's segment files directly" +
+            " so doesn't need a media driver or --aeron-dir-name",
             false);
         printOption(
             "fix-dictionary",
@@ -366,6 +363,11 @@ public final class FixArchivePrinter
             " This should be your configuration.inboundLibraryStream() or configuration.outboundLibraryStream(). " +
             "Defaults to outbound. Can be used twice in order to print both inbound and outbound streams.",
             false);
+        printOption(
+            "scan-threads",
+            "The number of threads used to read and filter recordings, each recording is read by a single thread." +
+            " Ignored when following. Defaults to 1.",
+            false);
         printOption(
             "follow",
             "Continue to print out archive messages for a recording that is still in flight. Defaults to off.",
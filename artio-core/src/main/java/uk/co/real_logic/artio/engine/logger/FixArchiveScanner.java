@@ -24,6 +24,9 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
+import java.io.File;
+import java.util.function.Supplier;
+
 import static uk.co.real_logic.artio.LogTag.ARCHIVE_SCAN;
 import static uk.co.real_logic.artio.engine.logger.FixMessageLogger.Configuration.*;
 
@@ -37,6 +40,7 @@ import static uk.co.real_logic.artio.engine.logger.FixMessageLogger.Configuratio
 public class FixArchiveScanner implements AutoCloseable
 {
     public static final int DEFAULT_FRAGMENT_LIMIT = 10000;
+    public static final int DEFAULT_SCAN_THREAD_COUNT = 1;
 
     static final boolean DEBUG_LOG_ARCHIVE_SCAN = DebugLogger.isEnabled(ARCHIVE_SCAN);
 
@@ -49,7 +53,9 @@ public class FixArchiveScanner implements AutoCloseable
         public int maximumBufferSize = DEFAULT_MAXIMUM_BUFFER_SIZE;
         private String logFileDir;
         private boolean enableIndexScan;
+        private int scanThreadCount = DEFAULT_SCAN_THREAD_COUNT;
         private AeronArchive.Context archiveContext;
+        private String offlineArchiveDirectoryName;
 
         public Configuration()
         {
@@ -136,7 +142,9 @@ public class FixArchiveScanner implements AutoCloseable
         /**
          * Sets the logFileDir used by your {@link EngineConfiguration}. This configuration option isn't required, it
          * allows faster FixArchiveScanner operations for predicates where you're searching by time by using the
-         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates.
+         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates, or where
+         * you're searching for a single session by using the {@link FixMessagePredicates#sessionOf(long)} predicate,
+         * optionally combined with {@link FixMessagePredicates#sequenceNumberBetween(int, int)}.
          * Setting this configuration option automatically enables index scanning.
          *
          * @param logFileDir the logFileDir configured in your {@link EngineConfiguration}.
@@ -157,7 +165,7 @@ public class FixArchiveScanner implements AutoCloseable
         /**
          * Enables or disables index scanning. If set to true, a {@link #logFileDir(String)} is required.
          *
-         * @param enableIndexScan true to enable time based index scanning, false otherwise.
+         * @param enableIndexScan true to enable time and session based index scanning, false otherwise.
          * @return this
          */
         public Configuration enableIndexScan(final boolean enableIndexScan)
@@ -171,6 +179,27 @@ public class FixArchiveScanner implements AutoCloseable
             return enableIndexScan;
         }
 
+        /**
+         * Sets the number of threads used to replay, decode and filter recordings when scanning with a predicate
+         * factory, see {@link FixArchiveScanner#scan(String, IntHashSet, Supplier, FixMessageConsumer,
+         * FixPMessageConsumer, int)}. Each recording is scanned by a single thread, so there's no benefit to using
+         * more threads than recordings. Defaults to {@link #DEFAULT_SCAN_THREAD_COUNT}, which scans on the calling
+         * thread.
+         *
+         * @param scanThreadCount the number of threads to scan recordings with.
+         * @return this
+         */
+        public Configuration scanThreadCount(final int scanThreadCount)
+        {
+            this.scanThreadCount = scanThreadCount;
+            return this;
+        }
+
+        public int scanThreadCount()
+        {
+            return scanThreadCount;
+        }
+
         /**
          * Sets the context to be used to create the Aeron Archiver that this backs onto.
          *
@@ -186,6 +215,26 @@ public class FixArchiveScanner implements AutoCloseable
             return this;
         }
 
+        /**
+         * Sets the directory of an Aeron Archive to read recordings from directly, rather than replaying them from
+         * a running archive. When this is set the scanner memory maps the archive's catalog and segment files and
+         * doesn't need a media driver, so it can be used on a copy of the archive directory of a shutdown Artio
+         * instance. Recordings can't be followed when reading offline.
+         *
+         * @param offlineArchiveDirectoryName the Aeron Archive directory to read recordings from.
+         * @return this
+         */
+        public Configuration offlineArchiveDirectoryName(final String offlineArchiveDirectoryName)
+        {
+            this.offlineArchiveDirectoryName = offlineArchiveDirectoryName;
+            return this;
+        }
+
+        public String offlineArchiveDirectoryName()
+        {
+            return offlineArchiveDirectoryName;
+        }
+
         private void conclude()
         {
             if (enableIndexScan && logFileDir == null)
@@ -194,16 +243,44 @@ public class FixArchiveScanner implements AutoCloseable
             }
 
             validateMaxAndCompactionSize(maximumBufferSize, compactionSize);
+
+            if (scanThreadCount < 1)
+            {
+                throw new IllegalArgumentException("scanThreadCount must be at least 1, but was " + scanThreadCount);
+            }
         }
     }
 
     private final IdleStrategy idleStrategy;
+    private final int scanThreadCount;
     private final FixArchiveScanningAgent agent;
 
     public FixArchiveScanner(final Configuration configuration)
     {
         configuration.conclude();
 
+        String logFileDir = configuration.logFileDir();
+        if (!configuration.enableIndexScan())
+        {
+            logFileDir = null;
+        }
+
+        idleStrategy = configuration.idleStrategy();
+        scanThreadCount = configuration.scanThreadCount();
+
+        final String offlineArchiveDirectoryName = configuration.offlineArchiveDirectoryName();
+        if (offlineArchiveDirectoryName != null)
+        {
+            agent = new FixArchiveScanningAgent(
+                idleStrategy,
+                configuration.compactionSize,
+                configuration.maximumBufferSize,
+                configuration.fragmentLimit,
+                logFileDir,
+                new File(offlineArchiveDirectoryName));
+            return;
+        }
+
         final Aeron.Context aeronContext = new Aeron.Context().aeronDirectoryName(configuration.aeronDirectoryName());
         final Aeron aeron = Aeron.connect(aeronContext);
 
@@ -224,13 +301,6 @@ public class FixArchiveScanner implements AutoCloseable
         // Context closes Aeron instance if this fails to connect.
         final AeronArchive aeronArchive = AeronArchive.connect(archiveContext.aeron(aeron).ownsAeronClient(true));
 
-        String logFileDir = configuration.logFileDir();
-        if (!configuration.enableIndexScan())
-        {
-            logFileDir = null;
-        }
-
-        idleStrategy = configuration.idleStrategy();
         agent = new FixArchiveScanningAgent(
             idleStrategy,
             configuration.compactionSize,
@@ -274,6 +344,56 @@ public class FixArchiveScanner implements AutoCloseable
     {
         agent.setup(aeronChannel, queryStreamIds, fixHandler, fixPHandler, follow, archiveScannerStreamId);
 
+        pollUntilComplete();
+    }
+
+    /**
+     * Scan the archive using {@link Configuration#scanThreadCount()} threads to replay, decode and filter the
+     * recordings. Messages are still merged into timestamp order and handed to the handlers on the calling thread,
+     * so the handlers don't need to be thread safe. Scans in parallel can't follow a recording that's in flight.
+     *
+     * @param aeronChannel the aeron channel that the engine recorded messages on.
+     * @param queryStreamIds the stream ids of the recordings to scan.
+     * @param predicateFactory creates the predicate for each scanning thread, it should return a new predicate each
+     *                         time that it's called as predicates can have state.
+     * @param fixHandler the handler for FIX messages that match the predicate.
+     * @param fixPHandler the handler for FIXP messages.
+     * @param archiveScannerStreamId the stream id to replay recordings on.
+     */
+    public void scan(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final FixMessageConsumer fixHandler,
+        final FixPMessageConsumer fixPHandler,
+        final int archiveScannerStreamId)
+    {
+        if (scanThreadCount == 1)
+        {
+            scan(
+                aeronChannel,
+                queryStreamIds,
+                FixMessagePredicates.filterBy(fixHandler, predicateFactory.get()),
+                fixPHandler,
+                false,
+                archiveScannerStreamId);
+            return;
+        }
+
+        agent.setupParallel(
+            aeronChannel,
+            queryStreamIds,
+            predicateFactory,
+            fixHandler,
+            fixPHandler,
+            scanThreadCount,
+            archiveScannerStreamId);
+
+        pollUntilComplete();
+    }
+
+    private void pollUntilComplete()
+    {
         while (true)
         {
             if (agent.poll(Integer.MAX_VALUE))
@@ -17,16 +17,25 @@ package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.*;
 import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.RecordingDescriptorConsumer;
+import org.agrona.CloseHelper;
+import org.agrona.LangUtil;
 import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.AgentRunner;
 import org.agrona.concurrent.IdleStrategy;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
@@ -43,12 +52,17 @@ public class FixArchiveScanningAgent implements AutoCloseable
     private final int maximumBufferSize;
     private final int fragmentLimit;
     private final String logFileDir;
+    private final File offlineArchiveDir;
 
     private final Long2ObjectHashMap<TimeIndexReader> streamIdToInboundTimeIndex = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<SessionArchiveIndexReader> streamIdToSessionArchiveIndex =
+        new Long2ObjectHashMap<>();
 
     private StreamTimestampZipper timestampZipper;
     private Subscription replaySubscription;
-    private RecordingPoller[] pollers;
+    private StreamTimestampZipper.Poller[] pollers;
+    private ArchiveScanWorker[] workers;
+    private AgentRunner[] workerRunners;
     private boolean follow;
 
     public FixArchiveScanningAgent(
@@ -67,6 +81,37 @@ public class FixArchiveScanningAgent implements AutoCloseable
         this.aeron = aeron;
         this.aeronArchive = aeronArchive;
         this.logFileDir = logFileDir;
+        this.offlineArchiveDir = null;
+    }
+
+    /**
+     * Creates an agent that reads recordings directly from the catalog and segment files of an Aeron Archive
+     * directory, without a media driver or a running archive. The archive directory can be a copy, but recordings
+     * can't be followed.
+     *
+     * @param idleStrategy the idle strategy to use when waiting for recordings.
+     * @param compactionSize the compaction size of the reorder buffer in bytes.
+     * @param maximumBufferSize the maximum reorder buffer size in bytes.
+     * @param fragmentLimit the fragment limit for reading each recording.
+     * @param logFileDir the logFileDir used by the engine, or null if indexes shouldn't be used.
+     * @param offlineArchiveDir the Aeron Archive directory to read.
+     */
+    public FixArchiveScanningAgent(
+        final IdleStrategy idleStrategy,
+        final int compactionSize,
+        final int maximumBufferSize,
+        final int fragmentLimit,
+        final String logFileDir,
+        final File offlineArchiveDir)
+    {
+        this.idleStrategy = idleStrategy;
+        this.compactionSize = compactionSize;
+        this.maximumBufferSize = maximumBufferSize;
+        this.fragmentLimit = fragmentLimit;
+        this.aeron = null;
+        this.aeronArchive = null;
+        this.logFileDir = logFileDir;
+        this.offlineArchiveDir = offlineArchiveDir;
     }
 
     public void setup(
@@ -82,13 +127,26 @@ public class FixArchiveScanningAgent implements AutoCloseable
             fixHandler.reset();
         }
 
+        final IndexQuery indexQuery = extractIndexQueryIfPossible(fixHandler, follow, queryStreamIds);
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange =
-            scanIndexIfPossible(fixHandler, follow, queryStreamIds);
+            scanTimeIndexIfPossible(indexQuery, queryStreamIds);
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToSessionPositionRanges =
+            scanSessionArchiveIndexIfPossible(indexQuery, fixPHandler, queryStreamIds);
+
+        if (follow && offlineArchiveDir != null)
+        {
+            throw new IllegalArgumentException("Recordings can't be followed when reading an offline archive");
+        }
 
         this.follow = follow;
-        replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId);
+        replaySubscription = addReplaySubscription(archiveScannerStreamId);
         pollers = makeRecordingPollers(
-            aeronChannel, queryStreamIds, follow, recordingIdToPositionRange, replaySubscription);
+            aeronChannel,
+            queryStreamIds,
+            follow,
+            recordingIdToPositionRange,
+            recordingIdToSessionPositionRanges,
+            replaySubscription);
 
         if (DEBUG_LOG_ARCHIVE_SCAN)
         {
@@ -99,8 +157,100 @@ public class FixArchiveScanningAgent implements AutoCloseable
             fixHandler, fixPHandler, compactionSize, maximumBufferSize, !follow, pollers);
     }
 
+    /**
+     * Sets up a scan that replays, decodes and filters the recordings on worker threads. Each recording is assigned
+     * to a single worker, so that its messages stay in order, and only the merge into timestamp order and the
+     * callbacks to the handlers happen on the thread that polls this agent. Follow mode isn't supported.
+     *
+     * @param aeronChannel the aeron channel that the engine recorded messages on.
+     * @param queryStreamIds the stream ids of the recordings to scan.
+     * @param predicateFactory creates the predicate used by each worker thread, predicates aren't thread safe.
+     * @param fixHandler the handler for FIX messages that match the predicate.
+     * @param fixPHandler the handler for FIXP messages, can be null.
+     * @param scanThreadCount the maximum number of worker threads to use.
+     * @param archiveScannerStreamId the stream id to replay recordings on.
+     */
+    public void setupParallel(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final FixMessageConsumer fixHandler,
+        final FixPMessageConsumer fixPHandler,
+        final int scanThreadCount,
+        final int archiveScannerStreamId)
+    {
+        fixHandler.reset();
+
+        final IndexQuery indexQuery = extractIndexQueryIfPossible(
+            new FixMessagePredicates.FilterBy(fixHandler, predicateFactory.get()), false, queryStreamIds);
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange =
+            scanTimeIndexIfPossible(indexQuery, queryStreamIds);
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToSessionPositionRanges =
+            scanSessionArchiveIndexIfPossible(indexQuery, fixPHandler, queryStreamIds);
+
+        follow = false;
+        replaySubscription = addReplaySubscription(archiveScannerStreamId);
+        final ArchivePoller[] recordingPollers = makeRecordingPollers(
+            aeronChannel,
+            queryStreamIds,
+            false,
+            recordingIdToPositionRange,
+            recordingIdToSessionPositionRanges,
+            replaySubscription);
+
+        final int workerCount = Math.min(scanThreadCount, recordingPollers.length);
+        final ArchiveScanWorker[] workers = new ArchiveScanWorker[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            workers[i] = new ArchiveScanWorker(i, predicateFactory.get());
+        }
+
+        // Largest recordings first, each going to the worker with the least to replay so far
+        Arrays.sort(recordingPollers, Comparator.comparingLong(ArchivePoller::replayLength).reversed());
+        final long[] workerReplayLengths = new long[workerCount];
+        pollers = new StreamTimestampZipper.Poller[recordingPollers.length];
+        for (int i = 0; i < recordingPollers.length; i++)
+        {
+            int workerIndex = 0;
+            for (int j = 1; j < workerCount; j++)
+            {
+                if (workerReplayLengths[j] < workerReplayLengths[workerIndex])
+                {
+                    workerIndex = j;
+                }
+            }
+
+            final ArchivePoller recordingPoller = recordingPollers[i];
+            workerReplayLengths[workerIndex] += recordingPoller.replayLength();
+            pollers[i] = workers[workerIndex].addPoller(recordingPoller);
+        }
+
+        if (DEBUG_LOG_ARCHIVE_SCAN)
+        {
+            DebugLogger.log(ARCHIVE_SCAN, "Parallel Pollers: %s", pollers);
+        }
+
+        timestampZipper = new StreamTimestampZipper(
+            fixHandler, fixPHandler, compactionSize, maximumBufferSize, true, pollers);
+
+        this.workers = workers;
+        workerRunners = new AgentRunner[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            final ArchiveScanWorker worker = workers[i];
+            workerRunners[i] = new AgentRunner(
+                CommonConfiguration.backoffIdleStrategy(), worker::onError, null, worker);
+            AgentRunner.startOnThread(workerRunners[i]);
+        }
+    }
+
     public boolean poll(final int fragmentLimit)
     {
+        if (workers != null)
+        {
+            checkWorkerErrors(workers);
+        }
+
         final int received = timestampZipper.poll(fragmentLimit);
 
         // Don't need to do this check in follow mode as we're just going to keep running and not terminate.
@@ -108,7 +258,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
         {
             if (checkCompletion(pollers))
             {
-                Exceptions.closeAll(timestampZipper, replaySubscription);
+                Exceptions.closeAll(this::closeWorkers, timestampZipper, replaySubscription);
 
                 return true;
             }
@@ -117,11 +267,18 @@ public class FixArchiveScanningAgent implements AutoCloseable
         return false;
     }
 
-    private RecordingPoller[] makeRecordingPollers(
+    // Segment files are read directly when offline, so there's nothing to replay the recordings onto
+    private Subscription addReplaySubscription(final int archiveScannerStreamId)
+    {
+        return offlineArchiveDir == null ? aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId) : null;
+    }
+
+    private ArchivePoller[] makeRecordingPollers(
         final String aeronChannel,
         final IntHashSet queryStreamIds,
         final boolean follow,
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange,
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToSessionPositionRanges,
         final Subscription replaySubscription)
     {
         return queryStreamIds
@@ -134,11 +291,51 @@ public class FixArchiveScanningAgent implements AutoCloseable
                     // 1) they are empty - we don't need to poll them
                     // 2) we use empty length later within polling as a test for polling being finished
                     .filter(archiveLocation -> archiveLocation.length() != 0L)
-                    .map(archiveLocation -> new RecordingPoller(replaySubscription, id, archiveLocation)))
-            .toArray(RecordingPoller[]::new);
+                    .map(archiveLocation -> splitBySession(archiveLocation, recordingIdToSessionPositionRanges))
+                    .filter(archiveLocations -> !archiveLocations.isEmpty())
+                    .map(archiveLocations -> newRecordingPoller(replaySubscription, id, archiveLocations)))
+            .toArray(ArchivePoller[]::new);
+    }
+
+    private ArchivePoller newRecordingPoller(
+        final Subscription replaySubscription, final int originalStreamId, final List<ArchiveLocation> archiveLocations)
+    {
+        if (offlineArchiveDir != null)
+        {
+            return new ArchiveSegmentPoller(offlineArchiveDir, originalStreamId, archiveLocations, fragmentLimit);
+        }
+
+        return new RecordingPoller(replaySubscription, originalStreamId, archiveLocations);
+    }
+
+    // Only replay the parts of the recording that the session index says the session's messages are in
+    private List<ArchiveLocation> splitBySession(
+        final ArchiveLocation archiveLocation,
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToSessionPositionRanges)
+    {
+        final List<ArchiveLocation> archiveLocations = new ArrayList<>();
+        final List<PositionRange> positionRanges = recordingIdToSessionPositionRanges == null ?
+            null : recordingIdToSessionPositionRanges.get(archiveLocation.recordingId);
+        if (positionRanges == null || archiveLocation.stopPosition == NULL_POSITION)
+        {
+            archiveLocations.add(archiveLocation);
+            return archiveLocations;
+        }
+
+        for (final PositionRange positionRange : positionRanges)
+        {
+            final long startPosition = Math.max(archiveLocation.startPosition, positionRange.startPosition());
+            final long stopPosition = Math.min(archiveLocation.stopPosition, positionRange.endPosition());
+            if (startPosition < stopPosition)
+            {
+                archiveLocations.add(new ArchiveLocation(archiveLocation, startPosition, stopPosition));
+            }
+        }
+
+        return archiveLocations;
     }
 
-    private Long2ObjectHashMap<PositionRange> scanIndexIfPossible(
+    private IndexQuery extractIndexQueryIfPossible(
         final FixMessageConsumer fixHandler, final boolean follow, final IntHashSet queryStreamIds)
     {
         if (DEBUG_LOG_ARCHIVE_SCAN)
@@ -170,44 +367,83 @@ public class FixArchiveScanningAgent implements AutoCloseable
                 DebugLogger.log(ARCHIVE_SCAN, "indexQuery = " + indexQuery);
             }
 
-            if (indexQuery == null)
+            return indexQuery;
+        }
+        catch (final IllegalArgumentException e)
+        {
+            // Unable to create query plan
+            return null;
+        }
+    }
+
+    private Long2ObjectHashMap<PositionRange> scanTimeIndexIfPossible(
+        final IndexQuery indexQuery, final IntHashSet queryStreamIds)
+    {
+        if (indexQuery == null || !indexQuery.hasTimeRange())
+        {
+            return null;
+        }
+
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
+        for (final int streamId : queryStreamIds)
+        {
+            TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
+            if (reader == null)
             {
-                return null;
+                reader = new TimeIndexReader(logFileDir, streamId);
+                streamIdToInboundTimeIndex.put(streamId, reader);
             }
 
-            final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
-            for (final int streamId : queryStreamIds)
+            if (!reader.findPositionRange(indexQuery, recordingIdToPositionRange))
             {
-                TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
-                if (reader == null)
-                {
-                    reader = new TimeIndexReader(logFileDir, streamId);
-                    streamIdToInboundTimeIndex.put(streamId, reader);
-                }
-
-                if (!reader.findPositionRange(indexQuery, recordingIdToPositionRange))
-                {
-                    return null;
-                }
+                return null;
             }
+        }
 
-            if (DEBUG_LOG_ARCHIVE_SCAN)
+        if (DEBUG_LOG_ARCHIVE_SCAN)
+        {
+            DebugLogger.log(ARCHIVE_SCAN, "recordingIdToPositionRange = " + recordingIdToPositionRange);
+        }
+
+        return recordingIdToPositionRange;
+    }
+
+    private Long2ObjectHashMap<List<PositionRange>> scanSessionArchiveIndexIfPossible(
+        final IndexQuery indexQuery, final FixPMessageConsumer fixPHandler, final IntHashSet queryStreamIds)
+    {
+        // The session index only covers FIX messages, so FIXP messages would be skipped
+        if (indexQuery == null || !indexQuery.hasSession() || fixPHandler != null)
+        {
+            return null;
+        }
+
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges = new Long2ObjectHashMap<>();
+        for (final int streamId : queryStreamIds)
+        {
+            SessionArchiveIndexReader reader = streamIdToSessionArchiveIndex.get(streamId);
+            if (reader == null)
             {
-                DebugLogger.log(ARCHIVE_SCAN, "recordingIdToPositionRange = " + recordingIdToPositionRange);
+                reader = new SessionArchiveIndexReader(logFileDir, streamId);
+                streamIdToSessionArchiveIndex.put(streamId, reader);
             }
 
-            return recordingIdToPositionRange;
+            if (!reader.findPositionRanges(indexQuery, recordingIdToPositionRanges))
+            {
+                return null;
+            }
         }
-        catch (final IllegalArgumentException e)
+
+        if (DEBUG_LOG_ARCHIVE_SCAN)
         {
-            // Unable to create query plan
-            return null;
+            DebugLogger.log(ARCHIVE_SCAN, "recordingIdToSessionPositionRanges = " + recordingIdToPositionRanges);
         }
+
+        return recordingIdToPositionRanges;
     }
 
-    private boolean checkCompletion(final RecordingPoller[] pollers)
+    private boolean checkCompletion(final StreamTimestampZipper.Poller[] pollers)
     {
-        for (final RecordingPoller poller : pollers)
+        for (final StreamTimestampZipper.Poller poller : pollers)
         {
             if (!poller.isComplete())
             {
@@ -218,9 +454,42 @@ public class FixArchiveScanningAgent implements AutoCloseable
         return true;
     }
 
+    private void checkWorkerErrors(final ArchiveScanWorker[] workers)
+    {
+        for (final ArchiveScanWorker worker : workers)
+        {
+            final Throwable error = worker.error();
+            if (error != null)
+            {
+                Exceptions.closeAll(this::closeWorkers, this::closePollers, replaySubscription);
+                LangUtil.rethrowUnchecked(error);
+            }
+        }
+    }
+
+    private void closeWorkers()
+    {
+        if (workerRunners != null)
+        {
+            CloseHelper.closeAll(workerRunners);
+            workerRunners = null;
+            workers = null;
+        }
+    }
+
+    // Don't dispatch the reordered messages of a failed scan, but release the workers' buffers
+    private void closePollers()
+    {
+        for (final StreamTimestampZipper.Poller poller : pollers)
+        {
+            poller.close();
+        }
+    }
+
     public void close()
     {
-        aeronArchive.close();
+        closeWorkers();
+        CloseHelper.close(aeronArchive);
     }
 
     private List<ArchiveLocation> lookupArchiveLocations(
@@ -231,9 +500,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
     {
         final List<ArchiveLocation> archiveLocations = new ArrayList<>();
 
-        aeronArchive.listRecordings(0,
-            Integer.MAX_VALUE,
-            (controlSessionId,
+        final RecordingDescriptorConsumer recordingDescriptorConsumer = (controlSessionId,
             correlationId, recordingId, startTimestamp, stopTimestamp, startPosition, stopPosition,
             initialTermId, segmentFileLength, termBufferLength, mtuLength, sessionId, streamId,
             strippedChannel, originalChannel, sourceIdentity) ->
@@ -244,11 +511,22 @@ public class FixArchiveScanningAgent implements AutoCloseable
 
                 if (streamId == queryStreamId && comparableChannel.contains(aeronChannel))
                 {
-                    archiveLocations.add(new ArchiveLocation(recordingId, startPosition, stopPosition));
+                    archiveLocations.add(new ArchiveLocation(
+                        recordingId, startPosition, stopPosition, initialTermId, termBufferLength, segmentFileLength));
                 }
-            });
+            };
 
-        if (!follow)
+        if (offlineArchiveDir != null)
+        {
+            // Recordings that weren't stopped cleanly are read up to the end of their data in the segment files
+            ArchiveCatalogReader.listRecordings(offlineArchiveDir, recordingDescriptorConsumer);
+        }
+        else
+        {
+            aeronArchive.listRecordings(0, Integer.MAX_VALUE, recordingDescriptorConsumer);
+        }
+
+        if (!follow && offlineArchiveDir == null)
         {
             for (final ArchiveLocation location : archiveLocations)
             {
@@ -293,17 +571,51 @@ public class FixArchiveScanningAgent implements AutoCloseable
         return archiveLocations;
     }
 
+    // Polls the messages of a single recording, in position order
+    interface ArchivePoller extends StreamTimestampZipper.Poller
+    {
+        // Used by parallel scans, where the recording is polled on a worker thread with its own idle strategy.
+        int controlledPoll(ControlledFragmentAssembler fragmentAssembler, IdleStrategy idleStrategy);
+
+        long replayLength();
+    }
+
     static class ArchiveLocation
     {
         final long recordingId;
+        final long recordingStartPosition;
+        final int initialTermId;
+        final int termBufferLength;
+        final int segmentFileLength;
 
         long startPosition;
         long stopPosition;
 
         ArchiveLocation(
-            final long recordingId, final long startPosition, final long stopPosition)
+            final long recordingId,
+            final long startPosition,
+            final long stopPosition,
+            final int initialTermId,
+            final int termBufferLength,
+            final int segmentFileLength)
         {
             this.recordingId = recordingId;
+            this.recordingStartPosition = startPosition;
+            this.startPosition = startPosition;
+            this.stopPosition = stopPosition;
+            this.initialTermId = initialTermId;
+            this.termBufferLength = termBufferLength;
+            this.segmentFileLength = segmentFileLength;
+        }
+
+        // A range within the same recording
+        ArchiveLocation(final ArchiveLocation recording, final long startPosition, final long stopPosition)
+        {
+            this.recordingId = recording.recordingId;
+            this.recordingStartPosition = recording.recordingStartPosition;
+            this.initialTermId = recording.initialTermId;
+            this.termBufferLength = recording.termBufferLength;
+            this.segmentFileLength = recording.segmentFileLength;
             this.startPosition = startPosition;
             this.stopPosition = stopPosition;
         }
@@ -328,12 +640,13 @@ public class FixArchiveScanningAgent implements AutoCloseable
         }
     }
 
-    class RecordingPoller implements StreamTimestampZipper.Poller
+    class RecordingPoller implements ArchivePoller
     {
         private final Subscription replaySubscription;
         private final int originalStreamId;
+        private final List<ArchiveLocation> archiveLocations;
 
-        private ArchiveLocation archiveLocation;
+        private int archiveLocationIndex;
 
         long stopPosition;
         Image image;
@@ -341,55 +654,82 @@ public class FixArchiveScanningAgent implements AutoCloseable
         RecordingPoller(
             final Subscription replaySubscription,
             final int originalStreamId,
-            final ArchiveLocation archiveLocation)
+            final List<ArchiveLocation> archiveLocations)
         {
             this.replaySubscription = replaySubscription;
             this.originalStreamId = originalStreamId;
-            this.archiveLocation = archiveLocation;
+            this.archiveLocations = archiveLocations;
         }
 
         public boolean isComplete()
         {
-            return stopPosition != NULL_POSITION && image == null && archiveLocation == null;
+            return stopPosition != NULL_POSITION && image == null && archiveLocationIndex == archiveLocations.size();
+        }
+
+        public long replayLength()
+        {
+            long replayLength = 0;
+            for (final ArchiveLocation archiveLocation : archiveLocations)
+            {
+                replayLength += archiveLocation.length();
+            }
+            return replayLength;
         }
 
         public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
         {
-            if (image == null)
+            if (isReplayDone())
             {
-                if (archiveLocation == null)
-                {
-                    return 0;
-                }
+                return nextReplay(idleStrategy);
+            }
 
-                if (archiveLocation.length() != 0)
-                {
-                    final int sessionId = (int)aeronArchive.startReplay(
-                        archiveLocation.recordingId,
-                        archiveLocation.startPosition,
-                        archiveLocation.length(),
-                        IPC_CHANNEL,
-                        replaySubscription.streamId());
-
-                    image = lookupImage(sessionId);
-                    stopPosition = archiveLocation.stopPosition;
-                    archiveLocation = null;
-                }
+            return image.poll(fragmentAssembler, FixArchiveScanningAgent.this.fragmentLimit);
+        }
+
+        public int controlledPoll(final ControlledFragmentAssembler fragmentAssembler, final IdleStrategy idleStrategy)
+        {
+            if (isReplayDone())
+            {
+                return nextReplay(idleStrategy);
+            }
 
+            return image.controlledPoll(fragmentAssembler, FixArchiveScanningAgent.this.fragmentLimit);
+        }
+
+        private boolean isReplayDone()
+        {
+            return image == null || (stopPosition != NULL_POSITION && image.position() >= stopPosition);
+        }
+
+        private int nextReplay(final IdleStrategy idleStrategy)
+        {
+            if (image != null)
+            {
+                image = null;
                 return 1;
             }
-            else
+
+            if (archiveLocationIndex == archiveLocations.size())
             {
-                if (stopPosition != NULL_POSITION && image.position() >= stopPosition)
-                {
-                    image = null;
-                    return 1;
-                }
-                else
-                {
-                    return image.poll(fragmentAssembler, FixArchiveScanningAgent.this.fragmentLimit);
-                }
+                return 0;
             }
+
+            // Recordings are replayed one location at a time, in position order
+            final ArchiveLocation archiveLocation = archiveLocations.get(archiveLocationIndex++);
+            if (archiveLocation.length() != 0)
+            {
+                final int sessionId = (int)aeronArchive.startReplay(
+                    archiveLocation.recordingId,
+                    archiveLocation.startPosition,
+                    archiveLocation.length(),
+                    IPC_CHANNEL,
+                    replaySubscription.streamId());
+
+                image = lookupImage(sessionId, idleStrategy);
+                stopPosition = archiveLocation.stopPosition;
+            }
+
+            return 1;
         }
 
         public int streamId()
@@ -397,7 +737,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
             return originalStreamId;
         }
 
-        private Image lookupImage(final int sessionId)
+        private Image lookupImage(final int sessionId, final IdleStrategy idleStrategy)
         {
             Image image = null;
 
@@ -419,7 +759,8 @@ public class FixArchiveScanningAgent implements AutoCloseable
         public String toString()
         {
             return "RecordingPoller{" +
-                "archiveLocations=" + archiveLocation +
+                "archiveLocations=" + archiveLocations +
+                ", archiveLocationIndex=" + archiveLocationIndex +
                 ", replaySubscription=" + replaySubscription +
                 ", originalStreamId=" + originalStreamId +
                 ", stopPosition=" + stopPosition +
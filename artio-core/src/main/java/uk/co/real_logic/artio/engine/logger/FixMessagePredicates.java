@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.ArtioLogHeader;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.util.AsciiBuffer;
@@ -532,7 +533,89 @@ public final class FixMessagePredicates
      */
     public static FixMessagePredicate sessionOf(final long sessionId)
     {
-        return (message) -> message.session() == sessionId;
+        return new SessionOf(sessionId);
+    }
+
+    static class SessionOf implements FixMessagePredicate
+    {
+        private final long sessionId;
+
+        SessionOf(final long sessionId)
+        {
+            this.sessionId = sessionId;
+        }
+
+        public boolean test(final FixMessageDecoder message)
+        {
+            return message.session() == sessionId;
+        }
+
+        long sessionId()
+        {
+            return sessionId;
+        }
+
+        public String toString()
+        {
+            return "SessionOf{" +
+                "sessionId=" + sessionId +
+                '}';
+        }
+    }
+
+    /**
+     * Filter the fix message by parsing its MsgSeqNum out of the message body. This is normally combined with
+     * {@link #sessionOf(long)} in order to find a range of messages from a session and can use the session index
+     * to narrow the scan down when a logFileDir is configured on the {@link FixArchiveScanner}.
+     *
+     * @param beginSequenceNumberInclusive the message's sequence number must be &gt;= this value.
+     * @param endSequenceNumberInclusive the message's sequence number must be &lt;= this value.
+     * @return the resulting predicate.
+     */
+    public static FixMessagePredicate sequenceNumberBetween(
+        final int beginSequenceNumberInclusive, final int endSequenceNumberInclusive)
+    {
+        return new SequenceNumberBetween(beginSequenceNumberInclusive, endSequenceNumberInclusive);
+    }
+
+    static class SequenceNumberBetween implements FixMessagePredicate
+    {
+        private final SequenceNumberExtractor sequenceNumberExtractor = new SequenceNumberExtractor();
+        private final int beginSequenceNumberInclusive;
+        private final int endSequenceNumberInclusive;
+
+        SequenceNumberBetween(final int beginSequenceNumberInclusive, final int endSequenceNumberInclusive)
+        {
+            this.beginSequenceNumberInclusive = beginSequenceNumberInclusive;
+            this.endSequenceNumberInclusive = endSequenceNumberInclusive;
+        }
+
+        public boolean test(final FixMessageDecoder message)
+        {
+            final int length = message.bodyLength();
+            final int bodyOffset = message.limit() + FixMessageDecoder.bodyHeaderLength();
+            sequenceNumberExtractor.extract(message.buffer(), bodyOffset, length);
+            final int sequenceNumber = sequenceNumberExtractor.sequenceNumber();
+            return sequenceNumber >= beginSequenceNumberInclusive && sequenceNumber <= endSequenceNumberInclusive;
+        }
+
+        int beginSequenceNumberInclusive()
+        {
+            return beginSequenceNumberInclusive;
+        }
+
+        int endSequenceNumberInclusive()
+        {
+            return endSequenceNumberInclusive;
+        }
+
+        public String toString()
+        {
+            return "SequenceNumberBetween{" +
+                "beginSequenceNumberInclusive=" + beginSequenceNumberInclusive +
+                ", endSequenceNumberInclusive=" + endSequenceNumberInclusive +
+                '}';
+        }
     }
 
     public static FixMessagePredicate bodyMatches(final Pattern pattern)
@@ -57,6 +57,7 @@ class FixReplayerSession extends ReplayerSession
 
     private enum State
     {
+        REPLAYING_FROM_CACHE,
         REPLAYING,
         CHECK_REPLAY,
         SEND_COMPLETE_MESSAGE,
@@ -78,6 +79,10 @@ class FixReplayerSession extends ReplayerSession
 
     private int beginGapFillSeqNum = NONE;
 
+    private HotReplayCache.CachedReplay cachedReplay;
+    private boolean replayedFromCache;
+    private int cachedReplayedMessages;
+
     private State state;
 
     FixReplayerSession(
@@ -132,6 +137,23 @@ class FixReplayerSession extends ReplayerSession
         state = State.REPLAYING;
     }
 
+    void query()
+    {
+        final HotReplayCache hotReplayCache = replayer.hotReplayCache;
+        if (hotReplayCache != null)
+        {
+            cachedReplay = hotReplayCache.replay(sessionId, sequenceIndex, beginSeqNo, endSeqNo);
+            if (cachedReplay != null)
+            {
+                replayedFromCache = true;
+                state = State.REPLAYING_FROM_CACHE;
+                return;
+            }
+        }
+
+        super.query();
+    }
+
     MessageTracker messageTracker()
     {
         return new FixMessageTracker(REPLAY_MESSAGE, this, sessionId);
@@ -379,6 +401,31 @@ class FixReplayerSession extends ReplayerSession
     {
         switch (state)
         {
+            case REPLAYING_FROM_CACHE:
+                DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING_FROM_CACHE step");
+                if (cachedReplay.poll(this))
+                {
+                    releaseCachedReplay();
+                    state = State.CHECK_REPLAY;
+                    return attemptReplay();
+                }
+
+                if (cachedReplay.isEvicted())
+                {
+                    // The messages that we've yet to replay have been overwritten, so replay them from the archive
+                    replayOperation = replayQuery.query(
+                        sessionId,
+                        cachedReplay.nextSequenceNumber(),
+                        sequenceIndex,
+                        endSeqNo,
+                        sequenceIndex,
+                        REPLAY,
+                        messageTracker());
+                    releaseCachedReplay();
+                    state = State.REPLAYING;
+                }
+                return false;
+
             case REPLAYING:
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING step");
                 if (replayOperation.pollReplay())
@@ -401,7 +448,7 @@ class FixReplayerSession extends ReplayerSession
 
             case CLOSING:
             {
-                return replayOperation.pollReplay();
+                return replayOperation == null || replayOperation.pollReplay();
             }
 
             default:
@@ -412,7 +459,7 @@ class FixReplayerSession extends ReplayerSession
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = replayedMessages();
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -471,8 +518,30 @@ class FixReplayerSession extends ReplayerSession
         return true;
     }
 
+    private int replayedMessages()
+    {
+        int replayedMessages = cachedReplayedMessages;
+        if (replayOperation != null)
+        {
+            replayedMessages += replayOperation.replayedMessages();
+        }
+        return replayedMessages;
+    }
+
+    private void releaseCachedReplay()
+    {
+        final HotReplayCache.CachedReplay cachedReplay = this.cachedReplay;
+        if (cachedReplay != null)
+        {
+            cachedReplayedMessages = cachedReplay.replayedMessages();
+            cachedReplay.release();
+            this.cachedReplay = null;
+        }
+    }
+
     void startClose()
     {
+        releaseCachedReplay();
         state = State.CLOSING;
         super.startClose();
     }
@@ -487,6 +556,7 @@ class FixReplayerSession extends ReplayerSession
             ", lastSeqNo=" + lastSeqNo +
             ", beginGapFillSeqNum=" + beginGapFillSeqNum +
             ", state=" + state +
+            ", fromCache=" + replayedFromCache +
             ", connectionId=" + connectionId +
             ", beginSeqNo=" + beginSeqNo +
             ", endSeqNo=" + endSeqNo +
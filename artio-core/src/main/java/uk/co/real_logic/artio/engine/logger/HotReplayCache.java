@@ -0,0 +1,570 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.BREAK;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+
+/**
+ * An off-heap cache of the most recently sent outbound FIX messages of each session, used to serve resend requests
+ * for recently sent messages without starting an archive replay.
+ *
+ * Each cached session owns a fixed size ring of the archived fragments of its messages, older messages are
+ * overwritten as new ones are sent. The number of sessions that can be cached is bounded by the total capacity,
+ * when a new session needs a ring the least recently used session is evicted from the cache.
+ *
+ * A session's ring only ever contains a contiguous run of sequence numbers within a single sequence index, anything
+ * that the cache can't faithfully replay in the same way as the archive, eg: fragmented messages, throttle
+ * notifications or sequence numbers being reused, clears the ring. Resend requests are only served from the cache
+ * when it holds every message within their range, otherwise they are replayed from the archive as normal.
+ *
+ * Not thread safe: it's written to by the outbound {@link ReplayIndex} and read by the {@link Replayer}, which run on
+ * the same agent.
+ */
+public class HotReplayCache implements AutoCloseable
+{
+    static final int ENTRY_LENGTH_OFFSET = 0;
+    static final int SEQUENCE_NUMBER_OFFSET = ENTRY_LENGTH_OFFSET + SIZE_OF_INT;
+    static final int LAST_SEQUENCE_NUMBER_OFFSET = SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+    static final int FRAGMENT_LENGTH_OFFSET = LAST_SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+    static final int ENTRY_HEADER_LENGTH = FRAGMENT_LENGTH_OFFSET + SIZE_OF_INT;
+    static final int ENTRY_ALIGNMENT = 8;
+
+    private static final int PADDING = -1;
+    private static final int NONE = -1;
+
+    private final Long2ObjectHashMap<SessionCache> sessionIdToCache = new Long2ObjectHashMap<>();
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private final int sessionCapacity;
+    private final int sessionCapacityMask;
+
+    private SessionCache freeList;
+    // Replays that have been released, reused by later resend requests rather than allocating a new replay each time
+    private CachedReplay freeReplays;
+    // Doubly linked list of the cached sessions, in order of most to least recently used
+    private SessionCache mostRecentlyUsed;
+    private SessionCache leastRecentlyUsed;
+
+    /**
+     * Create the cache.
+     *
+     * @param capacity the total capacity of the cache in bytes.
+     * @param sessionCapacity the capacity of each session's ring in bytes, must be a power of two.
+     */
+    public HotReplayCache(final int capacity, final int sessionCapacity)
+    {
+        if (!BitUtil.isPowerOfTwo(sessionCapacity))
+        {
+            throw new IllegalArgumentException("sessionCapacity must be a power of two: " + sessionCapacity);
+        }
+
+        final int sessionCount = capacity / sessionCapacity;
+        if (sessionCount < 1)
+        {
+            throw new IllegalArgumentException(
+                "capacity must be at least sessionCapacity: capacity=" + capacity +
+                ", sessionCapacity=" + sessionCapacity);
+        }
+
+        this.sessionCapacity = sessionCapacity;
+        this.sessionCapacityMask = sessionCapacity - 1;
+
+        byteBuffer = ByteBuffer.allocateDirect(sessionCount * sessionCapacity);
+        buffer = new UnsafeBuffer(byteBuffer);
+
+        for (int i = sessionCount - 1; i >= 0; i--)
+        {
+            final SessionCache cache = new SessionCache(i * sessionCapacity);
+            cache.next = freeList;
+            freeList = cache;
+        }
+    }
+
+    /**
+     * Add a message that has been indexed for a session.
+     *
+     * @param sessionId the FIX session id of the message.
+     * @param sequenceIndex the sequence index of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param lastSequenceNumber the last sequence number covered by the message, greater than the sequence number
+     *                           for a gap fill.
+     * @param buffer the buffer containing the archived fragment.
+     * @param offset the offset of the fragment within the buffer.
+     * @param length the length of the fragment.
+     */
+    public void onMessage(
+        final long sessionId,
+        final int sequenceIndex,
+        final int sequenceNumber,
+        final int lastSequenceNumber,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length)
+    {
+        final SessionCache cache = sessionCache(sessionId);
+        if (cache.sequenceIndex != sequenceIndex)
+        {
+            cache.clear();
+            cache.reusedSequenceNumbers = false;
+            cache.sequenceIndex = sequenceIndex;
+        }
+        else if (sequenceNumber <= cache.lastSequenceNumber)
+        {
+            // The archive now has several messages with these sequence numbers in this sequence index
+            cache.clear();
+            cache.reusedSequenceNumbers = true;
+        }
+        else if (sequenceNumber != cache.lastSequenceNumber + 1)
+        {
+            cache.clear();
+        }
+
+        cache.lastSequenceNumber = lastSequenceNumber;
+        if (!cache.reusedSequenceNumbers)
+        {
+            cache.append(sequenceNumber, lastSequenceNumber, buffer, offset, length);
+        }
+    }
+
+    /**
+     * Stop serving resend requests for a session from the cache until its sequence index changes, used when the
+     * session has indexed records that the cache can't replay.
+     *
+     * @param sessionId the FIX session id.
+     * @param sequenceIndex the sequence index of the record.
+     */
+    public void onUncacheableRecord(final long sessionId, final int sequenceIndex)
+    {
+        final SessionCache cache = sessionCache(sessionId);
+        // Records from earlier sequence indices aren't replayed by requests for the current one
+        if (cache.sequenceIndex == NONE || sequenceIndex >= cache.sequenceIndex)
+        {
+            cache.clear();
+            cache.sequenceIndex = sequenceIndex;
+            cache.reusedSequenceNumbers = true;
+        }
+    }
+
+    /**
+     * Remove a session from the cache, used when its sequence numbers are reset.
+     *
+     * @param sessionId the FIX session id.
+     */
+    public void onResetSequenceNumber(final long sessionId)
+    {
+        final SessionCache cache = sessionIdToCache.remove(sessionId);
+        if (cache != null)
+        {
+            unlink(cache);
+            free(cache);
+        }
+    }
+
+    /**
+     * Start a replay of a range of messages from the cache.
+     *
+     * @param sessionId the FIX session id of the messages.
+     * @param sequenceIndex the sequence index of the messages.
+     * @param beginSequenceNumber the first sequence number to replay (inclusive).
+     * @param endSequenceNumber the last sequence number to replay (inclusive).
+     * @return the replay or null if the cache doesn't hold every message within the range.
+     */
+    public CachedReplay replay(
+        final long sessionId, final int sequenceIndex, final int beginSequenceNumber, final int endSequenceNumber)
+    {
+        final SessionCache cache = sessionIdToCache.get(sessionId);
+        if (cache == null || cache.reusedSequenceNumbers || cache.sequenceIndex != sequenceIndex ||
+            cache.isEmpty() || beginSequenceNumber < cache.firstSequenceNumber() ||
+            endSequenceNumber > cache.lastSequenceNumber || endSequenceNumber < beginSequenceNumber)
+        {
+            return null;
+        }
+
+        touch(cache);
+
+        long position = cache.head;
+        while (position < cache.tail)
+        {
+            final int offset = cache.offset(position);
+            if (this.buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET) != PADDING &&
+                this.buffer.getInt(offset + LAST_SEQUENCE_NUMBER_OFFSET) >= beginSequenceNumber)
+            {
+                break;
+            }
+            position += this.buffer.getInt(offset + ENTRY_LENGTH_OFFSET);
+        }
+
+        CachedReplay replay = freeReplays;
+        if (replay != null)
+        {
+            freeReplays = replay.nextFree;
+            replay.nextFree = null;
+        }
+        else
+        {
+            replay = new CachedReplay();
+        }
+
+        replay.init(cache, position, beginSequenceNumber, endSequenceNumber);
+        return replay;
+    }
+
+    public void close()
+    {
+        BufferUtil.free(byteBuffer);
+    }
+
+    private SessionCache sessionCache(final long sessionId)
+    {
+        SessionCache cache = sessionIdToCache.get(sessionId);
+        if (cache == null)
+        {
+            cache = freeList;
+            if (cache != null)
+            {
+                freeList = cache.next;
+                cache.next = null;
+            }
+            else
+            {
+                cache = leastRecentlyUsed;
+                sessionIdToCache.remove(cache.sessionId);
+                unlink(cache);
+                cache.reset();
+            }
+
+            cache.sessionId = sessionId;
+            sessionIdToCache.put(sessionId, cache);
+        }
+        else
+        {
+            unlink(cache);
+        }
+
+        linkMostRecentlyUsed(cache);
+        return cache;
+    }
+
+    private void touch(final SessionCache cache)
+    {
+        if (cache != mostRecentlyUsed)
+        {
+            unlink(cache);
+            linkMostRecentlyUsed(cache);
+        }
+    }
+
+    private void linkMostRecentlyUsed(final SessionCache cache)
+    {
+        cache.previous = null;
+        cache.next = mostRecentlyUsed;
+        if (mostRecentlyUsed != null)
+        {
+            mostRecentlyUsed.previous = cache;
+        }
+        mostRecentlyUsed = cache;
+        if (leastRecentlyUsed == null)
+        {
+            leastRecentlyUsed = cache;
+        }
+    }
+
+    private void unlink(final SessionCache cache)
+    {
+        final SessionCache previous = cache.previous;
+        final SessionCache next = cache.next;
+        if (previous != null)
+        {
+            previous.next = next;
+        }
+        else
+        {
+            mostRecentlyUsed = next;
+        }
+
+        if (next != null)
+        {
+            next.previous = previous;
+        }
+        else
+        {
+            leastRecentlyUsed = previous;
+        }
+
+        cache.previous = null;
+        cache.next = null;
+    }
+
+    private void free(final SessionCache cache)
+    {
+        cache.reset();
+        cache.next = freeList;
+        freeList = cache;
+    }
+
+    private final class SessionCache
+    {
+        private final int ringOffset;
+
+        private long sessionId;
+        private int sequenceIndex;
+        private int lastSequenceNumber;
+        private boolean reusedSequenceNumbers;
+
+        // Logical positions that increase monotonically for as long as the generation is unchanged
+        private long head;
+        private long tail;
+        private long generation;
+
+        private SessionCache previous;
+        private SessionCache next;
+
+        SessionCache(final int ringOffset)
+        {
+            this.ringOffset = ringOffset;
+            reset();
+        }
+
+        void reset()
+        {
+            clear();
+            sequenceIndex = NONE;
+            lastSequenceNumber = NONE;
+            reusedSequenceNumbers = false;
+        }
+
+        void clear()
+        {
+            head = 0;
+            tail = 0;
+            generation++;
+        }
+
+        boolean isEmpty()
+        {
+            return head == tail;
+        }
+
+        int offset(final long position)
+        {
+            return ringOffset + (int)(position & sessionCapacityMask);
+        }
+
+        int firstSequenceNumber()
+        {
+            long position = head;
+            while (position < tail)
+            {
+                final int offset = offset(position);
+                final int sequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+                if (sequenceNumber != PADDING)
+                {
+                    return sequenceNumber;
+                }
+                position += buffer.getInt(offset + ENTRY_LENGTH_OFFSET);
+            }
+
+            return NONE;
+        }
+
+        void append(
+            final int sequenceNumber,
+            final int lastSequenceNumber,
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength)
+        {
+            final int entryLength = BitUtil.align(ENTRY_HEADER_LENGTH + srcLength, ENTRY_ALIGNMENT);
+            if (entryLength > sessionCapacity)
+            {
+                clear();
+                return;
+            }
+
+            final int toEndOfRing = sessionCapacity - (int)(tail & sessionCapacityMask);
+            if (entryLength > toEndOfRing)
+            {
+                freeSpace(toEndOfRing + entryLength);
+                if (isEmpty())
+                {
+                    head += toEndOfRing;
+                }
+                else
+                {
+                    final int paddingOffset = offset(tail);
+                    buffer.putInt(paddingOffset + ENTRY_LENGTH_OFFSET, toEndOfRing);
+                    buffer.putInt(paddingOffset + SEQUENCE_NUMBER_OFFSET, PADDING);
+                }
+                tail += toEndOfRing;
+            }
+            else
+            {
+                freeSpace(entryLength);
+            }
+
+            final int offset = offset(tail);
+            final UnsafeBuffer buffer = HotReplayCache.this.buffer;
+            buffer.putInt(offset + ENTRY_LENGTH_OFFSET, entryLength);
+            buffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putInt(offset + LAST_SEQUENCE_NUMBER_OFFSET, lastSequenceNumber);
+            buffer.putInt(offset + FRAGMENT_LENGTH_OFFSET, srcLength);
+            buffer.putBytes(offset + ENTRY_HEADER_LENGTH, srcBuffer, srcOffset, srcLength);
+            tail += entryLength;
+        }
+
+        private void freeSpace(final int requiredLength)
+        {
+            while (!isEmpty() && sessionCapacity - (tail - head) < requiredLength)
+            {
+                head += buffer.getInt(offset(head) + ENTRY_LENGTH_OFFSET);
+            }
+        }
+    }
+
+    /**
+     * A replay of a range of messages from the cache, can be polled over several duty cycles. If the messages that
+     * haven't yet been replayed are overwritten or evicted in the meantime then the replay stops and the remainder
+     * should be replayed from the archive, starting at {@link #nextSequenceNumber()}.
+     *
+     * Replays are pooled by the cache, so a replay should be {@link #release() released} once it's no longer needed.
+     */
+    public final class CachedReplay
+    {
+        private SessionCache cache;
+        private long generation;
+        private int endSequenceNumber;
+
+        private long position;
+        private int nextSequenceNumber;
+        private int replayedMessages;
+        private boolean complete;
+
+        private CachedReplay nextFree;
+
+        private CachedReplay()
+        {
+        }
+
+        private void init(
+            final SessionCache cache, final long position, final int beginSequenceNumber, final int endSequenceNumber)
+        {
+            this.cache = cache;
+            this.generation = cache.generation;
+            this.position = position;
+            this.nextSequenceNumber = beginSequenceNumber;
+            this.endSequenceNumber = endSequenceNumber;
+            this.replayedMessages = 0;
+            this.complete = false;
+        }
+
+        /**
+         * Replay cached messages to a handler until it aborts or the replay is complete.
+         *
+         * @param handler the handler that the archived fragments are passed to, with a null header.
+         * @return true if the replay is complete, false otherwise.
+         */
+        public boolean poll(final ControlledFragmentHandler handler)
+        {
+            final UnsafeBuffer buffer = HotReplayCache.this.buffer;
+            final SessionCache cache = this.cache;
+            while (!complete && !isEvicted())
+            {
+                if (position >= cache.tail)
+                {
+                    complete = true;
+                    break;
+                }
+
+                final int offset = cache.offset(position);
+                final int entryLength = buffer.getInt(offset + ENTRY_LENGTH_OFFSET);
+                final int sequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+                if (sequenceNumber == PADDING)
+                {
+                    position += entryLength;
+                    continue;
+                }
+
+                if (sequenceNumber > endSequenceNumber)
+                {
+                    complete = true;
+                    break;
+                }
+
+                final Action action = handler.onFragment(
+                    buffer, offset + ENTRY_HEADER_LENGTH, buffer.getInt(offset + FRAGMENT_LENGTH_OFFSET), null);
+                if (action == ABORT)
+                {
+                    return false;
+                }
+
+                replayedMessages++;
+                nextSequenceNumber = buffer.getInt(offset + LAST_SEQUENCE_NUMBER_OFFSET) + 1;
+                position += entryLength;
+                complete = nextSequenceNumber > endSequenceNumber;
+
+                if (action == BREAK)
+                {
+                    break;
+                }
+            }
+
+            return complete;
+        }
+
+        /**
+         * Check whether the messages that haven't yet been replayed have been removed from the cache.
+         *
+         * @return true if the replay can't be completed from the cache.
+         */
+        public boolean isEvicted()
+        {
+            return !complete && (cache.generation != generation || position < cache.head);
+        }
+
+        public int nextSequenceNumber()
+        {
+            return nextSequenceNumber;
+        }
+
+        public int replayedMessages()
+        {
+            return replayedMessages;
+        }
+
+        /**
+         * Return this replay to the cache so that it can be reused by a later resend request, it mustn't be used
+         * after it has been released.
+         */
+        public void release()
+        {
+            cache = null;
+            nextFree = freeReplays;
+            freeReplays = this;
+        }
+    }
+}
@@ -19,9 +19,13 @@ class IndexQuery
 {
     static final long NO_BEGIN = Long.MIN_VALUE;
     static final long NO_END = Long.MAX_VALUE;
+    static final long NO_SESSION_ID = Long.MIN_VALUE;
 
     private long beginTimestampInclusive = Long.MIN_VALUE;
     private long endTimestampExclusive = Long.MAX_VALUE;
+    private long sessionId = NO_SESSION_ID;
+    private int beginSequenceNumberInclusive = 0;
+    private int endSequenceNumberInclusive = Integer.MAX_VALUE;
 
     void from(final long beginTimestampInclusive)
     {
@@ -43,17 +47,45 @@ class IndexQuery
         }
     }
 
+    void sessionId(final long sessionId)
+    {
+        // Only the first session is used, a conjunction of different sessions matches nothing anyway
+        if (this.sessionId == NO_SESSION_ID)
+        {
+            this.sessionId = sessionId;
+        }
+    }
+
+    void sequenceNumbers(final int beginSequenceNumberInclusive, final int endSequenceNumberInclusive)
+    {
+        this.beginSequenceNumberInclusive = Math.max(this.beginSequenceNumberInclusive, beginSequenceNumberInclusive);
+        this.endSequenceNumberInclusive = Math.min(this.endSequenceNumberInclusive, endSequenceNumberInclusive);
+    }
+
     boolean needed()
+    {
+        return hasTimeRange() || hasSession();
+    }
+
+    boolean hasTimeRange()
     {
         return beginTimestampInclusive != NO_BEGIN ||
             endTimestampExclusive != NO_END;
     }
 
+    boolean hasSession()
+    {
+        return sessionId != NO_SESSION_ID;
+    }
+
     public String toString()
     {
         return "IndexPlan{" +
             "beginTimestampInclusive=" + beginTimestampInclusive +
             ", endTimestampExclusive=" + endTimestampExclusive +
+            ", sessionId=" + sessionId +
+            ", beginSequenceNumberInclusive=" + beginSequenceNumberInclusive +
+            ", endSequenceNumberInclusive=" + endSequenceNumberInclusive +
             '}';
     }
 
@@ -66,4 +98,19 @@ class IndexQuery
     {
         return endTimestampExclusive;
     }
+
+    public long sessionId()
+    {
+        return sessionId;
+    }
+
+    public int beginSequenceNumberInclusive()
+    {
+        return beginSequenceNumberInclusive;
+    }
+
+    public int endSequenceNumberInclusive()
+    {
+        return endSequenceNumberInclusive;
+    }
 }
@@ -32,6 +32,9 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.CompletionPosition;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 
 import java.util.List;
@@ -39,6 +42,7 @@ import java.util.List;
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
 
 /**
  * Incrementally builds indexes by polling a subscription.
@@ -53,24 +57,30 @@ public class Indexer implements Agent, ControlledFragmentHandler
     private final CharFormatter catchupFormatter = new CharFormatter(
         "Catchup [%s]: recordingId = %s, recordingStopped @ %s, indexStopped @ %s");
 
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+
     private final List<Index> indices;
     private final Subscription subscription;
     private final String agentNamePrefix;
     private final CompletionPosition completionPosition;
     private final int archiveReplayStream;
+    private final Timer lagTimer;
 
     public Indexer(
         final List<Index> indices,
         final Subscription subscription,
         final String agentNamePrefix,
         final CompletionPosition completionPosition,
-        final int archiveReplayStream)
+        final int archiveReplayStream,
+        final Timer lagTimer)
     {
         this.indices = indices;
         this.subscription = subscription;
         this.agentNamePrefix = agentNamePrefix;
         this.completionPosition = completionPosition;
         this.archiveReplayStream = archiveReplayStream;
+        this.lagTimer = lagTimer;
     }
 
     public int doWork()
@@ -180,9 +190,32 @@ public class Indexer implements Agent, ControlledFragmentHandler
             index.onFragment(buffer, offset, length, header);
         }
 
+        if (lagTimer.isEnabled())
+        {
+            recordLag(buffer, offset, header);
+        }
+
         return CONTINUE;
     }
 
+    // Times FIX messages from when they were read or sent by a library until they've been indexed.
+    private void recordLag(final DirectBuffer buffer, final int offset, final Header header)
+    {
+        if ((header.flags() & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG)
+        {
+            final MessageHeaderDecoder messageHeader = this.messageHeader.wrap(buffer, offset);
+            if (messageHeader.templateId() == FixMessageDecoder.TEMPLATE_ID)
+            {
+                fixMessage.wrap(
+                    buffer,
+                    offset + MessageHeaderDecoder.ENCODED_LENGTH,
+                    messageHeader.blockLength(),
+                    messageHeader.version());
+                lagTimer.recordSince(fixMessage.timestamp());
+            }
+        }
+    }
+
     public void onClose()
     {
         quiesce();
@@ -25,12 +25,13 @@ import java.util.Objects;
 class ReplayChannel
 {
     private ReplayerSession session;
+    private long replayStartTime;
     private Deque<EnqueuedReplay> enqueuedReplays;
 
-    ReplayChannel(final ReplayerSession session)
+    ReplayChannel(final ReplayerSession session, final long replayStartTime)
     {
         Objects.requireNonNull(session);
-        startReplay(session);
+        startReplay(session, replayStartTime);
     }
 
     void enqueueReplay(final EnqueuedReplay enqueuedReplay)
@@ -50,9 +51,15 @@ class ReplayChannel
     }
 
     // Can be null if back-pressured trying to create a new ReplayerSession
-    void startReplay(final ReplayerSession session)
+    void startReplay(final ReplayerSession session, final long replayStartTime)
     {
         this.session = session;
+        this.replayStartTime = replayStartTime;
+    }
+
+    long replayStartTime()
+    {
+        return replayStartTime;
     }
 
     EnqueuedReplay pollReplay()
@@ -16,14 +16,21 @@
 package uk.co.real_logic.artio.engine.logger;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.LongArrayList;
+import uk.co.real_logic.artio.engine.ReplayerCommand;
+import uk.co.real_logic.artio.engine.ReplayerCommandQueue;
 import uk.co.real_logic.artio.engine.framer.FramerContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ReplayEvictionHandler
 {
     private final ErrorHandler errorHandler;
     private ReplayQuery replayQuery;
     private ReplayQuery framerReplayQuery;
     private FramerContext framerContext;
+    private final List<WorkerReset> workerResets = new ArrayList<>();
 
     public ReplayEvictionHandler(final ErrorHandler errorHandler)
     {
@@ -37,6 +44,15 @@ public class ReplayEvictionHandler
             replayQuery.onReset(fixSessionId);
         }
 
+        // Replay queries owned by other replayer workers are reset on their own thread. The worker may be composed
+        // onto this thread, so resets that can't be handed over yet are retried by doWork() rather than blocking.
+        for (int i = 0, size = workerResets.size(); i < size; i++)
+        {
+            final WorkerReset workerReset = workerResets.get(i);
+            workerReset.pendingFixSessionIds.addLong(fixSessionId);
+            workerReset.attemptHandOver();
+        }
+
         if (framerReplayQuery != null)
         {
             if (framerContext == null)
@@ -49,6 +65,16 @@ public class ReplayEvictionHandler
         }
     }
 
+    public int doWork()
+    {
+        int work = 0;
+        for (int i = 0, size = workerResets.size(); i < size; i++)
+        {
+            work += workerResets.get(i).attemptHandOver();
+        }
+        return work;
+    }
+
     public void replayQuery(final ReplayQuery replayQuery)
     {
         if (this.replayQuery != null)
@@ -59,6 +85,11 @@ public class ReplayEvictionHandler
         this.replayQuery = replayQuery;
     }
 
+    public void workerReplayQuery(final ReplayQuery replayQuery, final ReplayerCommandQueue commandQueue)
+    {
+        workerResets.add(new WorkerReset(replayQuery, commandQueue));
+    }
+
     public void framerReplayQuery(final ReplayQuery framerReplayQuery)
     {
         this.framerReplayQuery = framerReplayQuery;
@@ -68,4 +99,61 @@ public class ReplayEvictionHandler
     {
         this.framerContext = framerContext;
     }
+
+    /**
+     * Hands resets over to a replayer worker in batches. Only one batch is in flight at a time: the indexer fills
+     * the batch while it's not in flight and the worker empties it when it executes the command, so the command
+     * can be reused rather than allocated for each reset.
+     */
+    private static final class WorkerReset implements ReplayerCommand
+    {
+        private final ReplayQuery replayQuery;
+        private final ReplayerCommandQueue commandQueue;
+
+        // Indexer state
+        private final LongArrayList pendingFixSessionIds = new LongArrayList();
+
+        // Written by the indexer before it's put on the command queue, read by the worker when it's executed
+        private final LongArrayList inFlightFixSessionIds = new LongArrayList();
+        private volatile boolean inFlight;
+
+        WorkerReset(final ReplayQuery replayQuery, final ReplayerCommandQueue commandQueue)
+        {
+            this.replayQuery = replayQuery;
+            this.commandQueue = commandQueue;
+        }
+
+        int attemptHandOver()
+        {
+            final LongArrayList pendingFixSessionIds = this.pendingFixSessionIds;
+            if (pendingFixSessionIds.isEmpty() || inFlight)
+            {
+                return 0;
+            }
+
+            final LongArrayList inFlightFixSessionIds = this.inFlightFixSessionIds;
+            inFlightFixSessionIds.addAll(pendingFixSessionIds);
+            inFlight = true;
+            if (commandQueue.offer(this))
+            {
+                pendingFixSessionIds.clear();
+                return 1;
+            }
+
+            inFlightFixSessionIds.clear();
+            inFlight = false;
+            return 0;
+        }
+
+        public void execute()
+        {
+            final LongArrayList inFlightFixSessionIds = this.inFlightFixSessionIds;
+            for (int i = 0, size = inFlightFixSessionIds.size(); i < size; i++)
+            {
+                replayQuery.onReset(inFlightFixSessionIds.getLong(i));
+            }
+            inFlightFixSessionIds.clear();
+            inFlight = false;
+        }
+    }
 }
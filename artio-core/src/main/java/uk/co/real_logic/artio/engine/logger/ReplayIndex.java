@@ -27,6 +27,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.messages.*;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
 import java.io.File;
@@ -41,6 +42,8 @@ import static org.agrona.UnsafeAccess.UNSAFE;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.SEQUENCE_RESET_MESSAGE_TYPE;
 import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+import static uk.co.real_logic.artio.engine.logger.SessionArchiveIndexWriter.NO_BEGIN_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.SessionArchiveIndexWriter.NO_END_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
 import static uk.co.real_logic.artio.messages.MessageStatus.OK;
 
@@ -55,6 +58,8 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  * Head position counter
  * Tail position counter
  * Multiple ReplayIndexRecord entries
+ *
+ * Each session also has a {@link SparseReplayIndex}, unless it has been disabled.
  */
 public class ReplayIndex implements Index
 {
@@ -68,6 +73,7 @@ public class ReplayIndex implements Index
     private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
     private final RedactSequenceUpdateDecoder redactSequenceUpdateDecoder = new RedactSequenceUpdateDecoder();
     private final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+    private final ReplayIndexRecordDecoder lastIndexRecord = new ReplayIndexRecordDecoder();
     private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
 
     private final IndexedPositionWriter positionWriter;
@@ -85,12 +91,16 @@ public class ReplayIndex implements Index
     private final ReplayEvictionHandler evictionHandler;
     private final int segmentSizeBitShift;
     private final int segmentCount;
+    private final int sparseIndexInterval;
+    private final int sparseIndexCapacity;
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
     private final TimeIndexWriter timeIndex;
+    private final SessionArchiveIndexWriter sessionArchiveIndex;
     private final SessionOwnershipTracker sessTracker;
+    private final HotReplayCache hotReplayCache;
 
     public ReplayIndex(
         final SequenceNumberExtractor sequenceNumberExtractor,
@@ -98,6 +108,7 @@ public class ReplayIndex implements Index
         final int requiredStreamId,
         final int indexFileCapacity,
         final int indexSegmentCapacity,
+        final int sparseIndexInterval,
         final BufferFactory bufferFactory,
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
@@ -106,8 +117,10 @@ public class ReplayIndex implements Index
         final FixPProtocolType fixPProtocolType,
         final SequenceNumberIndexReader reader,
         final long timeIndexReplayFlushIntervalInNs,
+        final boolean sessionArchiveIndexEnabled,
         final boolean indexChecksumEnabled,
-        final ReplayEvictionHandler evictionHandler)
+        final ReplayEvictionHandler evictionHandler,
+        final HotReplayCache hotReplayCache)
     {
         this.sequenceNumberExtractor = sequenceNumberExtractor;
         this.logFileDir = logFileDir;
@@ -117,10 +130,14 @@ public class ReplayIndex implements Index
         this.evictionHandler = evictionHandler;
         this.segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
         this.segmentCount = ReplayIndexDescriptor.segmentCount(indexFileCapacity, indexSegmentCapacity);
+        this.sparseIndexInterval = sparseIndexInterval;
+        this.sparseIndexCapacity = sparseIndexInterval > 0 ?
+            SparseReplayIndex.capacity(indexFileCapacity, sparseIndexInterval) : 0;
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.errorHandler = errorHandler;
         this.recordingIdLookup = recordingIdLookup;
+        this.hotReplayCache = hotReplayCache;
 
         checkPowerOfTwo("segmentCount", segmentCount);
         checkPowerOfTwo("segmentSize", segmentSize);
@@ -139,6 +156,12 @@ public class ReplayIndex implements Index
         positionReader = new IndexedPositionReader(positionBuffer);
         timeIndex = new TimeIndexWriter(
             logFileDir, requiredStreamId, timeIndexReplayFlushIntervalInNs, errorHandler);
+        sessionArchiveIndex = sessionArchiveIndexEnabled ? new SessionArchiveIndexWriter(
+            logFileDir,
+            requiredStreamId,
+            timeIndexReplayFlushIntervalInNs,
+            SessionArchiveIndexWriter.DEFAULT_MAX_GAP,
+            errorHandler) : null;
     }
 
     private void checkPowerOfTwo(final String name, final int value)
@@ -231,6 +254,14 @@ public class ReplayIndex implements Index
     private int continuedSequenceIndex;
     private long continuedTimestamp;
 
+    // The session archive index also covers messages that aren't in the replay index
+    private boolean continuedArchivedFixMessage;
+    private long continuedArchivedFixSessionId;
+    private int continuedArchivedSequenceIndex;
+    private int continuedArchivedBeginSequenceNumber;
+    private int continuedArchivedEndSequenceNumber;
+    private long continuedArchivedTimestamp;
+
     public void onCatchup(
         final DirectBuffer buffer,
         final int offset,
@@ -273,10 +304,12 @@ public class ReplayIndex implements Index
         offset += frameHeaderDecoder.encodedLength();
 
         final boolean beginMessage = (flags & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG;
+        final boolean unfragmented = (flags & UNFRAGMENTED) == UNFRAGMENTED;
         final int aeronSessionId = header.sessionId();
 
-        if ((flags & UNFRAGMENTED) == UNFRAGMENTED || beginMessage)
+        if (unfragmented || beginMessage)
         {
+            continuedArchivedFixMessage = templateId == FixMessageEncoder.TEMPLATE_ID;
             switch (templateId)
             {
                 case FixMessageEncoder.TEMPLATE_ID:
@@ -285,8 +318,15 @@ public class ReplayIndex implements Index
                     if (!sessTracker.messageFromWrongLibrary(messageFrame.session(), messageFrame.libraryId()))
                     {
                         onFixMessage(
-                            srcBuffer, header, recordingId, endPosition,
-                            length, offset, blockLength, version, beginMessage);
+                            srcBuffer, srcOffset, srcLength, header, recordingId, endPosition,
+                            length, offset, blockLength, version, beginMessage, unfragmented);
+                    }
+                    else
+                    {
+                        onArchivedFixMessage(
+                            messageFrame.session(), endPosition, length, aeronSessionId, recordingId,
+                            messageFrame.sequenceIndex(), NO_BEGIN_SEQUENCE_NUMBER, NO_END_SEQUENCE_NUMBER,
+                            messageFrame.timestamp());
                     }
                     break;
                 }
@@ -302,6 +342,7 @@ public class ReplayIndex implements Index
                         sessionIndex(fixSessionId).onRecord(
                             endPosition, length, sequenceNumber, sequenceIndex, aeronSessionId, recordingId,
                             NO_TIMESTAMP);
+                        onUncacheableRecord(fixSessionId, sequenceIndex);
                     }
                     break;
                 }
@@ -317,6 +358,7 @@ public class ReplayIndex implements Index
                         sessionIndex(fixSessionId).onRecord(
                             endPosition, length, sequenceNumber, sequenceIndex, aeronSessionId, recordingId,
                             NO_TIMESTAMP);
+                        onUncacheableRecord(fixSessionId, sequenceIndex);
                     }
                     break;
                 }
@@ -354,6 +396,13 @@ public class ReplayIndex implements Index
             sessionIndex(continuedFixSessionId).onRecord(
                 endPosition, length,
                 continuedSequenceNumber, continuedSequenceIndex, aeronSessionId, recordingId, continuedTimestamp);
+            if (continuedArchivedFixMessage)
+            {
+                onArchivedFixMessage(
+                    continuedArchivedFixSessionId, endPosition, length, aeronSessionId, recordingId,
+                    continuedArchivedSequenceIndex, continuedArchivedBeginSequenceNumber,
+                    continuedArchivedEndSequenceNumber, continuedArchivedTimestamp);
+            }
         }
 
         positionWriter.update(aeronSessionId, templateId, endPosition, recordingId);
@@ -376,6 +425,8 @@ public class ReplayIndex implements Index
 
     private void onFixMessage(
         final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
         final Header header,
         final long recordingId,
         final long endPosition,
@@ -383,9 +434,17 @@ public class ReplayIndex implements Index
         final int start,
         final int blockLength,
         final int version,
-        final boolean beginMessage)
+        final boolean beginMessage,
+        final boolean unfragmented)
     {
-        if (messageFrame.status() == OK)
+        if (messageFrame.status() != OK)
+        {
+            onArchivedFixMessage(
+                messageFrame.session(), endPosition, length, header.sessionId(), recordingId,
+                messageFrame.sequenceIndex(), NO_BEGIN_SEQUENCE_NUMBER, NO_END_SEQUENCE_NUMBER,
+                messageFrame.timestamp());
+        }
+        else
         {
             int offset = start + blockLength;
             if (version >= metaDataSinceVersion())
@@ -404,8 +463,18 @@ public class ReplayIndex implements Index
             final long timestamp = messageFrame.timestamp();
             final long messageType = messageFrame.messageType();
 
-            if (sequenceNumber != NO_SEQUENCE_NUMBER)
+            if (sequenceNumber == NO_SEQUENCE_NUMBER)
+            {
+                onArchivedFixMessage(
+                    fixSessionId, endPosition, length, header.sessionId(), recordingId, sequenceIndex,
+                    NO_BEGIN_SEQUENCE_NUMBER, NO_END_SEQUENCE_NUMBER, timestamp);
+            }
+            else
             {
+                onArchivedFixMessage(
+                    fixSessionId, endPosition, length, header.sessionId(), recordingId, sequenceIndex,
+                    sequenceNumber, Math.max(sequenceNumber, newSequenceNumber - 1), timestamp);
+
                 if (beginMessage)
                 {
                     continuedFixSessionId = fixSessionId;
@@ -417,6 +486,20 @@ public class ReplayIndex implements Index
                 final SessionIndex sessionIndex = sessionIndex(fixSessionId);
                 final int aeronSessionId = header.sessionId();
 
+                final HotReplayCache hotReplayCache = this.hotReplayCache;
+                if (!unfragmented || (messageType == SEQUENCE_RESET_MESSAGE_TYPE && newSequenceNumber == 1))
+                {
+                    onUncacheableRecord(fixSessionId, sequenceIndex);
+                }
+                else if (hotReplayCache != null)
+                {
+                    final int lastSequenceNumber = newSequenceNumber > sequenceNumber ?
+                        newSequenceNumber - 1 : sequenceNumber;
+                    hotReplayCache.onMessage(
+                        fixSessionId, sequenceIndex, sequenceNumber, lastSequenceNumber,
+                        srcBuffer, srcOffset, srcLength);
+                }
+
                 if (newSequenceNumber > sequenceNumber)
                 {
                     // implies newSequenceNumber != NO_SEQUENCE_NUMBER
@@ -441,8 +524,55 @@ public class ReplayIndex implements Index
         }
     }
 
+    private void onArchivedFixMessage(
+        final long fixSessionId,
+        final long endPosition,
+        final int length,
+        final int aeronSessionId,
+        final long knownRecordingId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final long timestamp)
+    {
+        final SessionArchiveIndexWriter sessionArchiveIndex = this.sessionArchiveIndex;
+        if (sessionArchiveIndex != null)
+        {
+            continuedArchivedFixSessionId = fixSessionId;
+            continuedArchivedSequenceIndex = sequenceIndex;
+            continuedArchivedBeginSequenceNumber = beginSequenceNumber;
+            continuedArchivedEndSequenceNumber = endSequenceNumber;
+            continuedArchivedTimestamp = timestamp;
+
+            final long recordingId = knownRecordingId ==
+                NULL_RECORDING_ID ? recordingIdLookup.getRecordingId(aeronSessionId) : knownRecordingId;
+            sessionArchiveIndex.onRecord(
+                recordingId,
+                fixSessionId,
+                ReplayQuery.trueBeginPosition(endPosition - length),
+                endPosition,
+                sequenceIndex,
+                beginSequenceNumber,
+                endSequenceNumber,
+                timestamp);
+        }
+    }
+
+    private void onUncacheableRecord(final long fixSessionId, final int sequenceIndex)
+    {
+        if (hotReplayCache != null)
+        {
+            hotReplayCache.onUncacheableRecord(fixSessionId, sequenceIndex);
+        }
+    }
+
     private void onResetSequenceNumber(final long fixSessionId)
     {
+        if (hotReplayCache != null)
+        {
+            hotReplayCache.onResetSequenceNumber(fixSessionId);
+        }
+
         final SessionIndex index = fixSessionIdToIndex.remove(fixSessionId);
 
         if (index != null)
@@ -466,6 +596,11 @@ public class ReplayIndex implements Index
                     deleteFile(segmentFile);
                 }
             }
+            final File sparseFile = replayIndexSparseFile(fixSessionId);
+            if (sparseFile.exists())
+            {
+                deleteFile(sparseFile);
+            }
         }
     }
 
@@ -477,13 +612,19 @@ public class ReplayIndex implements Index
 
     public int doWork()
     {
-        return positionWriter.checkRecordings() + timeIndex.doWork();
+        int work = positionWriter.checkRecordings() + timeIndex.doWork() + evictionHandler.doWork();
+        if (sessionArchiveIndex != null)
+        {
+            work += sessionArchiveIndex.doWork();
+        }
+        return work;
     }
 
     public void close()
     {
         Exceptions.closeAll(
             timeIndex,
+            sessionArchiveIndex,
             positionWriter);
         fixSessionIdToIndex.values().forEach(SessionIndex::close);
         fixSessionIdToIndex.clear();
@@ -507,6 +648,10 @@ public class ReplayIndex implements Index
         private final UnsafeBuffer[] segmentBuffers;
         private final File[] segmentBufferFiles;
 
+        private final File sparseIndexFile;
+        private final UnsafeBuffer sparseIndexBuffer;
+        private final SparseReplayIndex sparseIndex;
+
         SessionIndex(final long fixSessionId)
         {
             final ReplayIndex replayIndex = ReplayIndex.this;
@@ -541,6 +686,45 @@ public class ReplayIndex implements Index
                 final long resetPosition = beginChange(headerBuffer);
                 endChangeOrdered(headerBuffer, resetPosition);
             }
+
+            sparseIndexFile = replayIndexSparseFile(fixSessionId);
+            if (sparseIndexInterval > 0)
+            {
+                final int sparseIndexFileSize = SparseReplayIndex.fileSize(sparseIndexCapacity);
+                if (sparseIndexFile.exists() && (!exists || sparseIndexFile.length() != sparseIndexFileSize))
+                {
+                    deleteFile(sparseIndexFile);
+                }
+
+                sparseIndexBuffer = mapUnsafeBuffer(sparseIndexFileSize, sparseIndexFile);
+                if (!SparseReplayIndex.isInitialised(sparseIndexBuffer, sparseIndexCapacity, sparseIndexInterval))
+                {
+                    SparseReplayIndex.initialise(sparseIndexBuffer, sparseIndexCapacity, sparseIndexInterval);
+                }
+                sparseIndex = new SparseReplayIndex(sparseIndexBuffer);
+
+                final long lastRecordPosition = beginChange(headerBuffer) - RECORD_LENGTH;
+                if (exists && lastRecordPosition >= 0)
+                {
+                    final int segmentIndex = ReplayIndexDescriptor.segmentIndex(
+                        lastRecordPosition, segmentSizeBitShift, indexFileSize);
+                    lastIndexRecord.wrap(
+                        segmentBuffer(segmentIndex),
+                        offsetInSegment(lastRecordPosition, segmentSize),
+                        ReplayIndexRecordDecoder.BLOCK_LENGTH,
+                        ReplayIndexRecordDecoder.SCHEMA_VERSION);
+                    sparseIndex.onOpen(lastIndexRecord.sequenceIndex(), lastIndexRecord.sequenceNumber());
+                }
+            }
+            else
+            {
+                if (sparseIndexFile.exists())
+                {
+                    deleteFile(sparseIndexFile);
+                }
+                sparseIndexBuffer = null;
+                sparseIndex = null;
+            }
         }
 
         private void checkSegmentFilesDoNotExist()
@@ -596,6 +780,11 @@ public class ReplayIndex implements Index
 
             endChangeOrdered(headerBuffer, changePosition);
 
+            if (sparseIndex != null)
+            {
+                sparseIndex.onRecord(beginChangePosition, sequenceIndex, sequenceNumber);
+            }
+
             if (timestamp != NO_TIMESTAMP)
             {
                 timeIndex.onRecord(recordingId, endPosition, timestamp);
@@ -630,11 +819,20 @@ public class ReplayIndex implements Index
                     deleteFile(segmentFile);
                 }
             }
+
+            if (sparseIndexFile.exists())
+            {
+                deleteFile(sparseIndexFile);
+            }
         }
 
         public void close()
         {
             ReplayIndexDescriptor.unmapBuffers(headerBuffer, segmentBuffers);
+            if (sparseIndexBuffer != null)
+            {
+                IoUtil.unmap(sparseIndexBuffer.byteBuffer());
+            }
         }
 
         public void checkForNextSession(final boolean forNextSession)
@@ -661,6 +859,11 @@ public class ReplayIndex implements Index
         return ReplayIndexDescriptor.replayIndexSegmentFile(logFileDir, fixSessionId, requiredStreamId, segmentIndex);
     }
 
+    private File replayIndexSparseFile(final long fixSessionId)
+    {
+        return ReplayIndexDescriptor.replayIndexSparseFile(logFileDir, fixSessionId, requiredStreamId);
+    }
+
     void deleteFile(final File replayIndexFile)
     {
         if (!replayIndexFile.delete())
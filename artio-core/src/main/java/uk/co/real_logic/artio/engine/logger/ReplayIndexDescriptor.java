@@ -60,6 +60,11 @@ public final class ReplayIndexDescriptor
             logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-" + segmentIndex);
     }
 
+    static File replayIndexSparseFile(final String logFileDir, final long fixSessionId, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-sparse");
+    }
+
     static LongHashSet listReplayIndexSessionIds(final File logFileDir, final int streamId)
     {
         final String prefix = "replay-index-";
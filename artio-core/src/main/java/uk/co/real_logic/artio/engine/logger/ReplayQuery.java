@@ -200,6 +200,8 @@ public class ReplayQuery implements AutoCloseable
         private final File headerFile;
         private final UnsafeBuffer headerBuffer;
         private final UnsafeBuffer[] segmentBuffers;
+        private final UnsafeBuffer sparseIndexBuffer;
+        private final SparseReplayIndex sparseIndex;
 
         private final int actingBlockLength;
         private final int actingVersion;
@@ -211,6 +213,19 @@ public class ReplayQuery implements AutoCloseable
             headerBuffer = new UnsafeBuffer(indexBufferFactory.map(headerFile));
             this.fixSessionId = fixSessionId;
 
+            // Indices written with the sparse index disabled, or by older versions, don't have one
+            final File sparseIndexFile = replayIndexSparseFile(logFileDir, fixSessionId, requiredStreamId);
+            if (sparseIndexFile.exists())
+            {
+                sparseIndexBuffer = new UnsafeBuffer(indexBufferFactory.map(sparseIndexFile));
+                sparseIndex = new SparseReplayIndex(sparseIndexBuffer);
+            }
+            else
+            {
+                sparseIndexBuffer = null;
+                sparseIndex = null;
+            }
+
             messageFrameHeader.wrap(headerBuffer, 0);
             actingBlockLength = messageFrameHeader.blockLength();
             actingVersion = messageFrameHeader.version();
@@ -251,6 +266,7 @@ public class ReplayQuery implements AutoCloseable
 
             long iteratorPosition = getIteratorPosition();
             long stopIteratingPosition = iteratorPosition + indexFileSize;
+            iteratorPosition = sparseStartPosition(iteratorPosition, beginSequenceIndex, beginSequenceNumber);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition < stopIteratingPosition)
@@ -333,6 +349,19 @@ public class ReplayQuery implements AutoCloseable
             return newReplayOperation(ranges, logTag, messageTracker);
         }
 
+        // Skip the records before the last sparse index entry that precedes the query
+        private long sparseStartPosition(
+            final long iteratorPosition, final int beginSequenceIndex, final int beginSequenceNumber)
+        {
+            if (sparseIndex == null)
+            {
+                return iteratorPosition;
+            }
+
+            final long startPosition = sparseIndex.startPosition(beginSequenceIndex, beginSequenceNumber);
+            return Math.max(iteratorPosition, startPosition);
+        }
+
         private UnsafeBuffer segmentBuffer(
             final long position,
             final int segmentSizeBitShift,
@@ -510,6 +539,10 @@ public class ReplayQuery implements AutoCloseable
                     IoUtil.unmap(segmentBuffer.byteBuffer());
                 }
             }
+            if (sparseIndexBuffer != null)
+            {
+                IoUtil.unmap(sparseIndexBuffer.byteBuffer());
+            }
         }
     }
 
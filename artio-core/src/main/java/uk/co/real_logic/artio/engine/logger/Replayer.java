@@ -19,6 +19,7 @@ import io.aeron.ExclusivePublication;
 import io.aeron.Subscription;
 import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.Header;
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.collections.CollectionUtil;
@@ -37,6 +38,7 @@ import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.fixp.*;
 import uk.co.real_logic.artio.messages.*;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.Lazy;
@@ -81,6 +83,7 @@ public class Replayer extends AbstractReplayer
     final FixMessageEncoder fixMessageEncoder = new FixMessageEncoder();
     final FixMessageDecoder fixMessageDecoder = new FixMessageDecoder();
     final ThrottleRejectDecoder throttleRejectDecoder = new ThrottleRejectDecoder();
+    final HotReplayCache hotReplayCache;
     final AsciiBuffer sessionAsciiBuffer = new MutableAsciiBuffer();
 
     // Binary FIXP specific state
@@ -105,6 +108,8 @@ public class Replayer extends AbstractReplayer
     private final int maxBytesInBuffer;
     private final ReplayerCommandQueue replayerCommandQueue;
     private final AtomicCounter currentReplayCount;
+    private final int workerIndex;
+    private final int workerCount;
     private final int maxConcurrentSessionReplays;
     private final EpochNanoClock clock;
     private final EngineConfiguration configuration;
@@ -117,6 +122,7 @@ public class Replayer extends AbstractReplayer
     private final ReplayHandler replayHandler;
     private final FixPRetransmitHandler fixPRetransmitHandler;
     private final UtcTimestampEncoder utcTimestampEncoder;
+    private final Timer replayTimer;
 
     public Replayer(
         final ReplayQuery outboundReplayQuery,
@@ -140,6 +146,10 @@ public class Replayer extends AbstractReplayer
         final int maxConcurrentSessionReplays,
         final EpochNanoClock clock,
         final FixPProtocolType fixPProtocolType,
+        final int workerIndex,
+        final int workerCount,
+        final HotReplayCache hotReplayCache,
+        final Timer replayTimer,
         final EngineConfiguration configuration)
     {
         super(publication, fixSessionCodecsFactory, bufferClaim, senderSequenceNumbers);
@@ -158,6 +168,10 @@ public class Replayer extends AbstractReplayer
         this.currentReplayCount = currentReplayCount;
         this.maxConcurrentSessionReplays = maxConcurrentSessionReplays;
         this.clock = clock;
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
+        this.hotReplayCache = hotReplayCache;
+        this.replayTimer = replayTimer;
         this.configuration = configuration;
 
         gapFillMessageTypes = packAllMessageTypes(gapfillOnReplayMessageTypes);
@@ -194,6 +208,11 @@ public class Replayer extends AbstractReplayer
 
                 final long sessionId = validResendRequest.session();
                 final long connectionId = validResendRequest.connection();
+                if (!ownsConnection(connectionId))
+                {
+                    return CONTINUE;
+                }
+
                 final long beginSeqNo = validResendRequest.beginSequenceNumber();
                 final long endSeqNo = validResendRequest.endSequenceNumber();
                 final int sequenceIndex = validResendRequest.sequenceIndex();
@@ -253,6 +272,12 @@ public class Replayer extends AbstractReplayer
         }
     }
 
+    // Connections are partitioned between replayer workers so that each session's replays are processed in order
+    private boolean ownsConnection(final long connectionId)
+    {
+        return workerCount == 1 || SenderSequenceNumbers.workerIndex(connectionId, workerCount) == workerIndex;
+    }
+
     private void onDisconnect(final long connectionId)
     {
         fixPConnectionIds.remove(connectionId);
@@ -319,7 +344,7 @@ public class Replayer extends AbstractReplayer
                     return ABORT;
                 }
 
-                final ReplayChannel channel = new ReplayChannel(session);
+                final ReplayChannel channel = new ReplayChannel(session, replayTimer.startTime());
                 connectionIdToReplayerChannel.put(connectionId, channel);
                 currentReplayCount.increment();
 
@@ -485,10 +510,11 @@ public class Replayer extends AbstractReplayer
             if (channel.attemptReplay())
             {
                 // Replay complete
+                replayTimer.recordSince(channel.replayStartTime());
                 final EnqueuedReplay enqueuedReplay = channel.pollReplay();
                 if (enqueuedReplay == null)
                 {
-                    currentReplayCount.decrementOrdered();
+                    currentReplayCount.decrement();
                     replayerChannels.remove();
                 }
                 else
@@ -504,7 +530,7 @@ public class Replayer extends AbstractReplayer
                             enqueuedReplay.sequenceIndex(),
                             enqueuedReplay.asciiBuffer());
 
-                        channel.startReplay(session);
+                        channel.startReplay(session, replayTimer.startTime());
                     }
                     catch (final IllegalStateException e)
                     {
@@ -521,15 +547,20 @@ public class Replayer extends AbstractReplayer
     {
         connectionIdToReplayerChannel.values().forEach(ReplayChannel::closeNow);
         connectionIdToReplayerChannel.clear();
-        currentReplayCount.set(0);
-        currentReplayCount.close();
+        // The replay count is shared between workers
+        if (workerIndex == 0)
+        {
+            currentReplayCount.set(0);
+            currentReplayCount.close();
+        }
         outboundReplayQuery.close();
+        CloseHelper.close(hotReplayCache);
         super.onClose();
     }
 
     public String roleName()
     {
-        return agentNamePrefix + "Replayer";
+        return workerIndex == 0 ? agentNamePrefix + "Replayer" : agentNamePrefix + "Replayer-" + workerIndex;
     }
 
 }
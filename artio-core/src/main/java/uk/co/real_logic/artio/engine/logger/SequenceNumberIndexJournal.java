@@ -0,0 +1,315 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.CommonConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * An append only log of the updates made to the records of a {@link SequenceNumberIndexWriter}.
+ *
+ * Updates are buffered in memory and group committed, that's to say written and forced to disk together, once
+ * either the commit interval has passed since the oldest uncommitted update or the batch is full. This means the
+ * cost of making a change durable is proportional to the number of changed records rather than the size of the
+ * whole index file. The index writer only saves a full snapshot of its index file, and then truncates the journal,
+ * when the journal grows larger than the snapshot itself, on a term roll or when it's closed.
+ *
+ * On startup the journal is replayed on top of the last snapshot. Each entry is checksummed so that a torn write at
+ * the end of the journal is detected and discarded.
+ */
+public class SequenceNumberIndexJournal implements AutoCloseable
+{
+    static final int SESSION_ID_OFFSET = 0;
+    static final int MESSAGE_POSITION_OFFSET = SESSION_ID_OFFSET + SIZE_OF_LONG;
+    static final int SEQUENCE_NUMBER_OFFSET = MESSAGE_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int CHECKSUM_OFFSET = SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+    static final int ENTRY_LENGTH = CHECKSUM_OFFSET + SIZE_OF_INT;
+
+    @FunctionalInterface
+    interface EntryHandler
+    {
+        void onEntry(long sessionId, int sequenceNumber, long messagePosition);
+    }
+
+    private final CRC32 crc32 = new CRC32();
+    private final File file;
+    private final FileChannel channel;
+    private final ErrorHandler errorHandler;
+    private final EpochNanoClock clock;
+    private final long commitIntervalInNs;
+    private final int commitBatchSize;
+    private final long maxLength;
+    private final ByteBuffer pendingByteBuffer;
+    private final UnsafeBuffer pendingBuffer;
+
+    private int pendingEntries;
+    private long oldestPendingTimeInNs;
+    private long length;
+
+    /**
+     * Open a journal, creating the file if it doesn't exist.
+     *
+     * @param file the file that the journal is stored in.
+     * @param errorHandler the handler for errors writing to the journal.
+     * @param clock the clock used to time commits.
+     * @param commitIntervalInNs the maximum time an update can wait to be committed.
+     * @param commitBatchSize the maximum number of updates to commit together.
+     * @param maxLength the length of the journal that it's compacted beyond, normally the size of the index file.
+     */
+    public SequenceNumberIndexJournal(
+        final File file,
+        final ErrorHandler errorHandler,
+        final EpochNanoClock clock,
+        final long commitIntervalInNs,
+        final int commitBatchSize,
+        final long maxLength)
+    {
+        this.file = file;
+        this.errorHandler = errorHandler;
+        this.clock = clock;
+        this.commitIntervalInNs = commitIntervalInNs;
+        this.commitBatchSize = commitBatchSize;
+        this.maxLength = maxLength;
+
+        pendingByteBuffer = ByteBuffer.allocateDirect(commitBatchSize * ENTRY_LENGTH);
+        pendingBuffer = new UnsafeBuffer(pendingByteBuffer);
+
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+            length = channel.size();
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.channel = channel;
+    }
+
+    /**
+     * Replay every valid entry in the journal, in the order that they were appended, and discard any trailing
+     * partially written entries.
+     *
+     * @param handler the handler that is invoked for each entry.
+     * @return the number of entries replayed.
+     */
+    int replay(final EntryHandler handler)
+    {
+        final ByteBuffer entryByteBuffer = ByteBuffer.allocateDirect(ENTRY_LENGTH);
+        final UnsafeBuffer entryBuffer = new UnsafeBuffer(entryByteBuffer);
+
+        int entries = 0;
+        long position = 0;
+        try
+        {
+            while (position + ENTRY_LENGTH <= length)
+            {
+                entryByteBuffer.clear();
+                while (entryByteBuffer.hasRemaining())
+                {
+                    if (channel.read(entryByteBuffer, position + entryByteBuffer.position()) < 0)
+                    {
+                        break;
+                    }
+                }
+
+                if (entryByteBuffer.hasRemaining() || checksum(entryBuffer, 0) != entryBuffer.getInt(CHECKSUM_OFFSET))
+                {
+                    break;
+                }
+
+                handler.onEntry(
+                    entryBuffer.getLong(SESSION_ID_OFFSET),
+                    entryBuffer.getInt(SEQUENCE_NUMBER_OFFSET),
+                    entryBuffer.getLong(MESSAGE_POSITION_OFFSET));
+                entries++;
+                position += ENTRY_LENGTH;
+            }
+
+            if (position != length)
+            {
+                channel.truncate(position);
+                length = position;
+            }
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Append an update to the journal, committing it straight away if the batch is full.
+     *
+     * @param sessionId the session id of the updated record.
+     * @param sequenceNumber the new sequence number of the record.
+     * @param messagePosition the new message position of the record.
+     */
+    void append(final long sessionId, final int sequenceNumber, final long messagePosition)
+    {
+        final UnsafeBuffer pendingBuffer = this.pendingBuffer;
+        final int offset = pendingEntries * ENTRY_LENGTH;
+        pendingBuffer.putLong(offset + SESSION_ID_OFFSET, sessionId);
+        pendingBuffer.putLong(offset + MESSAGE_POSITION_OFFSET, messagePosition);
+        pendingBuffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+        pendingBuffer.putInt(offset + CHECKSUM_OFFSET, checksum(pendingBuffer, offset));
+
+        if (pendingEntries++ == 0)
+        {
+            oldestPendingTimeInNs = clock.nanoTime();
+        }
+
+        if (pendingEntries == commitBatchSize)
+        {
+            commit();
+        }
+    }
+
+    /**
+     * Commit the pending updates if the oldest one has waited for the commit interval.
+     *
+     * @return 1 if a commit happened, 0 otherwise.
+     */
+    int commitIfDue()
+    {
+        if (pendingEntries > 0 && clock.nanoTime() - oldestPendingTimeInNs >= commitIntervalInNs)
+        {
+            commit();
+            return 1;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Write all pending updates to the journal and force them to disk with a single call.
+     */
+    void commit()
+    {
+        final int pendingEntries = this.pendingEntries;
+        if (pendingEntries == 0)
+        {
+            return;
+        }
+
+        final ByteBuffer pendingByteBuffer = this.pendingByteBuffer;
+        pendingByteBuffer.limit(pendingEntries * ENTRY_LENGTH).position(0);
+        try
+        {
+            long position = length;
+            while (pendingByteBuffer.hasRemaining())
+            {
+                position += channel.write(pendingByteBuffer, position);
+            }
+            length = position;
+
+            if (CommonConfiguration.FORCE_WRITES)
+            {
+                channel.force(false);
+            }
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+        finally
+        {
+            pendingByteBuffer.clear();
+            this.pendingEntries = 0;
+        }
+    }
+
+    boolean needsCompaction()
+    {
+        return length >= maxLength;
+    }
+
+    /**
+     * Discard all the entries, including pending ones. Should only be called once a snapshot containing them has been
+     * saved.
+     */
+    void truncate()
+    {
+        pendingEntries = 0;
+        if (length > 0)
+        {
+            try
+            {
+                channel.truncate(0);
+                length = 0;
+                if (CommonConfiguration.FORCE_WRITES)
+                {
+                    channel.force(false);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+    }
+
+    long length()
+    {
+        return length;
+    }
+
+    File file()
+    {
+        return file;
+    }
+
+    public void close()
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+    }
+
+    private int checksum(final UnsafeBuffer buffer, final int offset)
+    {
+        final CRC32 crc32 = this.crc32;
+        crc32.reset();
+        for (int i = offset, end = offset + CHECKSUM_OFFSET; i < end; i++)
+        {
+            crc32.update(buffer.getByte(i));
+        }
+        return (int)crc32.getValue();
+    }
+}
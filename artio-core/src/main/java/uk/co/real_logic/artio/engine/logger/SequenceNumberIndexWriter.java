@@ -118,6 +118,10 @@ public class SequenceNumberIndexWriter implements Index
     private final long indexFileStateFlushTimeoutInMs;
     private long lastUpdatedFileTimeInMs;
     private boolean hasSavedRecordSinceFileUpdate = false;
+    // Back off from compacting the journal after a failed attempt, rather than rewriting the file every duty cycle
+    private long nextCompactionTimeInMs;
+    // Only assigned once the journal has been replayed, so that recovered records aren't appended to it again
+    private SequenceNumberIndexJournal journal;
 
     public SequenceNumberIndexWriter(
         final SequenceNumberExtractor sequenceNumberExtractor,
@@ -132,7 +136,8 @@ public class SequenceNumberIndexWriter implements Index
         final Long2LongHashMap connectionIdToFixPSessionId,
         final FixPProtocolType fixPProtocolType,
         final boolean indexChecksumEnabled,
-        final boolean logMessages)
+        final boolean logMessages,
+        final SequenceNumberIndexJournal journal)
     {
         this.sequenceNumberExtractor = sequenceNumberExtractor;
         this.inMemoryBuffer = inMemoryBuffer;
@@ -159,6 +164,11 @@ public class SequenceNumberIndexWriter implements Index
         try
         {
             initialiseBuffer();
+            if (journal != null)
+            {
+                journal.replay(this::onJournalEntry);
+            }
+
             if (logMessages)
             {
                 positionWriter = new IndexedPositionWriter(
@@ -187,9 +197,11 @@ public class SequenceNumberIndexWriter implements Index
         catch (final Exception e)
         {
             CloseHelper.close(writableFile);
+            CloseHelper.close(journal);
             indexFile.close();
             throw e;
         }
+        this.journal = journal;
 
         reader = new SequenceNumberIndexReader(inMemoryBuffer, errorHandler, recordingIdLookup, metaDataDir);
         fixPSequenceIndexer = new FixPSequenceIndexer(
@@ -659,7 +671,18 @@ public class SequenceNumberIndexWriter implements Index
     {
         int work = positionWriter != null ? positionWriter.checkRecordings() : 0;
 
-        if (hasSavedRecordSinceFileUpdate)
+        final SequenceNumberIndexJournal journal = this.journal;
+        if (journal != null)
+        {
+            // Updates are durable once the journal is committed, so the index file only needs saving to compact it
+            work += journal.commitIfDue();
+            if (journal.needsCompaction() && clock.time() >= nextCompactionTimeInMs)
+            {
+                updateFile();
+                work++;
+            }
+        }
+        else if (hasSavedRecordSinceFileUpdate)
         {
             final long requiredUpdateTimeInMs = lastUpdatedFileTimeInMs + indexFileStateFlushTimeoutInMs;
             if (requiredUpdateTimeInMs < clock.time())
@@ -688,6 +711,10 @@ public class SequenceNumberIndexWriter implements Index
         initialiseBlankBuffer();
         recordOffsets.clear();
         resetMetaDataFile();
+        if (journal != null)
+        {
+            journal.truncate();
+        }
     }
 
     private void resetMetaDataFile()
@@ -730,9 +757,21 @@ public class SequenceNumberIndexWriter implements Index
             positionWriter.updateChecksums();
         }
         saveFile();
-        flipFiles();
+        final long timeInMs = clock.time();
+        if (flipFiles())
+        {
+            if (journal != null)
+            {
+                // The snapshot now contains every journalled update
+                journal.truncate();
+            }
+        }
+        else
+        {
+            nextCompactionTimeInMs = timeInMs + indexFileStateFlushTimeoutInMs;
+        }
         hasSavedRecordSinceFileUpdate = false;
-        lastUpdatedFileTimeInMs = clock.time();
+        lastUpdatedFileTimeInMs = timeInMs;
     }
 
     private void saveFile()
@@ -757,7 +796,7 @@ public class SequenceNumberIndexWriter implements Index
         }
     }
 
-    private void flipFiles()
+    private boolean flipFiles()
     {
         if (RUNNING_ON_WINDOWS)
         {
@@ -781,6 +820,8 @@ public class SequenceNumberIndexWriter implements Index
             writableFile = indexFile;
             indexFile = file;
         }
+
+        return flipsFiles;
     }
 
     private boolean rename(final Path src, final Path dest)
@@ -818,7 +859,7 @@ public class SequenceNumberIndexWriter implements Index
         }
         finally
         {
-            Exceptions.closeAll(indexFile, writableFile, reader, () ->
+            Exceptions.closeAll(indexFile, writableFile, reader, journal, () ->
             {
                 if (metaDataFile != null)
                 {
@@ -932,6 +973,7 @@ public class SequenceNumberIndexWriter implements Index
             {
                 putMessagePosition(recordOffset, messagePosition);
                 putSequenceNumber(recordOffset, newSequenceNumber);
+                journalUpdate(sessionId, newSequenceNumber, messagePosition);
                 hasSavedRecordSinceFileUpdate = true;
             }
         }
@@ -939,6 +981,7 @@ public class SequenceNumberIndexWriter implements Index
         {
             putMessagePosition(recordOffset, messagePosition);
             putSequenceNumber(recordOffset, newSequenceNumber);
+            journalUpdate(sessionId, newSequenceNumber, messagePosition);
             // When sequence number resets then old metadata has expired
             if (oldSequenceNumber > newSequenceNumber)
             {
@@ -981,6 +1024,54 @@ public class SequenceNumberIndexWriter implements Index
             .messagePosition(messagePosition);
         putSequenceNumber(position, sequenceNumber);
         putMetaDataField(position, NO_META_DATA);
+        journalUpdate(sessionId, sequenceNumber, messagePosition);
+    }
+
+    private void journalUpdate(final long sessionId, final int sequenceNumber, final long messagePosition)
+    {
+        final SequenceNumberIndexJournal journal = this.journal;
+        if (journal != null)
+        {
+            journal.append(sessionId, sequenceNumber, messagePosition);
+        }
+    }
+
+    private void onJournalEntry(final long sessionId, final int sequenceNumber, final long messagePosition)
+    {
+        if (recordOffsets.isEmpty())
+        {
+            indexExistingRecords();
+        }
+
+        // Entries can predate the snapshot if we stopped between saving it and truncating the journal
+        final int recordOffset = (int)recordOffsets.get(sessionId);
+        if (recordOffset == MISSING_RECORD || getMessagePosition(recordOffset) <= messagePosition)
+        {
+            saveRecord(sequenceNumber, sessionId, messagePosition, NO_REQUIRED_POSITION, false);
+        }
+    }
+
+    private void indexExistingRecords()
+    {
+        int position = SequenceNumberIndexDescriptor.HEADER_SIZE;
+        while (true)
+        {
+            position = checksumFramer.claim(position, RECORD_SIZE);
+            if (position == OUT_OF_SPACE)
+            {
+                return;
+            }
+
+            lastKnownDecoder.wrap(inMemoryBuffer, position, RECORD_SIZE, SCHEMA_VERSION);
+            final long sessionId = lastKnownDecoder.sessionId();
+            if (sessionId == 0)
+            {
+                return;
+            }
+
+            recordOffsets.put(sessionId, position);
+            position += RECORD_SIZE;
+        }
     }
 
     private void initialiseBuffer()
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static uk.co.real_logic.artio.engine.logger.SessionArchiveIndexWriter.*;
+
+/**
+ * Reads the index written by the {@link SessionArchiveIndexWriter} in order to find the position ranges of each
+ * recording that need to be scanned for a session's messages.
+ */
+class SessionArchiveIndexReader
+{
+    private final String logFileDir;
+    private final int streamId;
+
+    SessionArchiveIndexReader(final String logFileDir, final int streamId)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+    }
+
+    /**
+     * Find the position ranges for the session in the index query. Recordings that aren't in the index don't have
+     * an entry in the map and need to be scanned in full.
+     *
+     * @param indexQuery the query containing the session id and sequence number range.
+     * @param recordingIdToPositionRanges the map to add the sorted, non-overlapping, ranges of each recording to.
+     * @return true if the index could be read, false otherwise.
+     */
+    boolean findPositionRanges(
+        final IndexQuery indexQuery, final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges)
+    {
+        final File logDir = new File(logFileDir);
+        final String fileNamePrefix = FILE_NAME + streamId + "-";
+        if (!logDir.exists() || !logDir.isDirectory())
+        {
+            return false;
+        }
+
+        for (final String file : logDir.list())
+        {
+            if (file.startsWith(fileNamePrefix))
+            {
+                final long recordingId = Long.parseLong(file.substring(fileNamePrefix.length()));
+                final List<PositionRange> positionRanges = findPositionRanges(indexQuery, new File(logDir, file));
+                if (positionRanges != null)
+                {
+                    recordingIdToPositionRanges.put(recordingId, positionRanges);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private List<PositionRange> findPositionRanges(final IndexQuery indexQuery, final File file)
+    {
+        final long startPosition;
+        final long indexedPosition;
+        MappedByteBuffer mappedByteBuffer = LoggerUtil.mapExistingFile(file);
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(VERSION_OFFSET) != VERSION)
+            {
+                return null;
+            }
+
+            startPosition = buffer.getLong(START_POSITION_OFFSET);
+            indexedPosition = buffer.getLong(INDEXED_POSITION_OFFSET);
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+
+        if (startPosition == NO_POSITION)
+        {
+            return null;
+        }
+
+        final List<PositionRange> positionRanges = new ArrayList<>();
+
+        // Anything before the index was started or after the last flush hasn't been indexed
+        positionRanges.add(new PositionRange(0, startPosition));
+        positionRanges.add(new PositionRange(Math.max(startPosition, indexedPosition), Long.MAX_VALUE));
+
+        // Remapped after reading the header so that every entry written before the last flush is visible
+        mappedByteBuffer = LoggerUtil.mapExistingFile(file);
+        try
+        {
+            final long sessionId = indexQuery.sessionId();
+            final int beginSequenceNumberInclusive = indexQuery.beginSequenceNumberInclusive();
+            final int endSequenceNumberInclusive = indexQuery.endSequenceNumberInclusive();
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final int capacity = buffer.capacity();
+
+            for (int offset = HEADER_LENGTH; offset + ENTRY_LENGTH <= capacity; offset += ENTRY_LENGTH)
+            {
+                final long entrySessionId = buffer.getLong(offset + SESSION_ID_OFFSET);
+                final boolean matches = entrySessionId == ALL_SESSIONS || (entrySessionId == sessionId &&
+                    buffer.getInt(offset + BEGIN_SEQUENCE_NUMBER_OFFSET) <= endSequenceNumberInclusive &&
+                    buffer.getInt(offset + END_SEQUENCE_NUMBER_OFFSET) >= beginSequenceNumberInclusive);
+
+                if (matches)
+                {
+                    positionRanges.add(new PositionRange(
+                        buffer.getLong(offset + SPAN_START_POSITION_OFFSET),
+                        buffer.getLong(offset + SPAN_END_POSITION_OFFSET)));
+                }
+            }
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+
+        return merge(positionRanges);
+    }
+
+    static List<PositionRange> merge(final List<PositionRange> positionRanges)
+    {
+        positionRanges.sort(Comparator.comparingLong(PositionRange::startPosition));
+
+        final List<PositionRange> mergedRanges = new ArrayList<>();
+        PositionRange current = null;
+        for (final PositionRange range : positionRanges)
+        {
+            if (range.startPosition() >= range.endPosition())
+            {
+                continue;
+            }
+
+            if (current == null)
+            {
+                current = range;
+            }
+            else if (range.startPosition() <= current.endPosition())
+            {
+                if (range.endPosition() > current.endPosition())
+                {
+                    current = new PositionRange(current.startPosition(), range.endPosition());
+                }
+            }
+            else
+            {
+                mergedRanges.add(current);
+                current = range;
+            }
+        }
+
+        if (current != null)
+        {
+            mergedRanges.add(current);
+        }
+
+        return mergedRanges;
+    }
+}
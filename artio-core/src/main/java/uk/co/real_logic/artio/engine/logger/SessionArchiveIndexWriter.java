@@ -0,0 +1,414 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Writes an index, for each recording of a stream, of the position ranges that each session's messages were
+ * archived in. This lets the {@link FixArchiveScanner} only replay the parts of a recording that contain the
+ * session that it's querying for rather than the whole recording.
+ *
+ * Consecutive messages from a session are merged into a single span as long as they're within the max gap of each
+ * other and have the same sequence index, each span records the lowest and highest sequence number within it.
+ * Messages whose sequence number isn't known are given the whole range of sequence numbers. Spans are buffered in
+ * memory and written out, along with the position that the recording has been indexed up to, every flush interval
+ * in the same way as the {@link TimeIndexWriter}. If the engine stops without flushing its spans then the range between
+ * the last indexed position and the next record that is indexed is marked as containing all sessions.
+ */
+class SessionArchiveIndexWriter implements AutoCloseable
+{
+    static final String FILE_NAME = "session-archive-index-";
+
+    static final int VERSION = 1;
+    static final long ALL_SESSIONS = -1;
+    static final long NO_POSITION = -1;
+    static final int DEFAULT_MAX_GAP = 64 * 1024;
+    static final int NO_BEGIN_SEQUENCE_NUMBER = 0;
+    static final int NO_END_SEQUENCE_NUMBER = Integer.MAX_VALUE;
+
+    static final int VERSION_OFFSET = 0;
+    static final int START_POSITION_OFFSET = VERSION_OFFSET + SIZE_OF_LONG;
+    static final int INDEXED_POSITION_OFFSET = START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int HEADER_LENGTH = INDEXED_POSITION_OFFSET + SIZE_OF_LONG;
+
+    static final int SESSION_ID_OFFSET = 0;
+    static final int SPAN_START_POSITION_OFFSET = SESSION_ID_OFFSET + SIZE_OF_LONG;
+    static final int SPAN_END_POSITION_OFFSET = SPAN_START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int SEQUENCE_INDEX_OFFSET = SPAN_END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int BEGIN_SEQUENCE_NUMBER_OFFSET = SEQUENCE_INDEX_OFFSET + SIZE_OF_INT;
+    static final int END_SEQUENCE_NUMBER_OFFSET = BEGIN_SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+    static final int ENTRY_LENGTH = END_SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT + SIZE_OF_INT;
+
+    private static final int PENDING_ENTRIES = 1024;
+
+    static File fileLocation(final String logFileDir, final int streamId, final long recordingId)
+    {
+        return new File(logFileDir + File.separator + FILE_NAME + streamId + "-" + recordingId);
+    }
+
+    private final ByteBuffer pendingByteBuffer = ByteBuffer.allocateDirect(PENDING_ENTRIES * ENTRY_LENGTH);
+    private final UnsafeBuffer pendingBuffer = new UnsafeBuffer(pendingByteBuffer);
+    private final ByteBuffer headerByteBuffer = ByteBuffer.allocateDirect(HEADER_LENGTH);
+    private final UnsafeBuffer headerBuffer = new UnsafeBuffer(headerByteBuffer);
+
+    private final Long2ObjectHashMap<RecordingWriter> recordingIdToWriter = new Long2ObjectHashMap<>();
+    private final String logFileDir;
+    private final int streamId;
+    private final long indexFlushIntervalInNs;
+    private final int maxGap;
+    private final ErrorHandler errorHandler;
+
+    SessionArchiveIndexWriter(
+        final String logFileDir,
+        final int streamId,
+        final long indexFlushIntervalInNs,
+        final int maxGap,
+        final ErrorHandler errorHandler)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.indexFlushIntervalInNs = indexFlushIntervalInNs;
+        this.maxGap = maxGap;
+        this.errorHandler = errorHandler;
+    }
+
+    public void onRecord(
+        final long recordingId,
+        final long sessionId,
+        final long beginPosition,
+        final long endPosition,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final long timestampInNs)
+    {
+        RecordingWriter writer = recordingIdToWriter.get(recordingId);
+        if (writer == null)
+        {
+            writer = new RecordingWriter(recordingId);
+            recordingIdToWriter.put(recordingId, writer);
+        }
+        writer.onRecord(
+            sessionId,
+            beginPosition,
+            endPosition,
+            sequenceIndex,
+            beginSequenceNumber,
+            endSequenceNumber,
+            timestampInNs);
+    }
+
+    public int doWork()
+    {
+        int work = 0;
+        for (final RecordingWriter recordingWriter : recordingIdToWriter.values())
+        {
+            work += recordingWriter.doWork();
+        }
+        return work;
+    }
+
+    public void close()
+    {
+        recordingIdToWriter.values().forEach(RecordingWriter::close);
+        recordingIdToWriter.clear();
+    }
+
+    static final class Span
+    {
+        long startPosition = NO_POSITION;
+        long endPosition;
+        int sequenceIndex;
+        int beginSequenceNumber;
+        int endSequenceNumber;
+    }
+
+    class RecordingWriter
+    {
+        private final Long2ObjectHashMap<Span> sessionIdToSpan = new Long2ObjectHashMap<>();
+        private final FileChannel channel;
+
+        private int pendingEntries;
+        private long nextFlushInNs = 0;
+        private long timestampInNs;
+        private long startPosition = NO_POSITION;
+        private long indexedPosition = NO_POSITION;
+        private long unindexedFromPosition = NO_POSITION;
+        private boolean dirty;
+
+        RecordingWriter(final long recordingId)
+        {
+            final File file = fileLocation(logFileDir, streamId, recordingId);
+            final boolean exists = file.exists();
+            FileChannel channel = null;
+            try
+            {
+                channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+                if (exists && channel.size() >= HEADER_LENGTH)
+                {
+                    headerByteBuffer.clear();
+                    while (headerByteBuffer.hasRemaining())
+                    {
+                        if (channel.read(headerByteBuffer, headerByteBuffer.position()) < 0)
+                        {
+                            break;
+                        }
+                    }
+                    startPosition = headerBuffer.getLong(START_POSITION_OFFSET);
+                    indexedPosition = headerBuffer.getLong(INDEXED_POSITION_OFFSET);
+                    unindexedFromPosition = indexedPosition;
+                    // Discard any partially written trailing entry
+                    channel.truncate(HEADER_LENGTH + ((channel.size() - HEADER_LENGTH) / ENTRY_LENGTH) * ENTRY_LENGTH);
+                }
+                else
+                {
+                    channel.truncate(0);
+                    writeHeader(channel);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+            this.channel = channel;
+        }
+
+        void onRecord(
+            final long sessionId,
+            final long beginPosition,
+            final long endPosition,
+            final int sequenceIndex,
+            final int beginSequenceNumber,
+            final int endSequenceNumber,
+            final long timestampInNs)
+        {
+            if (startPosition == NO_POSITION)
+            {
+                startPosition = beginPosition;
+            }
+
+            final long unindexedFromPosition = this.unindexedFromPosition;
+            if (unindexedFromPosition != NO_POSITION)
+            {
+                if (beginPosition > unindexedFromPosition)
+                {
+                    append(
+                        ALL_SESSIONS,
+                        unindexedFromPosition,
+                        beginPosition,
+                        0,
+                        NO_BEGIN_SEQUENCE_NUMBER,
+                        NO_END_SEQUENCE_NUMBER);
+                }
+                this.unindexedFromPosition = NO_POSITION;
+            }
+
+            Span span = sessionIdToSpan.get(sessionId);
+            if (span == null)
+            {
+                span = new Span();
+                sessionIdToSpan.put(sessionId, span);
+            }
+
+            if (span.startPosition != NO_POSITION)
+            {
+                if (beginPosition - span.endPosition <= maxGap && sequenceIndex == span.sequenceIndex)
+                {
+                    span.endPosition = Math.max(span.endPosition, endPosition);
+                    span.beginSequenceNumber = Math.min(span.beginSequenceNumber, beginSequenceNumber);
+                    span.endSequenceNumber = Math.max(span.endSequenceNumber, endSequenceNumber);
+                    onIndexed(endPosition, timestampInNs);
+                    return;
+                }
+
+                append(sessionId, span);
+            }
+
+            span.startPosition = beginPosition;
+            span.endPosition = endPosition;
+            span.sequenceIndex = sequenceIndex;
+            span.beginSequenceNumber = beginSequenceNumber;
+            span.endSequenceNumber = endSequenceNumber;
+            onIndexed(endPosition, timestampInNs);
+        }
+
+        private void onIndexed(final long endPosition, final long timestampInNs)
+        {
+            if (endPosition > indexedPosition)
+            {
+                indexedPosition = endPosition;
+            }
+            if (timestampInNs > this.timestampInNs)
+            {
+                this.timestampInNs = timestampInNs;
+            }
+            dirty = true;
+        }
+
+        int doWork()
+        {
+            final long timestampInNs = this.timestampInNs;
+            if (dirty && timestampInNs > nextFlushInNs)
+            {
+                flush();
+                nextFlushInNs = timestampInNs + indexFlushIntervalInNs;
+                return 1;
+            }
+            return 0;
+        }
+
+        private void flush()
+        {
+            final Long2ObjectHashMap<Span>.EntryIterator it = sessionIdToSpan.entrySet().iterator();
+            while (it.hasNext())
+            {
+                it.next();
+                final Span span = it.getValue();
+                if (span.startPosition != NO_POSITION)
+                {
+                    append(it.getLongKey(), span);
+                    span.startPosition = NO_POSITION;
+                }
+            }
+
+            writePending();
+
+            final FileChannel channel = this.channel;
+            if (channel != null)
+            {
+                writeHeader(channel);
+            }
+            dirty = false;
+        }
+
+        private void append(final long sessionId, final Span span)
+        {
+            append(
+                sessionId,
+                span.startPosition,
+                span.endPosition,
+                span.sequenceIndex,
+                span.beginSequenceNumber,
+                span.endSequenceNumber);
+        }
+
+        private void append(
+            final long sessionId,
+            final long startPosition,
+            final long endPosition,
+            final int sequenceIndex,
+            final int beginSequenceNumber,
+            final int endSequenceNumber)
+        {
+            final UnsafeBuffer pendingBuffer = SessionArchiveIndexWriter.this.pendingBuffer;
+            final int offset = pendingEntries * ENTRY_LENGTH;
+            pendingBuffer.putLong(offset + SESSION_ID_OFFSET, sessionId);
+            pendingBuffer.putLong(offset + SPAN_START_POSITION_OFFSET, startPosition);
+            pendingBuffer.putLong(offset + SPAN_END_POSITION_OFFSET, endPosition);
+            pendingBuffer.putInt(offset + SEQUENCE_INDEX_OFFSET, sequenceIndex);
+            pendingBuffer.putInt(offset + BEGIN_SEQUENCE_NUMBER_OFFSET, beginSequenceNumber);
+            pendingBuffer.putInt(offset + END_SEQUENCE_NUMBER_OFFSET, endSequenceNumber);
+
+            if (++pendingEntries == PENDING_ENTRIES)
+            {
+                writePending();
+            }
+        }
+
+        private void writePending()
+        {
+            final int pendingEntries = this.pendingEntries;
+            final FileChannel channel = this.channel;
+            if (pendingEntries == 0 || channel == null)
+            {
+                this.pendingEntries = 0;
+                return;
+            }
+
+            final ByteBuffer pendingByteBuffer = SessionArchiveIndexWriter.this.pendingByteBuffer;
+            pendingByteBuffer.limit(pendingEntries * ENTRY_LENGTH).position(0);
+            try
+            {
+                long position = channel.size();
+                while (pendingByteBuffer.hasRemaining())
+                {
+                    position += channel.write(pendingByteBuffer, position);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+            finally
+            {
+                pendingByteBuffer.clear();
+                this.pendingEntries = 0;
+            }
+        }
+
+        private void writeHeader(final FileChannel channel)
+        {
+            headerBuffer.setMemory(0, HEADER_LENGTH, (byte)0);
+            headerBuffer.putInt(VERSION_OFFSET, VERSION);
+            headerBuffer.putLong(START_POSITION_OFFSET, startPosition);
+            headerBuffer.putLong(INDEXED_POSITION_OFFSET, indexedPosition);
+            headerByteBuffer.clear();
+            try
+            {
+                while (headerByteBuffer.hasRemaining())
+                {
+                    channel.write(headerByteBuffer, headerByteBuffer.position());
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+
+        void close()
+        {
+            flush();
+            try
+            {
+                if (channel != null)
+                {
+                    channel.force(true);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+            Exceptions.closeAll(channel);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.AtomicBuffer;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.BitUtil.findNextPositivePowerOfTwo;
+
+/**
+ * A sparse index over a single session's replay index, stored in a file next to its segment files.
+ *
+ * An entry maps a sequence number and sequence index to the position of its first record in the replay index ring.
+ * The entries are written every interval sequence numbers and at the start of every sequence index, so they're
+ * ordered by both position and sequence number. Queries binary search them for the last entry before the start of
+ * their range and then only have to scan the replay index from that entry's position onwards.
+ *
+ * The entries are themselves stored in a ring that's large enough to cover the replay index ring. If sequence
+ * numbers ever go backwards within the replay index, all the existing entries are invalidated so that the
+ * remaining ones are still ordered, and the highest sequence number seen so far is recorded. Queries that start at
+ * or below it fall back to scanning the whole replay index since earlier records may also be in their range.
+ *
+ * Written by the {@link ReplayIndex} and read concurrently by {@link ReplayQuery} instances, readers check that the
+ * entry they found wasn't overwritten while they were searching.
+ */
+final class SparseReplayIndex
+{
+    static final long NO_POSITION = -1;
+
+    private static final int MIN_CAPACITY = 64;
+
+    private static final int CAPACITY_OFFSET = 0;
+    private static final int INTERVAL_OFFSET = CAPACITY_OFFSET + SIZE_OF_INT;
+    private static final int ENTRY_COUNT_OFFSET = INTERVAL_OFFSET + SIZE_OF_INT;
+    private static final int VALID_FROM_OFFSET = ENTRY_COUNT_OFFSET + SIZE_OF_LONG;
+    private static final int INVALID_SEQUENCE_INDEX_OFFSET = VALID_FROM_OFFSET + SIZE_OF_LONG;
+    private static final int INVALID_SEQUENCE_NUMBER_OFFSET = INVALID_SEQUENCE_INDEX_OFFSET + SIZE_OF_INT;
+    static final int HEADER_LENGTH = 32;
+
+    private static final int POSITION_OFFSET = 0;
+    private static final int SEQUENCE_INDEX_OFFSET = POSITION_OFFSET + SIZE_OF_LONG;
+    private static final int SEQUENCE_NUMBER_OFFSET = SEQUENCE_INDEX_OFFSET + SIZE_OF_INT;
+    static final int ENTRY_LENGTH = SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+
+    private final AtomicBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int interval;
+
+    // Writer state
+    private long entryCount;
+    private boolean hasEntry;
+    private int lastEntrySequenceIndex;
+    private int lastEntrySequenceNumber;
+    private boolean hasRecord;
+    private int lastSequenceIndex;
+    private int lastSequenceNumber;
+    private int invalidSequenceIndex;
+    private int invalidSequenceNumber;
+
+    SparseReplayIndex(final AtomicBuffer buffer)
+    {
+        this.buffer = buffer;
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+        mask = capacity - 1;
+        interval = buffer.getInt(INTERVAL_OFFSET);
+    }
+
+    static int capacity(final int indexFileCapacity, final int interval)
+    {
+        // Doubled in order to leave room for the entries at the start of each sequence index
+        return Math.max(MIN_CAPACITY, 2 * findNextPositivePowerOfTwo(Math.max(1, indexFileCapacity / interval)));
+    }
+
+    static int fileSize(final int capacity)
+    {
+        return HEADER_LENGTH + capacity * ENTRY_LENGTH;
+    }
+
+    static boolean isInitialised(final AtomicBuffer buffer, final int capacity, final int interval)
+    {
+        return buffer.getInt(CAPACITY_OFFSET) == capacity && buffer.getInt(INTERVAL_OFFSET) == interval;
+    }
+
+    static void initialise(final AtomicBuffer buffer, final int capacity, final int interval)
+    {
+        buffer.setMemory(0, HEADER_LENGTH, (byte)0);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(INTERVAL_OFFSET, interval);
+    }
+
+    // Called on the writer when opening an existing index with the last record written to the replay index.
+    void onOpen(final int sequenceIndex, final int sequenceNumber)
+    {
+        entryCount = buffer.getLong(ENTRY_COUNT_OFFSET);
+        invalidSequenceIndex = buffer.getInt(INVALID_SEQUENCE_INDEX_OFFSET);
+        invalidSequenceNumber = buffer.getInt(INVALID_SEQUENCE_NUMBER_OFFSET);
+        final long validFrom = Math.max(buffer.getLong(VALID_FROM_OFFSET), entryCount - capacity + 1);
+        if (validFrom < entryCount)
+        {
+            final int offset = entryOffset(entryCount - 1);
+            hasEntry = true;
+            lastEntrySequenceIndex = buffer.getInt(offset + SEQUENCE_INDEX_OFFSET);
+            lastEntrySequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+        }
+
+        hasRecord = true;
+        lastSequenceIndex = sequenceIndex;
+        lastSequenceNumber = sequenceNumber;
+    }
+
+    void onRecord(final long position, final int sequenceIndex, final int sequenceNumber)
+    {
+        if (hasRecord && compare(sequenceIndex, sequenceNumber, lastSequenceIndex, lastSequenceNumber) < 0)
+        {
+            if (compare(lastSequenceIndex, lastSequenceNumber, invalidSequenceIndex, invalidSequenceNumber) > 0)
+            {
+                invalidSequenceIndex = lastSequenceIndex;
+                invalidSequenceNumber = lastSequenceNumber;
+                buffer.putInt(INVALID_SEQUENCE_INDEX_OFFSET, invalidSequenceIndex);
+                buffer.putInt(INVALID_SEQUENCE_NUMBER_OFFSET, invalidSequenceNumber);
+            }
+            buffer.putLongOrdered(VALID_FROM_OFFSET, entryCount);
+            hasEntry = false;
+        }
+
+        hasRecord = true;
+        lastSequenceIndex = sequenceIndex;
+        lastSequenceNumber = sequenceNumber;
+
+        if (!hasEntry || sequenceIndex != lastEntrySequenceIndex ||
+            sequenceNumber - lastEntrySequenceNumber >= interval)
+        {
+            final long entryCount = this.entryCount;
+            final int offset = entryOffset(entryCount);
+            buffer.putLong(offset + POSITION_OFFSET, position);
+            buffer.putInt(offset + SEQUENCE_INDEX_OFFSET, sequenceIndex);
+            buffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putLongOrdered(ENTRY_COUNT_OFFSET, entryCount + 1);
+
+            this.entryCount = entryCount + 1;
+            hasEntry = true;
+            lastEntrySequenceIndex = sequenceIndex;
+            lastEntrySequenceNumber = sequenceNumber;
+        }
+    }
+
+    /**
+     * Find the position in the replay index ring to start scanning from in order to find the given sequence number.
+     *
+     * @param sequenceIndex the sequence index of the start of the range being queried.
+     * @param sequenceNumber the sequence number of the start of the range being queried.
+     * @return the position of the last entry before the given sequence number or {@link #NO_POSITION} if there isn't
+     * one.
+     */
+    long startPosition(final int sequenceIndex, final int sequenceNumber)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        final long validFrom = buffer.getLongVolatile(VALID_FROM_OFFSET);
+        if (compare(
+            sequenceIndex,
+            sequenceNumber,
+            buffer.getInt(INVALID_SEQUENCE_INDEX_OFFSET),
+            buffer.getInt(INVALID_SEQUENCE_NUMBER_OFFSET)) <= 0)
+        {
+            return NO_POSITION;
+        }
+
+        final long entryCount = buffer.getLongVolatile(ENTRY_COUNT_OFFSET);
+        long low = Math.max(validFrom, entryCount - capacity + 1);
+        long high = entryCount - 1;
+
+        long found = -1;
+        long foundPosition = NO_POSITION;
+        while (low <= high)
+        {
+            final long middle = (low + high) >>> 1;
+            final int offset = entryOffset(middle);
+            final int entrySequenceIndex = buffer.getInt(offset + SEQUENCE_INDEX_OFFSET);
+            final int entrySequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+            if (compare(entrySequenceIndex, entrySequenceNumber, sequenceIndex, sequenceNumber) < 0)
+            {
+                found = middle;
+                foundPosition = buffer.getLong(offset + POSITION_OFFSET);
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        if (found == -1)
+        {
+            return NO_POSITION;
+        }
+
+        // Check that the entry wasn't overwritten or invalidated by the writer while we were reading it.
+        final long latestEntryCount = buffer.getLongVolatile(ENTRY_COUNT_OFFSET);
+        if (found + capacity <= latestEntryCount || validFrom != buffer.getLongVolatile(VALID_FROM_OFFSET))
+        {
+            return NO_POSITION;
+        }
+
+        return foundPosition;
+    }
+
+    private int entryOffset(final long entryNumber)
+    {
+        return HEADER_LENGTH + (int)(entryNumber & mask) * ENTRY_LENGTH;
+    }
+
+    private static int compare(
+        final int sequenceIndex, final int sequenceNumber, final int otherSequenceIndex, final int otherSequenceNumber)
+    {
+        final int compareSequenceIndex = Integer.compare(sequenceIndex, otherSequenceIndex);
+        return compareSequenceIndex != 0 ? compareSequenceIndex : Integer.compare(sequenceNumber, otherSequenceNumber);
+    }
+}
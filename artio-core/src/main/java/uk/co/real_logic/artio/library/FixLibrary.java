@@ -82,7 +82,7 @@ public class FixLibrary extends GatewayProcess
             scheduler.configure(configuration.aeronContext());
             init(configuration, configuration.libraryId());
             final LibraryTimers timers = new LibraryTimers(
-                configuration.epochNanoClock(), fixCounters.negativeTimestamps());
+                configuration.epochNanoClock(), fixCounters.negativeTimestamps(), configuration.disabledTimers());
             initMonitoringAgent(timers.all(), configuration, null, null);
 
             final LibraryTransport transport = new LibraryTransport(configuration, fixCounters, aeron);
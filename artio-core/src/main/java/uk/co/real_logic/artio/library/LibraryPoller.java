@@ -139,6 +139,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final SessionIdStrategy sessionIdStrategy;
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer handlerTimer;
+    private final Timer encodeTimer;
+    private final Timer outboundPublishTimer;
     private final SessionExistsHandler sessionExistsHandler;
     private final boolean enginesAreClustered;
     private final ErrorHandler errorHandler;
@@ -246,6 +249,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
         this.sessionTimer = timers.sessionTimer();
         this.receiveTimer = timers.receiveTimer();
+        this.handlerTimer = timers.handlerTimer();
+        this.encodeTimer = timers.encodeTimer();
+        this.outboundPublishTimer = timers.outboundPublishTimer();
 
         this.configuration = configuration;
         this.sessionIdStrategy = configuration.sessionIdStrategy();
@@ -2200,6 +2206,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             session,
             receiveTimer,
             sessionTimer,
+            handlerTimer,
             this,
             configuration.replyTimeoutInMs(),
             errorHandler);
@@ -2257,6 +2264,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             disconnectOnFirstMessageNotLogon,
             formatters);
         session.fixDictionary(fixDictionary);
+        session.messageTimers(encodeTimer, outboundPublishTimer);
         session.initialLastReceivedMsgSeqNum(initialReceivedSequenceNumber - 1);
 
         return session;
@@ -2337,6 +2345,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             true,
             formatters);
         session.fixDictionary(fixDictionary);
+        session.messageTimers(encodeTimer, outboundPublishTimer);
         session.address(address);
         return session;
     }
@@ -15,12 +15,17 @@
  */
 package uk.co.real_logic.artio.library;
 
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageStatus;
 
 public class OnMessageInfo
 {
+    public static final int UNKNOWN_BODY_OFFSET = -1;
+
     private MessageStatus status;
     private boolean isValid;
+    private SessionHeaderDecoder header;
+    private int bodyOffset = UNKNOWN_BODY_OFFSET;
 
     public OnMessageInfo status(final MessageStatus status)
     {
@@ -34,6 +39,13 @@ public class OnMessageInfo
         return this;
     }
 
+    public OnMessageInfo decodedHeader(final SessionHeaderDecoder header, final int bodyOffset)
+    {
+        this.header = header;
+        this.bodyOffset = bodyOffset;
+        return this;
+    }
+
     public MessageStatus status()
     {
         return status;
@@ -43,4 +55,29 @@ public class OnMessageInfo
     {
         return isValid;
     }
+
+    /**
+     * Gets the header of the current message as it has already been decoded by the session, so that it doesn't need
+     * to be decoded again. Only valid for the duration of the callback that the message is passed to.
+     *
+     * @return the decoded header or null if the session didn't decode the header of the current message, for
+     * example for session level messages or messages that are being replayed.
+     */
+    public SessionHeaderDecoder header()
+    {
+        return header;
+    }
+
+    /**
+     * Gets the offset within the message's buffer of the first field after its header, this can be passed to
+     * the <code>decodeBodyFrom()</code> method of a generated decoder in order to decode the message without
+     * decoding its header again.
+     *
+     * @return the offset of the body or {@link #UNKNOWN_BODY_OFFSET} if the session didn't decode the header of the
+     * current message.
+     */
+    public int bodyOffset()
+    {
+        return bodyOffset;
+    }
 }
@@ -43,6 +43,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
     private final InternalSession session;
     private final Timer receiveTimer;
     private final Timer sessionTimer;
+    private final Timer handlerTimer;
     private final LibraryPoller libraryPoller;
     private final long replyTimeoutInMs;
     private final ErrorHandler errorHandler;
@@ -58,6 +59,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         final InternalSession session,
         final Timer receiveTimer,
         final Timer sessionTimer,
+        final Timer handlerTimer,
         final LibraryPoller libraryPoller,
         final long replyTimeoutInMs,
         final ErrorHandler errorHandler)
@@ -67,6 +69,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         this.session = session;
         this.receiveTimer = receiveTimer;
         this.sessionTimer = sessionTimer;
+        this.handlerTimer = handlerTimer;
         this.libraryPoller = libraryPoller;
         this.replyTimeoutInMs = replyTimeoutInMs;
         this.errorHandler = errorHandler;
@@ -100,6 +103,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                     if (userAbortedLastMessage)
                     {
                         // Don't re-run the parser / session handling logic if you're on the retry path
+                        final long handlerStartTime = handlerTimer.startTime();
                         final Action handlerAction = handler.onMessage(
                             buffer,
                             offset,
@@ -111,6 +115,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                             timestamp,
                             position,
                             info);
+                        handlerTimer.recordSince(handlerStartTime);
 
                         if (handlerAction != ABORT)
                         {
@@ -131,6 +136,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
 
                         lastReceivedPosition = position;
 
+                        final long handlerStartTime = handlerTimer.startTime();
                         final Action handlerAction = handler.onMessage(
                             buffer,
                             offset,
@@ -142,6 +148,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                             timestamp,
                             position,
                             info);
+                        handlerTimer.recordSince(handlerStartTime);
 
                         if (handlerAction == ABORT)
                         {
@@ -156,7 +163,9 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                     }
 
                 case CATCHUP_REPLAY:
-                    return handler.onMessage(
+                    info.decodedHeader(null, OnMessageInfo.UNKNOWN_BODY_OFFSET);
+                    final long handlerStartTime = handlerTimer.startTime();
+                    final Action handlerAction = handler.onMessage(
                         buffer,
                         offset,
                         length,
@@ -167,6 +176,8 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                         timestamp,
                         position,
                         info);
+                    handlerTimer.recordSince(handlerStartTime);
+                    return handlerAction;
 
                 default:
                     return CONTINUE;
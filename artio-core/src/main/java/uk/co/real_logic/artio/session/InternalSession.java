@@ -27,6 +27,7 @@ import uk.co.real_logic.artio.messages.ConnectionType;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.EpochFractionClock;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -130,6 +131,11 @@ public class InternalSession extends Session implements AutoCloseable
         super.sessionProcessHandler(fixSessionOwner);
     }
 
+    public void messageTimers(final Timer encodeTimer, final Timer publishTimer)
+    {
+        super.messageTimers(encodeTimer, publishTimer);
+    }
+
     public void address(final String address)
     {
         final ParsedAddress parsed = ParsedAddress.parse(address);
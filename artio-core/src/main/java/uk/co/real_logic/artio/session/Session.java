@@ -24,6 +24,7 @@ import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.*;
 import uk.co.real_logic.artio.builder.AbstractRejectEncoder;
 import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.MessageTemplate;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.AbstractResendRequestDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
@@ -38,6 +39,7 @@ import uk.co.real_logic.artio.library.OnMessageInfo;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.NotConnectedException;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.EpochFractionClock;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -134,6 +136,9 @@ public class Session
     private final BooleanSupplier saveSeqIndexSyncFunc = this::saveSeqIndexSync;
     private final Formatters formatters;
     private boolean initiatorResetSeqNum;
+    // Only sessions that are owned by a library time their messages, null otherwise
+    private Timer encodeTimer;
+    private Timer publishTimer;
 
     private CompositeKey sessionKey;
     private SessionState state;
@@ -661,6 +666,12 @@ public class Session
     public int prepare(final SessionHeaderEncoder header)
     {
         final int sentSeqNum = newSentSeqNum();
+        prepare(header, sentSeqNum);
+        return sentSeqNum;
+    }
+
+    private void prepare(final SessionHeaderEncoder header, final int sentSeqNum)
+    {
         header
             .msgSeqNum(sentSeqNum)
             .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(epochFractionClock.epochFractionTime()));
@@ -676,6 +687,47 @@ public class Session
         }
 
         customisationStrategy.configureHeader(header, id);
+    }
+
+    /**
+     * Create a template of a message to be sent on this session. The header of the encoder is setup in the same way
+     * as {@link #prepare(SessionHeaderEncoder)} does, without using a sequence number, so the header fields other
+     * than MsgSeqNum, SendingTime and LastMsgSeqNumProcessed are fixed when the template is created.
+     *
+     * Each slot starts off with the value of its field on the encoder, padded to the width of the slot, so values only
+     * need to be put into the slots that differ from it. Character fields whose value isn't as wide as their slot are
+     * filled with zeros instead.
+     *
+     * @param encoder the encoder of the message, with every field other than the header's set.
+     * @param fields the slots of the fields that vary between sends.
+     * @return the template of the message.
+     * @throws IllegalArgumentException if a field isn't set on the encoder or its value doesn't fit its slot.
+     * @see MessageTemplate
+     * @see #trySend(MessageTemplate)
+     */
+    public MessageTemplate newMessageTemplate(final Encoder encoder, final MessageTemplate.Field... fields)
+    {
+        prepare(encoder.header(), 1);
+        return new MessageTemplate(encoder, asciiBuffer, fields);
+    }
+
+    /**
+     * Prepare the header fields of a template with session state.
+     *
+     * @param template the template of the message.
+     * @return the sent sequence number for the template.
+     */
+    public int prepare(final MessageTemplate template)
+    {
+        final int sentSeqNum = newSentSeqNum();
+        template
+            .msgSeqNum(sentSeqNum)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(epochFractionClock.epochFractionTime()));
+
+        if (enableLastMsgSeqNumProcessed)
+        {
+            template.lastMsgSeqNumProcessed(lastMsgSeqNumProcessed);
+        }
 
         return sentSeqNum;
     }
@@ -722,9 +774,16 @@ public class Session
         final DirectBuffer metaDataBuffer,
         final int metaDataUpdateOffset)
     {
+        final Timer encodeTimer = this.encodeTimer;
+        final long encodeStartTime = encodeTimer == null ? 0 : encodeTimer.startTime();
+
         final int sentSeqNum = prepare(encoder.header());
 
         final long result = encoder.encode(asciiBuffer, 0);
+        if (encodeTimer != null)
+        {
+            encodeTimer.recordSince(encodeStartTime);
+        }
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
         final long type = encoder.messageType();
@@ -732,6 +791,31 @@ public class Session
         return trySend(asciiBuffer, offset, length, sentSeqNum, type, metaDataBuffer, metaDataUpdateOffset);
     }
 
+    /**
+     * Tries to send a message from a template on this session, after its varying fields have been put into it. See
+     * {{@link #trySend(Encoder)}} for scenarios where this could fail.
+     *
+     * @param template the template of the message to be sent, created by
+     *                 {@link #newMessageTemplate(Encoder, MessageTemplate.Field...)}.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     */
+    public long trySend(final MessageTemplate template)
+    {
+        final Timer encodeTimer = this.encodeTimer;
+        final long encodeStartTime = encodeTimer == null ? 0 : encodeTimer.startTime();
+
+        final int sentSeqNum = prepare(template);
+        if (encodeTimer != null)
+        {
+            encodeTimer.recordSince(encodeStartTime);
+        }
+
+        return trySend(template.buffer(), 0, template.length(), sentSeqNum, template.messageType());
+    }
+
     /**
      * Tries to send a message on this session. See {{@link #trySend(Encoder)}} for scenarios where this could fail.
      *
@@ -779,9 +863,15 @@ public class Session
         // If someone attempts to send a message during a logon / logout or offline then we should archive the message
         // but not send it.
         final long connectionId = this.state == ACTIVE ? this.connectionId : NO_CONNECTION_ID;
+        final Timer publishTimer = this.publishTimer;
+        final long publishStartTime = publishTimer == null ? 0 : publishTimer.startTime();
         final long position = outboundPublication.saveMessage(
             messageBuffer, offset, length, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum,
             metaDataBuffer, metaDataUpdateOffset);
+        if (publishTimer != null && position > 0)
+        {
+            publishTimer.recordSince(publishStartTime);
+        }
 
         if (position > 0)
         {
@@ -2557,6 +2647,12 @@ public class Session
         cancelOnDisconnect.enqueueTask(fixSessionOwner::enqueueTask);
     }
 
+    void messageTimers(final Timer encodeTimer, final Timer publishTimer)
+    {
+        this.encodeTimer = encodeTimer;
+        this.publishTimer = publishTimer;
+    }
+
     void logoutRejectReason(final int logoutRejectReason)
     {
         this.logoutRejectReason = logoutRejectReason;
@@ -18,20 +18,98 @@ package uk.co.real_logic.artio.timing;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.status.AtomicCounter;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * The timers for each stage that a message passes through in the engine.
+ *
+ * Inbound messages are timed from when they're read from the socket until they're framed by the
+ * {@link #frameTimer()} and then until they're published to the libraries by the {@link #inboundPublishTimer()}.
+ * Outbound messages are timed from when they're published by the library until they're polled by the Framer by the
+ * {@link #outboundTimer()} and then until they're written to the socket by the {@link #sendTimer()}.
+ */
 public class EngineTimers
 {
+    public static final String OUTBOUND = "Outbound";
+    public static final String SEND = "Send";
+    public static final String FRAME = "Frame";
+    public static final String INBOUND_PUBLISH = "InboundPublish";
+    public static final String INBOUND_INDEX_LAG = "InboundIndexLag";
+    public static final String OUTBOUND_INDEX_LAG = "OutboundIndexLag";
+    public static final String REPLAY = "Replay";
+
     private final Timer outboundTimer;
     private final Timer sendTimer;
-    private final List<Timer> timers;
+    private final Timer frameTimer;
+    private final Timer inboundPublishTimer;
+    private final Timer inboundIndexLagTimer;
+    private final Timer outboundIndexLagTimer;
+    private final Timer[] replayTimers;
+    private final List<Timer> timers = new ArrayList<>();
 
     public EngineTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
-        outboundTimer = new Timer(clock, "Outbound", 1, negativeTimestamps);
-        sendTimer = new Timer(clock, "Send", 2, negativeTimestamps);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        this(clock, negativeTimestamps, Collections.emptySet(), 1);
+    }
+
+    /**
+     * Create the engine's timers.
+     *
+     * @param clock the clock that timestamps are taken from.
+     * @param negativeTimestamps the counter that's incremented when a negative duration is recorded.
+     * @param disabledTimers the names of the timers that shouldn't record anything.
+     * @param replayerWorkerCount the number of replayer workers, each of which gets its own replay timer as
+     *                            timers only support a single recording thread.
+     */
+    public EngineTimers(
+        final EpochNanoClock clock,
+        final AtomicCounter negativeTimestamps,
+        final Set<String> disabledTimers,
+        final int replayerWorkerCount)
+    {
+        outboundTimer = newTimer(clock, OUTBOUND, 1, negativeTimestamps, disabledTimers);
+        sendTimer = newTimer(clock, SEND, 2, negativeTimestamps, disabledTimers);
+        frameTimer = newTimer(clock, FRAME, 3, negativeTimestamps, disabledTimers);
+        inboundPublishTimer = newTimer(clock, INBOUND_PUBLISH, 4, negativeTimestamps, disabledTimers);
+        inboundIndexLagTimer = newTimer(clock, INBOUND_INDEX_LAG, 5, negativeTimestamps, disabledTimers);
+        outboundIndexLagTimer = newTimer(clock, OUTBOUND_INDEX_LAG, 6, negativeTimestamps, disabledTimers);
+
+        // Every worker's timer is disabled together by the REPLAY name, so their ids come last
+        final boolean replayEnabled = !disabledTimers.contains(REPLAY);
+        replayTimers = new Timer[replayerWorkerCount];
+        for (int i = 0; i < replayerWorkerCount; i++)
+        {
+            final String name = i == 0 ? REPLAY : REPLAY + "-" + i;
+            replayTimers[i] = newTimer(clock, name, 7 + i, negativeTimestamps, replayEnabled);
+        }
+    }
+
+    private Timer newTimer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final Set<String> disabledTimers)
+    {
+        return newTimer(clock, name, id, negativeTimestamps, !disabledTimers.contains(name));
+    }
+
+    private Timer newTimer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final boolean enabled)
+    {
+        final Timer timer = new Timer(clock, name, id, negativeTimestamps, enabled);
+        if (enabled)
+        {
+            timers.add(timer);
+        }
+        return timer;
     }
 
     public Timer outboundTimer()
@@ -44,6 +122,36 @@ public class EngineTimers
         return sendTimer;
     }
 
+    public Timer frameTimer()
+    {
+        return frameTimer;
+    }
+
+    public Timer inboundPublishTimer()
+    {
+        return inboundPublishTimer;
+    }
+
+    public Timer inboundIndexLagTimer()
+    {
+        return inboundIndexLagTimer;
+    }
+
+    public Timer outboundIndexLagTimer()
+    {
+        return outboundIndexLagTimer;
+    }
+
+    public Timer replayTimer(final int workerIndex)
+    {
+        return replayTimers[workerIndex];
+    }
+
+    /**
+     * Get the timers that are enabled, and so are logged.
+     *
+     * @return the timers that are enabled.
+     */
     public List<Timer> all()
     {
         return timers;
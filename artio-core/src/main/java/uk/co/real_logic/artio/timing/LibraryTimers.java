@@ -18,20 +18,71 @@ package uk.co.real_logic.artio.timing;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.status.AtomicCounter;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * The timers for each stage that a message passes through in a library.
+ *
+ * Inbound messages are timed from when they're read from the socket by the engine until they're polled by the
+ * library by the {@link #receiveTimer()} and then until the session and the application's handler have processed
+ * them by the {@link #sessionTimer()}, the application's handler alone is timed by the {@link #handlerTimer()}.
+ * Outbound messages sent from an encoder are timed whilst they're encoded by the {@link #encodeTimer()} and whilst
+ * they're published to the engine by the {@link #outboundPublishTimer()}.
+ */
 public class LibraryTimers
 {
+    public static final String SESSION = "Session";
+    public static final String RECEIVE = "Receive";
+    public static final String HANDLER = "Handler";
+    public static final String ENCODE = "Encode";
+    public static final String OUTBOUND_PUBLISH = "OutboundPublish";
+
     private final Timer sessionTimer;
     private final Timer receiveTimer;
-    private final List<Timer> timers;
+    private final Timer handlerTimer;
+    private final Timer encodeTimer;
+    private final Timer outboundPublishTimer;
+    private final List<Timer> timers = new ArrayList<>();
 
     public LibraryTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
-        sessionTimer = new Timer(clock, "Session", -1, negativeTimestamps);
-        receiveTimer = new Timer(clock, "Receive", -2, negativeTimestamps);
-        timers = Arrays.asList(sessionTimer, receiveTimer);
+        this(clock, negativeTimestamps, Collections.emptySet());
+    }
+
+    /**
+     * Create the library's timers.
+     *
+     * @param clock the clock that timestamps are taken from.
+     * @param negativeTimestamps the counter that's incremented when a negative duration is recorded.
+     * @param disabledTimers the names of the timers that shouldn't record anything.
+     */
+    public LibraryTimers(
+        final EpochNanoClock clock, final AtomicCounter negativeTimestamps, final Set<String> disabledTimers)
+    {
+        sessionTimer = newTimer(clock, SESSION, -1, negativeTimestamps, disabledTimers);
+        receiveTimer = newTimer(clock, RECEIVE, -2, negativeTimestamps, disabledTimers);
+        handlerTimer = newTimer(clock, HANDLER, -3, negativeTimestamps, disabledTimers);
+        encodeTimer = newTimer(clock, ENCODE, -4, negativeTimestamps, disabledTimers);
+        outboundPublishTimer = newTimer(clock, OUTBOUND_PUBLISH, -5, negativeTimestamps, disabledTimers);
+    }
+
+    private Timer newTimer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final Set<String> disabledTimers)
+    {
+        final boolean enabled = !disabledTimers.contains(name);
+        final Timer timer = new Timer(clock, name, id, negativeTimestamps, enabled);
+        if (enabled)
+        {
+            timers.add(timer);
+        }
+        return timer;
     }
 
     public Timer sessionTimer()
@@ -44,6 +95,26 @@ public class LibraryTimers
         return receiveTimer;
     }
 
+    public Timer handlerTimer()
+    {
+        return handlerTimer;
+    }
+
+    public Timer encodeTimer()
+    {
+        return encodeTimer;
+    }
+
+    public Timer outboundPublishTimer()
+    {
+        return outboundPublishTimer;
+    }
+
+    /**
+     * Get the timers that are enabled, and so are logged.
+     *
+     * @return the timers that are enabled.
+     */
     public List<Timer> all()
     {
         return timers;
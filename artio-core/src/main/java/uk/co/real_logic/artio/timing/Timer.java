@@ -33,30 +33,67 @@ public class Timer
     private final EpochNanoClock clock;
     private final int id;
     private final String name;
+    private final boolean enabled;
     // Only accessed upon logging thread
     private Histogram histogram;
 
     public Timer(final EpochNanoClock clock, final String name, final int id, final AtomicCounter negativeTimestamps)
+    {
+        this(clock, name, id, negativeTimestamps, true);
+    }
+
+    public Timer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final boolean enabled)
     {
         this.clock = clock;
         this.name = name;
         this.id = id;
         this.negativeTimestamps = negativeTimestamps;
+        this.enabled = enabled;
     }
 
+    /**
+     * Record the time since a timestamp if this timer is enabled.
+     *
+     * @param timestamp the time at which the stage being measured started.
+     * @return the current time so that the next stage can be timed from it, this is returned even if this timer is
+     *         disabled, or 0 if message timing is disabled.
+     */
     public long recordSince(final long timestamp)
     {
         if (TIME_MESSAGES)
         {
             final long time = clock.nanoTime();
-            final long duration = time - timestamp;
-            recordValue(duration);
+            if (enabled)
+            {
+                final long duration = time - timestamp;
+                recordValue(duration);
+            }
             return time;
         }
 
         return 0;
     }
 
+    /**
+     * Get the time at which a stage that's measured by this timer starts.
+     *
+     * @return the current time, or 0 if this timer isn't recording.
+     */
+    public long startTime()
+    {
+        return isEnabled() ? clock.nanoTime() : 0;
+    }
+
+    public boolean isEnabled()
+    {
+        return TIME_MESSAGES && enabled;
+    }
+
     void recordValue(final long duration)
     {
         if (duration > 0)
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
+
+public class DefaultEngineSchedulerTest
+{
+    private final Map<Agent, Thread> agentThreads = new ConcurrentHashMap<>();
+    private final EngineConfiguration configuration = mock(EngineConfiguration.class);
+    private final ErrorHandler mockErrorHandler = mock(ErrorHandler.class);
+    private final RecordingCoordinator recordingCoordinator = mock(RecordingCoordinator.class);
+
+    private Agent framer;
+    private Agent indexingAgent;
+    private Agent inboundIndexingAgent;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(configuration.framerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.archiverIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.inboundIndexingIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.threadFactory()).thenReturn(Thread::new);
+
+        framer = threadRecordingAgent("framer");
+        indexingAgent = threadRecordingAgent("indexing");
+        inboundIndexingAgent = threadRecordingAgent("inbound-indexing");
+    }
+
+    @Test
+    public void shouldRunInboundIndexingAgentOnItsOwnThread()
+    {
+        try (EngineScheduler scheduler = new DefaultEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                mockErrorHandler,
+                framer,
+                indexingAgent,
+                inboundIndexingAgent,
+                null,
+                null,
+                recordingCoordinator);
+
+            awaitAgentsInvoked();
+
+            final Thread inboundIndexingThread = agentThreads.get(inboundIndexingAgent);
+            assertNotSame(agentThreads.get(indexingAgent), inboundIndexingThread);
+            assertNotSame(agentThreads.get(framer), inboundIndexingThread);
+        }
+
+        verify(inboundIndexingAgent).onClose();
+    }
+
+    @Test
+    public void shouldRunInboundIndexingAgentWithIndexingAgentWhenSchedulerDoesNotSeparateIt()
+    {
+        try (EngineScheduler scheduler = new LowResourceEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                mockErrorHandler,
+                framer,
+                indexingAgent,
+                inboundIndexingAgent,
+                null,
+                null,
+                recordingCoordinator);
+
+            awaitAgentsInvoked();
+
+            assertSame(agentThreads.get(indexingAgent), agentThreads.get(inboundIndexingAgent));
+        }
+    }
+
+    private Agent threadRecordingAgent(final String roleName) throws Exception
+    {
+        final Agent agent = mock(Agent.class);
+        when(agent.roleName()).thenReturn(roleName);
+        when(agent.doWork()).then(
+            (inv) ->
+            {
+                agentThreads.putIfAbsent(agent, Thread.currentThread());
+                return 0;
+            });
+        return agent;
+    }
+
+    private void awaitAgentsInvoked()
+    {
+        assertEventuallyTrue(
+            "Failed to invoke agents",
+            () -> agentThreads.containsKey(framer) &&
+            agentThreads.containsKey(indexingAgent) &&
+            agentThreads.containsKey(inboundIndexingAgent));
+    }
+}
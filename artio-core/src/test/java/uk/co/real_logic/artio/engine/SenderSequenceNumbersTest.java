@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.engine.SenderSequenceNumbers.UNKNOWN_SESSION;
+
+public class SenderSequenceNumbersTest
+{
+    private static final int WORKER_COUNT = 2;
+    private static final long EVEN_CONNECTION_ID = 4;
+    private static final long ODD_CONNECTION_ID = 5;
+
+    private final AtomicCounter bytesInBuffer = mock(AtomicCounter.class);
+    private final ReplayerCommandQueue[] queues = new ReplayerCommandQueue[WORKER_COUNT];
+    private final SenderSequenceNumbers[] workers = new SenderSequenceNumbers[WORKER_COUNT];
+    private final SenderSequenceNumbers senderSequenceNumbers;
+
+    public SenderSequenceNumbersTest()
+    {
+        for (int i = 0; i < WORKER_COUNT; i++)
+        {
+            queues[i] = new ReplayerCommandQueue(NoOpIdleStrategy.INSTANCE);
+            workers[i] = new SenderSequenceNumbers(queues[i]);
+        }
+        senderSequenceNumbers = new SenderSequenceNumbers(workers);
+    }
+
+    @Test
+    public void shouldRouteNewSendersToTheWorkerThatOwnsTheirConnection()
+    {
+        senderSequenceNumbers.onNewSender(EVEN_CONNECTION_ID, bytesInBuffer).onNewMessage(3);
+        senderSequenceNumbers.onNewSender(ODD_CONNECTION_ID, bytesInBuffer).onNewMessage(7);
+
+        assertEquals(1, queues[0].poll());
+        assertEquals(1, queues[1].poll());
+
+        assertEquals(3, workers[0].lastSentSequenceNumber(EVEN_CONNECTION_ID));
+        assertEquals(UNKNOWN_SESSION, workers[0].lastSentSequenceNumber(ODD_CONNECTION_ID));
+        assertEquals(7, workers[1].lastSentSequenceNumber(ODD_CONNECTION_ID));
+        assertEquals(UNKNOWN_SESSION, workers[1].lastSentSequenceNumber(EVEN_CONNECTION_ID));
+    }
+
+    @Test
+    public void shouldRouteClosedSendersToTheSameWorker()
+    {
+        final SenderSequenceNumber sender = senderSequenceNumbers.onNewSender(ODD_CONNECTION_ID, bytesInBuffer);
+        sender.close();
+
+        assertEquals(0, queues[0].poll());
+        assertEquals(2, queues[1].poll());
+
+        assertTrue(workers[1].hasDisconnected(ODD_CONNECTION_ID));
+        assertNull(workers[1].bytesInBufferCounter(ODD_CONNECTION_ID));
+    }
+
+    @Test
+    public void shouldAssignEveryConnectionIdToAWorker()
+    {
+        assertEquals(0, SenderSequenceNumbers.workerIndex(EVEN_CONNECTION_ID, WORKER_COUNT));
+        assertEquals(1, SenderSequenceNumbers.workerIndex(ODD_CONNECTION_ID, WORKER_COUNT));
+        assertEquals(0, SenderSequenceNumbers.workerIndex(ODD_CONNECTION_ID, 1));
+
+        final int workerIndex = SenderSequenceNumbers.workerIndex(-1, 3);
+        assertTrue(workerIndex >= 0 && workerIndex < 3);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class StartupPhasesTest
+{
+    @Test
+    public void shouldRunPhasesInOrderOnCallingThreadWhenNotParallel()
+    {
+        final StartupPhases startupPhases = new StartupPhases(false, "", Thread::new);
+        final Thread callingThread = Thread.currentThread();
+        final Thread[] phaseThreads = new Thread[2];
+
+        startupPhases.start("a", () -> phaseThreads[0] = Thread.currentThread());
+        assertSame(callingThread, phaseThreads[0]);
+
+        final Supplier<String> result = startupPhases.start("b", () ->
+        {
+            phaseThreads[1] = Thread.currentThread();
+            return "b";
+        });
+        assertSame(callingThread, phaseThreads[1]);
+        assertEquals("b", result.get());
+
+        startupPhases.awaitCompletion();
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldRunStartedPhasesConcurrentlyWhenParallel() throws InterruptedException
+    {
+        final StartupPhases startupPhases = new StartupPhases(true, "", Thread::new);
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final Thread[] phaseThreads = new Thread[2];
+
+        // Each phase waits for the other to start, so this only completes if they run concurrently
+        startupPhases.start("a", () ->
+        {
+            phaseThreads[0] = Thread.currentThread();
+            awaitOther(bothStarted);
+        });
+        final Supplier<String> result = startupPhases.start("b", () ->
+        {
+            phaseThreads[1] = Thread.currentThread();
+            awaitOther(bothStarted);
+            return "b";
+        });
+
+        startupPhases.awaitCompletion();
+
+        assertEquals("b", result.get());
+        assertNotSame(Thread.currentThread(), phaseThreads[0]);
+        assertNotSame(Thread.currentThread(), phaseThreads[1]);
+        assertNotSame(phaseThreads[0], phaseThreads[1]);
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldCreateParallelPhaseThreadsWithThreadFactory()
+    {
+        final ThreadGroup threadGroup = new ThreadGroup("startup");
+        final StartupPhases startupPhases = new StartupPhases(
+            true, "prefix-", (runnable) -> new Thread(threadGroup, runnable));
+        final ThreadGroup[] phaseThreadGroup = new ThreadGroup[1];
+        final String[] phaseThreadName = new String[1];
+
+        // A thread's group is only available while it's alive
+        startupPhases.start("a", () ->
+        {
+            phaseThreadGroup[0] = Thread.currentThread().getThreadGroup();
+            phaseThreadName[0] = Thread.currentThread().getName();
+        });
+        startupPhases.awaitCompletion();
+
+        assertSame(threadGroup, phaseThreadGroup[0]);
+        assertEquals("prefix-startup-a", phaseThreadName[0]);
+    }
+
+    @Test
+    public void shouldRethrowErrorOfParallelPhaseWhenAwaitingCompletion()
+    {
+        final StartupPhases startupPhases = new StartupPhases(true, "", Thread::new);
+        final IllegalStateException firstError = new IllegalStateException("first");
+        final IllegalStateException secondError = new IllegalStateException("second");
+
+        startupPhases.start("a", () ->
+        {
+            throw firstError;
+        });
+        startupPhases.start("b", () -> {});
+        startupPhases.start("c", () ->
+        {
+            throw secondError;
+        });
+
+        try
+        {
+            startupPhases.awaitCompletion();
+            fail("Expected the first phase's error");
+        }
+        catch (final IllegalStateException e)
+        {
+            assertSame(firstError, e);
+            assertThat(e.getSuppressed(), arrayContaining(secondError));
+        }
+    }
+
+    @Test
+    public void shouldAddErrorsOfPhasesToStartupFailure()
+    {
+        final StartupPhases startupPhases = new StartupPhases(true, "", Thread::new);
+        final IllegalStateException phaseError = new IllegalStateException("phase");
+        final RuntimeException failure = new RuntimeException("failure");
+
+        startupPhases.start("a", () ->
+        {
+            throw phaseError;
+        });
+
+        startupPhases.awaitCompletion(failure);
+
+        assertThat(failure.getSuppressed(), arrayContaining(phaseError));
+    }
+
+    @Test
+    public void shouldRecordTimeOfEachPhaseAndTotal()
+    {
+        final FixCounters fixCounters = mock(FixCounters.class);
+        final AtomicCounter counter = mock(AtomicCounter.class);
+        when(fixCounters.startupPhaseTimeInNs(anyString())).thenReturn(counter);
+
+        final StartupPhases startupPhases = new StartupPhases(true, "", Thread::new);
+        final Integer result = startupPhases.run(StartupPhases.SEQUENCE_NUMBER_INDEX_LOAD, () -> 1);
+        startupPhases.start(StartupPhases.INBOUND_INDEX_CATCHUP, () -> {});
+        startupPhases.awaitCompletion();
+
+        startupPhases.recordTimes(fixCounters);
+
+        assertEquals(1, (int)result);
+        verify(fixCounters).startupPhaseTimeInNs(StartupPhases.SEQUENCE_NUMBER_INDEX_LOAD);
+        verify(fixCounters).startupPhaseTimeInNs(StartupPhases.INBOUND_INDEX_CATCHUP);
+        verify(fixCounters).startupPhaseTimeInNs(StartupPhases.TOTAL);
+        verify(counter, times(3)).set(anyLong());
+    }
+
+    private static void awaitOther(final CountDownLatch bothStarted)
+    {
+        bothStarted.countDown();
+        try
+        {
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.decoder.AbstractLogonDecoder;
+import uk.co.real_logic.artio.validation.AuthenticationProxy;
+import uk.co.real_logic.artio.validation.AuthenticationStrategy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class AuthenticationExecutorTest
+{
+    private static final long STRATEGY_TIMEOUT_IN_MS = 10;
+    private static final long VERIFY_TIMEOUT_IN_MS = 5_000;
+
+    private final AbstractLogonDecoder logon = mock(AbstractLogonDecoder.class);
+    private final AuthenticationExecutor.PendingAuthentication pendingAuthentication =
+        mock(AuthenticationExecutor.PendingAuthentication.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final AtomicCounter queueDepth = mock(AtomicCounter.class);
+    private final AtomicCounter latencyInNs = mock(AtomicCounter.class);
+    private final AtomicCounter timeouts = mock(AtomicCounter.class);
+    private final AtomicCounter queueFullRejects = mock(AtomicCounter.class);
+
+    private AuthenticationExecutor executor;
+
+    @After
+    public void close()
+    {
+        executor.close();
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldHandStrategyResultToPendingLogon()
+    {
+        newExecutor(1, (logon, authProxy) -> authProxy.accept());
+
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+
+        verify(pendingAuthentication, timeout(VERIFY_TIMEOUT_IN_MS)).accept();
+        verify(latencyInNs).setOrdered(anyLong());
+        verify(queueDepth).setOrdered(1);
+
+        assertEquals(1, executor.poll(0));
+        verify(queueDepth).setOrdered(0);
+        verify(pendingAuthentication, never()).onAuthenticationTimeout();
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldHandStrategyErrorToPendingLogon()
+    {
+        final IllegalStateException error = new IllegalStateException("strategy");
+        newExecutor(1, (logon, authProxy) ->
+        {
+            throw error;
+        });
+
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+
+        verify(pendingAuthentication, timeout(VERIFY_TIMEOUT_IN_MS)).onAuthenticationError(error);
+        verify(pendingAuthentication, never()).reject();
+    }
+
+    @Test
+    public void shouldRejectLogonWhenQueueIsFull()
+    {
+        // No workers so nothing is taken off the queue
+        newExecutor(0, (logon, authProxy) -> fail("Should not be authenticated"));
+
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+        assertFalse(executor.submit(logon, pendingAuthentication, 0));
+
+        verify(queueFullRejects).increment();
+    }
+
+    @Test
+    public void shouldTimeoutLogonsThatAreNotAuthenticatedInTime()
+    {
+        newExecutor(0, (logon, authProxy) -> fail("Should not be authenticated"));
+
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+        assertTrue(executor.submit(logon, pendingAuthentication, 1));
+
+        assertEquals(0, executor.poll(STRATEGY_TIMEOUT_IN_MS - 1));
+        verify(pendingAuthentication, never()).onAuthenticationTimeout();
+
+        assertEquals(1, executor.poll(STRATEGY_TIMEOUT_IN_MS));
+        verify(pendingAuthentication).onAuthenticationTimeout();
+        verify(timeouts).increment();
+
+        assertEquals(1, executor.poll(STRATEGY_TIMEOUT_IN_MS + 1));
+        verify(pendingAuthentication, times(2)).onAuthenticationTimeout();
+        verify(timeouts, times(2)).increment();
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldNotHandStrategyResultToPendingLogonAfterTimeout() throws InterruptedException
+    {
+        final CountDownLatch authenticating = new CountDownLatch(1);
+        final AtomicReference<AuthenticationProxy> proxy = new AtomicReference<>();
+        newExecutor(1, (logon, authProxy) ->
+        {
+            proxy.set(authProxy);
+            authenticating.countDown();
+        });
+
+        assertTrue(executor.submit(logon, pendingAuthentication, 0));
+        assertTrue(authenticating.await(VERIFY_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, executor.poll(STRATEGY_TIMEOUT_IN_MS));
+        verify(pendingAuthentication).onAuthenticationTimeout();
+
+        try
+        {
+            proxy.get().accept();
+            fail("Expected accept() to fail after the timeout");
+        }
+        catch (final IllegalStateException e)
+        {
+            verify(pendingAuthentication, never()).accept();
+        }
+    }
+
+    private void newExecutor(final int workerCount, final AsyncStrategy strategy)
+    {
+        executor = new AuthenticationExecutor(
+            strategy,
+            workerCount,
+            2,
+            STRATEGY_TIMEOUT_IN_MS,
+            new OffsetEpochNanoClock(),
+            Thread::new,
+            "",
+            errorHandler,
+            queueDepth,
+            latencyInNs,
+            timeouts,
+            queueFullRejects);
+    }
+
+    interface AsyncStrategy extends AuthenticationStrategy
+    {
+        void authenticateAsync(AbstractLogonDecoder logon, AuthenticationProxy authProxy);
+
+        default boolean authenticate(final AbstractLogonDecoder logon)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.engine.framer.CompositeKeyIndex.MISSING_SESSION_ID;
+
+public class CompositeKeyIndexTest
+{
+    private final SessionIdStrategy idStrategy = SessionIdStrategy.senderAndTarget();
+    private final UnsafeBuffer keyBuffer = new UnsafeBuffer(new byte[1024]);
+    private final CompositeKeyIndex index = new CompositeKeyIndex();
+
+    @Test
+    public void shouldNotFindMissingKey()
+    {
+        assertEquals(MISSING_SESSION_ID, get("a", "b"));
+    }
+
+    @Test
+    public void shouldFindIndexedKeys()
+    {
+        put("a", "b", 1);
+        put("b", "a", 2);
+
+        assertEquals(1, get("a", "b"));
+        assertEquals(2, get("b", "a"));
+        assertEquals(MISSING_SESSION_ID, get("a", "a"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void shouldReplaceSessionIdOfExistingKey()
+    {
+        put("a", "b", 1);
+        put("a", "b", 3);
+
+        assertEquals(3, get("a", "b"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void shouldFindKeysAfterResizing()
+    {
+        final int sessionCount = 10_000;
+        for (int i = 1; i <= sessionCount; i++)
+        {
+            put("acceptor", "initiator" + i, i);
+        }
+
+        for (int i = 1; i <= sessionCount; i++)
+        {
+            assertEquals(i, get("acceptor", "initiator" + i));
+        }
+        assertEquals(sessionCount, index.size());
+    }
+
+    @Test
+    public void shouldNotFindKeysAfterClearing()
+    {
+        put("a", "b", 1);
+
+        index.clear();
+
+        assertEquals(MISSING_SESSION_ID, get("a", "b"));
+        assertEquals(0, index.size());
+
+        put("b", "a", 2);
+        assertEquals(2, get("b", "a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotIndexMissingSessionId()
+    {
+        put("a", "b", MISSING_SESSION_ID);
+    }
+
+    private void put(final String localCompId, final String remoteCompId, final long sessionId)
+    {
+        index.put(keyBuffer, 0, encode(localCompId, remoteCompId), sessionId);
+    }
+
+    private long get(final String localCompId, final String remoteCompId)
+    {
+        return index.get(keyBuffer, 0, encode(localCompId, remoteCompId));
+    }
+
+    private int encode(final String localCompId, final String remoteCompId)
+    {
+        final CompositeKey key = idStrategy.onInitiateLogon(localCompId, null, null, remoteCompId, null, null);
+        return idStrategy.save(key, keyBuffer, 0);
+    }
+}
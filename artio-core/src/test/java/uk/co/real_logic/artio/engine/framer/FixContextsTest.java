@@ -288,7 +288,7 @@ public class FixContextsTest
 
         // Restart with compaction
         fixContexts = newSessionContexts(buffer);
-        final SessionContext reloadedAContext = fixContexts.lookupById(sessionIdA).getValue();
+        final SessionContext reloadedAContext = fixContexts.lookupById(sessionIdA);
         assertEquals(fixtDictionary.getClass(), reloadedAContext.lastFixDictionary().getClass());
         final int filePosition3 = fixContexts.filePosition();
         assertThat(filePosition3, lessThan(filePosition2));
@@ -316,7 +316,7 @@ public class FixContextsTest
         // Check that reloaded information is read
         final FixContexts fixContexts2 = newSessionContexts(oldBuffer);
         assertThat(fixContexts2.allSessions(), hasSize(1));
-        final SessionContext newContext = fixContexts2.lookupById(context.sessionId()).getValue();
+        final SessionContext newContext = fixContexts2.lookupById(context.sessionId());
         assertEquals(fixtDictionary.getClass(), newContext.lastFixDictionary().getClass());
     }
 
@@ -72,23 +72,30 @@ public class FixSenderEndPointTest
     private final ReproductionLogWriter reproductionLogWriter = mock(ReproductionLogWriter.class);
     private final UnsafeBuffer inboundBuffer = new UnsafeBuffer(new byte[INBOUND_BUFFER_LEN]);
     private final FixReceiverEndPoint receiverEndPoint = mock(FixReceiverEndPoint.class);
-    private final FixSenderEndPoint endPoint = new FixSenderEndPoint(
-        CONNECTION_ID,
-        LIBRARY_ID,
-        inboundPublication,
-        reproductionLogWriter,
-        tcpChannel,
-        bytesInBuffer,
-        invalidLibraryAttempts,
-        errorHandler,
-        framer,
-        MAX_BYTES_IN_BUFFER,
-        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
-        0,
-        senderSequenceNumber,
-        messageTimingHandler,
-        receiverEndPoint,
-        new FixSenderEndPoint.Formatters());
+    private final FixSenderEndPoint endPoint = newEndPoint(false);
+    private final FixSenderEndPoint gatheringEndPoint = newEndPoint(true);
+
+    private FixSenderEndPoint newEndPoint(final boolean gatheringWrites)
+    {
+        return new FixSenderEndPoint(
+            CONNECTION_ID,
+            LIBRARY_ID,
+            inboundPublication,
+            reproductionLogWriter,
+            tcpChannel,
+            bytesInBuffer,
+            invalidLibraryAttempts,
+            errorHandler,
+            framer,
+            MAX_BYTES_IN_BUFFER,
+            DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+            0,
+            senderSequenceNumber,
+            messageTimingHandler,
+            receiverEndPoint,
+            new FixSenderEndPoint.Formatters(),
+            gatheringWrites);
+    }
 
     @Before
     public void setup()
@@ -123,6 +130,73 @@ public class FixSenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldCoalesceStagedMessagesIntoSingleGatheringWrite() throws IOException
+    {
+        gatheringChannelWillWrite(2 * BODY_LENGTH);
+
+        onGatheringOutboundMessage(1);
+        onGatheringOutboundMessage(2);
+        assertEquals(2, gatheringEndPoint.stagedMessageCount());
+        verify(tcpChannel, never()).write(any(ByteBuffer[].class), any(int[].class), anyInt(), anyInt());
+
+        gatheringEndPoint.flushStagedWrites();
+
+        final ArgumentCaptor<int[]> seqNums = ArgumentCaptor.forClass(int[].class);
+        verify(tcpChannel).write(any(ByteBuffer[].class), seqNums.capture(), eq(0), eq(2));
+        assertEquals(1, seqNums.getValue()[0]);
+        assertEquals(2, seqNums.getValue()[1]);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class), anyInt(), anyBoolean());
+        verify(messageTimingHandler).onMessage(eq(1L), eq(CONNECTION_ID), any(), anyInt(), anyInt());
+        verify(messageTimingHandler).onMessage(eq(2L), eq(CONNECTION_ID), any(), anyInt(), anyInt());
+        assertEquals(0, gatheringEndPoint.stagedMessageCount());
+        assertFalse(gatheringEndPoint.requiresRetry());
+        assertEquals(0, bytesInBuffer.get());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldReattemptUnwrittenMessagesAfterPartialGatheringWrite()
+    {
+        final int firstWrites = 41;
+        gatheringChannelWillWrite(BODY_LENGTH + firstWrites);
+
+        onGatheringOutboundMessage(1);
+        onGatheringOutboundMessage(2);
+        gatheringEndPoint.flushStagedWrites();
+
+        verify(messageTimingHandler).onMessage(eq(1L), eq(CONNECTION_ID), any(), anyInt(), anyInt());
+        assertTrue(gatheringEndPoint.requiresRetry());
+        assertEquals(firstWrites, gatheringEndPoint.reattemptBytesWritten());
+        assertEquals(BODY_LENGTH + ENQ_MESSAGE_BLOCK_LEN, bytesInBuffer.get());
+
+        channelWillWrite(BODY_LENGTH - firstWrites);
+        gatheringEndPoint.poll(0);
+
+        verify(messageTimingHandler).onMessage(eq(2L), eq(CONNECTION_ID), any(), anyInt(), anyInt());
+        assertFalse(gatheringEndPoint.requiresRetry());
+        assertEquals(0, bytesInBuffer.get());
+        verifyNoMoreErrors();
+    }
+
+    private void onGatheringOutboundMessage(final int sequenceNumber)
+    {
+        gatheringEndPoint.onOutboundMessage(
+            LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, sequenceNumber, 0, 0L, 0, 0);
+    }
+
+    private void gatheringChannelWillWrite(final long bytes)
+    {
+        try
+        {
+            when(tcpChannel.write(any(ByteBuffer[].class), any(int[].class), anyInt(), anyInt())).thenReturn(bytes);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
     private void assertReattemptBytesWritten(final int firstWrites)
     {
         assertEquals(firstWrites, endPoint.reattemptBytesWritten());
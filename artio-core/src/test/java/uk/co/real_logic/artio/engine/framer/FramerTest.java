@@ -183,7 +183,7 @@ public class FramerTest
             mock(AdminReplyPublication.class),
             mockEndPointFactory,
             outboundLibrarySubscription,
-            replayImage,
+            new Image[]{ replayImage },
             replayQuery,
             mock(GatewayPublication.class),
             inboundPublication,
@@ -203,7 +203,7 @@ public class FramerTest
             mock(CountersReader.class),
             2,
             1,
-            mock(FixCounters.class),
+            mock(FixCounters.class, RETURNS_MOCKS),
             mock(SenderSequenceNumbers.class),
             mock(AgentInvoker.class),
             null);
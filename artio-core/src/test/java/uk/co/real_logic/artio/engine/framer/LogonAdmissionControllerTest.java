@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LogonAdmissionControllerTest
+{
+    private final AtomicCounter pendingLogons = mock(AtomicCounter.class);
+    private final AtomicCounter deferredPolls = mock(AtomicCounter.class);
+    private final AtomicCounter addressRejects = mock(AtomicCounter.class);
+
+    @Test
+    public void shouldLimitNewConnectionsPerPoll()
+    {
+        final LogonAdmissionController controller = newController(4, 10, 10);
+
+        assertEquals(4, controller.newConnectionLimit());
+        verify(deferredPolls, never()).increment();
+    }
+
+    @Test
+    public void shouldDeferNewConnectionsWhenTooManyLogonsArePending()
+    {
+        final LogonAdmissionController controller = newController(4, 5, 10);
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(controller.admit(i, "/127.0.0." + i + ":1000"));
+        }
+        assertEquals(2, controller.newConnectionLimit());
+
+        assertTrue(controller.admit(3, "/127.0.0.3:1000"));
+        assertTrue(controller.admit(4, "/127.0.0.4:1000"));
+        assertEquals(0, controller.newConnectionLimit());
+        verify(deferredPolls).increment();
+        verify(pendingLogons).setOrdered(5);
+
+        controller.onLogonComplete(0);
+        assertEquals(1, controller.newConnectionLimit());
+        verify(pendingLogons).setOrdered(4);
+    }
+
+    @Test
+    public void shouldRejectConnectionsFromAddressWithTooManyPendingLogons()
+    {
+        final LogonAdmissionController controller = newController(4, 10, 2);
+
+        assertTrue(controller.admit(1, "/10.0.0.1:1000"));
+        assertTrue(controller.admit(2, "/10.0.0.1:1001"));
+        assertFalse(controller.admit(3, "/10.0.0.1:1002"));
+        verify(addressRejects).increment();
+
+        assertTrue(controller.admit(4, "/10.0.0.2:1000"));
+
+        controller.onLogonComplete(1);
+        assertTrue(controller.admit(5, "/10.0.0.1:1003"));
+        assertEquals(3, controller.pendingLogonCount());
+    }
+
+    @Test
+    public void shouldIgnoreCompletionOfConnectionsThatWereNotAdmitted()
+    {
+        final LogonAdmissionController controller = newController(4, 10, 1);
+
+        assertTrue(controller.admit(1, "/10.0.0.1:1000"));
+        controller.onLogonComplete(1);
+        controller.onLogonComplete(1);
+        controller.onLogonComplete(2);
+
+        assertEquals(0, controller.pendingLogonCount());
+        assertTrue(controller.admit(3, "/10.0.0.1:1001"));
+    }
+
+    private LogonAdmissionController newController(
+        final int maxNewConnectionsPerPoll, final int maxPendingLogons, final int maxPendingLogonsPerAddress)
+    {
+        return new LogonAdmissionController(
+            maxNewConnectionsPerPoll,
+            maxPendingLogons,
+            maxPendingLogonsPerAddress,
+            pendingLogons,
+            deferredPolls,
+            addressRejects);
+    }
+}
@@ -38,6 +38,7 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.InternalSession;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -159,7 +160,9 @@ class ReceiverEndPointTest
             new FixReceiverEndPoint.FixReceiverEndPointFormatters(),
             NO_THROTTLE_WINDOW,
             NO_THROTTLE_WINDOW,
-            false);
+            false,
+            mock(Timer.class),
+            mock(Timer.class));
         endPoint.gatewaySession(gatewaySession);
     }
 
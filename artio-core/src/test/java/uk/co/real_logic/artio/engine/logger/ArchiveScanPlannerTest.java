@@ -46,4 +46,46 @@ public class ArchiveScanPlannerTest
         assertEquals(epochStartTimeInNs, indexQuery.beginTimestampInclusive());
         assertEquals(epochEndTimeInNs, indexQuery.endTimestampExclusive());
     }
+
+    @Test
+    public void shouldGenerateSessionPlan()
+    {
+        final long sessionId = 3;
+        final FixMessagePredicate predicate = sessionOf(sessionId).and(sequenceNumberBetween(5, 10));
+        final FixMessageConsumer consumer = (message, buffer, offset, length, header) ->
+        {
+        };
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(filterBy(consumer, predicate));
+        assertTrue(indexQuery.hasSession());
+        assertFalse(indexQuery.hasTimeRange());
+        assertEquals(sessionId, indexQuery.sessionId());
+        assertEquals(5, indexQuery.beginSequenceNumberInclusive());
+        assertEquals(10, indexQuery.endSequenceNumberInclusive());
+    }
+
+    @Test
+    public void shouldNotNarrowScanForEitherOfTwoSessions()
+    {
+        final FixMessagePredicate predicate = sessionOf(3).or(sessionOf(4));
+        final FixMessageConsumer consumer = (message, buffer, offset, length, header) ->
+        {
+        };
+
+        assertNull(ArchiveScanPlanner.extractIndexQuery(filterBy(consumer, predicate)));
+    }
+
+    @Test
+    public void shouldOnlyNarrowScanByConjunctionOutsideOfOr()
+    {
+        final long epochStartTimeInNs = 100;
+        final FixMessagePredicate predicate = from(epochStartTimeInNs).and(sessionOf(3).or(sessionOf(4)));
+        final FixMessageConsumer consumer = (message, buffer, offset, length, header) ->
+        {
+        };
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(filterBy(consumer, predicate));
+        assertFalse(indexQuery.hasSession());
+        assertEquals(epochStartTimeInNs, indexQuery.beginTimestampInclusive());
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.ControlledFragmentAssembler;
+import io.aeron.FragmentAssembler;
+import io.aeron.logbuffer.Header;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.engine.logger.ArchiveScanWorker.SCAN_BUFFER_CAPACITY;
+import static uk.co.real_logic.artio.messages.MessageHeaderDecoder.ENCODED_LENGTH;
+
+public class ArchiveScanWorkerTest
+{
+    private static final int LARGE_MESSAGE_LENGTH = SCAN_BUFFER_CAPACITY / 4;
+    private static final int SMALL_MESSAGE_LENGTH = 128;
+
+    private final List<UnsafeBuffer> scannedMessages = new ArrayList<>();
+    private final FragmentAssembler fragmentAssembler = new FragmentAssembler(
+        (buffer, offset, length, header) ->
+        {
+            final UnsafeBuffer message = new UnsafeBuffer(new byte[length]);
+            message.putBytes(0, buffer, offset, length);
+            scannedMessages.add(message);
+        });
+
+    private final ArchiveScanWorker worker = new ArchiveScanWorker(0, (fixMessage) -> true);
+
+    @Test
+    public void shouldHandOffMessagesLargerThanRingBufferInOrder()
+    {
+        final List<UnsafeBuffer> messages = new ArrayList<>();
+        messages.add(message(LARGE_MESSAGE_LENGTH, 1));
+        messages.add(message(LARGE_MESSAGE_LENGTH + 1, 2));
+        messages.add(message(SMALL_MESSAGE_LENGTH, 3));
+        final FakeRecordingPoller recordingPoller = new FakeRecordingPoller(messages);
+        final StreamTimestampZipper.Poller poller = worker.addPoller(recordingPoller);
+
+        // The second large message has to wait for the first to be handed off
+        assertEquals(1, worker.doWork());
+        assertEquals(1, poller.poll(fragmentAssembler, 10));
+        assertEquals(2, worker.doWork());
+        assertEquals(2, poller.poll(fragmentAssembler, 10));
+
+        assertEquals(messages, scannedMessages);
+
+        worker.doWork();
+        assertTrue(poller.isComplete());
+        poller.close();
+        assertTrue(recordingPoller.closed);
+    }
+
+    private UnsafeBuffer message(final int length, final int seed)
+    {
+        // A zeroed message header isn't a FIX message, so isn't tested by the predicate
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[length]);
+        for (int i = ENCODED_LENGTH; i < length; i++)
+        {
+            message.putByte(i, (byte)(i * seed));
+        }
+        return message;
+    }
+
+    static class FakeRecordingPoller implements FixArchiveScanningAgent.ArchivePoller
+    {
+        private final List<UnsafeBuffer> messages;
+        private final List<Header> headers = new ArrayList<>();
+
+        private int index;
+        private boolean closed;
+
+        FakeRecordingPoller(final List<UnsafeBuffer> messages)
+        {
+            this.messages = messages;
+
+            long position = 0;
+            for (final UnsafeBuffer message : messages)
+            {
+                position += message.capacity();
+                final Header header = mock(Header.class);
+                when(header.flags()).thenReturn(UNFRAGMENTED);
+                when(header.position()).thenReturn(position);
+                headers.add(header);
+            }
+        }
+
+        public int controlledPoll(final ControlledFragmentAssembler fragmentAssembler, final IdleStrategy idleStrategy)
+        {
+            int work = 0;
+            while (index < messages.size())
+            {
+                final UnsafeBuffer message = messages.get(index);
+                if (fragmentAssembler.onFragment(message, 0, message.capacity(), headers.get(index)) == ABORT)
+                {
+                    break;
+                }
+
+                index++;
+                work++;
+            }
+            return work;
+        }
+
+        public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public long replayLength()
+        {
+            return 0;
+        }
+
+        public int streamId()
+        {
+            return 1;
+        }
+
+        public void close()
+        {
+            assertFalse(closed);
+            closed = true;
+        }
+
+        public boolean isComplete()
+        {
+            return index == messages.size();
+        }
+    }
+}
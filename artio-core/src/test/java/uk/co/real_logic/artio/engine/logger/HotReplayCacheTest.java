@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import org.agrona.collections.IntArrayList;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.junit.Assert.*;
+
+public class HotReplayCacheTest
+{
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+    private static final int SEQUENCE_INDEX = 0;
+    private static final int SESSION_CAPACITY = 1024;
+    private static final int FRAGMENT_LENGTH = 100;
+
+    private final UnsafeBuffer fragment = new UnsafeBuffer(new byte[FRAGMENT_LENGTH]);
+    private final IntArrayList replayedSequenceNumbers = new IntArrayList();
+    private final ControlledFragmentHandler handler = (buffer, offset, length, header) ->
+    {
+        assertEquals(FRAGMENT_LENGTH, length);
+        replayedSequenceNumbers.addInt(buffer.getInt(offset));
+        return CONTINUE;
+    };
+
+    private HotReplayCache cache = new HotReplayCache(SESSION_CAPACITY, SESSION_CAPACITY);
+
+    @After
+    public void tearDown()
+    {
+        cache.close();
+    }
+
+    @Test
+    public void shouldReplayRangeOfCachedMessages()
+    {
+        sendMessages(SESSION_ID, 1, 5);
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 2, 4);
+
+        assertTrue(replay.poll(handler));
+        assertReplayed(2, 3, 4);
+        assertEquals(3, replay.replayedMessages());
+    }
+
+    @Test
+    public void shouldReuseReleasedReplay()
+    {
+        sendMessages(SESSION_ID, 1, 5);
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 2);
+        assertTrue(replay.poll(handler));
+        replay.release();
+
+        final HotReplayCache.CachedReplay reusedReplay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 4, 5);
+        assertSame(replay, reusedReplay);
+        assertEquals(0, reusedReplay.replayedMessages());
+        assertTrue(reusedReplay.poll(handler));
+        assertReplayed(1, 2, 4, 5);
+        assertEquals(2, reusedReplay.replayedMessages());
+    }
+
+    @Test
+    public void shouldNotReplayRangeThatIsNotFullyCached()
+    {
+        sendMessages(SESSION_ID, 3, 5);
+
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 2, 4));
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 4, 6));
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX + 1, 3, 4));
+        assertNull(cache.replay(OTHER_SESSION_ID, SEQUENCE_INDEX, 3, 4));
+    }
+
+    @Test
+    public void shouldOverwriteOldestMessagesWhenRingIsFull()
+    {
+        sendMessages(SESSION_ID, 1, 30);
+
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 30));
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 25, 30);
+        assertTrue(replay.poll(handler));
+        assertReplayed(25, 26, 27, 28, 29, 30);
+    }
+
+    @Test
+    public void shouldReplayGapFillCoveringSeveralSequenceNumbersOnce()
+    {
+        sendMessages(SESSION_ID, 1, 2);
+        fragment.putInt(0, 3);
+        cache.onMessage(SESSION_ID, SEQUENCE_INDEX, 3, 6, fragment, 0, FRAGMENT_LENGTH);
+        sendMessages(SESSION_ID, 7, 7);
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 4, 7);
+        assertTrue(replay.poll(handler));
+        assertReplayed(3, 7);
+    }
+
+    @Test
+    public void shouldNotReplaySessionWithReusedSequenceNumbers()
+    {
+        sendMessages(SESSION_ID, 1, 5);
+        sendMessages(SESSION_ID, 3, 5);
+
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 3, 5));
+
+        sendMessages(SESSION_ID, SEQUENCE_INDEX + 1, 1, 2);
+        assertNotNull(cache.replay(SESSION_ID, SEQUENCE_INDEX + 1, 1, 2));
+    }
+
+    @Test
+    public void shouldNotReplaySessionWithUncacheableRecord()
+    {
+        sendMessages(SESSION_ID, 1, 5);
+        cache.onUncacheableRecord(SESSION_ID, SEQUENCE_INDEX);
+        sendMessages(SESSION_ID, 6, 8);
+
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 6, 8));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSession()
+    {
+        cache.close();
+        cache = new HotReplayCache(2 * SESSION_CAPACITY, SESSION_CAPACITY);
+
+        sendMessages(SESSION_ID, 1, 2);
+        sendMessages(OTHER_SESSION_ID, 1, 2);
+        assertNotNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 2));
+
+        sendMessages(3L, 1, 2);
+
+        assertNotNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 2));
+        assertNull(cache.replay(OTHER_SESSION_ID, SEQUENCE_INDEX, 1, 2));
+        assertNotNull(cache.replay(3L, SEQUENCE_INDEX, 1, 2));
+    }
+
+    @Test
+    public void shouldResumeReplayAfterAbort()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 3);
+        final boolean[] aborted = { false };
+        final ControlledFragmentHandler abortOnce = (buffer, offset, length, header) ->
+        {
+            if (buffer.getInt(offset) == 2 && !aborted[0])
+            {
+                aborted[0] = true;
+                return ABORT;
+            }
+            return handler.onFragment(buffer, offset, length, header);
+        };
+
+        assertFalse(replay.poll(abortOnce));
+        assertTrue(replay.poll(abortOnce));
+        assertReplayed(1, 2, 3);
+    }
+
+    @Test
+    public void shouldDetectEvictionOfMessagesNotYetReplayed()
+    {
+        sendMessages(SESSION_ID, 1, 8);
+
+        final HotReplayCache.CachedReplay replay = cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 8);
+        final ControlledFragmentHandler abortAfterFirst = (buffer, offset, length, header) ->
+            replayedSequenceNumbers.isEmpty() ? handler.onFragment(buffer, offset, length, header) : ABORT;
+        assertFalse(replay.poll(abortAfterFirst));
+
+        sendMessages(SESSION_ID, 9, 12);
+
+        assertTrue(replay.isEvicted());
+        assertEquals(2, replay.nextSequenceNumber());
+    }
+
+    @Test
+    public void shouldRemoveSessionOnSequenceReset()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        cache.onResetSequenceNumber(SESSION_ID);
+
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 1, 3));
+    }
+
+    private void sendMessages(final long sessionId, final int from, final int to)
+    {
+        sendMessages(sessionId, SEQUENCE_INDEX, from, to);
+    }
+
+    private void sendMessages(final long sessionId, final int sequenceIndex, final int from, final int to)
+    {
+        for (int sequenceNumber = from; sequenceNumber <= to; sequenceNumber++)
+        {
+            fragment.putInt(0, sequenceNumber);
+            cache.onMessage(sessionId, sequenceIndex, sequenceNumber, sequenceNumber, fragment, 0, FRAGMENT_LENGTH);
+        }
+    }
+
+    private void assertReplayed(final int... sequenceNumbers)
+    {
+        assertArrayEquals(sequenceNumbers, replayedSequenceNumbers.toIntArray());
+    }
+}
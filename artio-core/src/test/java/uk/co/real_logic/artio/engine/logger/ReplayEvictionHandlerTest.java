@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.ReplayerCommandQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ReplayEvictionHandlerTest
+{
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+
+    private final ReplayQuery workerReplayQuery = mock(ReplayQuery.class);
+    private final ReplayerCommandQueue commandQueue = new ReplayerCommandQueue(new NoOpIdleStrategy());
+    private final ReplayEvictionHandler evictionHandler = new ReplayEvictionHandler(mock(ErrorHandler.class));
+
+    public ReplayEvictionHandlerTest()
+    {
+        evictionHandler.workerReplayQuery(workerReplayQuery, commandQueue);
+    }
+
+    @Test
+    public void shouldResetWorkerReplayQueryOnItsCommandQueue()
+    {
+        evictionHandler.onReset(SESSION_ID);
+        verifyNoInteractions(workerReplayQuery);
+
+        assertEquals(1, commandQueue.poll());
+        verify(workerReplayQuery).onReset(SESSION_ID);
+    }
+
+    @Test
+    public void shouldRetryResetsWhenCommandQueueIsFull()
+    {
+        int fillerCommands = 0;
+        while (commandQueue.offer(() -> {}))
+        {
+            fillerCommands++;
+        }
+
+        evictionHandler.onReset(SESSION_ID);
+        evictionHandler.onReset(OTHER_SESSION_ID);
+        assertEquals(0, evictionHandler.doWork());
+
+        assertEquals(fillerCommands, commandQueue.poll());
+        assertEquals(1, evictionHandler.doWork());
+        assertEquals(1, commandQueue.poll());
+
+        verify(workerReplayQuery).onReset(SESSION_ID);
+        verify(workerReplayQuery).onReset(OTHER_SESSION_ID);
+    }
+
+    @Test
+    public void shouldBatchResetsWhileWorkerHasNotExecutedPreviousBatch()
+    {
+        evictionHandler.onReset(SESSION_ID);
+        evictionHandler.onReset(OTHER_SESSION_ID);
+        assertEquals(0, evictionHandler.doWork());
+
+        assertEquals(1, commandQueue.poll());
+        verify(workerReplayQuery).onReset(SESSION_ID);
+        verify(workerReplayQuery, never()).onReset(OTHER_SESSION_ID);
+
+        assertEquals(1, evictionHandler.doWork());
+        assertEquals(1, commandQueue.poll());
+        verify(workerReplayQuery).onReset(OTHER_SESSION_ID);
+    }
+}
@@ -110,6 +110,7 @@ public class ReplayIndexTest extends AbstractLogTest
             STREAM_ID,
             DEFAULT_REPLAY_INDEX_RECORD_CAPACITY,
             DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY,
+            DEFAULT_REPLAY_INDEX_SPARSE_INTERVAL,
             newBufferFactory,
             replayPositionBuffer,
             errorHandler,
@@ -118,8 +119,10 @@ public class ReplayIndexTest extends AbstractLogTest
             FixPProtocolType.ILINK_3,
             mock(SequenceNumberIndexReader.class),
             DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
+            DEFAULT_SESSION_ARCHIVE_INDEX_ENABLED,
             DEFAULT_INDEX_CHECKSUM_ENABLED,
-            new ReplayEvictionHandler(errorHandler));
+            new ReplayEvictionHandler(errorHandler),
+            null);
     }
 
     private Aeron aeron()
@@ -49,6 +49,7 @@ import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
 import uk.co.real_logic.artio.messages.FixPProtocolType;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.ReplayCompleteDecoder;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -138,6 +139,10 @@ public class ReplayerTest extends AbstractLogTest
             DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS,
             clock,
             FixPProtocolType.ILINK_3,
+            0,
+            1,
+            null,
+            mock(Timer.class),
             mock(EngineConfiguration.class));
     }
 
@@ -181,6 +186,24 @@ public class ReplayerTest extends AbstractLogTest
         verifyReplayCompleteMessageSent();
     }
 
+    @Test
+    public void shouldPublishMessagesWithFlippedPossDupFlagAndValidChecksum()
+    {
+        onReplay(END_SEQ_NO, inv ->
+        {
+            bufferContainsExampleMessage(true);
+            final int srcLength = fragmentLength();
+            setupCapturingClaim();
+
+            onFragment(srcLength);
+
+            assertHasResentWithPossDupFlag(claimedLength, times(1));
+            assertEndsWithValidChecksum(offset + 1);
+
+            return true;
+        });
+    }
+
     @Test
     public void shouldSupportConcurrentReplayRequests()
     {
@@ -700,8 +723,13 @@ public class ReplayerTest extends AbstractLogTest
     private void assertEndsWithValidChecksum(final int afterOffset)
     {
         final String message = resultAsciiBuffer.getAscii(afterOffset, resultAsciiBuffer.capacity() - afterOffset);
-        final Matcher matcher = Pattern.compile("10=\\d+\001").matcher(message);
+        final Matcher matcher = Pattern.compile("\00110=(\\d{3})\001").matcher(message);
         assertTrue(message, matcher.find());
+
+        final int messageStart = afterOffset + message.indexOf("8=FIX");
+        final int checksumStart = afterOffset + matcher.start() + 1;
+        final int checksum = resultAsciiBuffer.computeChecksum(messageStart, checksumStart);
+        assertEquals(message, checksum, Integer.parseInt(matcher.group(1)));
     }
 
     private void hasNotOverwrittenSeperatorChar()
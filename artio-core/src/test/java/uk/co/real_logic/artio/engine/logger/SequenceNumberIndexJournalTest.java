@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.agrona.IoUtil.deleteIfExists;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexJournal.ENTRY_LENGTH;
+
+public class SequenceNumberIndexJournalTest
+{
+    private static final File JOURNAL_FILE = new File(IoUtil.tmpDirName(), "SequenceNumberIndexJournal");
+    private static final long COMMIT_INTERVAL_IN_NS = 1_000_000;
+    private static final int BATCH_SIZE = 4;
+    private static final long MAX_LENGTH = 8 * ENTRY_LENGTH;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final SequenceNumberIndexJournal.EntryHandler handler = mock(SequenceNumberIndexJournal.EntryHandler.class);
+    private final FakeEpochClock clock = new FakeEpochClock();
+
+    private SequenceNumberIndexJournal journal;
+
+    @Before
+    public void setUp()
+    {
+        deleteIfExists(JOURNAL_FILE);
+        journal = newJournal();
+    }
+
+    @After
+    public void tearDown()
+    {
+        CloseHelper.close(journal);
+        deleteIfExists(JOURNAL_FILE);
+
+        verify(errorHandler, never()).onError(any());
+    }
+
+    @Test
+    public void shouldNotWriteUpdatesUntilCommitIntervalHasPassed()
+    {
+        journal.append(1L, 2, 100L);
+
+        assertEquals(0, journal.commitIfDue());
+        assertEquals(0, journal.length());
+
+        clock.advanceMilliSeconds(1);
+
+        assertEquals(1, journal.commitIfDue());
+        assertEquals(ENTRY_LENGTH, journal.length());
+    }
+
+    @Test
+    public void shouldCommitFullBatchWithoutWaiting()
+    {
+        for (int i = 0; i < BATCH_SIZE; i++)
+        {
+            journal.append(1L, i, i * 100L);
+        }
+
+        assertEquals(BATCH_SIZE * ENTRY_LENGTH, journal.length());
+        assertEquals(0, journal.commitIfDue());
+    }
+
+    @Test
+    public void shouldReplayCommittedUpdatesInOrderAfterRestart()
+    {
+        journal.append(1L, 2, 100L);
+        journal.append(3L, 4, 200L);
+        journal.append(1L, 5, 300L);
+        journal.commit();
+        journal.close();
+
+        journal = newJournal();
+
+        assertEquals(3, journal.replay(handler));
+
+        final InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onEntry(1L, 2, 100L);
+        inOrder.verify(handler).onEntry(3L, 4, 200L);
+        inOrder.verify(handler).onEntry(1L, 5, 300L);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void shouldDiscardTornEntryAtEndOfJournal() throws Exception
+    {
+        journal.append(1L, 2, 100L);
+        journal.append(1L, 3, 200L);
+        journal.commit();
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(JOURNAL_FILE, "rw"))
+        {
+            file.setLength(ENTRY_LENGTH + ENTRY_LENGTH / 2);
+        }
+
+        journal = newJournal();
+
+        assertEquals(1, journal.replay(handler));
+        verify(handler).onEntry(1L, 2, 100L);
+        verifyNoMoreInteractions(handler);
+        assertEquals(ENTRY_LENGTH, journal.length());
+    }
+
+    @Test
+    public void shouldDiscardEntriesWithInvalidChecksum() throws Exception
+    {
+        journal.append(1L, 2, 100L);
+        journal.append(1L, 3, 200L);
+        journal.commit();
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(JOURNAL_FILE, "rw"))
+        {
+            file.seek(ENTRY_LENGTH + SequenceNumberIndexJournal.SEQUENCE_NUMBER_OFFSET);
+            file.writeInt(42);
+        }
+
+        journal = newJournal();
+
+        assertEquals(1, journal.replay(handler));
+        verify(handler).onEntry(1L, 2, 100L);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void shouldNeedCompactionOnceLargerThanMaxLength()
+    {
+        for (int i = 0; i < BATCH_SIZE; i++)
+        {
+            journal.append(1L, i, i * 100L);
+        }
+        assertFalse(journal.needsCompaction());
+
+        for (int i = 0; i < BATCH_SIZE; i++)
+        {
+            journal.append(1L, i, i * 100L);
+        }
+        assertTrue(journal.needsCompaction());
+
+        journal.truncate();
+
+        assertFalse(journal.needsCompaction());
+        assertEquals(0, journal.length());
+        assertEquals(0, JOURNAL_FILE.length());
+    }
+
+    private SequenceNumberIndexJournal newJournal()
+    {
+        return new SequenceNumberIndexJournal(
+            JOURNAL_FILE, errorHandler, clock.nanoClockView(), COMMIT_INTERVAL_IN_NS, BATCH_SIZE, MAX_LENGTH);
+    }
+}
@@ -51,6 +51,7 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
 import static org.agrona.IoUtil.deleteIfExists;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -311,6 +312,91 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldCommitUpdatesToJournalBeforeIndexFileIsFlushed()
+    {
+        writer.close();
+        final SequenceNumberIndexJournal journal = newJournal();
+        writer = newWriter(inMemoryBuffer, journal);
+
+        indexFixMessage();
+
+        assertEquals(0, journal.length());
+        writer.doWork();
+        assertThat(journal.length(), Matchers.greaterThan(0L));
+
+        writer.close();
+        assertEquals(0, journalFile(INDEX_FILE_PATH).length());
+    }
+
+    @Test
+    public void shouldRecoverJournalledUpdatesOnRestart()
+    {
+        writer.close();
+        deleteFiles();
+
+        final SequenceNumberIndexJournal journal = newJournal();
+        journal.append(SESSION_ID, SEQUENCE_NUMBER, 1024L);
+        journal.append(SESSION_ID_2, 3, 2048L);
+        journal.commit();
+        journal.close();
+
+        final AtomicBuffer recoveredBuffer = newBuffer();
+        writer = newWriter(recoveredBuffer, newJournal());
+        final SequenceNumberIndexReader newReader =
+            new SequenceNumberIndexReader(recoveredBuffer, errorHandler, recordingIdLookup, null);
+
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, 3, newReader);
+    }
+
+    @Test
+    public void shouldOnlyFlushIndexFileToCompactJournal()
+    {
+        writer.close();
+        final SequenceNumberIndexJournal journal = newJournal();
+        writer = newWriter(inMemoryBuffer, journal);
+
+        indexFixMessage();
+        writer.doWork();
+        final long journalLength = journal.length();
+        assertThat(journalLength, Matchers.greaterThan(0L));
+
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+
+        assertEquals(0, writer.doWork());
+        assertEquals(journalLength, journal.length());
+    }
+
+    @Test
+    public void shouldBackOffCompactingJournalWhenFileFlipFails()
+    {
+        writer.close();
+        final SequenceNumberIndexJournal journal = newJournal(SequenceNumberIndexJournal.ENTRY_LENGTH);
+        writer = newWriter(inMemoryBuffer, journal);
+
+        final File passingPlace = writer.passingPlace().toFile();
+        assertTrue("Failed to block file flip", passingPlace.mkdir());
+
+        indexFixMessage();
+        writer.doWork();
+        verify(errorHandler, times(1)).onError(any());
+        assertTrue(journal.needsCompaction());
+
+        assertEquals(0, writer.doWork());
+        verify(errorHandler, times(1)).onError(any());
+
+        deleteIfExists(passingPlace);
+        reset(errorHandler);
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+
+        assertEquals(1, writer.doWork());
+        assertEquals(0, journal.length());
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+    }
+
     /**
      * Simulate scenario that you've crashed halfway through file flip.
      */
@@ -461,13 +547,30 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     }
 
     private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer)
+    {
+        return newWriter(inMemoryBuffer, null);
+    }
+
+    private SequenceNumberIndexWriter newWriter(
+        final AtomicBuffer inMemoryBuffer, final SequenceNumberIndexJournal journal)
     {
         final MappedFile indexFile = newIndexFile();
         return new SequenceNumberIndexWriter(new SequenceNumberExtractor(),
             inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
             DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, null,
             new Long2LongHashMap(UNK_SESSION),
-            FixPProtocolType.ILINK_3, DEFAULT_INDEX_CHECKSUM_ENABLED, true);
+            FixPProtocolType.ILINK_3, DEFAULT_INDEX_CHECKSUM_ENABLED, true, journal);
+    }
+
+    private SequenceNumberIndexJournal newJournal()
+    {
+        return newJournal(BUFFER_SIZE);
+    }
+
+    private SequenceNumberIndexJournal newJournal(final long maxLength)
+    {
+        return new SequenceNumberIndexJournal(
+            journalFile(INDEX_FILE_PATH), errorHandler, clock.nanoClockView(), 0, 16, maxLength);
     }
 
     private MappedFile newIndexFile()
@@ -556,5 +659,6 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         deleteIfExists(new File(INDEX_FILE_PATH));
         deleteIfExists(writableFile(INDEX_FILE_PATH));
         deleteIfExists(passingFile(INDEX_FILE_PATH));
+        deleteIfExists(journalFile(INDEX_FILE_PATH));
     }
 }
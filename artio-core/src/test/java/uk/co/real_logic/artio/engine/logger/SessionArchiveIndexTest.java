@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+
+public class SessionArchiveIndexTest
+{
+    private static final long REC_ID = 1;
+    private static final long SESSION_ID = 2;
+    private static final long OTHER_SESSION_ID = 3;
+    private static final int SEQUENCE_INDEX = 0;
+    private static final int MAX_GAP = 100;
+    private static final int MESSAGE_LENGTH = 64;
+    private static final long TIMESTAMP = 1;
+
+    private final ErrorHandler errorHandler = spy(new ErrorHandler()
+    {
+        public void onError(final Throwable throwable)
+        {
+            throwable.printStackTrace();
+        }
+    });
+
+    private final SessionArchiveIndexReader reader =
+        new SessionArchiveIndexReader(DEFAULT_LOG_FILE_DIR, DEFAULT_OUTBOUND_LIBRARY_STREAM);
+    private final IndexQuery query = new IndexQuery();
+
+    private SessionArchiveIndexWriter writer;
+
+    @Before
+    public void setup()
+    {
+        final File logFileDir = new File(DEFAULT_LOG_FILE_DIR);
+        if (logFileDir.exists())
+        {
+            IoUtil.delete(logFileDir, false);
+        }
+        assertTrue(logFileDir.mkdirs());
+
+        newWriter();
+    }
+
+    @After
+    public void teardown()
+    {
+        verifyNoInteractions(errorHandler);
+        Exceptions.closeAll(writer);
+    }
+
+    @Test
+    public void shouldMergeNearbyMessagesOfASessionIntoSpans()
+    {
+        onMessage(SESSION_ID, 0, 1);
+        onMessage(SESSION_ID, 64, 2);
+        onMessage(OTHER_SESSION_ID, 1000, 1);
+        onMessage(SESSION_ID, 2000, 3);
+        writer.close();
+
+        query.sessionId(SESSION_ID);
+
+        assertRanges(0, 128, 2000, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldOnlyIncludeSpansInTheSequenceNumberRange()
+    {
+        onMessage(SESSION_ID, 0, 1);
+        onMessage(SESSION_ID, 64, 2);
+        onMessage(SESSION_ID, 2000, 3);
+        onMessage(OTHER_SESSION_ID, 3000, 1);
+        writer.close();
+
+        query.sessionId(SESSION_ID);
+        query.sequenceNumbers(3, 3);
+
+        assertRanges(2000, 2064, 3064, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldIncludeUnindexedRangeAfterRestartForEverySession()
+    {
+        onMessage(SESSION_ID, 0, 1);
+        writer.close();
+
+        newWriter();
+        onMessage(SESSION_ID, 1000, 2);
+        writer.close();
+
+        query.sessionId(OTHER_SESSION_ID);
+
+        assertRanges(64, 1000, 1064, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldFlushSpansOnDutyCycle()
+    {
+        onMessage(SESSION_ID, 0, 1);
+        writer.onRecord(
+            REC_ID,
+            OTHER_SESSION_ID,
+            1000,
+            1000 + MESSAGE_LENGTH,
+            SEQUENCE_INDEX,
+            1,
+            1,
+            TIMESTAMP + DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS);
+        assertEquals(1, writer.doWork());
+
+        query.sessionId(SESSION_ID);
+
+        assertRanges(0, 64, 1064, Long.MAX_VALUE);
+    }
+
+    private void newWriter()
+    {
+        writer = new SessionArchiveIndexWriter(
+            DEFAULT_LOG_FILE_DIR,
+            DEFAULT_OUTBOUND_LIBRARY_STREAM,
+            DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
+            MAX_GAP,
+            errorHandler);
+    }
+
+    private void onMessage(final long sessionId, final long beginPosition, final int sequenceNumber)
+    {
+        writer.onRecord(
+            REC_ID,
+            sessionId,
+            beginPosition,
+            beginPosition + MESSAGE_LENGTH,
+            SEQUENCE_INDEX,
+            sequenceNumber,
+            sequenceNumber,
+            TIMESTAMP);
+    }
+
+    private void assertRanges(final long... startAndEndPositions)
+    {
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges = new Long2ObjectHashMap<>();
+        assertTrue(reader.findPositionRanges(query, recordingIdToPositionRanges));
+
+        final List<PositionRange> positionRanges = recordingIdToPositionRanges.get(REC_ID);
+        assertEquals(positionRanges.toString(), startAndEndPositions.length / 2, positionRanges.size());
+        for (int i = 0; i < positionRanges.size(); i++)
+        {
+            final PositionRange positionRange = positionRanges.get(i);
+            assertEquals(startAndEndPositions[2 * i], positionRange.startPosition());
+            assertEquals(startAndEndPositions[2 * i + 1], positionRange.endPosition());
+        }
+    }
+}
@@ -106,6 +106,7 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             STREAM_ID,
             INDEX_CAPACITY,
             INDEX_SEGMENT_CAPACITY,
+            DEFAULT_REPLAY_INDEX_SPARSE_INTERVAL,
             newBufferFactory,
             replayPositionBuffer,
             errorHandler,
@@ -114,8 +115,10 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             FixPProtocolType.ILINK_3,
             mock(SequenceNumberIndexReader.class),
             DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
+            DEFAULT_SESSION_ARCHIVE_INDEX_ENABLED,
             DEFAULT_INDEX_CHECKSUM_ENABLED,
-            new ReplayEvictionHandler(errorHandler));
+            new ReplayEvictionHandler(errorHandler),
+            null);
     }
 
     private Aeron aeron()
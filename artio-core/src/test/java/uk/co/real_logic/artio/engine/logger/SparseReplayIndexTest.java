@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.artio.engine.logger.SparseReplayIndex.NO_POSITION;
+
+public class SparseReplayIndexTest
+{
+    private static final int INTERVAL = 4;
+    private static final int RECORD_LENGTH = 32;
+    private static final int SEQUENCE_INDEX = 0;
+
+    private final int capacity = SparseReplayIndex.capacity(64, INTERVAL);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[SparseReplayIndex.fileSize(capacity)]);
+    private SparseReplayIndex index = newIndex();
+
+    private long position;
+
+    @Test
+    public void shouldInitialiseHeader()
+    {
+        assertTrue(SparseReplayIndex.isInitialised(buffer, capacity, INTERVAL));
+        assertFalse(SparseReplayIndex.isInitialised(buffer, capacity, INTERVAL * 2));
+    }
+
+    @Test
+    public void shouldFindLastEntryBeforeSequenceNumber()
+    {
+        record(SEQUENCE_INDEX, 1, 20);
+
+        // Entries at sequence numbers 1, 5, 9, 13 and 17
+        assertEquals(positionOf(1), index.startPosition(SEQUENCE_INDEX, 2));
+        assertEquals(positionOf(1), index.startPosition(SEQUENCE_INDEX, 5));
+        assertEquals(positionOf(5), index.startPosition(SEQUENCE_INDEX, 6));
+        assertEquals(positionOf(9), index.startPosition(SEQUENCE_INDEX, 12));
+        assertEquals(positionOf(17), index.startPosition(SEQUENCE_INDEX, 20));
+        assertEquals(positionOf(17), index.startPosition(SEQUENCE_INDEX + 1, 1));
+    }
+
+    @Test
+    public void shouldNotFindPositionBeforeFirstEntry()
+    {
+        record(SEQUENCE_INDEX, 1, 20);
+
+        assertEquals(NO_POSITION, index.startPosition(SEQUENCE_INDEX, 1));
+        assertEquals(NO_POSITION, index.startPosition(SEQUENCE_INDEX - 1, 100));
+    }
+
+    @Test
+    public void shouldAddEntryForNewSequenceIndex()
+    {
+        record(SEQUENCE_INDEX, 1, 10);
+        final long newSequenceIndexPosition = position;
+        record(SEQUENCE_INDEX + 1, 1, 3);
+
+        assertEquals(newSequenceIndexPosition, index.startPosition(SEQUENCE_INDEX + 1, 2));
+    }
+
+    @Test
+    public void shouldFallBackToScanningWhenSequenceNumbersGoBackwards()
+    {
+        record(SEQUENCE_INDEX, 1, 20);
+        final long resetPosition = position;
+        record(SEQUENCE_INDEX, 10, 30);
+
+        // Records 10 to 20 are in the index twice, so queries that overlap them must scan all of it
+        assertEquals(NO_POSITION, index.startPosition(SEQUENCE_INDEX, 15));
+        assertEquals(NO_POSITION, index.startPosition(SEQUENCE_INDEX, 20));
+        assertEquals(resetPosition + 8 * RECORD_LENGTH, index.startPosition(SEQUENCE_INDEX, 21));
+    }
+
+    @Test
+    public void shouldResumeAfterReopening()
+    {
+        record(SEQUENCE_INDEX, 1, 6);
+
+        index = newIndex();
+        index.onOpen(SEQUENCE_INDEX, 6);
+        record(SEQUENCE_INDEX, 7, 10);
+
+        assertEquals(positionOf(5), index.startPosition(SEQUENCE_INDEX, 9));
+        assertEquals(positionOf(9), index.startPosition(SEQUENCE_INDEX, 10));
+    }
+
+    @Test
+    public void shouldNotFindEntriesThatHaveBeenOverwritten()
+    {
+        final int lastSequenceNumber = capacity * INTERVAL * 2;
+        record(SEQUENCE_INDEX, 1, lastSequenceNumber);
+
+        assertEquals(NO_POSITION, index.startPosition(SEQUENCE_INDEX, 2));
+        assertEquals(positionOf(lastSequenceNumber - 3), index.startPosition(SEQUENCE_INDEX, lastSequenceNumber));
+    }
+
+    private SparseReplayIndex newIndex()
+    {
+        if (!SparseReplayIndex.isInitialised(buffer, capacity, INTERVAL))
+        {
+            SparseReplayIndex.initialise(buffer, capacity, INTERVAL);
+        }
+        return new SparseReplayIndex(buffer);
+    }
+
+    private void record(final int sequenceIndex, final int fromSequenceNumber, final int toSequenceNumber)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            index.onRecord(position, sequenceIndex, sequenceNumber);
+            position += RECORD_LENGTH;
+        }
+    }
+
+    private static long positionOf(final int sequenceNumber)
+    {
+        return (sequenceNumber - 1) * (long)RECORD_LENGTH;
+    }
+}
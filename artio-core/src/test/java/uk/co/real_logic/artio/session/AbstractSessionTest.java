@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.Constants;
 import uk.co.real_logic.artio.builder.*;
 import uk.co.real_logic.artio.decoder.ExampleMessageDecoder;
 import uk.co.real_logic.artio.decoder.SequenceResetDecoder;
@@ -1194,6 +1195,34 @@ public abstract class AbstractSessionTest
         assertEquals(expectedAction, action);
     }
 
+    @Test
+    public void shouldSendMessageTemplateWithNextSequenceNumberAndValidCheckSum()
+    {
+        givenActive();
+        final int msgSeqNum = session().lastSentMsgSeqNum() + 1;
+
+        testRequest.reset();
+        testRequest.testReqID("testReqID1");
+        final MessageTemplate template = session().newMessageTemplate(
+            testRequest, MessageTemplate.charsField(Constants.TEST_REQ_ID, 10));
+        template.putChars(0, "testReqID2");
+
+        assertEquals(POSITION, session().trySend(template));
+        assertEquals(msgSeqNum, session().lastSentMsgSeqNum());
+
+        final String message = getSentMessage();
+        assertThat(message, containsString(String.format("\00134=%010d\001", msgSeqNum)));
+        assertThat(message, containsString("\001112=testReqID2\001"));
+
+        final int checkSumStart = message.lastIndexOf("\00110=") + 1;
+        int checkSum = 0;
+        for (int i = 0; i < checkSumStart; i++)
+        {
+            checkSum += message.charAt(i);
+        }
+        assertEquals(message, String.format("10=%03d\001", checkSum % 256), message.substring(checkSumStart));
+    }
+
     private String sendTestRequest(final long nonSecondDurationInMs)
     {
         testRequest.reset();
@@ -19,8 +19,10 @@ import org.agrona.LangUtil;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import uk.co.real_logic.artio.decoder.AbstractLogonDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.library.OnMessageInfo;
@@ -103,6 +105,22 @@ public class SessionParserTest
         verify(mockSession, never()).onInvalidMessageType(anyInt(), any(), anyInt(), eq(POSITION));
     }
 
+    @Test
+    public void shouldHandDecodedHeaderOfApplicationMessagesToHandler()
+    {
+        final String message =
+            "8=FIX.4.4\0019=146\00135=D\00134=4\00149=abc\001" +
+            "52=20090323-15:40:29\00156=das\001115=XYZ\00111=NF 0542/03232009\00154=1\00138=100\001" +
+            "55=CVS\00140=1\00159=0\00147=A\00160=20090323-15:40:29\00121=1\001207=N\00110=195\001";
+        final UnsafeBuffer buffer = bufferOf(message);
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', POSITION);
+
+        final InOrder inOrder = inOrder(messageInfo);
+        inOrder.verify(messageInfo).decodedHeader(null, OnMessageInfo.UNKNOWN_BODY_OFFSET);
+        inOrder.verify(messageInfo).decodedHeader(any(SessionHeaderDecoder.class), eq(message.indexOf("\00111=") + 1));
+    }
+
     @Test
     public void shouldGetCancelOnDisconnectFromMessage()
     {
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.collections.IntHashSet;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class EngineTimersTest
+{
+    @Test
+    public void shouldOnlyLogEnabledTimers()
+    {
+        final EngineTimers timers = new EngineTimers(
+            new OffsetEpochNanoClock(),
+            mock(AtomicCounter.class),
+            new HashSet<>(Arrays.asList(EngineTimers.FRAME, EngineTimers.REPLAY)),
+            2);
+
+        final List<Timer> all = timers.all();
+        assertFalse(all.contains(timers.frameTimer()));
+        assertFalse(all.contains(timers.replayTimer(0)));
+        assertFalse(all.contains(timers.replayTimer(1)));
+        assertTrue(all.contains(timers.outboundTimer()));
+        assertTrue(all.contains(timers.inboundPublishTimer()));
+        assertEquals(5, all.size());
+    }
+
+    @Test
+    public void shouldGiveEachTimerAUniqueId()
+    {
+        final EngineTimers engineTimers = new EngineTimers(
+            new OffsetEpochNanoClock(), mock(AtomicCounter.class), new HashSet<>(), 3);
+        final LibraryTimers libraryTimers = new LibraryTimers(
+            new OffsetEpochNanoClock(), mock(AtomicCounter.class), new HashSet<>());
+
+        final IntHashSet ids = new IntHashSet();
+        engineTimers.all().forEach(timer -> assertTrue(timer.name(), ids.add(timer.id())));
+        libraryTimers.all().forEach(timer -> assertTrue(timer.name(), ids.add(timer.id())));
+        assertEquals(6 + 3 + 5, ids.size());
+    }
+}
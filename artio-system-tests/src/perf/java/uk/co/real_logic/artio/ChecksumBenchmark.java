@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChecksumBenchmark
+{
+    private static final byte[] FIELDS =
+        "35=D\00134=10\00149=ABC_DEFG01\00156=CCG\00152=20240101-12:34:56.789\00111=ORDER0001\001".getBytes(US_ASCII);
+
+    // Typical message lengths, the odd lengths cover the byte loop at the tail of the word loop
+    @Param({"64", "157", "512", "1501"})
+    int length;
+
+    private MutableAsciiBuffer buffer;
+
+    @Setup
+    public void setup()
+    {
+        buffer = new MutableAsciiBuffer(new byte[length]);
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(i, FIELDS[i % FIELDS.length]);
+        }
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, length);
+    }
+
+    @Benchmark
+    public int computeChecksumByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        int total = 0;
+        for (int index = 0, length = this.length; index < length; index++)
+        {
+            total += buffer.getByte(index) & 0xFF;
+        }
+
+        return total & 0xFF;
+    }
+}
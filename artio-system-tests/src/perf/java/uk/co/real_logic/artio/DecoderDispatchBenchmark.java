@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.IoUtil;
+import org.agrona.generation.CompilerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.builder.Validation;
+import uk.co.real_logic.artio.dictionary.generation.CodecConfiguration;
+import uk.co.real_logic.artio.dictionary.generation.CodecGenerator;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Compares decoders that dispatch on the tag number with decoders that dispatch on a perfect hash of the tag.
+ *
+ * Both sets of decoders are generated and compiled during setup. By default this uses the session dictionary and a
+ * NewOrderSingle, larger dictionaries, eg: FIX 5.0SP2 with custom tags, can be benchmarked with:
+ * <pre>
+ * -p dictionaryFile=/path/to/FIX50SP2.xml -p messageName=ExecutionReport -p message='8=FIXT.1.1|9=...|10=...|'
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DecoderDispatchBenchmark
+{
+    private static final String SESSION_DICTIONARY = "session_dictionary.xml";
+
+    @Param({ "false", "true" })
+    public boolean perfectHashDispatch;
+
+    /**
+     * Path to the dictionary to generate decoders from, empty for the session dictionary.
+     */
+    @Param({ "" })
+    public String dictionaryFile;
+
+    @Param({ "NewOrderSingle" })
+    public String messageName;
+
+    /**
+     * The message to decode using '|' as the field separator, empty for a NewOrderSingle.
+     */
+    @Param({ "" })
+    public String message;
+
+    private File outputDir;
+    private Decoder decoder;
+    private AsciiBuffer buffer;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        if (Validation.CODEC_VALIDATION_ENABLED)
+        {
+            throw new IllegalStateException(
+                "Benchmark cannot run with validation enabled, set -Dfix.codecs.no_validation=true");
+        }
+
+        outputDir = Files.createTempDirectory("artio-dispatch-benchmark").toFile();
+        final String parentPackage = "uk.co.real_logic.artio.benchmark." + (perfectHashDispatch ? "hashed" : "tag");
+        final CodecConfiguration configuration = new CodecConfiguration()
+            .outputPath(outputDir.getAbsolutePath())
+            .parentPackage(parentPackage)
+            .perfectHashDispatch(perfectHashDispatch);
+        if (dictionaryFile.isEmpty())
+        {
+            configuration.fileStreams(DecoderDispatchBenchmark.class.getClassLoader()
+                .getResourceAsStream(SESSION_DICTIONARY));
+        }
+        else
+        {
+            configuration.fileNames(dictionaryFile);
+        }
+        CodecGenerator.generate(configuration);
+
+        compile(outputDir);
+
+        final URLClassLoader classLoader = new URLClassLoader(new URL[]{ outputDir.toURI().toURL() });
+        final Class<?> decoderClass = classLoader.loadClass(parentPackage + ".decoder." + messageName + "Decoder");
+        decoder = (Decoder)decoderClass.getConstructor().newInstance();
+
+        buffer = message.isEmpty() ?
+            new MutableAsciiBuffer(TestData.NEW_ORDER_SINGLE.byteArray()) :
+            new MutableAsciiBuffer(message.replace('|', '\001').getBytes(US_ASCII));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        IoUtil.delete(outputDir, true);
+    }
+
+    @Benchmark
+    public void resetAndDecode(final Blackhole bh)
+    {
+        decoder.reset();
+
+        bh.consume(decoder.decode(buffer, 0, buffer.capacity()));
+    }
+
+    private static void compile(final File outputDir) throws IOException
+    {
+        final List<File> files = new ArrayList<>();
+        findSources(outputDir, files);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (null == compiler)
+        {
+            throw new IllegalStateException("JDK required to run benchmark. JRE is not sufficient.");
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null))
+        {
+            final List<String> options = Arrays.asList(
+                "-classpath", System.getProperty("java.class.path"), "-d", outputDir.getAbsolutePath());
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files));
+
+            if (!CompilerUtil.compile(diagnostics, task))
+            {
+                throw new IllegalStateException("Failed to compile generated decoders: " +
+                    diagnostics.getDiagnostics());
+            }
+        }
+    }
+
+    private static void findSources(final File dir, final List<File> files)
+    {
+        for (final File file : dir.listFiles())
+        {
+            if (file.isDirectory())
+            {
+                findSources(file, files);
+            }
+            else if (file.getName().endsWith(".java"))
+            {
+                files.add(file);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.system_tests;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.ACCEPTOR_LOGS;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.acceptingLibraryConfig;
@@ -103,6 +104,32 @@ public class ArchivePrinterIntegrationTest extends AbstractGatewayToGatewaySyste
         assertThat(outputBytes.toString(), containsString("|112=hi"));
     }
 
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void canScanWithMultipleThreads()
+    {
+        setupAndExchangeMessages();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final Aeron.Context context = configuration.aeronContext();
+        final ByteArrayOutputStream outputBytes = new ByteArrayOutputStream();
+        final FixArchivePrinter fixArchivePrinter = new FixArchivePrinter(new PrintStream(outputBytes), System.err);
+        final String[] args = new String[] {
+            "--scan-threads=2",
+            "--message-types=1",
+            "--aeron-channel=" + configuration.libraryAeronChannel(),
+            "--log-file-dir=" + configuration.logFileDir(),
+            "--aeron-dir-name=" + context.aeronDirectory().getAbsolutePath(),
+            "--query-stream-id=" + configuration.outboundLibraryStream(),
+            "--query-stream-id=" + configuration.inboundLibraryStream()
+        };
+
+        fixArchivePrinter.scan(args);
+
+        final String output = outputBytes.toString();
+        assertThat(output, containsString("\u0001112=hi"));
+        assertThat(output, not(containsString("\u000135=A")));
+    }
+
     private void setupAndExchangeMessages()
     {
         messagesCanBeExchanged();
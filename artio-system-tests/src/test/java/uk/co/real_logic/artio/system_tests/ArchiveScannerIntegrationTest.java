@@ -19,9 +19,11 @@ import org.agrona.CloseHelper;
 import org.agrona.collections.IntHashSet;
 import org.junit.Before;
 import org.junit.Test;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.engine.logger.FixMessageConsumer;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicate;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates;
@@ -36,6 +38,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_SCANNER_STREAM;
 import static uk.co.real_logic.artio.engine.logger.FixMessageConsumerValidator.validateFixMessageConsumer;
 import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
@@ -115,6 +118,39 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         assertArchiveContainsBothMessages("hi");
     }
 
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void canScanOfflineArchiveWhenGatewayStopped()
+    {
+        acquireAcceptingSession();
+
+        final String testReqID = largeTestReqId();
+        sendTestRequest(testSystem, acceptingSession, testReqID);
+        assertReceivedSingleHeartbeat(testSystem, acceptingOtfAcceptor, testReqID);
+
+        closeLibrariesAndEngines();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final List<String> messages = new ArrayList<>();
+        final FixArchiveScanner.Configuration scannerConfiguration = new FixArchiveScanner.Configuration()
+            .offlineArchiveDirectoryName(mediaDriver.archive().context().archiveDir().getAbsolutePath())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(scannerConfiguration))
+        {
+            scanner.scan(
+                configuration.libraryAeronChannel(),
+                configuration.outboundLibraryStream(),
+                (message, buffer, offset, length, header) ->
+                messages.add(validateFixMessageConsumer(message, buffer, offset, length)),
+                false,
+                DEFAULT_ARCHIVE_SCANNER_STREAM);
+        }
+
+        assertThat(messages.toString(), messages, hasItems(
+            containsString("35=A\00149=acceptor\00156=initiator\00134=1"),
+            containsString("\001112=" + testReqID)));
+    }
+
     @Test(timeout = TEST_TIMEOUT_IN_MS)
     public void canIndexScanArchiveClosed()
     {
@@ -196,5 +196,12 @@ public class DebugTcpChannelSupplier extends DefaultTcpChannelSupplier
 
             return super.write(src, seqNum, replay);
         }
+
+        public long write(final ByteBuffer[] srcs, final int[] seqNums, final int offset, final int length)
+            throws IOException
+        {
+            // Write each buffer individually so that faked back-pressure also applies to gathering writes
+            return writeSequentially(srcs, seqNums, offset, length);
+        }
     }
 }
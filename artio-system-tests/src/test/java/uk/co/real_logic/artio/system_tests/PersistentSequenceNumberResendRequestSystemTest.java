@@ -19,9 +19,13 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import uk.co.real_logic.artio.Reply;
 import uk.co.real_logic.artio.TestFixtures;
 import uk.co.real_logic.artio.decoder.NewOrderSingleDecoder;
+import uk.co.real_logic.artio.engine.DefaultEngineScheduler;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.library.LibraryConfiguration;
@@ -29,6 +33,9 @@ import uk.co.real_logic.artio.library.OnMessageInfo;
 import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
@@ -40,10 +47,28 @@ import static uk.co.real_logic.artio.library.SessionConfiguration.AUTOMATIC_INIT
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
 import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.alwaysPersistent;
 
+@RunWith(Parameterized.class)
 public class PersistentSequenceNumberResendRequestSystemTest extends AbstractGatewayToGatewaySystemTest
 {
     private static final boolean PRINT_ERROR_MESSAGES = true;
 
+    @Parameters(name = "separateInboundIndexingThread={0}")
+    public static Collection<Object[]> data()
+    {
+        return Arrays.asList(new Object[][]
+        {
+            {false},
+            {true},
+        });
+    }
+
+    private final boolean separateInboundIndexingThread;
+
+    public PersistentSequenceNumberResendRequestSystemTest(final boolean separateInboundIndexingThread)
+    {
+        this.separateInboundIndexingThread = separateInboundIndexingThread;
+    }
+
     {
         acceptingHandler = new FakeHandler(acceptingOtfAcceptor)
         {
@@ -199,10 +224,12 @@ public class PersistentSequenceNumberResendRequestSystemTest extends AbstractGat
         final EngineConfiguration acceptingConfig = acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, nanoClock);
         acceptingConfig.sessionPersistenceStrategy(alwaysPersistent());
         acceptingConfig.printStartupWarnings(PRINT_ERROR_MESSAGES);
+        configureIndexingThreads(acceptingConfig);
         acceptingEngine = FixEngine.launch(acceptingConfig);
 
         final EngineConfiguration initiatingConfig = initiatingConfig(libraryAeronPort, nanoClock);
         initiatingConfig.printStartupWarnings(PRINT_ERROR_MESSAGES);
+        configureIndexingThreads(initiatingConfig);
         initiatingEngine = FixEngine.launch(initiatingConfig);
 
         final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler, nanoClock);
@@ -214,6 +241,17 @@ public class PersistentSequenceNumberResendRequestSystemTest extends AbstractGat
         initiatingLibrary = testSystem.connect(initiatingLibraryConfig);
     }
 
+    private void configureIndexingThreads(final EngineConfiguration configuration)
+    {
+        if (separateInboundIndexingThread)
+        {
+            // Only the DefaultEngineScheduler runs the inbound indexer on its own thread
+            configuration
+                .separateInboundIndexingThread(true)
+                .scheduler(new DefaultEngineScheduler());
+        }
+    }
+
     private void connectSessions(
         final int initiatorInitialSentSequenceNumber,
         final int initiatorInitialReceivedSequenceNumber)